@@ -0,0 +1,198 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.attitudes;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.Transform;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinatesProvider;
+import org.orekit.utils.ParallelChunks;
+
+/** Geolocation of the pixels of a line sensor on a {@link OneAxisEllipsoid one-axis ellipsoid}.
+ * <p>
+ * The sensor is defined by the lines of sight of its pixels in spacecraft frame
+ * (for example a push-broom sensor with several thousands pixels). Each sensor line
+ * is geolocated by computing the transform from spacecraft frame to body frame once,
+ * and then intersecting all the lines of sight with the ellipsoid using {@link
+ * OneAxisEllipsoid#getIntersectionPoints(Transform, double[], double[], double[], int, int)
+ * bulk intersections}, filling primitive latitude and longitude arrays. Pixels whose line
+ * of sight does not intersect the ellipsoid get {@code Double.NaN} coordinates.
+ * </p>
+ * <p>
+ * If an executor is provided, pixels are split in chunks that are geolocated
+ * concurrently by the calling thread and by helper tasks submitted to the executor,
+ * which is not shut down by this class. When a whole image is geolocated, the
+ * spacecraft positions and attitudes are all computed in the calling thread,
+ * so the providers do not need to be thread-safe.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class LineOfSightGeolocator {
+
+    /** Number of pixels in the chunks used for concurrent geolocation. */
+    private static final int CHUNK_SIZE = 2048;
+
+    /** Ellipsoid on which pixels are geolocated. */
+    private final OneAxisEllipsoid ellipsoid;
+
+    /** Lines of sight of the pixels in spacecraft frame. */
+    private final double[] los;
+
+    /** Number of pixels. */
+    private final int nbPixels;
+
+    /** Executor for concurrent geolocation (may be null). */
+    private final ExecutorService executor;
+
+    /** Simple constructor.
+     * @param ellipsoid ellipsoid on which pixels are geolocated
+     * @param los lines of sight of the pixels in spacecraft frame, stored as
+     * x₀, y₀, z₀, x₁, y₁, z₁... (directions do not need to be normalized)
+     * @param executor executor to use for concurrent geolocation
+     * (if null, pixels are geolocated sequentially in the calling thread)
+     */
+    public LineOfSightGeolocator(final OneAxisEllipsoid ellipsoid, final double[] los,
+                                 final ExecutorService executor) {
+        if (los.length % 3 != 0) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 los.length, 3 * (los.length / 3));
+        }
+        this.ellipsoid = ellipsoid;
+        this.los       = los.clone();
+        this.nbPixels  = los.length / 3;
+        this.executor  = executor;
+    }
+
+    /** Get the number of pixels.
+     * @return number of pixels
+     */
+    public int getNbPixels() {
+        return nbPixels;
+    }
+
+    /** Geolocate one sensor line.
+     * @param attitude spacecraft attitude
+     * @param position spacecraft position in attitude reference frame, at attitude date
+     * @param latitudes placeholder for pixels geodetic latitudes (at least {@link
+     * #getNbPixels()} elements)
+     * @param longitudes placeholder for pixels longitudes (at least {@link
+     * #getNbPixels()} elements)
+     * @exception OrekitException if transform to body frame cannot be computed
+     */
+    public void geolocate(final Attitude attitude, final Vector3D position,
+                          final double[] latitudes, final double[] longitudes)
+        throws OrekitException {
+        geolocate(new Transform[] {
+                      sensorToBody(attitude, position)
+                  },
+                  new double[][] {
+                      latitudes
+                  },
+                  new double[][] {
+                      longitudes
+                  });
+    }
+
+    /** Geolocate a whole image.
+     * @param pvProvider provider for spacecraft position
+     * @param attitudeProvider provider for spacecraft attitude
+     * @param frame inertial frame in which attitude and position are computed
+     * @param dates dates of the sensor lines
+     * @param latitudes placeholder for pixels geodetic latitudes, one row for
+     * each sensor line (each row must have at least {@link #getNbPixels()} elements)
+     * @param longitudes placeholder for pixels longitudes, one row for
+     * each sensor line (each row must have at least {@link #getNbPixels()} elements)
+     * @exception OrekitException if position, attitude or transform to body
+     * frame cannot be computed
+     */
+    public void geolocate(final PVCoordinatesProvider pvProvider, final AttitudeProvider attitudeProvider,
+                          final Frame frame, final AbsoluteDate[] dates,
+                          final double[][] latitudes, final double[][] longitudes)
+        throws OrekitException {
+
+        if (latitudes.length != dates.length || longitudes.length != dates.length) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 FastMath.min(latitudes.length, longitudes.length),
+                                                                 dates.length);
+        }
+
+        // providers are only called from the current thread
+        final Transform[] transforms = new Transform[dates.length];
+        for (int i = 0; i < dates.length; ++i) {
+            final Attitude attitude = attitudeProvider.getAttitude(pvProvider, dates[i], frame);
+            final Vector3D position = pvProvider.getPVCoordinates(dates[i], frame).getPosition();
+            transforms[i] = sensorToBody(attitude, position);
+        }
+
+        geolocate(transforms, latitudes, longitudes);
+
+    }
+
+    /** Compute the transform from spacecraft frame to body frame.
+     * @param attitude spacecraft attitude
+     * @param position spacecraft position in attitude reference frame, at attitude date
+     * @return transform from spacecraft frame to body frame
+     * @exception OrekitException if transform to body frame cannot be computed
+     */
+    private Transform sensorToBody(final Attitude attitude, final Vector3D position)
+        throws OrekitException {
+        final AbsoluteDate date = attitude.getDate();
+        final Transform referenceToSpacecraft =
+                new Transform(date,
+                              new Transform(date, position.negate()),
+                              new Transform(date, attitude.getRotation()));
+        return new Transform(date,
+                             referenceToSpacecraft.getInverse(),
+                             attitude.getReferenceFrame().getTransformTo(ellipsoid.getBodyFrame(), date));
+    }
+
+    /** Geolocate sensor lines.
+     * @param transforms transforms from spacecraft frame to body frame, one for each sensor line
+     * @param latitudes placeholder for pixels geodetic latitudes, one row for each sensor line
+     * @param longitudes placeholder for pixels longitudes, one row for each sensor line
+     * @exception OrekitException if some chunk cannot be geolocated
+     */
+    private void geolocate(final Transform[] transforms,
+                           final double[][] latitudes, final double[][] longitudes)
+        throws OrekitException {
+
+        final int chunksPerLine = FastMath.max(1, (nbPixels + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        final int nbChunks      = transforms.length * chunksPerLine;
+
+        // chunks are shared between the current thread and the helpers submitted to the executor
+        ParallelChunks.process(executor, nbChunks, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) {
+                final int line  = k / chunksPerLine;
+                final int start = (k % chunksPerLine) * CHUNK_SIZE;
+                ellipsoid.getIntersectionPoints(transforms[line], los,
+                                                latitudes[line], longitudes[line],
+                                                start, FastMath.min(nbPixels, start + CHUNK_SIZE));
+            }
+        });
+
+    }
+
+}
@@ -17,7 +17,9 @@
 package org.orekit.bodies;
 
 import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.geometry.euclidean.oned.Vector1D;
 import org.apache.commons.math3.geometry.euclidean.threed.Line;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
@@ -28,6 +30,7 @@ import org.orekit.errors.OrekitException;
 import org.orekit.frames.Frame;
 import org.orekit.frames.Transform;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.ParallelChunks;
 import org.orekit.utils.TimeStampedPVCoordinates;
 
 
@@ -45,6 +48,9 @@ public class OneAxisEllipsoid extends Ellipsoid implements BodyShape {
     /** Serializable UID. */
     private static final long serialVersionUID = 20130518L;
 
+    /** Number of points in the chunks used for concurrent bulk conversions. */
+    private static final int CHUNK_SIZE = 4096;
+
     /** Body frame related to body shape. */
     private final Frame bodyFrame;
 
@@ -261,7 +267,16 @@ public class OneAxisEllipsoid extends Ellipsoid implements BodyShape {
         throws OrekitException {
 
         // transform point to body frame
-        final Vector3D pointInBodyFrame = frame.getTransformTo(bodyFrame, date).transformPosition(point);
+        return toGeodetic(frame.getTransformTo(bodyFrame, date).transformPosition(point));
+
+    }
+
+    /** Transform a body frame point to geodetic coordinates.
+     * @param pointInBodyFrame point in body frame
+     * @return geodetic coordinates of the point
+     */
+    private GeodeticPoint toGeodetic(final Vector3D pointInBodyFrame) {
+
         final double   r2               = pointInBodyFrame.getX() * pointInBodyFrame.getX() +
                                           pointInBodyFrame.getY() * pointInBodyFrame.getY();
         final double   r                = FastMath.sqrt(r2);
@@ -287,6 +302,216 @@ public class OneAxisEllipsoid extends Ellipsoid implements BodyShape {
 
     }
 
+    /** Transform a set of Cartesian points to geodetic coordinates.
+     * <p>
+     * This method is an equivalent of {@link #transform(Vector3D, Frame, AbsoluteDate)}
+     * for large sets of points sharing the same frame and date. The transform to body
+     * frame is computed only once and the geodetic coordinates are computed in closed
+     * form using Vermeille's algorithm (Journal of Geodesy, 2002), without creating
+     * any intermediate object. The {@link #setAngularThreshold(double) angular threshold}
+     * is not used. Points too close to the body center for the closed form to apply
+     * (i.e. within about a<sub>e</sub>e² of the center) are handled by the same
+     * projection as the single point method.
+     * </p>
+     * <p>
+     * If an executor is provided, the points are split in chunks that are processed
+     * concurrently by the calling thread and by helper tasks submitted to the executor.
+     * The executor is not shut down by this method.
+     * </p>
+     * @param xyz Cartesian coordinates of the points, stored as x₀, y₀, z₀, x₁, y₁, z₁...
+     * (at least 3n elements)
+     * @param frame frame in which Cartesian coordinates are defined
+     * @param date date of the points in given frame
+     * @param latitudes placeholder for geodetic latitudes (at least n elements)
+     * @param longitudes placeholder for longitudes (at least n elements)
+     * @param altitudes placeholder for altitudes (at least n elements)
+     * @param n number of points
+     * @param executor executor to use for concurrent conversions
+     * (if null, the points are converted sequentially in the calling thread)
+     * @exception OrekitException if frame transform cannot be computed at specified date
+     * @since 7.1
+     */
+    public void transform(final double[] xyz, final Frame frame, final AbsoluteDate date,
+                          final double[] latitudes, final double[] longitudes, final double[] altitudes,
+                          final int n, final ExecutorService executor)
+        throws OrekitException {
+
+        final Transform frameToBody = frame.getTransformTo(bodyFrame, date);
+        // chunks are shared between the current thread and the helpers submitted to the executor
+        final int nbChunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ParallelChunks.process(executor, nbChunks, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) {
+                transform(frameToBody, xyz, latitudes, longitudes, altitudes,
+                          k * CHUNK_SIZE, FastMath.min(n, (k + 1) * CHUNK_SIZE));
+            }
+        });
+
+    }
+
+    /** Transform a range of Cartesian points to geodetic coordinates.
+     * <p>
+     * This method is the sequential kernel of {@link #transform(double[], Frame,
+     * AbsoluteDate, double[], double[], double[], int, ExecutorService)}. As it only
+     * writes the elements of the output arrays within the specified range, it can be
+     * called concurrently by several threads on disjoint ranges.
+     * </p>
+     * @param frameToBody transform from the frame of the points to {@link #getBodyFrame() body frame}
+     * @param xyz Cartesian coordinates of the points, stored as x₀, y₀, z₀, x₁, y₁, z₁...
+     * (at least 3 end elements)
+     * @param latitudes placeholder for geodetic latitudes (at least end elements)
+     * @param longitudes placeholder for longitudes (at least end elements)
+     * @param altitudes placeholder for altitudes (at least end elements)
+     * @param start index of the first point to transform (included)
+     * @param end index of the last point to transform (excluded)
+     * @since 7.1
+     */
+    public void transform(final Transform frameToBody, final double[] xyz,
+                          final double[] latitudes, final double[] longitudes, final double[] altitudes,
+                          final int start, final int end) {
+
+        if (xyz.length < 3 * end) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 xyz.length, 3 * end);
+        }
+        final int minLength = FastMath.min(latitudes.length, FastMath.min(longitudes.length, altitudes.length));
+        if (minLength < end) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 minLength, end);
+        }
+
+        final double[][] m  = frameToBody.getRotation().getMatrix();
+        final Vector3D   t  = frameToBody.getTranslation();
+        final double     tx = t.getX();
+        final double     ty = t.getY();
+        final double     tz = t.getZ();
+        final double     e4 = e2 * e2;
+
+        for (int i = start; i < end; ++i) {
+
+            // point in body frame
+            final double xf = xyz[3 * i]     + tx;
+            final double yf = xyz[3 * i + 1] + ty;
+            final double zf = xyz[3 * i + 2] + tz;
+            final double x  = m[0][0] * xf + m[0][1] * yf + m[0][2] * zf;
+            final double y  = m[1][0] * xf + m[1][1] * yf + m[1][2] * zf;
+            final double z  = m[2][0] * xf + m[2][1] * yf + m[2][2] * zf;
+
+            // Vermeille's closed form
+            final double rho2 = x * x + y * y;
+            final double p    = rho2 / ae2;
+            final double q    = g2 * z * z / ae2;
+            final double r    = (p + q - e4) / 6;
+            if (r > 0) {
+                final double s  = e4 * p * q / (4 * r * r * r);
+                final double tt = FastMath.cbrt(1 + s + FastMath.sqrt(s * (2 + s)));
+                final double u  = r * (1 + tt + 1 / tt);
+                final double v  = FastMath.sqrt(u * u + e4 * q);
+                final double w  = e2 * (u + v - q) / (2 * v);
+                final double k  = FastMath.sqrt(u + v + w * w) - w;
+                final double d  = k * FastMath.sqrt(rho2) / (k + e2);
+                final double dz = FastMath.hypot(d, z);
+                latitudes[i]  = 2 * FastMath.atan2(z, d + dz);
+                longitudes[i] = FastMath.atan2(y, x);
+                altitudes[i]  = (k + e2 - 1) * dz / k;
+            } else {
+                // the point is too close to the body center for the closed form
+                final GeodeticPoint gp = toGeodetic(new Vector3D(x, y, z));
+                latitudes[i]  = gp.getLatitude();
+                longitudes[i] = gp.getLongitude();
+                altitudes[i]  = gp.getAltitude();
+            }
+
+        }
+
+    }
+
+    /** Compute the intersections of a set of lines of sight with the ellipsoid surface.
+     * <p>
+     * This method is an equivalent of {@link #getIntersectionPoint(Line, Vector3D,
+     * Frame, AbsoluteDate)} for large sets of lines of sight sharing the same origin,
+     * for example the pixels of a push-broom sensor. No intermediate object is created.
+     * The selected intersection is the first one encountered when moving forward along
+     * the line of sight from the sensor. Only latitudes and longitudes are computed as
+     * the intersection points are on the ellipsoid surface. If a line of sight does not
+     * intersect the ellipsoid in front of the sensor, both latitude and longitude are
+     * set to {@code Double.NaN}.
+     * </p>
+     * <p>
+     * As this method only writes the elements of the output arrays within the specified
+     * range, it can be called concurrently by several threads on disjoint ranges.
+     * </p>
+     * @param sensorToBody transform from sensor frame to {@link #getBodyFrame() body frame}
+     * (the sensor is at the origin of its frame)
+     * @param los lines of sight directions in sensor frame, stored as x₀, y₀, z₀, x₁, y₁, z₁...
+     * (at least 3 end elements, directions do not need to be normalized)
+     * @param latitudes placeholder for geodetic latitudes (at least end elements)
+     * @param longitudes placeholder for longitudes (at least end elements)
+     * @param start index of the first line of sight to intersect (included)
+     * @param end index of the last line of sight to intersect (excluded)
+     * @since 7.1
+     */
+    public void getIntersectionPoints(final Transform sensorToBody, final double[] los,
+                                      final double[] latitudes, final double[] longitudes,
+                                      final int start, final int end) {
+
+        if (los.length < 3 * end) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 los.length, 3 * end);
+        }
+        final int minLength = FastMath.min(latitudes.length, longitudes.length);
+        if (minLength < end) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 minLength, end);
+        }
+
+        // sensor position in body frame
+        final Vector3D sensor = sensorToBody.transformPosition(Vector3D.ZERO);
+        final double   x      = sensor.getX();
+        final double   y      = sensor.getY();
+        final double   z      = sensor.getZ();
+        final double   c      = g2 * (x * x + y * y - ae2) + z * z;
+
+        final double[][] m = sensorToBody.getRotation().getMatrix();
+        for (int i = start; i < end; ++i) {
+
+            // line of sight in body frame
+            final double lx = los[3 * i];
+            final double ly = los[3 * i + 1];
+            final double lz = los[3 * i + 2];
+            final double dx = m[0][0] * lx + m[0][1] * ly + m[0][2] * lz;
+            final double dy = m[1][0] * lx + m[1][1] * ly + m[1][2] * lz;
+            final double dz = m[2][0] * lx + m[2][1] * ly + m[2][2] * lz;
+
+            // abscissa of the intersection as a root of a 2nd degree polynomial :
+            // a k^2 - 2 b k + c = 0
+            final double a  = g2 * (dx * dx + dy * dy) + dz * dz;
+            final double b  = -(g2 * (x * dx + y * dy) + z * dz);
+            final double b2 = b * b;
+            final double ac = a * c;
+            double k = Double.NaN;
+            if (b2 >= ac) {
+                final double q  = b + FastMath.copySign(FastMath.sqrt(b2 - ac), b);
+                final double k1 = FastMath.min(q / a, c / q);
+                final double k2 = FastMath.max(q / a, c / q);
+                if (k1 >= 0) {
+                    k = k1;
+                } else if (k2 >= 0) {
+                    // the sensor is inside the ellipsoid
+                    k = k2;
+                }
+            }
+
+            final double ix = x + k * dx;
+            final double iy = y + k * dy;
+            final double iz = z + k * dz;
+            latitudes[i]  = FastMath.atan2(iz, g2 * FastMath.sqrt(ix * ix + iy * iy));
+            longitudes[i] = FastMath.atan2(iy, ix);
+
+        }
+
+    }
+
     /** Replace the instance with a data transfer object for serialization.
      * <p>
      * This intermediate class serializes the files supported names, the
@@ -170,7 +170,10 @@ public enum OrekitMessages implements Localizable {
     UNABLE_TO_GENERATE_NEW_DATA_AFTER("unable to generate new data after {0}"),
     UNABLE_TO_COMPUTE_HYPERBOLIC_ECCENTRIC_ANOMALY("unable to compute hyperbolic eccentric anomaly from the mean anomaly after {0} iterations"),
     UNABLE_TO_COMPUTE_DSST_MEAN_PARAMETERS("unable to compute mean orbit from osculating orbit after {0} iterations"),
-    OUT_OF_RANGE_DERIVATION_ORDER("derivation order {0} is out of range");
+    OUT_OF_RANGE_DERIVATION_ORDER("derivation order {0} is out of range"),
+    UNABLE_TO_COMPUTE_TLE("unable to compute TLE after {0} iterations"),
+    UNSUPPORTED_COVARIANCE_DIMENSION("unsupported {0}x{1} covariance matrix, expected 6x6 or 7x7"),
+    SINGULAR_TLE_FITTING_PROBLEM("singular or ill-conditioned TLE fitting problem, the sample does not constrain all fitted parameters");
 
     // CHECKSTYLE: resume JavadocVariable check
 
@@ -0,0 +1,85 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.time.AbsoluteDate;
+
+/** Interface for force models able to compute analytically their acceleration Jacobians.
+ * <p>
+ * {@link ForceModel#accelerationDerivatives(AbsoluteDate, Frame,
+ * org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D,
+ * org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D,
+ * org.apache.commons.math3.geometry.euclidean.threed.FieldRotation,
+ * org.apache.commons.math3.analysis.differentiation.DerivativeStructure)
+ * Computing acceleration derivatives} using {@link
+ * org.apache.commons.math3.analysis.differentiation.DerivativeStructure
+ * DerivativeStructure} instances is generic but costly, as every intermediate
+ * operation allocates and combines arrays of partial derivatives. Force models
+ * for which the first order Jacobians of the acceleration have a simple closed
+ * form can implement this interface to provide them directly, as flat arrays.
+ * {@link org.orekit.propagation.numerical.PartialDerivativesEquations} uses
+ * this interface when available, and falls back to the {@code DerivativeStructure}
+ * based method otherwise.
+ * </p>
+ * <p>
+ * The Jacobians are stored in row-major order, i.e. element at row {@code i}
+ * and column {@code j} of the 3x3 matrix ∂γ/∂p is stored in {@code dAccdPos[3 * i + j]}.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public interface AccelerationJacobiansProvider {
+
+    /** Add the acceleration Jacobians contribution of the force model.
+     * <p>
+     * The contributions must be <em>added</em> to the existing content of
+     * the arrays, as several force models contribute to the same Jacobians.
+     * </p>
+     * <p>
+     * If the force model cannot compute its Jacobians analytically in its
+     * current configuration (for example when it depends on a spacecraft
+     * model whose derivatives have no simple closed form), it must leave the
+     * arrays untouched and return false, so the caller can fall back to the
+     * {@code DerivativeStructure} based computation.
+     * </p>
+     * @param date current date
+     * @param frame inertial reference frame for state (both orbit and attitude)
+     * @param position position of spacecraft in reference frame
+     * @param velocity velocity of spacecraft in reference frame
+     * @param rotation orientation (attitude) of the spacecraft with respect to reference frame
+     * @param mass spacecraft mass
+     * @param dAccdPos Jacobian of acceleration with respect to position
+     * (9 elements, row-major), contribution will be added to it
+     * @param dAccdVel Jacobian of acceleration with respect to velocity
+     * (9 elements, row-major), contribution will be added to it
+     * @param dAccdM derivative of acceleration with respect to mass (3 elements),
+     * contribution will be added to it, may be null if mass derivatives are not needed
+     * @return true if the contribution has been added, false if the analytical
+     * computation is not available and the arrays have been left untouched
+     * @exception OrekitException if derivatives cannot be computed
+     */
+    boolean addAccelerationJacobians(AbsoluteDate date, Frame frame,
+                                     Vector3D position, Vector3D velocity,
+                                     Rotation rotation, double mass,
+                                     double[] dAccdPos, double[] dAccdVel, double[] dAccdM)
+        throws OrekitException;
+
+}
@@ -19,10 +19,13 @@ package org.orekit.forces.drag;
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.AbstractParameterizable;
 import org.orekit.errors.OrekitException;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
+import org.orekit.forces.SphericalSpacecraft;
 import org.orekit.frames.Frame;
 import org.orekit.frames.Transform;
 import org.orekit.propagation.SpacecraftState;
@@ -47,7 +50,7 @@ import org.orekit.utils.FieldPVCoordinates;
  * @author Pascal Parraud
  */
 
-public class DragForce extends AbstractParameterizable implements ForceModel {
+public class DragForce extends AbstractParameterizable implements ForceModel, AccelerationJacobiansProvider {
 
     /** Atmospheric model. */
     private final Atmosphere atmosphere;
@@ -147,6 +150,79 @@ public class DragForce extends AbstractParameterizable implements ForceModel {
 
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * Analytical Jacobians are available only for {@link SphericalSpacecraft spherical spacecraft},
+     * this method returns false for other spacecraft models. As in the {@code DerivativeStructure}
+     * based computation, the atmosphere density is considered constant at first order and the
+     * atmosphere velocity in inertial frame depends on position only through the frame rotation.
+     * </p>
+     * @since 7.1
+     */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM)
+        throws OrekitException {
+
+        if (!(spacecraft instanceof SphericalSpacecraft)) {
+            return false;
+        }
+
+        final double   rho  = atmosphere.getDensity(date, position, frame);
+        final Vector3D vAtm = atmosphere.getVelocity(date, position, frame);
+        final Vector3D vRel = vAtm.subtract(velocity);
+
+        // for spherical spacecraft, γ = k |vRel| vRel, so the acceleration
+        // for a unit relative velocity directly provides the factor k
+        final double k = spacecraft.dragAcceleration(date, frame, position, rotation, mass,
+                                                     rho, Vector3D.PLUS_I).getX();
+
+        // ∂γ/∂vRel = k (|vRel| I + vRel vRelᵀ / |vRel|)
+        final double[] u     = vRel.toArray();
+        final double   uNorm = vRel.getNorm();
+        final double[] dAdU  = new double[9];
+        if (uNorm > 0) {
+            final double kOu = k / uNorm;
+            for (int i = 0; i < 3; ++i) {
+                for (int j = 0; j < 3; ++j) {
+                    dAdU[3 * i + j] = kOu * u[i] * u[j];
+                }
+                dAdU[4 * i] += k * uNorm;
+            }
+        }
+
+        // atmosphere velocity in inertial frame is vAtm = ... - ω × r,
+        // hence ∂vRel/∂r = -[ω×] and ∂vRel/∂v = -I
+        final Vector3D omega = atmosphere.getFrame().getTransformTo(frame, date).getRotationRate();
+        final double ox = omega.getX();
+        final double oy = omega.getY();
+        final double oz = omega.getZ();
+        for (int i = 0; i < 3; ++i) {
+            final double a0 = dAdU[3 * i];
+            final double a1 = dAdU[3 * i + 1];
+            final double a2 = dAdU[3 * i + 2];
+            dAccdPos[3 * i]     += a2 * oy - a1 * oz;
+            dAccdPos[3 * i + 1] += a0 * oz - a2 * ox;
+            dAccdPos[3 * i + 2] += a1 * ox - a0 * oy;
+            dAccdVel[3 * i]     -= a0;
+            dAccdVel[3 * i + 1] -= a1;
+            dAccdVel[3 * i + 2] -= a2;
+        }
+
+        if (dAccdM != null) {
+            // γ is inversely proportional to mass
+            final double kM = -k * uNorm / mass;
+            dAccdM[0] += kM * u[0];
+            dAccdM[1] += kM * u[1];
+            dAccdM[2] += kM * u[2];
+        }
+
+        return true;
+
+    }
+
     /** {@inheritDoc} */
     public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
         throws OrekitException {
@@ -66,6 +66,14 @@ import org.orekit.utils.PVCoordinatesProvider;
  * href="http://sol.spacenvironment.net/~JB2006/JB2006_index.html">
  * official JB2006 website.</a>
  *</p>
+ * <p>
+ * Since 7.1, instances of this class do not hold any per-call mutable state, so
+ * a single instance can be shared by several threads provided the {@link
+ * JB2006InputParameters solar activity data} and {@link BodyShape body shape}
+ * it uses are themselves thread-safe. The full model output is available through
+ * the {@link #compute(double, double, double, double, double, double, double, double,
+ * double, double, double, double, double) compute} method.
+ * </p>
  *
  * @author Bruce R Bowman (HQ AFSPC, Space Analysis Division), Feb 2006: FORTRAN routine
  * @author Fabien Maussion (java translation)
@@ -182,25 +190,20 @@ public class JB2006 implements Atmosphere {
         -0.212825156e+02,  0.275555432e+01
     };
 
-    /** Temperatures.
-     *  <p><ul>
-     *  <li>TEMP(1): Exospheric Temperature above Input Position (deg K)</li>
-     *  <li>TEMP(2): Temperature at Input Position (deg K)</li>
-     *  </ul></p>
-     */
-    private double[] temp = new double[3];
+    /** Output returned by the deprecated getters before any density computation. */
+    private static final Output NO_OUTPUT = new Output(0.0, 0.0, 0.0);
 
-    /** Total Mass-Density at Input Position (kg/m³). */
-    private double rho;
+    /** Last computed output, only used by the deprecated getters. */
+    private transient volatile Output lastOutput;
 
     /** Sun position. */
-    private PVCoordinatesProvider sun;
+    private final PVCoordinatesProvider sun;
 
     /** External data container. */
-    private JB2006InputParameters inputParams;
+    private final JB2006InputParameters inputParams;
 
     /** Earth body shape. */
-    private BodyShape earth;
+    private final BodyShape earth;
 
     /** Constructor with space environment information for internal computation.
      * @param parameters the solar and magnetic activity data
@@ -236,11 +239,46 @@ public class JB2006 implements Atmosphere {
      * @param xm10 MG2 index scaled to F10
      * @param xm10B MG2 81-day ave. centered index. Tabular time 5.0 days earlier.
      * @return total mass-Density at input position (kg/m³)
+     * @see #compute(double, double, double, double, double, double, double, double,
+     * double, double, double, double, double)
      */
     public double getDensity(final double dateMJD, final double sunRA, final double sunDecli,
                              final double satLon, final double satLat, final double satAlt,
                              final double f10, final double f10B, final double ap,
                              final double s10, final double s10B, final double xm10, final double xm10B) {
+        final Output output = compute(dateMJD, sunRA, sunDecli, satLon, satLat, satAlt,
+                                      f10, f10B, ap, s10, s10B, xm10, xm10B);
+        lastOutput = output;
+        return output.getDensity();
+    }
+
+    /** Compute the full model output with initial entries.
+     * <p>
+     * This method does not change the state of the instance, it can
+     * be called concurrently by several threads sharing the same model.
+     * </p>
+     * @param dateMJD date and time, in modified julian days and fraction
+     * @param sunRA Right Ascension of Sun (radians)
+     * @param sunDecli Declination of Sun (radians)
+     * @param satLon Right Ascension of position (radians)
+     * @param satLat Geocentric latitude of position (radians)
+     * @param satAlt Height of position (m)
+     * @param f10 10.7-cm Solar flux (1e<sup>-22</sup>*Watt/(m²*Hertz)).
+     *            Tabular time 1.0 day earlier
+     * @param f10B 10.7-cm Solar Flux, averaged 81-day centered on the input time
+     * @param ap Geomagnetic planetary 3-hour index A<sub>p</sub>
+     *            for a tabular time 6.7 hours earlier
+     * @param s10 EUV index (26-34 nm) scaled to F10. Tabular time 1 day earlier.
+     * @param s10B UV 81-day averaged centered index
+     * @param xm10 MG2 index scaled to F10
+     * @param xm10B MG2 81-day ave. centered index. Tabular time 5.0 days earlier.
+     * @return model output (density and temperatures)
+     * @since 7.1
+     */
+    public Output compute(final double dateMJD, final double sunRA, final double sunDecli,
+                          final double satLon, final double satLat, final double satAlt,
+                          final double f10, final double f10B, final double ap,
+                          final double s10, final double s10B, final double xm10, final double xm10B) {
 
         final double scaledSatAlt = satAlt / 1000.0;
 
@@ -279,7 +317,6 @@ public class JB2006 implements Atmosphere {
 
         // Compute the local exospheric temperature.
         final double TINF = TSUBL + DTG + DTCLST;
-        temp[1] = TINF;
 
         // Equation (9)
         final double TSUBX = 444.3807 + 0.02385 * TINF - 392.8292 * FastMath.exp(-0.0021357 * TINF);
@@ -329,7 +366,7 @@ public class JB2006 implements Atmosphere {
             SUM2 = SUM2 + DZ * SUM1;
         }
         final double FACT1 = 1000.0 / RSTAR;
-        rho = 3.46e-6 * AMBAR2 * TLOC1 * FastMath.exp(-FACT1 * SUM2) / (AMBAR1 * TLOC2);
+        double rho = 3.46e-6 * AMBAR2 * TLOC1 * FastMath.exp(-FACT1 * SUM2) / (AMBAR1 * TLOC2);
 
         // Equation (2)
         final double ANM = AVOGAD * rho;
@@ -346,8 +383,9 @@ public class JB2006 implements Atmosphere {
         ALN[2] = FastMath.log(FACT2 * (1. + FRAC[2]) - AN);
         ALN[3] = FastMath.log(2. * (AN - FACT2));
 
+        final double localTemp;
         if (scaledSatAlt <= 105.0) {
-            temp[2] = TLOC2;
+            localTemp = TLOC2;
             // Put in negligible hydrogen for use in DO-LOOP 13
             ALN[6] = ALN[5] - 25.0;
         } else {
@@ -402,13 +440,13 @@ public class JB2006 implements Atmosphere {
             double ALTR;
             double HSIGN;
             if (scaledSatAlt <= 500.) {
-                temp[2] = TLOC3;
+                localTemp = TLOC3;
                 ALTR = FastMath.log(TLOC3 / TLOC2);
                 FACT2 = FACT1 * SUM2;
                 HSIGN = 1.0;
 
             } else {
-                temp[2] = TLOC4;
+                localTemp = TLOC4;
                 ALTR = FastMath.log(TLOC4 / TLOC2);
                 FACT2 = FACT1 * (SUM2 + SUM3);
                 HSIGN = -1.0;
@@ -479,7 +517,7 @@ public class JB2006 implements Atmosphere {
         // Apply the exospheric density correction factor.
         rho  *= FEX;
 
-        return rho;
+        return new Output(rho, TINF, localTemp);
 
     }
 
@@ -699,22 +737,39 @@ public class JB2006 implements Atmosphere {
 
     // OUTPUT:
 
+    /** Get the last computed output.
+     * @return last computed output, or an output with all values set to 0
+     * if no density has been computed yet
+     */
+    private Output getLastOutput() {
+        final Output output = lastOutput;
+        return (output == null) ? NO_OUTPUT : output;
+    }
+
     /** Get the exospheric temperature above input position.
      * {@link #getDensity(double, double, double, double, double, double, double, double, double, double, double, double, double)}
      * <b> must </b> must be called before calling this function.
      * @return the exospheric temperature (deg K)
+     * @deprecated as of 7.1, this method is not thread-safe, replaced by
+     * {@link #compute(double, double, double, double, double, double, double, double,
+     * double, double, double, double, double)} and {@link Output#getExosphericTemp()}
      */
+    @Deprecated
     public double getExosphericTemp() {
-        return temp[1];
+        return getLastOutput().getExosphericTemp();
     }
 
     /** Get the temperature at input position.
      * {@link #getDensity(double, double, double, double, double, double, double, double, double, double, double, double, double)}
      * <b> must </b> must be called before calling this function.
      * @return the local temperature (deg K)
+     * @deprecated as of 7.1, this method is not thread-safe, replaced by
+     * {@link #compute(double, double, double, double, double, double, double, double,
+     * double, double, double, double, double)} and {@link Output#getLocalTemp()}
      */
+    @Deprecated
     public double getLocalTemp() {
-        return temp[2];
+        return getLastOutput().getLocalTemp();
     }
 
     /** Get the local density.
@@ -772,4 +827,55 @@ public class JB2006 implements Atmosphere {
         return pvFrame.getVelocity();
     }
 
+    /** Container for the output of one JB2006 model evaluation.
+     * <p>
+     * Instances of this class are immutable.
+     * </p>
+     * @since 7.1
+     */
+    public static class Output {
+
+        /** Total Mass-Density at Input Position (kg/m³). */
+        private final double density;
+
+        /** Exospheric Temperature above Input Position (deg K). */
+        private final double exosphericTemp;
+
+        /** Temperature at Input Position (deg K). */
+        private final double localTemp;
+
+        /** Simple constructor.
+         * @param density total mass-density at input position (kg/m³)
+         * @param exosphericTemp exospheric temperature above input position (deg K)
+         * @param localTemp temperature at input position (deg K)
+         */
+        private Output(final double density, final double exosphericTemp, final double localTemp) {
+            this.density        = density;
+            this.exosphericTemp = exosphericTemp;
+            this.localTemp      = localTemp;
+        }
+
+        /** Get the total mass-density at input position.
+         * @return total mass-density at input position (kg/m³)
+         */
+        public double getDensity() {
+            return density;
+        }
+
+        /** Get the exospheric temperature above input position.
+         * @return the exospheric temperature (deg K)
+         */
+        public double getExosphericTemp() {
+            return exosphericTemp;
+        }
+
+        /** Get the temperature at input position.
+         * @return the local temperature (deg K)
+         */
+        public double getLocalTemp() {
+            return localTemp;
+        }
+
+    }
+
 }
@@ -125,11 +125,8 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
     /** Last available date. */
     private AbsoluteDate lastDate;
 
-    /** Previous set of solar activity parameters. */
-    private LineParameters previousParam;
-
-    /** Current set of solar activity parameters. */
-    private LineParameters currentParam;
+    /** Last bracketing sets of solar activity parameters. */
+    private transient volatile Bracket cachedBracket;
 
     /** Regular expression for supported files names. */
     private final String supportedNames;
@@ -196,10 +193,15 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
     }
 
     /** Find the data bracketing a specified date.
+     * <p>
+     * The last bracket found is cached, but as the bracket is immutable and
+     * returned to the caller, this method can be called concurrently.
+     * </p>
      * @param date date to bracket
+     * @return bracketing sets of solar activity parameters
      * @throws OrekitException if specified date is out of range
      */
-    private void bracketDate(final AbsoluteDate date) throws OrekitException {
+    private Bracket bracketDate(final AbsoluteDate date) throws OrekitException {
 
         if ((date.durationFrom(firstDate) < 0) || (date.durationFrom(lastDate) > 0)) {
             throw new OrekitException(OrekitMessages.OUT_OF_RANGE_EPHEMERIDES_DATE,
@@ -207,23 +209,28 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
         }
 
         // don't search if the cached selection is fine
-        if ((previousParam != null) &&
-            (date.durationFrom(previousParam.getDate()) > 0) &&
-            (date.durationFrom(currentParam.getDate()) <= 0 )) {
-            return;
+        final Bracket cached = cachedBracket;
+        if ((cached != null) &&
+            (date.durationFrom(cached.previousParam.getDate()) > 0) &&
+            (date.durationFrom(cached.currentParam.getDate()) <= 0 )) {
+            return cached;
         }
 
+        final Bracket bracket;
         if (date.equals(firstDate)) {
-            currentParam  = (LineParameters) data.tailSet(date.shiftedBy(1)).first();
-            previousParam = (LineParameters) data.first();
+            bracket = new Bracket((LineParameters) data.first(),
+                                  (LineParameters) data.tailSet(date.shiftedBy(1)).first());
         } else if (date.equals(lastDate)) {
-            currentParam  = (LineParameters) data.last();
-            previousParam = (LineParameters) data.headSet(date.shiftedBy(-1)).last();
+            bracket = new Bracket((LineParameters) data.headSet(date.shiftedBy(-1)).last(),
+                                  (LineParameters) data.last());
         } else {
-            currentParam  = (LineParameters) data.tailSet(date).first();
-            previousParam = (LineParameters) data.headSet(date).last();
+            bracket = new Bracket((LineParameters) data.headSet(date).last(),
+                                  (LineParameters) data.tailSet(date).first());
         }
 
+        cachedBracket = bracket;
+        return bracket;
+
     }
 
     /** Get the supported names for data files.
@@ -252,14 +259,14 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
     public double getMeanFlux(final AbsoluteDate date) throws OrekitException {
 
         // get the neighboring dates
-        bracketDate(date);
+        final Bracket bracket = bracketDate(date);
 
         // perform a linear interpolation
-        final AbsoluteDate previousDate = previousParam.getDate();
-        final AbsoluteDate currentDate  = currentParam.getDate();
+        final AbsoluteDate previousDate = bracket.previousParam.getDate();
+        final AbsoluteDate currentDate  = bracket.currentParam.getDate();
         final double dt                 = currentDate.durationFrom(previousDate);
-        final double previousF107       = previousParam.getF107();
-        final double currentF107        = currentParam.getF107();
+        final double previousF107       = bracket.previousParam.getF107();
+        final double currentF107        = bracket.currentParam.getF107();
         final double previousWeight     = currentDate.durationFrom(date)  / dt;
         final double currentWeight      = date.durationFrom(previousDate) / dt;
 
@@ -289,10 +296,10 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
      * @exception OrekitException if specified date is out of range
      */
     public DateComponents getFileDate(final AbsoluteDate date) throws OrekitException {
-        bracketDate(date);
-        final double dtP = date.durationFrom(previousParam.getDate());
-        final double dtC = currentParam.getDate().durationFrom(date);
-        return (dtP < dtC) ? previousParam.getFileDate() : currentParam.getFileDate();
+        final Bracket bracket = bracketDate(date);
+        final double dtP = date.durationFrom(bracket.previousParam.getDate());
+        final double dtC = bracket.currentParam.getDate().durationFrom(date);
+        return (dtP < dtC) ? bracket.previousParam.getFileDate() : bracket.currentParam.getFileDate();
     }
 
     /** The Kp index is derived from the Ap index.
@@ -325,14 +332,14 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
     public double get24HoursKp(final AbsoluteDate date) throws OrekitException {
 
         // get the neighboring dates
-        bracketDate(date);
+        final Bracket bracket = bracketDate(date);
 
         // perform a linear interpolation
-        final AbsoluteDate previousDate = previousParam.getDate();
-        final AbsoluteDate currentDate  = currentParam.getDate();
+        final AbsoluteDate previousDate = bracket.previousParam.getDate();
+        final AbsoluteDate currentDate  = bracket.currentParam.getDate();
         final double dt                 = currentDate.durationFrom(previousDate);
-        final double previousAp         = previousParam.getAp();
-        final double currentAp          = currentParam.getAp();
+        final double previousAp         = bracket.previousParam.getAp();
+        final double currentAp          = bracket.currentParam.getAp();
         final double previousWeight     = currentDate.durationFrom(date)  / dt;
         final double currentWeight      = date.durationFrom(previousDate) / dt;
         final double ap                 = previousAp * previousWeight + currentAp * currentWeight;
@@ -355,6 +362,26 @@ public class MarshallSolarActivityFutureEstimation implements DTM2000InputParame
 
     }
 
+    /** Container class for the two sets of parameters bracketing a date. */
+    private static class Bracket {
+
+        /** Previous set of solar activity parameters. */
+        private final LineParameters previousParam;
+
+        /** Current set of solar activity parameters. */
+        private final LineParameters currentParam;
+
+        /** Simple constructor.
+         * @param previousParam previous set of solar activity parameters
+         * @param currentParam current set of solar activity parameters
+         */
+        Bracket(final LineParameters previousParam, final LineParameters currentParam) {
+            this.previousParam = previousParam;
+            this.currentParam  = currentParam;
+        }
+
+    }
+
     /** Container class for Solar activity indexes.  */
     private static class LineParameters implements TimeStamped, Serializable {
 
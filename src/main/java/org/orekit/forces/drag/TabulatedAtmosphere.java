@@ -0,0 +1,564 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.drag;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.orekit.bodies.BodyShape;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinatesProvider;
+import org.orekit.utils.ParallelChunks;
+
+/** Atmosphere model decorator using a pre-computed density grid.
+ * <p>
+ * This class wraps a (typically costly) atmosphere model like {@link DTM2000}
+ * or {@link JB2006} and replaces its evaluation by an interpolation in a grid
+ * of densities computed beforehand over a time span, with the solar activity
+ * data used by the underlying model. The grid axes are altitude, local solar
+ * time, geodetic latitude and date. Interpolation is multi-linear on the
+ * logarithm of density, so the interpolation error depends only on the grid
+ * steps selected at construction, which can be tuned according to accuracy
+ * needs (density varies exponentially with altitude, so the altitude step is
+ * generally the most important one).
+ * </p>
+ * <p>
+ * As the grid is indexed by local solar time rather than by longitude, the
+ * longitude dependency of the underlying model is interpolated along the time
+ * axis. Points outside of the tabulated time span or altitude range are not
+ * interpolated, they are directly evaluated by the underlying model. Beware
+ * that solar activity indices are often piecewise constant (for example
+ * 3-hourly Kp), interpolation along the time axis smoothes out their jumps,
+ * so this class is better suited to scenarios using smooth or frozen activity.
+ * </p>
+ * <p>
+ * The grid is split along the time axis in tiles. Tiles are built lazily when
+ * first needed and only a limited number of them are kept in memory, the least
+ * recently used tile being evicted when this number is exceeded. Tiles may be
+ * built in parallel if an {@link ExecutorService executor} is provided at
+ * construction. The executor is used only to help building the tiles, the
+ * thread requesting a tile always participates to its construction, so it is
+ * safe to use the same executor that runs the propagations. The executor is
+ * never shut down by this class, this remains the responsibility of the caller.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe as long as the underlying atmosphere
+ * model, body shape and Sun model are thread-safe. So a single instance can be
+ * shared by many propagations running in parallel, for example in Monte-Carlo
+ * reentry or decay studies.
+ * </p>
+ * <p>
+ * When serialized, only the grid definition is stored, neither the tiles
+ * already built nor the executor are serialized.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class TabulatedAtmosphere implements Atmosphere {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20150512L;
+
+    /** Underlying atmosphere model. */
+    private final Atmosphere atmosphere;
+
+    /** Earth body shape. */
+    private final BodyShape earth;
+
+    /** Sun position. */
+    private final PVCoordinatesProvider sun;
+
+    /** Start of the tabulated time span. */
+    private final AbsoluteDate start;
+
+    /** End of the tabulated time span. */
+    private final AbsoluteDate end;
+
+    /** Requested time step. */
+    private final double requestedTimeStep;
+
+    /** Minimum altitude. */
+    private final double minAltitude;
+
+    /** Maximum altitude. */
+    private final double maxAltitude;
+
+    /** Requested altitude step. */
+    private final double requestedAltitudeStep;
+
+    /** Requested latitude step. */
+    private final double requestedLatitudeStep;
+
+    /** Requested local solar time step. */
+    private final double requestedLocalTimeStep;
+
+    /** Number of time steps per tile. */
+    private final int stepsPerTile;
+
+    /** Maximum number of tiles kept in memory. */
+    private final int maxTiles;
+
+    /** Executor used to build tiles (may be null). */
+    private final transient ExecutorService executor;
+
+    /** Number of time nodes. */
+    private final int nTime;
+
+    /** Actual time step. */
+    private final double timeStep;
+
+    /** Number of altitude nodes. */
+    private final int nAlt;
+
+    /** Actual altitude step. */
+    private final double altitudeStep;
+
+    /** Number of latitude nodes. */
+    private final int nLat;
+
+    /** Actual latitude step. */
+    private final double latitudeStep;
+
+    /** Number of local solar time nodes (the axis is periodic). */
+    private final int nLst;
+
+    /** Actual local solar time step. */
+    private final double localTimeStep;
+
+    /** Number of tiles. */
+    private final int nTiles;
+
+    /** Tiles cache, in least recently used order. */
+    private final transient Map<Integer, FutureTask<double[]>> tiles;
+
+    /** Build a tabulated atmosphere with sequential tiles construction.
+     * @param atmosphere underlying atmosphere model
+     * @param earth Earth body shape
+     * @param sun Sun position
+     * @param start start of the tabulated time span
+     * @param end end of the tabulated time span
+     * @param timeStep time step (s), it will be slightly reduced to fit the time span
+     * @param minAltitude minimum tabulated altitude (m)
+     * @param maxAltitude maximum tabulated altitude (m)
+     * @param altitudeStep altitude step (m), it will be slightly reduced to fit the range
+     * @param latitudeStep latitude step (rad), it will be slightly reduced to fit the range
+     * @param localTimeStep local solar time step (rad), it will be slightly reduced to
+     * fit the range
+     * @param stepsPerTile number of time steps per tile
+     * @param maxTiles maximum number of tiles kept in memory
+     */
+    public TabulatedAtmosphere(final Atmosphere atmosphere, final BodyShape earth,
+                               final PVCoordinatesProvider sun,
+                               final AbsoluteDate start, final AbsoluteDate end, final double timeStep,
+                               final double minAltitude, final double maxAltitude, final double altitudeStep,
+                               final double latitudeStep, final double localTimeStep,
+                               final int stepsPerTile, final int maxTiles) {
+        this(atmosphere, earth, sun, start, end, timeStep,
+             minAltitude, maxAltitude, altitudeStep, latitudeStep, localTimeStep,
+             stepsPerTile, maxTiles, null);
+    }
+
+    /** Build a tabulated atmosphere with parallel tiles construction.
+     * @param atmosphere underlying atmosphere model (must be thread-safe if
+     * executor is not null)
+     * @param earth Earth body shape
+     * @param sun Sun position
+     * @param start start of the tabulated time span
+     * @param end end of the tabulated time span
+     * @param timeStep time step (s), it will be slightly reduced to fit the time span
+     * @param minAltitude minimum tabulated altitude (m)
+     * @param maxAltitude maximum tabulated altitude (m)
+     * @param altitudeStep altitude step (m), it will be slightly reduced to fit the range
+     * @param latitudeStep latitude step (rad), it will be slightly reduced to fit the range
+     * @param localTimeStep local solar time step (rad), it will be slightly reduced to
+     * fit the range
+     * @param stepsPerTile number of time steps per tile
+     * @param maxTiles maximum number of tiles kept in memory
+     * @param executor executor to use for building tiles in parallel (may be null
+     * for sequential construction)
+     */
+    public TabulatedAtmosphere(final Atmosphere atmosphere, final BodyShape earth,
+                               final PVCoordinatesProvider sun,
+                               final AbsoluteDate start, final AbsoluteDate end, final double timeStep,
+                               final double minAltitude, final double maxAltitude, final double altitudeStep,
+                               final double latitudeStep, final double localTimeStep,
+                               final int stepsPerTile, final int maxTiles,
+                               final ExecutorService executor) {
+
+        this.atmosphere             = atmosphere;
+        this.earth                  = earth;
+        this.sun                    = sun;
+        this.start                  = start;
+        this.end                    = end;
+        this.requestedTimeStep      = timeStep;
+        this.minAltitude            = minAltitude;
+        this.maxAltitude            = maxAltitude;
+        this.requestedAltitudeStep  = altitudeStep;
+        this.requestedLatitudeStep  = latitudeStep;
+        this.requestedLocalTimeStep = localTimeStep;
+        this.stepsPerTile           = FastMath.max(1, stepsPerTile);
+        this.maxTiles               = FastMath.max(1, maxTiles);
+        this.executor               = executor;
+
+        final double span  = end.durationFrom(start);
+        this.nTime         = FastMath.max(2, (int) FastMath.ceil(span / timeStep) + 1);
+        this.timeStep      = span / (nTime - 1);
+        this.nAlt          = FastMath.max(2, (int) FastMath.ceil((maxAltitude - minAltitude) / altitudeStep) + 1);
+        this.altitudeStep  = (maxAltitude - minAltitude) / (nAlt - 1);
+        this.nLat          = FastMath.max(2, (int) FastMath.ceil(FastMath.PI / latitudeStep) + 1);
+        this.latitudeStep  = FastMath.PI / (nLat - 1);
+        this.nLst          = FastMath.max(2, (int) FastMath.ceil(MathUtils.TWO_PI / localTimeStep));
+        this.localTimeStep = MathUtils.TWO_PI / nLst;
+        this.nTiles        = (nTime + this.stepsPerTile - 2) / this.stepsPerTile;
+
+        final int cacheSize = this.maxTiles;
+        this.tiles = new LinkedHashMap<Integer, FutureTask<double[]>>(16, 0.75f, true) {
+
+            /** Serializable UID. */
+            private static final long serialVersionUID = 20150512L;
+
+            /** {@inheritDoc} */
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, FutureTask<double[]>> eldest) {
+                return size() > cacheSize;
+            }
+
+        };
+
+    }
+
+    /** Get the underlying atmosphere model.
+     * @return underlying atmosphere model
+     */
+    public Atmosphere getAtmosphere() {
+        return atmosphere;
+    }
+
+    /** Get the number of tiles in the complete grid.
+     * @return number of tiles in the complete grid
+     */
+    public int getTilesNumber() {
+        return nTiles;
+    }
+
+    /** Get the number of tiles currently held in memory.
+     * @return number of tiles currently held in memory
+     */
+    public int getCachedTilesNumber() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    /** {@inheritDoc} */
+    public Frame getFrame() {
+        return atmosphere.getFrame();
+    }
+
+    /** {@inheritDoc} */
+    public double getDensity(final AbsoluteDate date, final Vector3D position, final Frame frame)
+        throws OrekitException {
+
+        // check if the point is in the tabulated domain
+        final double dt = date.durationFrom(start);
+        if (dt < 0 || date.durationFrom(end) > 0) {
+            return atmosphere.getDensity(date, position, frame);
+        }
+        final GeodeticPoint point = earth.transform(position, frame, date);
+        final double alt = point.getAltitude();
+        if (alt < minAltitude || alt > maxAltitude) {
+            return atmosphere.getDensity(date, position, frame);
+        }
+
+        // local solar time, with the same convention as the underlying models
+        final Vector3D sunPos = sun.getPVCoordinates(date, earth.getBodyFrame()).getPosition();
+        final double lst = MathUtils.normalizeAngle(FastMath.PI + point.getLongitude() - sunPos.getAlpha(),
+                                                    FastMath.PI);
+
+        // locate the point in the grid
+        final int    iTime = locate(dt / timeStep, nTime);
+        final double wTime = dt / timeStep - iTime;
+        final int    iAlt  = locate((alt - minAltitude) / altitudeStep, nAlt);
+        final double wAlt  = (alt - minAltitude) / altitudeStep - iAlt;
+        final double xLat  = (point.getLatitude() + 0.5 * FastMath.PI) / latitudeStep;
+        final int    iLat  = locate(xLat, nLat);
+        final double wLat  = xLat - iLat;
+        final int    iLst  = FastMath.min((int) FastMath.floor(lst / localTimeStep), nLst - 1);
+        final double wLst  = lst / localTimeStep - iLst;
+        final int    jLst  = (iLst + 1) % nLst;
+
+        // get the tile containing the point
+        final int tileIndex = FastMath.min(iTime / stepsPerTile, nTiles - 1);
+        final double[] tile = getTile(tileIndex);
+        final int t0 = iTime - tileIndex * stepsPerTile;
+
+        // multi-linear interpolation of the logarithm of density
+        double logRho = 0;
+        for (int k = 0; k < 2; ++k) {
+            final double wt = (k == 0) ? 1 - wTime : wTime;
+            for (int l = 0; l < 2; ++l) {
+                final double wl = (l == 0) ? 1 - wLat : wLat;
+                final int base = ((t0 + k) * nLat + iLat + l) * nLst;
+                final int row0 = (base + iLst) * nAlt + iAlt;
+                final int row1 = (base + jLst) * nAlt + iAlt;
+                final double v0 = (1 - wAlt) * tile[row0] + wAlt * tile[row0 + 1];
+                final double v1 = (1 - wAlt) * tile[row1] + wAlt * tile[row1 + 1];
+                logRho += wt * wl * ((1 - wLst) * v0 + wLst * v1);
+            }
+        }
+
+        return FastMath.exp(logRho);
+
+    }
+
+    /** {@inheritDoc} */
+    public Vector3D getVelocity(final AbsoluteDate date, final Vector3D position, final Frame frame)
+        throws OrekitException {
+        return atmosphere.getVelocity(date, position, frame);
+    }
+
+    /** Locate a normalized coordinate in a non-periodic axis.
+     * @param x normalized coordinate (0 for first node, n-1 for last node)
+     * @param n number of nodes
+     * @return index of the lower node of the interval containing x
+     */
+    private int locate(final double x, final int n) {
+        return FastMath.max(0, FastMath.min((int) FastMath.floor(x), n - 2));
+    }
+
+    /** Get a tile, building it if needed.
+     * @param index tile index
+     * @return logarithms of densities at tile nodes
+     * @exception OrekitException if the underlying model cannot be evaluated
+     */
+    private double[] getTile(final int index) throws OrekitException {
+
+        final FutureTask<double[]> task;
+        boolean mustBuild = false;
+        synchronized (tiles) {
+            final FutureTask<double[]> cached = tiles.get(index);
+            if (cached == null) {
+                task = new FutureTask<double[]>(new Callable<double[]>() {
+                    /** {@inheritDoc} */
+                    public double[] call() throws OrekitException {
+                        return buildTile(index);
+                    }
+                });
+                tiles.put(index, task);
+                mustBuild = true;
+            } else {
+                task = cached;
+            }
+        }
+
+        if (mustBuild) {
+            // the tile is built by the first thread needing it,
+            // other threads needing it simply wait for completion
+            task.run();
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw OrekitException.createInternalError(ie);
+        } catch (ExecutionException ee) {
+            // don't keep failed tiles, so they can be rebuilt later
+            synchronized (tiles) {
+                if (tiles.get(index) == task) {
+                    tiles.remove(index);
+                }
+            }
+            if (ee.getCause() instanceof OrekitException) {
+                throw (OrekitException) ee.getCause();
+            } else {
+                throw OrekitException.createInternalError(ee.getCause());
+            }
+        }
+
+    }
+
+    /** Build one tile.
+     * @param index tile index
+     * @return logarithms of densities at tile nodes
+     * @exception OrekitException if the underlying model cannot be evaluated
+     */
+    private double[] buildTile(final int index) throws OrekitException {
+
+        final int firstTime = index * stepsPerTile;
+        final int nbTime    = FastMath.min(stepsPerTile, nTime - 1 - firstTime) + 1;
+        final int nbRows    = nbTime * nLat;
+        final double[] tile = new double[nbRows * nLst * nAlt];
+
+        // Sun longitude for each time node
+        final Frame bodyFrame = earth.getBodyFrame();
+        final AbsoluteDate[] dates = new AbsoluteDate[nbTime];
+        final double[] sunLongitudes = new double[nbTime];
+        for (int i = 0; i < nbTime; ++i) {
+            dates[i]         = start.shiftedBy((firstTime + i) * timeStep);
+            sunLongitudes[i] = sun.getPVCoordinates(dates[i], bodyFrame).getPosition().getAlpha();
+        }
+
+        // rows (i.e. one date and one latitude) are shared between
+        // the current thread and the helpers submitted to the executor
+        ParallelChunks.process(executor, nbRows, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int row) throws OrekitException {
+                buildRow(tile, row, dates[row / nLat], sunLongitudes[row / nLat]);
+            }
+        });
+
+        return tile;
+
+    }
+
+    /** Build one row of a tile.
+     * @param tile tile to fill up
+     * @param row row index in the tile
+     * @param date date of the row
+     * @param sunLongitude longitude of the Sun at row date
+     * @exception OrekitException if the underlying model cannot be evaluated
+     */
+    private void buildRow(final double[] tile, final int row,
+                          final AbsoluteDate date, final double sunLongitude)
+        throws OrekitException {
+        final Frame bodyFrame = earth.getBodyFrame();
+        final double latitude = (row % nLat) * latitudeStep - 0.5 * FastMath.PI;
+        int k = row * nLst * nAlt;
+        for (int i = 0; i < nLst; ++i) {
+            final double longitude = sunLongitude + i * localTimeStep - FastMath.PI;
+            for (int j = 0; j < nAlt; ++j) {
+                final GeodeticPoint gp = new GeodeticPoint(latitude, longitude, minAltitude + j * altitudeStep);
+                tile[k++] = FastMath.log(atmosphere.getDensity(date, earth.transform(gp), bodyFrame));
+            }
+        }
+    }
+
+    /** Replace the instance with a data transfer object for serialization.
+     * @return data transfer object that will be serialized
+     */
+    private Object writeReplace() {
+        return new DataTransferObject(atmosphere, earth, sun, start, end, requestedTimeStep,
+                                      minAltitude, maxAltitude, requestedAltitudeStep,
+                                      requestedLatitudeStep, requestedLocalTimeStep,
+                                      stepsPerTile, maxTiles);
+    }
+
+    /** Internal class used only for serialization. */
+    private static class DataTransferObject implements Serializable {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20150512L;
+
+        /** Underlying atmosphere model. */
+        private final Atmosphere atmosphere;
+
+        /** Earth body shape. */
+        private final BodyShape earth;
+
+        /** Sun position. */
+        private final PVCoordinatesProvider sun;
+
+        /** Start of the tabulated time span. */
+        private final AbsoluteDate start;
+
+        /** End of the tabulated time span. */
+        private final AbsoluteDate end;
+
+        /** Time step. */
+        private final double timeStep;
+
+        /** Minimum altitude. */
+        private final double minAltitude;
+
+        /** Maximum altitude. */
+        private final double maxAltitude;
+
+        /** Altitude step. */
+        private final double altitudeStep;
+
+        /** Latitude step. */
+        private final double latitudeStep;
+
+        /** Local solar time step. */
+        private final double localTimeStep;
+
+        /** Number of time steps per tile. */
+        private final int stepsPerTile;
+
+        /** Maximum number of tiles kept in memory. */
+        private final int maxTiles;
+
+        /** Simple constructor.
+         * @param atmosphere underlying atmosphere model
+         * @param earth Earth body shape
+         * @param sun Sun position
+         * @param start start of the tabulated time span
+         * @param end end of the tabulated time span
+         * @param timeStep time step (s)
+         * @param minAltitude minimum tabulated altitude (m)
+         * @param maxAltitude maximum tabulated altitude (m)
+         * @param altitudeStep altitude step (m)
+         * @param latitudeStep latitude step (rad)
+         * @param localTimeStep local solar time step (rad)
+         * @param stepsPerTile number of time steps per tile
+         * @param maxTiles maximum number of tiles kept in memory
+         */
+        DataTransferObject(final Atmosphere atmosphere, final BodyShape earth,
+                           final PVCoordinatesProvider sun,
+                           final AbsoluteDate start, final AbsoluteDate end, final double timeStep,
+                           final double minAltitude, final double maxAltitude, final double altitudeStep,
+                           final double latitudeStep, final double localTimeStep,
+                           final int stepsPerTile, final int maxTiles) {
+            this.atmosphere    = atmosphere;
+            this.earth         = earth;
+            this.sun           = sun;
+            this.start         = start;
+            this.end           = end;
+            this.timeStep      = timeStep;
+            this.minAltitude   = minAltitude;
+            this.maxAltitude   = maxAltitude;
+            this.altitudeStep  = altitudeStep;
+            this.latitudeStep  = latitudeStep;
+            this.localTimeStep = localTimeStep;
+            this.stepsPerTile  = stepsPerTile;
+            this.maxTiles      = maxTiles;
+        }
+
+        /** Replace the deserialized data transfer object with a {@link TabulatedAtmosphere}.
+         * @return replacement {@link TabulatedAtmosphere}
+         */
+        private Object readResolve() {
+            return new TabulatedAtmosphere(atmosphere, earth, sun, start, end, timeStep,
+                                           minAltitude, maxAltitude, altitudeStep,
+                                           latitudeStep, localTimeStep, stepsPerTile, maxTiles);
+        }
+
+    }
+
+}
@@ -0,0 +1,464 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.TideSystem;
+import org.orekit.time.AbsoluteDate;
+
+/** Immutable gravity field with coefficients stored in flat primitive arrays.
+ * <p>
+ * This class freezes the normalized coefficients of a {@link
+ * NormalizedSphericalHarmonicsProvider provider} at one date and stores
+ * them in flat triangular arrays. As it is immutable, a single instance can
+ * be shared by all the {@link HolmesFeatherstoneAttractionModel force models}
+ * used by concurrent propagations, instead of loading the gravity field once
+ * for each thread. Kernels can also be {@link #save(File) saved} in a binary
+ * file and {@link #load(File) loaded} back by memory-mapping the file, which
+ * is much faster than parsing the original text files (for example ICGEM
+ * files) for high degree fields.
+ * </p>
+ * <p>
+ * The Holmes-Featherstone recursion coefficients only depend on the degree
+ * of the field. They are shared by all {@link HolmesFeatherstoneAttractionModel}
+ * instances, regardless of the provider they use. Only the coefficients for
+ * the few most recently requested degrees are cached, coefficients evicted from
+ * the cache remain available to the force models already using them.
+ * </p>
+ * <p>
+ * As coefficients are frozen, this class is suited only for constant fields,
+ * or for time spans short enough for the time-dependent parts to be neglected.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class GravityFieldKernel implements NormalizedSphericalHarmonicsProvider, Serializable {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20150512L;
+
+    /** Magic number identifying kernel files ("OGFK" in ASCII). */
+    private static final int MAGIC = 0x4f47464b;
+
+    /** Size of kernel files header in bytes. */
+    private static final int HEADER_SIZE = 4 * 4 + 3 * 8;
+
+    /** Maximum number of degrees for which recursion coefficients are cached. */
+    private static final int MAX_CACHED_DEGREES = 8;
+
+    /** Shared recursion coefficients, indexed by degree, least recently used first. */
+    private static final Map<Integer, RecursionCoefficients> RECURSIONS =
+            new LinkedHashMap<Integer, RecursionCoefficients>(MAX_CACHED_DEGREES + 1, 1.0f, true) {
+
+                /** Serializable UID. */
+                private static final long serialVersionUID = 20150615L;
+
+                /** {@inheritDoc} */
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Integer, RecursionCoefficients> eldest) {
+                    return size() > MAX_CACHED_DEGREES;
+                }
+
+            };
+
+    /** Central body reference radius. */
+    private final double ae;
+
+    /** Central body attraction coefficient. */
+    private final double mu;
+
+    /** Tide system. */
+    private final TideSystem tideSystem;
+
+    /** Date at which coefficients have been frozen. */
+    private final AbsoluteDate date;
+
+    /** Maximal degree. */
+    private final int degree;
+
+    /** Maximal order. */
+    private final int order;
+
+    /** Normalized C<sub>n,m</sub> coefficients, at index n(n+1)/2+m. */
+    private final double[] cnm;
+
+    /** Normalized S<sub>n,m</sub> coefficients, at index n(n+1)/2+m. */
+    private final double[] snm;
+
+    /** Build a kernel by freezing a provider.
+     * @param provider provider for the spherical harmonics
+     * @param date date at which coefficients should be frozen
+     * @exception OrekitException if coefficients cannot be computed
+     */
+    public GravityFieldKernel(final NormalizedSphericalHarmonicsProvider provider, final AbsoluteDate date)
+        throws OrekitException {
+
+        this.ae         = provider.getAe();
+        this.mu         = provider.getMu();
+        this.tideSystem = provider.getTideSystem();
+        this.date       = date;
+        this.degree     = provider.getMaxDegree();
+        this.order      = provider.getMaxOrder();
+
+        final int size = (degree + 1) * (degree + 2) / 2;
+        this.cnm = new double[size];
+        this.snm = new double[size];
+        final NormalizedSphericalHarmonics harmonics = provider.onDate(date);
+        for (int n = 0; n <= degree; ++n) {
+            for (int m = 0; m <= FastMath.min(n, order); ++m) {
+                cnm[index(n, m)] = harmonics.getNormalizedCnm(n, m);
+                snm[index(n, m)] = harmonics.getNormalizedSnm(n, m);
+            }
+        }
+
+    }
+
+    /** Build a kernel from loaded data.
+     * @param ae central body reference radius
+     * @param mu central body attraction coefficient
+     * @param tideSystem tide system
+     * @param date date at which coefficients have been frozen
+     * @param degree maximal degree
+     * @param order maximal order
+     * @param cnm normalized C<sub>n,m</sub> coefficients (not copied)
+     * @param snm normalized S<sub>n,m</sub> coefficients (not copied)
+     */
+    private GravityFieldKernel(final double ae, final double mu, final TideSystem tideSystem,
+                               final AbsoluteDate date, final int degree, final int order,
+                               final double[] cnm, final double[] snm) {
+        this.ae         = ae;
+        this.mu         = mu;
+        this.tideSystem = tideSystem;
+        this.date       = date;
+        this.degree     = degree;
+        this.order      = order;
+        this.cnm        = cnm;
+        this.snm        = snm;
+    }
+
+    /** Save the kernel in a binary file.
+     * @param file file to write
+     * @exception OrekitException if file cannot be written
+     * @see #load(File)
+     */
+    public void save(final File file) throws OrekitException {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 16 * cnm.length);
+            buffer.putInt(MAGIC).putInt(degree).putInt(order).putInt(tideSystem.ordinal());
+            buffer.putDouble(ae).putDouble(mu).putDouble(date.durationFrom(AbsoluteDate.J2000_EPOCH));
+            buffer.asDoubleBuffer().put(cnm).put(snm);
+            buffer.rewind();
+            final FileChannel channel = raf.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        } finally {
+            close(raf);
+        }
+    }
+
+    /** Load a kernel from a binary file.
+     * <p>
+     * The file is memory-mapped and its content is copied in bulk
+     * into the coefficients arrays.
+     * </p>
+     * @param file file to read
+     * @return loaded kernel
+     * @exception OrekitException if file cannot be read or is not a kernel file
+     * @see #save(File)
+     */
+    public static GravityFieldKernel load(final File file) throws OrekitException {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            final FileChannel channel = raf.getChannel();
+            if (channel.size() < HEADER_SIZE) {
+                throw notAKernel(file);
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final int magic       = buffer.getInt();
+            final int degree      = buffer.getInt();
+            final int order       = buffer.getInt();
+            final int tideOrdinal = buffer.getInt();
+            final int size        = (degree + 1) * (degree + 2) / 2;
+            if (magic != MAGIC || degree < 0 || order < 0 || order > degree ||
+                tideOrdinal < 0 || tideOrdinal >= TideSystem.values().length ||
+                channel.size() != HEADER_SIZE + 16l * size) {
+                throw notAKernel(file);
+            }
+            final double ae     = buffer.getDouble();
+            final double mu     = buffer.getDouble();
+            final double offset = buffer.getDouble();
+            final double[] cnm  = new double[size];
+            final double[] snm  = new double[size];
+            buffer.asDoubleBuffer().get(cnm).get(snm);
+            return new GravityFieldKernel(ae, mu, TideSystem.values()[tideOrdinal],
+                                          AbsoluteDate.J2000_EPOCH.shiftedBy(offset),
+                                          degree, order, cnm, snm);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        } finally {
+            close(raf);
+        }
+    }
+
+    /** Create an exception for files that are not kernel files.
+     * @param file file considered
+     * @return exception
+     */
+    private static OrekitException notAKernel(final File file) {
+        return new OrekitException(OrekitMessages.UNEXPECTED_FILE_FORMAT_ERROR_FOR_LOADER,
+                                   file.getAbsolutePath(), GravityFieldKernel.class.getSimpleName());
+    }
+
+    /** Close a file, ignoring null.
+     * @param raf file to close (may be null)
+     * @exception OrekitException if file cannot be closed
+     */
+    private static void close(final RandomAccessFile raf) throws OrekitException {
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException ioe) {
+                throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+            }
+        }
+    }
+
+    /** Get the index of a coefficient in the flat arrays.
+     * @param n degree
+     * @param m order
+     * @return index of the coefficient
+     */
+    private static int index(final int n, final int m) {
+        return n * (n + 1) / 2 + m;
+    }
+
+    /** {@inheritDoc} */
+    public int getMaxDegree() {
+        return degree;
+    }
+
+    /** {@inheritDoc} */
+    public int getMaxOrder() {
+        return order;
+    }
+
+    /** {@inheritDoc} */
+    public double getMu() {
+        return mu;
+    }
+
+    /** {@inheritDoc} */
+    public double getAe() {
+        return ae;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * As coefficients are frozen, null is always returned.
+     * </p>
+     */
+    public AbsoluteDate getReferenceDate() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public double getOffset(final AbsoluteDate d) {
+        return 0.0;
+    }
+
+    /** {@inheritDoc} */
+    public TideSystem getTideSystem() {
+        return tideSystem;
+    }
+
+    /** Get the date at which coefficients have been frozen.
+     * @return date at which coefficients have been frozen
+     */
+    public AbsoluteDate getFreezingDate() {
+        return date;
+    }
+
+    /** {@inheritDoc} */
+    public NormalizedSphericalHarmonics onDate(final AbsoluteDate d) {
+        return new NormalizedSphericalHarmonics() {
+
+            /** {@inheritDoc} */
+            public AbsoluteDate getDate() {
+                return d;
+            }
+
+            /** {@inheritDoc} */
+            public double getNormalizedCnm(final int n, final int m)
+                throws OrekitException {
+                checkLimits(n, m);
+                return cnm[index(n, m)];
+            }
+
+            /** {@inheritDoc} */
+            public double getNormalizedSnm(final int n, final int m)
+                throws OrekitException {
+                checkLimits(n, m);
+                return snm[index(n, m)];
+            }
+
+        };
+    }
+
+    /** Check limits.
+     * @param n degree
+     * @param m order
+     * @exception OrekitException if indices are out of bound
+     */
+    private void checkLimits(final int n, final int m)
+        throws OrekitException {
+
+        if (n > degree) {
+            throw new OrekitException(OrekitMessages.TOO_LARGE_DEGREE_FOR_GRAVITY_FIELD,
+                                      n, degree);
+        }
+
+        if (m > FastMath.min(n, order)) {
+            throw new OrekitException(OrekitMessages.TOO_LARGE_ORDER_FOR_GRAVITY_FIELD,
+                                      m, FastMath.min(n, order));
+        }
+
+    }
+
+    /** Get the shared recursion coefficients for one degree.
+     * <p>
+     * The coefficients are computed if the degree is not among the
+     * most recently requested ones.
+     * </p>
+     * @param degree maximal degree of the field
+     * @return shared recursion coefficients
+     */
+    static RecursionCoefficients getRecursionCoefficients(final int degree) {
+        synchronized (RECURSIONS) {
+            RecursionCoefficients coefficients = RECURSIONS.get(degree);
+            if (coefficients == null) {
+                coefficients = new RecursionCoefficients(degree);
+                RECURSIONS.put(degree, coefficients);
+            }
+            return coefficients;
+        }
+    }
+
+    /** Holmes-Featherstone recursion coefficients for one degree. */
+    static class RecursionCoefficients {
+
+        /** Recursion coefficients g<sub>n,m</sub>/√j. */
+        private final double[] gnmOj;
+
+        /** Recursion coefficients h<sub>n,m</sub>/√j. */
+        private final double[] hnmOj;
+
+        /** Recursion coefficients e<sub>n,m</sub>. */
+        private final double[] enm;
+
+        /** Scaled sectorial Pbar<sub>m,m</sub>/u<sup>m</sup> &times; 2<sup>-SCALING</sup>. */
+        private final double[] sectorial;
+
+        /** Simple constructor.
+         * @param degree maximal degree of the field
+         */
+        RecursionCoefficients(final int degree) {
+
+            // the pre-computed arrays hold coefficients from triangular arrays in a single
+            // storing neither diagonal elements (n = m) nor the non-diagonal element n=1, m=0
+            final int size = FastMath.max(0, degree * (degree + 1) / 2 - 1);
+            gnmOj = new double[size];
+            hnmOj = new double[size];
+            enm   = new double[size];
+
+            // pre-compute the recursion coefficients corresponding to equations 19 and 22
+            // from Holmes and Featherstone paper
+            // for cache efficiency, elements are stored in the same order they will be used
+            // later on, i.e. from rightmost column to leftmost column
+            int index = 0;
+            for (int m = degree; m >= 0; --m) {
+                final int j = (m == 0) ? 2 : 1;
+                for (int n = FastMath.max(2, m + 1); n <= degree; ++n) {
+                    final double f = (n - m) * (n + m + 1);
+                    gnmOj[index] = 2 * (m + 1) / FastMath.sqrt(j * f);
+                    hnmOj[index] = FastMath.sqrt((n + m + 2) * (n - m - 1) / (j * f));
+                    enm[index]   = FastMath.sqrt(f / j);
+                    ++index;
+                }
+            }
+
+            // scaled sectorial terms corresponding to equation 28 in Holmes and Featherstone paper
+            sectorial    = new double[degree + 1];
+            sectorial[0] = FastMath.scalb(1.0, -HolmesFeatherstoneAttractionModel.SCALING);
+            sectorial[1] = FastMath.sqrt(3) * sectorial[0];
+            for (int m = 2; m < sectorial.length; ++m) {
+                sectorial[m] = FastMath.sqrt((2 * m + 1) / (2.0 * m)) * sectorial[m - 1];
+            }
+
+        }
+
+        /** Get the recursion coefficients g<sub>n,m</sub>/√j.
+         * @return recursion coefficients g<sub>n,m</sub>/√j (shared, must not be modified)
+         */
+        double[] getGnmOj() {
+            return gnmOj;
+        }
+
+        /** Get the recursion coefficients h<sub>n,m</sub>/√j.
+         * @return recursion coefficients h<sub>n,m</sub>/√j (shared, must not be modified)
+         */
+        double[] getHnmOj() {
+            return hnmOj;
+        }
+
+        /** Get the recursion coefficients e<sub>n,m</sub>.
+         * @return recursion coefficients e<sub>n,m</sub> (shared, must not be modified)
+         */
+        double[] getEnm() {
+            return enm;
+        }
+
+        /** Get the scaled sectorial terms.
+         * @return scaled sectorial terms (shared, must not be modified)
+         */
+        double[] getSectorial() {
+            return sectorial;
+        }
+
+    }
+
+}
@@ -0,0 +1,656 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
+import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
+import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.ode.AbstractParameterizable;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.AccelerationJacobiansProvider;
+import org.orekit.forces.ForceModel;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.TideSystem;
+import org.orekit.forces.gravity.potential.TideSystemProvider;
+import org.orekit.frames.Frame;
+import org.orekit.frames.Transform;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.events.EventDetector;
+import org.orekit.propagation.numerical.TimeDerivativesEquations;
+import org.orekit.time.AbsoluteDate;
+
+/** Gravity field model using a pre-computed grid for high degree terms.
+ * <p>
+ * This model splits the gravity field in two parts. The low degree part
+ * (including all time-dependent terms, which are generally limited to low
+ * degrees) is computed analytically by a {@link HolmesFeatherstoneAttractionModel}
+ * at each call. The high degree part is frozen at a reference date and tabulated
+ * in a spherical grid in body frame (radius, latitude and longitude). Its gradient
+ * is interpolated using tri-cubic Lagrange interpolation over the 64 nodes
+ * surrounding the current point, which is much cheaper than the full recursion
+ * for high degree fields. The interpolation error depends on the grid steps
+ * with respect to the shortest wavelength of the field: a field of degree n has
+ * a shortest wavelength of about 2π/n radians, and interpolation error decreases
+ * as the fourth power of the steps.
+ * </p>
+ * <p>
+ * This model is intended for bulk propagations (Monte-Carlo, conjunction screening)
+ * where accuracy can be traded for speed. Points with a radius outside of the
+ * tabulated range are computed analytically.
+ * </p>
+ * <p>
+ * The grid is split in tiles along latitude and longitude, each tile covering
+ * the full radius range. Tiles are built lazily as the orbits visit each region,
+ * and only a limited number of them are kept in memory, the least recently used
+ * tile being evicted when this number is exceeded. Instances of this class are
+ * thread-safe if the underlying provider is thread-safe, so a single instance
+ * can be shared by many propagations running in parallel, the tiles being built
+ * only once.
+ * </p>
+ * <p>
+ * The partial derivatives of the acceleration with respect to state only include
+ * the analytical low degree part, the high degree part being considered as a
+ * constant perturbation.
+ * </p>
+ * @see HolmesFeatherstoneAttractionModel
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class GriddedAttractionModel
+    extends AbstractParameterizable implements ForceModel, AccelerationJacobiansProvider, TideSystemProvider {
+
+    /** Number of nodes per tile side (excluding interpolation margins). */
+    private static final int TILE_SIDE = 8;
+
+    /** Number of nodes before the tile used by interpolation. */
+    private static final int MARGIN_BEFORE = 1;
+
+    /** Number of nodes per tile side (including interpolation margins). */
+    private static final int NODES_PER_SIDE = TILE_SIDE + 3;
+
+    /** Central attraction coefficient used for building the grid. */
+    private final double gridMu;
+
+    /** Central attraction coefficient. */
+    private double mu;
+
+    /** Rotating body frame. */
+    private final Frame bodyFrame;
+
+    /** Tide system. */
+    private final TideSystem tideSystem;
+
+    /** Analytical model for the low degree part. */
+    private final HolmesFeatherstoneAttractionModel lowDegree;
+
+    /** Analytical model for the high degree part. */
+    private final HolmesFeatherstoneAttractionModel highDegree;
+
+    /** Reference date for the high degree part. */
+    private final AbsoluteDate referenceDate;
+
+    /** Minimum tabulated radius. */
+    private final double minRadius;
+
+    /** Number of radius nodes. */
+    private final int nR;
+
+    /** Radius step. */
+    private final double radiusStep;
+
+    /** Number of latitude nodes (nodes are shifted by half a step from poles). */
+    private final int nLat;
+
+    /** Latitude step. */
+    private final double latitudeStep;
+
+    /** Number of longitude nodes (the axis is periodic). */
+    private final int nLon;
+
+    /** Longitude step. */
+    private final double longitudeStep;
+
+    /** Number of tiles along longitude. */
+    private final int nLonTiles;
+
+    /** Number of tiles. */
+    private final int nTiles;
+
+    /** Tiles cache, in least recently used order. */
+    private final Map<Integer, FutureTask<double[]>> tiles;
+
+    /** Simple constructor.
+     * @param centralBodyFrame rotating body frame
+     * @param provider provider for spherical harmonics
+     * @param analyticalDegree maximum degree of the analytical part (terms with
+     * larger degrees are tabulated)
+     * @param referenceDate date at which the high degree part is frozen
+     * @param minRadius minimum tabulated radius (m)
+     * @param maxRadius maximum tabulated radius (m)
+     * @param radiusStep radius step (m), it will be slightly reduced to fit the range
+     * @param angularStep latitude and longitude step (rad), it will be slightly
+     * reduced to fit the range
+     * @param maxTiles maximum number of tiles kept in memory
+     * @exception OrekitException if the coefficients at reference date cannot be computed
+     */
+    public GriddedAttractionModel(final Frame centralBodyFrame,
+                                  final NormalizedSphericalHarmonicsProvider provider,
+                                  final int analyticalDegree, final AbsoluteDate referenceDate,
+                                  final double minRadius, final double maxRadius, final double radiusStep,
+                                  final double angularStep, final int maxTiles)
+        throws OrekitException {
+
+        super(NewtonianAttraction.CENTRAL_ATTRACTION_COEFFICIENT);
+
+        this.gridMu        = provider.getMu();
+        this.mu            = provider.getMu();
+        this.bodyFrame     = centralBodyFrame;
+        this.tideSystem    = provider.getTideSystem();
+        this.referenceDate = referenceDate;
+
+        final int split = FastMath.min(analyticalDegree, provider.getMaxDegree());
+        this.lowDegree  = new HolmesFeatherstoneAttractionModel(centralBodyFrame,
+                                                                new TruncatedProvider(provider, split));
+        this.highDegree = new HolmesFeatherstoneAttractionModel(centralBodyFrame,
+                                                                new FrozenResidualProvider(provider, split,
+                                                                                           referenceDate));
+
+        this.minRadius     = minRadius;
+        this.nR            = FastMath.max(4, (int) FastMath.ceil((maxRadius - minRadius) / radiusStep) + 1);
+        this.radiusStep    = (maxRadius - minRadius) / (nR - 1);
+        this.nLat          = FastMath.max(4, (int) FastMath.ceil(FastMath.PI / angularStep));
+        this.latitudeStep  = FastMath.PI / nLat;
+        this.nLon          = FastMath.max(4, (int) FastMath.ceil(MathUtils.TWO_PI / angularStep));
+        this.longitudeStep = MathUtils.TWO_PI / nLon;
+        this.nLonTiles     = (nLon + TILE_SIDE - 1) / TILE_SIDE;
+        this.nTiles        = nLonTiles * ((nLat + TILE_SIDE) / TILE_SIDE);
+
+        final int cacheSize = FastMath.max(1, maxTiles);
+        this.tiles = new LinkedHashMap<Integer, FutureTask<double[]>>(16, 0.75f, true) {
+
+            /** Serializable UID. */
+            private static final long serialVersionUID = 20150512L;
+
+            /** {@inheritDoc} */
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, FutureTask<double[]>> eldest) {
+                return size() > cacheSize;
+            }
+
+        };
+
+    }
+
+    /** {@inheritDoc} */
+    public TideSystem getTideSystem() {
+        return tideSystem;
+    }
+
+    /** Get the number of tiles in the complete grid.
+     * @return number of tiles in the complete grid
+     */
+    public int getTilesNumber() {
+        return nTiles;
+    }
+
+    /** Get the number of tiles currently held in memory.
+     * @return number of tiles currently held in memory
+     */
+    public int getCachedTilesNumber() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    /** Compute the gradient of the non-central part of the gravity field.
+     * @param date current date
+     * @param position position at which gravity field is desired in body frame
+     * @return gradient of the non-central part of the gravity field
+     * @exception OrekitException if the field cannot be computed
+     */
+    public double[] gradient(final AbsoluteDate date, final Vector3D position)
+        throws OrekitException {
+        final double[] gradient = lowDegree.gradient(date, position);
+        final double[] high     = highDegreeGradient(position);
+        gradient[0] += high[0];
+        gradient[1] += high[1];
+        gradient[2] += high[2];
+        return gradient;
+    }
+
+    /** Compute the gradient of the high degree part of the gravity field.
+     * @param position position at which gravity field is desired in body frame
+     * @return gradient of the high degree part of the gravity field
+     * @exception OrekitException if the field cannot be computed
+     */
+    private double[] highDegreeGradient(final Vector3D position)
+        throws OrekitException {
+
+        final double r  = position.getNorm();
+        final double xR = (r - minRadius) / radiusStep;
+        if (xR < 0 || xR > nR - 1) {
+            // outside of tabulated range, use the analytical model
+            final double[] gradient = highDegree.gradient(referenceDate, position);
+            final double scale = mu / gridMu;
+            gradient[0] *= scale;
+            gradient[1] *= scale;
+            gradient[2] *= scale;
+            return gradient;
+        }
+
+        // locate the point in the grid
+        final int    iR   = FastMath.max(1, FastMath.min((int) FastMath.floor(xR), nR - 3));
+        final double xLat = (position.getDelta() + 0.5 * FastMath.PI) / latitudeStep - 0.5;
+        final int    iLat = FastMath.max(-1, FastMath.min((int) FastMath.floor(xLat), nLat - 1));
+        double lon = position.getAlpha();
+        if (lon < 0) {
+            lon += MathUtils.TWO_PI;
+        }
+        final double xLon = lon / longitudeStep;
+        final int    iLon = FastMath.max(0, FastMath.min((int) FastMath.floor(xLon), nLon - 1));
+
+        // get the tile containing the point
+        final int latTile = (iLat + 1) / TILE_SIDE;
+        final int lonTile = iLon / TILE_SIDE;
+        final double[] tile = getTile(latTile * nLonTiles + lonTile);
+
+        // tri-cubic Lagrange interpolation
+        final double[] wR   = weights(xR   - iR);
+        final double[] wLat = weights(xLat - iLat);
+        final double[] wLon = weights(xLon - iLon);
+        final int j0 = iLat - (latTile * TILE_SIDE - 1) + MARGIN_BEFORE - 1;
+        final int k0 = iLon - lonTile * TILE_SIDE + MARGIN_BEFORE - 1;
+        double gx = 0;
+        double gy = 0;
+        double gz = 0;
+        for (int j = 0; j < 4; ++j) {
+            for (int k = 0; k < 4; ++k) {
+                final double wjk = wLat[j] * wLon[k];
+                int index = 3 * (((j0 + j) * NODES_PER_SIDE + k0 + k) * nR + iR - 1);
+                double sx = 0;
+                double sy = 0;
+                double sz = 0;
+                for (int i = 0; i < 4; ++i) {
+                    sx += wR[i] * tile[index++];
+                    sy += wR[i] * tile[index++];
+                    sz += wR[i] * tile[index++];
+                }
+                gx += wjk * sx;
+                gy += wjk * sy;
+                gz += wjk * sz;
+            }
+        }
+
+        final double scale = mu / gridMu;
+        return new double[] {
+            scale * gx, scale * gy, scale * gz
+        };
+
+    }
+
+    /** Compute cubic Lagrange weights.
+     * @param t normalized coordinate with respect to the second of the four nodes
+     * @return weights for the four nodes at -1, 0, 1 and 2
+     */
+    private static double[] weights(final double t) {
+        final double tP1 = t + 1;
+        final double tM1 = t - 1;
+        final double tM2 = t - 2;
+        return new double[] {
+            -t   * tM1 * tM2 / 6,
+            tP1  * tM1 * tM2 / 2,
+            -tP1 * t   * tM2 / 2,
+            tP1  * t   * tM1 / 6
+        };
+    }
+
+    /** Get a tile, building it if needed.
+     * @param index tile index
+     * @return gradients at tile nodes
+     * @exception OrekitException if the field cannot be computed
+     */
+    private double[] getTile(final int index) throws OrekitException {
+
+        final FutureTask<double[]> task;
+        boolean mustBuild = false;
+        synchronized (tiles) {
+            final FutureTask<double[]> cached = tiles.get(index);
+            if (cached == null) {
+                task = new FutureTask<double[]>(new Callable<double[]>() {
+                    /** {@inheritDoc} */
+                    public double[] call() throws OrekitException {
+                        return buildTile(index);
+                    }
+                });
+                tiles.put(index, task);
+                mustBuild = true;
+            } else {
+                task = cached;
+            }
+        }
+
+        if (mustBuild) {
+            // the tile is built by the first thread needing it,
+            // other threads needing it simply wait for completion
+            task.run();
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw OrekitException.createInternalError(ie);
+        } catch (ExecutionException ee) {
+            // don't keep failed tiles, so they can be rebuilt later
+            synchronized (tiles) {
+                if (tiles.get(index) == task) {
+                    tiles.remove(index);
+                }
+            }
+            if (ee.getCause() instanceof OrekitException) {
+                throw (OrekitException) ee.getCause();
+            } else {
+                throw OrekitException.createInternalError(ee.getCause());
+            }
+        }
+
+    }
+
+    /** Build one tile.
+     * <p>
+     * Nodes outside of the latitude range (i.e. beyond the poles) are
+     * computed as is, they correspond to points on the other side of
+     * the pole, so interpolation remains smooth across poles.
+     * </p>
+     * @param index tile index
+     * @return gradients at tile nodes
+     * @exception OrekitException if the field cannot be computed
+     */
+    private double[] buildTile(final int index) throws OrekitException {
+        final int firstLat = (index / nLonTiles) * TILE_SIDE - 1 - MARGIN_BEFORE;
+        final int firstLon = (index % nLonTiles) * TILE_SIDE - MARGIN_BEFORE;
+        final double[] tile = new double[3 * NODES_PER_SIDE * NODES_PER_SIDE * nR];
+        int k = 0;
+        for (int j = 0; j < NODES_PER_SIDE; ++j) {
+            final double latitude = (firstLat + j + 0.5) * latitudeStep - 0.5 * FastMath.PI;
+            final double cosLat   = FastMath.cos(latitude);
+            final double sinLat   = FastMath.sin(latitude);
+            for (int l = 0; l < NODES_PER_SIDE; ++l) {
+                final double longitude = (firstLon + l) * longitudeStep;
+                final double cosLon    = FastMath.cos(longitude);
+                final double sinLon    = FastMath.sin(longitude);
+                for (int i = 0; i < nR; ++i) {
+                    final double r = minRadius + i * radiusStep;
+                    final double[] g = highDegree.gradient(referenceDate,
+                                                           new Vector3D(r * cosLat * cosLon,
+                                                                        r * cosLat * sinLon,
+                                                                        r * sinLat));
+                    tile[k++] = g[0];
+                    tile[k++] = g[1];
+                    tile[k++] = g[2];
+                }
+            }
+        }
+        return tile;
+    }
+
+    /** {@inheritDoc} */
+    public void addContribution(final SpacecraftState s, final TimeDerivativesEquations adder)
+        throws OrekitException {
+
+        // get the position in body frame
+        final AbsoluteDate date       = s.getDate();
+        final Transform fromBodyFrame = bodyFrame.getTransformTo(s.getFrame(), date);
+        final Transform toBodyFrame   = fromBodyFrame.getInverse();
+        final Vector3D position       = toBodyFrame.transformPosition(s.getPVCoordinates().getPosition());
+
+        // gradient of the non-central part of the gravity field
+        final Vector3D gInertial = fromBodyFrame.transformVector(new Vector3D(gradient(date, position)));
+
+        adder.addXYZAcceleration(gInertial.getX(), gInertial.getY(), gInertial.getZ());
+
+    }
+
+    /** {@inheritDoc} */
+    public EventDetector[] getEventsDetectors() {
+        return new EventDetector[0];
+    }
+
+    /** {@inheritDoc} */
+    public double getParameter(final String name)
+        throws IllegalArgumentException {
+        complainIfNotSupported(name);
+        return mu;
+    }
+
+    /** {@inheritDoc} */
+    public void setParameter(final String name, final double value)
+        throws IllegalArgumentException {
+        complainIfNotSupported(name);
+        mu = value;
+        lowDegree.setParameter(name, value);
+    }
+
+    /** {@inheritDoc} */
+    public FieldVector3D<DerivativeStructure> accelerationDerivatives(final AbsoluteDate date, final Frame frame,
+                                                                      final FieldVector3D<DerivativeStructure> position,
+                                                                      final FieldVector3D<DerivativeStructure> velocity,
+                                                                      final FieldRotation<DerivativeStructure> rotation,
+                                                                      final DerivativeStructure mass)
+        throws OrekitException {
+
+        // high degree part, considered constant
+        final Transform fromBodyFrame = bodyFrame.getTransformTo(frame, date);
+        final Vector3D positionBody   = fromBodyFrame.getInverse().transformPosition(position.toVector3D());
+        final Vector3D high = fromBodyFrame.transformVector(new Vector3D(highDegreeGradient(positionBody)));
+
+        return lowDegree.accelerationDerivatives(date, frame, position, velocity, rotation, mass).add(high);
+
+    }
+
+    /** {@inheritDoc} */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM)
+        throws OrekitException {
+        // high degree part is considered constant
+        return lowDegree.addAccelerationJacobians(date, frame, position, velocity, rotation, mass,
+                                                  dAccdPos, dAccdVel, dAccdM);
+    }
+
+    /** {@inheritDoc} */
+    public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
+        throws OrekitException, IllegalArgumentException {
+
+        complainIfNotSupported(paramName);
+
+        // get the position in body frame
+        final AbsoluteDate date       = s.getDate();
+        final Transform fromBodyFrame = bodyFrame.getTransformTo(s.getFrame(), date);
+        final Transform toBodyFrame   = fromBodyFrame.getInverse();
+        final Vector3D position       = toBodyFrame.transformPosition(s.getPVCoordinates().getPosition());
+
+        // gradient of the non-central part of the gravity field
+        final Vector3D gInertial = fromBodyFrame.transformVector(new Vector3D(gradient(date, position)));
+
+        return new FieldVector3D<DerivativeStructure>(new DerivativeStructure(1, 1, gInertial.getX(), gInertial.getX() / mu),
+                                                      new DerivativeStructure(1, 1, gInertial.getY(), gInertial.getY() / mu),
+                                                      new DerivativeStructure(1, 1, gInertial.getZ(), gInertial.getZ() / mu));
+
+    }
+
+    /** Provider restricted to low degrees. */
+    private static class TruncatedProvider implements NormalizedSphericalHarmonicsProvider {
+
+        /** Underlying provider. */
+        private final NormalizedSphericalHarmonicsProvider provider;
+
+        /** Maximum degree. */
+        private final int degree;
+
+        /** Simple constructor.
+         * @param provider underlying provider
+         * @param degree maximum degree
+         */
+        TruncatedProvider(final NormalizedSphericalHarmonicsProvider provider, final int degree) {
+            this.provider = provider;
+            this.degree   = degree;
+        }
+
+        /** {@inheritDoc} */
+        public int getMaxDegree() {
+            return degree;
+        }
+
+        /** {@inheritDoc} */
+        public int getMaxOrder() {
+            return FastMath.min(degree, provider.getMaxOrder());
+        }
+
+        /** {@inheritDoc} */
+        public double getMu() {
+            return provider.getMu();
+        }
+
+        /** {@inheritDoc} */
+        public double getAe() {
+            return provider.getAe();
+        }
+
+        /** {@inheritDoc} */
+        public AbsoluteDate getReferenceDate() {
+            return provider.getReferenceDate();
+        }
+
+        /** {@inheritDoc} */
+        public double getOffset(final AbsoluteDate date) {
+            return provider.getOffset(date);
+        }
+
+        /** {@inheritDoc} */
+        public TideSystem getTideSystem() {
+            return provider.getTideSystem();
+        }
+
+        /** {@inheritDoc} */
+        public NormalizedSphericalHarmonics onDate(final AbsoluteDate date)
+            throws OrekitException {
+            return provider.onDate(date);
+        }
+
+    }
+
+    /** Provider for the high degrees, frozen at a reference date. */
+    private static class FrozenResidualProvider implements NormalizedSphericalHarmonicsProvider {
+
+        /** Underlying provider. */
+        private final NormalizedSphericalHarmonicsProvider provider;
+
+        /** Maximum degree of the excluded low degree part. */
+        private final int split;
+
+        /** Harmonics at reference date. */
+        private final NormalizedSphericalHarmonics frozen;
+
+        /** Simple constructor.
+         * @param provider underlying provider
+         * @param split maximum degree of the excluded low degree part
+         * @param referenceDate date at which coefficients are frozen
+         * @exception OrekitException if coefficients cannot be computed
+         */
+        FrozenResidualProvider(final NormalizedSphericalHarmonicsProvider provider, final int split,
+                               final AbsoluteDate referenceDate)
+            throws OrekitException {
+            this.provider = provider;
+            this.split    = split;
+            this.frozen   = provider.onDate(referenceDate);
+        }
+
+        /** {@inheritDoc} */
+        public int getMaxDegree() {
+            return provider.getMaxDegree();
+        }
+
+        /** {@inheritDoc} */
+        public int getMaxOrder() {
+            return provider.getMaxOrder();
+        }
+
+        /** {@inheritDoc} */
+        public double getMu() {
+            return provider.getMu();
+        }
+
+        /** {@inheritDoc} */
+        public double getAe() {
+            return provider.getAe();
+        }
+
+        /** {@inheritDoc} */
+        public AbsoluteDate getReferenceDate() {
+            return frozen.getDate();
+        }
+
+        /** {@inheritDoc} */
+        public double getOffset(final AbsoluteDate date) {
+            return date.durationFrom(frozen.getDate());
+        }
+
+        /** {@inheritDoc} */
+        public TideSystem getTideSystem() {
+            return provider.getTideSystem();
+        }
+
+        /** {@inheritDoc} */
+        public NormalizedSphericalHarmonics onDate(final AbsoluteDate date) {
+            return new NormalizedSphericalHarmonics() {
+
+                /** {@inheritDoc} */
+                public AbsoluteDate getDate() {
+                    return frozen.getDate();
+                }
+
+                /** {@inheritDoc} */
+                public double getNormalizedCnm(final int n, final int m)
+                    throws OrekitException {
+                    return (n <= split) ? 0.0 : frozen.getNormalizedCnm(n, m);
+                }
+
+                /** {@inheritDoc} */
+                public double getNormalizedSnm(final int n, final int m)
+                    throws OrekitException {
+                    return (n <= split) ? 0.0 : frozen.getNormalizedSnm(n, m);
+                }
+
+            };
+        }
+
+    }
+
+}
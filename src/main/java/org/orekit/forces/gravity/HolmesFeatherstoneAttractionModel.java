@@ -22,6 +22,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.SphericalCoordinates;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
@@ -29,6 +30,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.ode.AbstractParameterizable;
 import org.apache.commons.math3.util.FastMath;
 import org.orekit.errors.OrekitException;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
 import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
 import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider.NormalizedSphericalHarmonics;
@@ -63,20 +65,26 @@ import org.orekit.time.AbsoluteDate;
  * are precomputed and stored for greater performance. This caching was suggested in the
  * paper but not used due to the large memory requirements. Since 2002, even low end
  * computers and mobile devices do have sufficient memory so this caching has become
- * feasible nowadays.
+ * feasible nowadays. The recursion coefficients only depend on the degree of the
+ * field, they are computed once and shared by all instances using the same degree.
+ * </p>
+ * <p>
+ * For high degree fields used by many concurrent propagations, a single immutable
+ * {@link GravityFieldKernel} can be shared as the provider by all instances.
+ * </p>
  * <p>
  * @author Luc Maisonobe
  * @since 6.0
  */
 
 public class HolmesFeatherstoneAttractionModel
-    extends AbstractParameterizable implements ForceModel, TideSystemProvider {
+    extends AbstractParameterizable implements ForceModel, AccelerationJacobiansProvider, TideSystemProvider {
 
     /** Exponent scaling to avoid floating point overflow.
      * <p>The paper uses 10^280, we prefer a power of two to preserve accuracy thanks to
      * {@link FastMath#scalb(double, int)}, so we use 2^930 which has the same order of magnitude.
      */
-    private static final int SCALING = 930;
+    static final int SCALING = 930;
 
     /** Provider for the spherical harmonics. */
     private final NormalizedSphericalHarmonicsProvider provider;
@@ -113,37 +121,13 @@ public class HolmesFeatherstoneAttractionModel
         this.mu        = provider.getMu();
         this.bodyFrame = centralBodyFrame;
 
-        // the pre-computed arrays hold coefficients from triangular arrays in a single
-        // storing neither diagonal elements (n = m) nor the non-diagonal element n=1, m=0
-        final int degree = provider.getMaxDegree();
-        final int size = FastMath.max(0, degree * (degree + 1) / 2 - 1);
-        gnmOj = new double[size];
-        hnmOj = new double[size];
-        enm   = new double[size];
-
-        // pre-compute the recursion coefficients corresponding to equations 19 and 22
-        // from Holmes and Featherstone paper
-        // for cache efficiency, elements are stored in the same order they will be used
-        // later on, i.e. from rightmost column to leftmost column
-        int index = 0;
-        for (int m = degree; m >= 0; --m) {
-            final int j = (m == 0) ? 2 : 1;
-            for (int n = FastMath.max(2, m + 1); n <= degree; ++n) {
-                final double f = (n - m) * (n + m + 1);
-                gnmOj[index] = 2 * (m + 1) / FastMath.sqrt(j * f);
-                hnmOj[index] = FastMath.sqrt((n + m + 2) * (n - m - 1) / (j * f));
-                enm[index]   = FastMath.sqrt(f / j);
-                ++index;
-            }
-        }
-
-        // scaled sectorial terms corresponding to equation 28 in Holmes and Featherstone paper
-        sectorial    = new double[degree + 1];
-        sectorial[0] = FastMath.scalb(1.0, -SCALING);
-        sectorial[1] = FastMath.sqrt(3) * sectorial[0];
-        for (int m = 2; m < sectorial.length; ++m) {
-            sectorial[m] = FastMath.sqrt((2 * m + 1) / (2.0 * m)) * sectorial[m - 1];
-        }
+        // the recursion coefficients only depend on degree, they are shared between instances
+        final GravityFieldKernel.RecursionCoefficients coefficients =
+                GravityFieldKernel.getRecursionCoefficients(provider.getMaxDegree());
+        gnmOj     = coefficients.getGnmOj();
+        hnmOj     = coefficients.getHnmOj();
+        enm       = coefficients.getEnm();
+        sectorial = coefficients.getSectorial();
 
     }
 
@@ -788,6 +772,43 @@ public class HolmesFeatherstoneAttractionModel
 
     }
 
+    /** {@inheritDoc}
+     * @since 7.1
+     */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM)
+        throws OrekitException {
+
+        // get the position in body frame
+        final Transform toBodyFrame = frame.getTransformTo(bodyFrame, date);
+        final Vector3D positionBody = toBodyFrame.transformPosition(position);
+
+        // Hessian of the non-central part of the gravity field, in body frame
+        final double[][] h = gradientHessian(date, positionBody).getHessian();
+
+        // rotate Hessian back to inertial frame: H_inertial = Mᵀ H_body M
+        final double[][] m = toBodyFrame.getRotation().getMatrix();
+        final double[] hm  = new double[9];
+        for (int i = 0; i < 3; ++i) {
+            final double[] hi = h[i];
+            for (int j = 0; j < 3; ++j) {
+                hm[3 * i + j] = hi[0] * m[0][j] + hi[1] * m[1][j] + hi[2] * m[2][j];
+            }
+        }
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                dAccdPos[3 * i + j] += m[0][i] * hm[j] + m[1][i] * hm[3 + j] + m[2][i] * hm[6 + j];
+            }
+        }
+
+        // acceleration does not depend on velocity nor mass
+        return true;
+
+    }
+
     /** {@inheritDoc} */
     public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
         throws OrekitException, IllegalArgumentException {
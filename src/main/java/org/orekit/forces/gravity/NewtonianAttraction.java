@@ -19,10 +19,12 @@ package org.orekit.forces.gravity;
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.AbstractParameterizable;
 import org.apache.commons.math3.util.FastMath;
 import org.orekit.errors.OrekitException;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
 import org.orekit.frames.Frame;
 import org.orekit.propagation.SpacecraftState;
@@ -33,7 +35,8 @@ import org.orekit.time.AbsoluteDate;
 /** Force model for Newtonian central body attraction.
  * @author Luc Maisonobe
  */
-public class NewtonianAttraction extends AbstractParameterizable implements ForceModel {
+public class NewtonianAttraction extends AbstractParameterizable
+    implements ForceModel, AccelerationJacobiansProvider {
 
     /** Name of the single parameter of this model: the central attraction coefficient. */
     public static final String CENTRAL_ATTRACTION_COEFFICIENT = "central attraction coefficient";
@@ -60,6 +63,32 @@ public class NewtonianAttraction extends AbstractParameterizable implements Forc
 
     }
 
+    /** {@inheritDoc}
+     * @since 7.1
+     */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM) {
+
+        // γ = -µ r / |r|³, hence ∂γ/∂r = µ (3 r rᵀ / |r|⁵ - I / |r|³)
+        final double[] r  = position.toArray();
+        final double   r2 = position.getNormSq();
+        final double   k1 = mu / (r2 * FastMath.sqrt(r2));
+        final double   k3 = 3 * k1 / r2;
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                dAccdPos[3 * i + j] += k3 * r[i] * r[j];
+            }
+            dAccdPos[4 * i] -= k1;
+        }
+
+        // acceleration does not depend on velocity nor mass
+        return true;
+
+    }
+
     /** {@inheritDoc} */
     public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
         throws OrekitException {
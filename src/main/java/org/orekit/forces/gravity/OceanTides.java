@@ -51,6 +51,9 @@ public class OceanTides extends AbstractParameterizable implements ForceModel {
     /** Default number of points tides field sampling. */
     public static final int DEFAULT_POINTS = 12;
 
+    /** Provider for the tides coefficients. */
+    private final NormalizedSphericalHarmonicsProvider provider;
+
     /** Underlying attraction model. */
     private final ForceModel attractionModel;
 
@@ -112,7 +115,6 @@ public class OceanTides extends AbstractParameterizable implements ForceModel {
                                     conventions.getNutationArguments(ut1),
                                     poleTide ? conventions.getOceanPoleTide(ut1.getEOPHistory()) : null);
 
-        final NormalizedSphericalHarmonicsProvider provider;
         if (nbPoints < 2) {
             provider = raw;
         } else {
@@ -127,6 +129,19 @@ public class OceanTides extends AbstractParameterizable implements ForceModel {
 
     }
 
+    /** Get the provider for the ocean tides coefficients.
+     * <p>
+     * The provider can be used as a correction in a {@link TimeDependentGravityField},
+     * in order to evaluate the main field and all tides using a single attraction model.
+     * </p>
+     * @return provider for the ocean tides coefficients (interpolated if the instance
+     * was built with interpolation)
+     * @since 7.1
+     */
+    public NormalizedSphericalHarmonicsProvider getTidesProvider() {
+        return provider;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double getParameter(final String name)
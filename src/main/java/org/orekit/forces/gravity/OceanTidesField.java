@@ -35,6 +35,11 @@ import org.orekit.time.TimeFunction;
  * IERS conventions (2010)</a>, chapter 6, section 6.3.
  * </p>
  * <p>
+ * The coefficients of all waves are stored in contiguous arrays, each wave
+ * using only the part of the triangular array up to its own degree, and the
+ * trigonometric functions of each wave argument are computed only once per date.
+ * </p>
+ * <p>
  * Note that this class is <em>not</em> thread-safe, and that tides computation
  * are computer intensive if repeated. So this class is really expected to
  * be wrapped within a {@link
@@ -62,6 +67,24 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
     /** Tides model. */
     private final List<OceanTidesWave> waves;
 
+    /** Number of coefficients in the flattened triangular arrays. */
+    private final int size;
+
+    /** Index of the first coefficient of each wave in the flattened arrays (one extra element at the end). */
+    private final int[] offsets;
+
+    /** C<sub>n,m</sub><sup>+</sup> + C<sub>n,m</sub><sup>-</sup> for all waves, wave-major. */
+    private final double[] cPlusCMinus;
+
+    /** S<sub>n,m</sub><sup>+</sup> + S<sub>n,m</sub><sup>-</sup> for all waves, wave-major. */
+    private final double[] sPlusSMinus;
+
+    /** S<sub>n,m</sub><sup>+</sup> - S<sub>n,m</sub><sup>-</sup> for all waves, wave-major. */
+    private final double[] sPlusMinusSMinus;
+
+    /** C<sub>n,m</sub><sup>+</sup> - C<sub>n,m</sub><sup>-</sup> for all waves, wave-major. */
+    private final double[] cPlusMinusCMinus;
+
     /** Object computing the fundamental arguments. */
     private final FundamentalNutationArguments arguments;
 
@@ -98,6 +121,40 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
         degree = m;
         order  = n;
 
+        // each wave stores the coefficients from degree 2 (waves of degree 0 and 1
+        // do not affect spacecrafts) up to its own maximum degree
+        size    = (degree + 1) * (degree + 2) / 2;
+        offsets = new int[waves.size() + 1];
+        for (int k = 0; k < waves.size(); ++k) {
+            final int waveDegree = waves.get(k).getMaxDegree();
+            final int waveSize   = (waveDegree < 2) ? 0 : index(waveDegree + 1, 0) - index(2, 0);
+            offsets[k + 1] = offsets[k] + waveSize;
+        }
+
+        // flatten the coefficients of all waves in contiguous arrays, with
+        // the combinations used in IERS conventions 2010, section 6.3, equation 6.15
+        final int total  = offsets[waves.size()];
+        cPlusCMinus      = new double[total];
+        sPlusSMinus      = new double[total];
+        sPlusMinusSMinus = new double[total];
+        cPlusMinusCMinus = new double[total];
+        for (int k = 0; k < waves.size(); ++k) {
+            final OceanTidesWave wave = waves.get(k);
+            for (int i = 2; i <= wave.getMaxDegree(); ++i) {
+                final int base = offsets[k] + index(i, 0) - index(2, 0);
+                for (int j = 0; j <= FastMath.min(i, wave.getMaxOrder()); ++j) {
+                    final double cP = wave.getCPlus(i, j);
+                    final double sP = wave.getSPlus(i, j);
+                    final double cM = wave.getCMinus(i, j);
+                    final double sM = wave.getSMinus(i, j);
+                    cPlusCMinus[base + j]      = cP + cM;
+                    sPlusSMinus[base + j]      = sP + sM;
+                    sPlusMinusSMinus[base + j] = sP - sM;
+                    cPlusMinusCMinus[base + j] = cP - cM;
+                }
+            }
+        }
+
         this.arguments = arguments;
 
         // pole tide
@@ -154,17 +211,23 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
     public NormalizedSphericalHarmonics onDate(final AbsoluteDate date) throws OrekitException {
 
         // computed Cnm and Snm coefficients
-        final double[][] cnm = new double[degree + 1][];
-        final double[][] snm = new double[degree + 1][];
-        for (int i = 0; i <= degree; ++i) {
-            final int m = FastMath.min(i, order) + 1;
-            cnm[i] = new double[m];
-            snm[i] = new double[m];
-        }
+        final double[] cnm = new double[size];
+        final double[] snm = new double[size];
 
+        // each wave argument trigonometric functions are computed only once,
+        // then all coefficients of the wave are accumulated in a single loop
         final BodiesElements bodiesElements = arguments.evaluateAll(date);
-        for (final OceanTidesWave wave : waves) {
-            wave.addContribution(bodiesElements, cnm, snm);
+        for (int k = 0; k < waves.size(); ++k) {
+            final double thetaF = waves.get(k).getArgument(bodiesElements);
+            final double cos    = FastMath.cos(thetaF);
+            final double sin    = FastMath.sin(thetaF);
+            final int shift     = index(2, 0) - offsets[k];
+            for (int l = offsets[k]; l < offsets[k + 1]; ++l) {
+                // from IERS conventions 2010, section 6.3, equation 6.15
+                final int i = l + shift;
+                cnm[i] += cPlusCMinus[l]      * cos + sPlusSMinus[l]      * sin;
+                snm[i] += sPlusMinusSMinus[l] * cos - cPlusMinusCMinus[l] * sin;
+            }
         }
 
         if (poleTideFunction != null && degree > 1 && order > 0) {
@@ -181,10 +244,19 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
      * @param cnm the Cnm coefficients. Modified in place.
      * @param snm the Snm coefficients. Modified in place.
      */
-    private void poleTide(final AbsoluteDate date, final double[][] cnm, final double[][] snm) {
+    private void poleTide(final AbsoluteDate date, final double[] cnm, final double[] snm) {
         final double[] deltaCS = poleTideFunction.value(date);
-        cnm[2][1] += deltaCS[0]; // ΔC₂₁
-        snm[2][1] += deltaCS[1]; // ΔS₂₁
+        cnm[index(2, 1)] += deltaCS[0]; // ΔC₂₁
+        snm[index(2, 1)] += deltaCS[1]; // ΔS₂₁
+    }
+
+    /** Get the index of a coefficient in the flattened triangular arrays.
+     * @param n degree
+     * @param m order
+     * @return index of the coefficient
+     */
+    private static int index(final int n, final int m) {
+        return n * (n + 1) / 2 + m;
     }
 
     /** The Tidal geopotential evaluated on a specific date. */
@@ -193,11 +265,11 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
         /** evaluation date. */
         private final AbsoluteDate date;
 
-        /** Cached cnm. */
-        private final double[][] cnm;
+        /** Cached cnm, flattened. */
+        private final double[] cnm;
 
-        /** Cached snm. */
-        private final double[][] snm;
+        /** Cached snm, flattened. */
+        private final double[] snm;
 
         /** Construct the tidal harmonics on the given date.
          *
@@ -206,8 +278,8 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
          * @param snm the Snm coeffiecients. Not copied.
          */
         private TideHarmonics(final AbsoluteDate date,
-                              final double[][] cnm,
-                              final double[][] snm) {
+                              final double[] cnm,
+                              final double[] snm) {
             this.date = date;
             this.cnm = cnm;
             this.snm = snm;
@@ -223,14 +295,14 @@ class OceanTidesField implements NormalizedSphericalHarmonicsProvider {
         @Override
         public double getNormalizedCnm(final int n, final int m)
             throws OrekitException {
-            return cnm[n][m];
+            return cnm[index(n, m)];
         }
 
         /** {@inheritDoc} */
         @Override
         public double getNormalizedSnm(final int n, final int m)
             throws OrekitException {
-            return snm[n][m];
+            return snm[index(n, m)];
         }
 
     }
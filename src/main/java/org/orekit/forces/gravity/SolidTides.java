@@ -49,6 +49,9 @@ public class SolidTides extends AbstractParameterizable implements ForceModel {
     /** Default number of points tides field sampling. */
     public static final int DEFAULT_POINTS = 12;
 
+    /** Provider for the tides coefficients. */
+    private final NormalizedSphericalHarmonicsProvider provider;
+
     /** Underlying attraction model. */
     private final ForceModel attractionModel;
 
@@ -106,7 +109,6 @@ public class SolidTides extends AbstractParameterizable implements ForceModel {
                                conventions.getPermanentTide(),
                                poleTide ? conventions.getSolidPoleTide(ut1.getEOPHistory()) : null,
                                centralBodyFrame, ae, mu, centralTideSystem, bodies);
-        final NormalizedSphericalHarmonicsProvider provider;
         if (nbPoints < 2) {
             provider = raw;
         } else {
@@ -119,6 +121,19 @@ public class SolidTides extends AbstractParameterizable implements ForceModel {
         attractionModel = new HolmesFeatherstoneAttractionModel(centralBodyFrame, provider);
     }
 
+    /** Get the provider for the solid tides coefficients.
+     * <p>
+     * The provider can be used as a correction in a {@link TimeDependentGravityField},
+     * in order to evaluate the main field and all tides using a single attraction model.
+     * </p>
+     * @return provider for the solid tides coefficients (interpolated if the instance
+     * was built with interpolation)
+     * @since 7.1
+     */
+    public NormalizedSphericalHarmonicsProvider getTidesProvider() {
+        return provider;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double getParameter(final String name)
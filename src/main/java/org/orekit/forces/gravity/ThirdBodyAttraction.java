@@ -19,11 +19,13 @@ package org.orekit.forces.gravity;
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.AbstractParameterizable;
 import org.apache.commons.math3.util.FastMath;
 import org.orekit.bodies.CelestialBody;
 import org.orekit.errors.OrekitException;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
 import org.orekit.frames.Frame;
 import org.orekit.propagation.SpacecraftState;
@@ -36,7 +38,8 @@ import org.orekit.time.AbsoluteDate;
  * @author Fabien Maussion
  * @author V&eacute;ronique Pommier-Maurussane
  */
-public class ThirdBodyAttraction extends AbstractParameterizable implements ForceModel {
+public class ThirdBodyAttraction extends AbstractParameterizable
+    implements ForceModel, AccelerationJacobiansProvider {
 
     /** Suffix for parameter name for attraction coefficient enabling jacobian processing. */
     public static final String ATTRACTION_COEFFICIENT_SUFFIX = " attraction coefficient";
@@ -101,6 +104,34 @@ public class ThirdBodyAttraction extends AbstractParameterizable implements Forc
 
     }
 
+    /** {@inheritDoc}
+     * @since 7.1
+     */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM)
+        throws OrekitException {
+
+        // γ = µ d / |d|³ - constant, with d = r_body - r, hence ∂γ/∂r = µ (3 d dᵀ / |d|⁵ - I / |d|³)
+        final Vector3D satToBody = body.getPVCoordinates(date, frame).getPosition().subtract(position);
+        final double[] d         = satToBody.toArray();
+        final double   d2        = satToBody.getNormSq();
+        final double   k1        = gm / (d2 * FastMath.sqrt(d2));
+        final double   k3        = 3 * k1 / d2;
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                dAccdPos[3 * i + j] += k3 * d[i] * d[j];
+            }
+            dAccdPos[4 * i] -= k1;
+        }
+
+        // acceleration does not depend on velocity nor mass
+        return true;
+
+    }
+
     /** {@inheritDoc} */
     public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
         throws OrekitException {
@@ -0,0 +1,256 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.TideSystem;
+import org.orekit.time.AbsoluteDate;
+
+/** Gravity field combining a main field with time-dependent corrections.
+ * <p>
+ * This provider adds the coefficients deltas from several corrections
+ * (typically the {@link SolidTides#getTidesProvider() solid tides} and
+ * {@link OceanTides#getTidesProvider() ocean tides} fields, including pole
+ * tides) to a main gravity field. Using it in a single {@link
+ * HolmesFeatherstoneAttractionModel} instead of one attraction model for
+ * the main field and one for each tides force model avoids running the
+ * spherical harmonics recursion several times at each evaluation, so
+ * the cost of a tides-enabled force model is about the same as the cost
+ * of the main field alone.
+ * </p>
+ * <p>
+ * The corrections deltas are computed only once for each date and stored
+ * in flat arrays limited to the degrees of the corrections, the main field
+ * coefficients are used directly without being copied. Deltas are kept for
+ * the last evaluated date in each thread, so several force models sharing
+ * the same instance (for example attraction models for the spacecraft and
+ * for partial derivatives) compute them only once. The harmonics returned
+ * by {@link #onDate(AbsoluteDate)} remain valid only until the next call
+ * from the same thread, as the underlying arrays are reused to avoid
+ * allocations.
+ * </p>
+ * <p>
+ * Corrections may use different reference radius and attraction coefficients
+ * than the main field, their coefficients are rescaled accordingly.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class TimeDependentGravityField implements NormalizedSphericalHarmonicsProvider {
+
+    /** Main gravity field. */
+    private final NormalizedSphericalHarmonicsProvider mainField;
+
+    /** Time-dependent corrections. */
+    private final NormalizedSphericalHarmonicsProvider[] corrections;
+
+    /** Maximum degree of the corrections. */
+    private final int correctionsDegree;
+
+    /** Scaling factors for corrections coefficients, indexed by correction and degree. */
+    private final double[][] scaling;
+
+    /** Maximum degree. */
+    private final int degree;
+
+    /** Maximum order. */
+    private final int order;
+
+    /** Per-thread deltas for the last evaluated date. */
+    private final ThreadLocal<Deltas> deltas;
+
+    /** Simple constructor.
+     * @param mainField main gravity field
+     * @param corrections time-dependent corrections
+     */
+    public TimeDependentGravityField(final NormalizedSphericalHarmonicsProvider mainField,
+                                     final NormalizedSphericalHarmonicsProvider ... corrections) {
+
+        this.mainField   = mainField;
+        this.corrections = corrections.clone();
+
+        int d = 0;
+        int o = 0;
+        this.scaling = new double[corrections.length][];
+        for (int k = 0; k < corrections.length; ++k) {
+            final NormalizedSphericalHarmonicsProvider correction = corrections[k];
+            d = FastMath.max(d, correction.getMaxDegree());
+            o = FastMath.max(o, correction.getMaxOrder());
+            scaling[k] = new double[correction.getMaxDegree() + 1];
+            final double aeRatio = correction.getAe() / mainField.getAe();
+            double factor = correction.getMu() / mainField.getMu();
+            for (int n = 0; n < scaling[k].length; ++n) {
+                scaling[k][n] = factor;
+                factor *= aeRatio;
+            }
+        }
+        this.correctionsDegree = d;
+        this.degree            = FastMath.max(mainField.getMaxDegree(), d);
+        this.order             = FastMath.max(mainField.getMaxOrder(),  o);
+
+        final int size = (correctionsDegree + 1) * (correctionsDegree + 2) / 2;
+        this.deltas = new ThreadLocal<Deltas>() {
+            /** {@inheritDoc} */
+            @Override
+            protected Deltas initialValue() {
+                return new Deltas(size);
+            }
+        };
+
+    }
+
+    /** {@inheritDoc} */
+    public int getMaxDegree() {
+        return degree;
+    }
+
+    /** {@inheritDoc} */
+    public int getMaxOrder() {
+        return order;
+    }
+
+    /** {@inheritDoc} */
+    public double getMu() {
+        return mainField.getMu();
+    }
+
+    /** {@inheritDoc} */
+    public double getAe() {
+        return mainField.getAe();
+    }
+
+    /** {@inheritDoc} */
+    public AbsoluteDate getReferenceDate() {
+        return mainField.getReferenceDate();
+    }
+
+    /** {@inheritDoc} */
+    public double getOffset(final AbsoluteDate date) {
+        return mainField.getOffset(date);
+    }
+
+    /** {@inheritDoc} */
+    public TideSystem getTideSystem() {
+        return mainField.getTideSystem();
+    }
+
+    /** {@inheritDoc} */
+    public NormalizedSphericalHarmonics onDate(final AbsoluteDate date)
+        throws OrekitException {
+        final Deltas d = deltas.get();
+        if (!date.equals(d.date)) {
+            d.update(date);
+        }
+        return d;
+    }
+
+    /** Get the index of a coefficient in the flat arrays.
+     * @param n degree
+     * @param m order
+     * @return index of the coefficient
+     */
+    private static int index(final int n, final int m) {
+        return n * (n + 1) / 2 + m;
+    }
+
+    /** Coefficients deltas at one date. */
+    private class Deltas implements NormalizedSphericalHarmonics {
+
+        /** Date of the deltas. */
+        private AbsoluteDate date;
+
+        /** Main field harmonics at date. */
+        private NormalizedSphericalHarmonics main;
+
+        /** Maximum degree of the main field. */
+        private final int mainDegree;
+
+        /** Maximum order of the main field. */
+        private final int mainOrder;
+
+        /** ΔC<sub>n,m</sub> at index n(n+1)/2+m. */
+        private final double[] deltaC;
+
+        /** ΔS<sub>n,m</sub> at index n(n+1)/2+m. */
+        private final double[] deltaS;
+
+        /** Simple constructor.
+         * @param size size of the flat arrays
+         */
+        Deltas(final int size) {
+            this.mainDegree = mainField.getMaxDegree();
+            this.mainOrder  = mainField.getMaxOrder();
+            this.deltaC     = new double[size];
+            this.deltaS     = new double[size];
+        }
+
+        /** Update the deltas.
+         * @param newDate new date
+         * @exception OrekitException if some coefficients cannot be computed
+         */
+        void update(final AbsoluteDate newDate) throws OrekitException {
+
+            // invalidate current content until update is complete
+            date = null;
+
+            main = mainField.onDate(newDate);
+            Arrays.fill(deltaC, 0.0);
+            Arrays.fill(deltaS, 0.0);
+            for (int k = 0; k < corrections.length; ++k) {
+                final NormalizedSphericalHarmonicsProvider correction = corrections[k];
+                final NormalizedSphericalHarmonics harmonics = correction.onDate(newDate);
+                final int cOrder = correction.getMaxOrder();
+                for (int n = 2; n < scaling[k].length; ++n) {
+                    final double factor = scaling[k][n];
+                    final int base = index(n, 0);
+                    for (int m = 0; m <= FastMath.min(n, cOrder); ++m) {
+                        deltaC[base + m] += factor * harmonics.getNormalizedCnm(n, m);
+                        deltaS[base + m] += factor * harmonics.getNormalizedSnm(n, m);
+                    }
+                }
+            }
+
+            date = newDate;
+
+        }
+
+        /** {@inheritDoc} */
+        public AbsoluteDate getDate() {
+            return date;
+        }
+
+        /** {@inheritDoc} */
+        public double getNormalizedCnm(final int n, final int m)
+            throws OrekitException {
+            final double c = (n <= mainDegree && m <= mainOrder) ? main.getNormalizedCnm(n, m) : 0.0;
+            return (n <= correctionsDegree) ? c + deltaC[index(n, m)] : c;
+        }
+
+        /** {@inheritDoc} */
+        public double getNormalizedSnm(final int n, final int m)
+            throws OrekitException {
+            final double s = (n <= mainDegree && m <= mainOrder) ? main.getNormalizedSnm(n, m) : 0.0;
+            return (n <= correctionsDegree) ? s + deltaS[index(n, m)] : s;
+        }
+
+    }
+
+}
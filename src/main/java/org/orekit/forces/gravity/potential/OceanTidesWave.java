@@ -144,6 +144,57 @@ public class OceanTidesWave {
         return doodson;
     }
 
+    /** Get the argument θ<sub>f</sub> of the wave.
+     * @param elements nutation elements
+     * @return argument θ<sub>f</sub> of the wave
+     * @since 7.1
+     */
+    public double getArgument(final BodiesElements elements) {
+        return cGamma * elements.getGamma() +
+               cL * elements.getL() + cLPrime * elements.getLPrime() + cF * elements.getF() +
+               cD * elements.getD() + cOmega * elements.getOmega();
+    }
+
+    /** Get a C<sub>n,m</sub><sup>+</sup> coefficient.
+     * @param n degree (must be at most {@link #getMaxDegree()})
+     * @param m order (must be at most min(n, {@link #getMaxOrder()}))
+     * @return C<sub>n,m</sub><sup>+</sup> coefficient
+     * @since 7.1
+     */
+    public double getCPlus(final int n, final int m) {
+        return cPlus[n][m];
+    }
+
+    /** Get a S<sub>n,m</sub><sup>+</sup> coefficient.
+     * @param n degree (must be at most {@link #getMaxDegree()})
+     * @param m order (must be at most min(n, {@link #getMaxOrder()}))
+     * @return S<sub>n,m</sub><sup>+</sup> coefficient
+     * @since 7.1
+     */
+    public double getSPlus(final int n, final int m) {
+        return sPlus[n][m];
+    }
+
+    /** Get a C<sub>n,m</sub><sup>-</sup> coefficient.
+     * @param n degree (must be at most {@link #getMaxDegree()})
+     * @param m order (must be at most min(n, {@link #getMaxOrder()}))
+     * @return C<sub>n,m</sub><sup>-</sup> coefficient
+     * @since 7.1
+     */
+    public double getCMinus(final int n, final int m) {
+        return cMinus[n][m];
+    }
+
+    /** Get a S<sub>n,m</sub><sup>-</sup> coefficient.
+     * @param n degree (must be at most {@link #getMaxDegree()})
+     * @param m order (must be at most min(n, {@link #getMaxOrder()}))
+     * @return S<sub>n,m</sub><sup>-</sup> coefficient
+     * @since 7.1
+     */
+    public double getSMinus(final int n, final int m) {
+        return sMinus[n][m];
+    }
+
     /** Add the contribution of the wave to Stokes coefficients.
      * @param elements nutation elements
      * @param cnm spherical harmonic cosine coefficients table to add contribution too
@@ -152,9 +203,7 @@ public class OceanTidesWave {
     public void addContribution(final BodiesElements elements,
                                 final double[][] cnm, final double[][] snm) {
 
-        final double thetaF = cGamma * elements.getGamma() +
-                              cL * elements.getL() + cLPrime * elements.getLPrime() + cF * elements.getF() +
-                              cD * elements.getD() + cOmega * elements.getOmega();
+        final double thetaF = getArgument(elements);
         final double cos    = FastMath.cos(thetaF);
         final double sin    = FastMath.sin(thetaF);
 
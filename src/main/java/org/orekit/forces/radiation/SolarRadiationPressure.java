@@ -19,12 +19,15 @@ package org.orekit.forces.radiation;
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.AbstractParameterizable;
 import org.apache.commons.math3.util.FastMath;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
+import org.orekit.forces.SphericalSpacecraft;
 import org.orekit.frames.Frame;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.AbstractDetector;
@@ -42,7 +45,8 @@ import org.orekit.utils.PVCoordinatesProvider;
  * @author V&eacute;ronique Pommier-Maurussane
  * @author Pascal Parraud
  */
-public class SolarRadiationPressure extends AbstractParameterizable implements ForceModel {
+public class SolarRadiationPressure extends AbstractParameterizable
+    implements ForceModel, AccelerationJacobiansProvider {
 
     /** Reference distance for the solar radiation pressure (m). */
     private static final double D_REF = 149597870000.0;
@@ -201,6 +205,58 @@ public class SolarRadiationPressure extends AbstractParameterizable implements F
 
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * Analytical Jacobians are available only for {@link SphericalSpacecraft spherical spacecraft},
+     * this method returns false for other spacecraft models. As in the {@code DerivativeStructure}
+     * based computation, the lightning ratio is considered constant at first order.
+     * </p>
+     * @since 7.1
+     */
+    public boolean addAccelerationJacobians(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D position, final Vector3D velocity,
+                                            final Rotation rotation, final double mass,
+                                            final double[] dAccdPos, final double[] dAccdVel,
+                                            final double[] dAccdM)
+        throws OrekitException {
+
+        if (!(spacecraft instanceof SphericalSpacecraft)) {
+            return false;
+        }
+
+        final Vector3D sunSatVector = position.subtract(sun.getPVCoordinates(date, frame).getPosition());
+        final double   r2           = sunSatVector.getNormSq();
+
+        // for spherical spacecraft, γ = k flux, so the acceleration
+        // for a unit flux directly provides the factor k
+        final double k = spacecraft.radiationPressureAcceleration(date, frame, position, rotation, mass,
+                                                                  Vector3D.PLUS_I).getX();
+
+        // γ = c s / |s|³, hence ∂γ/∂r = c (I / |s|³ - 3 s sᵀ / |s|⁵)
+        final double[] u  = sunSatVector.toArray();
+        final double   c  = k * kRef * getLightningRatio(position, frame, date);
+        final double   k1 = c / (r2 * FastMath.sqrt(r2));
+        final double   k3 = 3 * k1 / r2;
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                dAccdPos[3 * i + j] -= k3 * u[i] * u[j];
+            }
+            dAccdPos[4 * i] += k1;
+        }
+
+        if (dAccdM != null) {
+            // γ is inversely proportional to mass
+            final double kM = -k1 / mass;
+            dAccdM[0] += kM * u[0];
+            dAccdM[1] += kM * u[1];
+            dAccdM[2] += kM * u[2];
+        }
+
+        // acceleration does not depend on velocity
+        return true;
+
+    }
+
     /** {@inheritDoc} */
     public FieldVector3D<DerivativeStructure> accelerationDerivatives(final SpacecraftState s, final String paramName)
         throws OrekitException {
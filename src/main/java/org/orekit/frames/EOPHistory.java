@@ -19,18 +19,32 @@ package org.orekit.frames;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
-import org.apache.commons.math3.analysis.interpolation.HermiteInterpolator;
+import org.apache.commons.math3.util.FastMath;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
 import org.orekit.errors.TimeStampedCacheException;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.ChronologicalComparator;
 import org.orekit.time.TimeFunction;
 import org.orekit.time.TimeStamped;
 import org.orekit.utils.IERSConventions;
 import org.orekit.utils.ImmutableTimeStampedCache;
 
 /** This class loads any kind of Earth Orientation Parameter data throughout a large time range.
+ * <p>
+ * The parameters are stored as primitive columns and interpolated using Lagrange
+ * polynomials over a few neighboring entries. The neighbors search and the
+ * interpolation weights are shared between all parameters for the same date
+ * thanks to a per-thread cursor, which also makes successive queries at nearby
+ * dates run in constant time.
+ * </p>
+ * <p>
+ * The data can be {@link #update(Collection) updated} while the history is in use,
+ * for example when new IERS bulletins are published, without blocking readers.
+ * </p>
  * @author Pascal Parraud
  */
 public class EOPHistory implements Serializable {
@@ -41,22 +55,18 @@ public class EOPHistory implements Serializable {
     /** Number of points to use in interpolation. */
     private static final int INTERPOLATION_POINTS = 4;
 
-    /**
-     * If this history has any EOP data.
-     *
-     * @see #hasDataFor(AbsoluteDate)
-     */
-    private final boolean hasData;
-
-    /** EOP history entries. */
-    private final transient ImmutableTimeStampedCache<EOPEntry> cache;
-
     /** IERS conventions to which EOP refers. */
     private final IERSConventions conventions;
 
     /** Correction to apply to EOP (may be null). */
     private final transient TimeFunction<double[]> tidalCorrection;
 
+    /** Current EOP data, replaced atomically on updates. */
+    private transient volatile Snapshot snapshot;
+
+    /** Per-thread cursors for interpolation. */
+    private final transient ThreadLocal<Cursor> cursors;
+
     /** Simple constructor.
      * @param conventions IERS conventions to which EOP refers
      * @param data the EOP data to use
@@ -68,16 +78,85 @@ public class EOPHistory implements Serializable {
                          final boolean simpleEOP)
         throws OrekitException {
         this.conventions = conventions;
-        tidalCorrection = simpleEOP ? null : conventions.getEOPTidalCorrection();
-        if (data.size() >= INTERPOLATION_POINTS) {
-            // enough data to interpolate
-            cache = new ImmutableTimeStampedCache<EOPEntry>(INTERPOLATION_POINTS, data);
-            hasData = true;
-        } else {
-            // not enough data to interpolate -> always use null correction
-            cache = ImmutableTimeStampedCache.emptyCache();
-            hasData = false;
+        tidalCorrection  = simpleEOP ? null : conventions.getEOPTidalCorrection();
+        snapshot         = new Snapshot(data);
+        cursors          = new ThreadLocal<Cursor>() {
+            /** {@inheritDoc} */
+            @Override
+            protected Cursor initialValue() {
+                return new Cursor();
+            }
+        };
+    }
+
+    /** Update the history with new entries.
+     * <p>
+     * The new entries are merged with the existing ones. If a new entry has the same
+     * date as an existing one, it replaces it, so revised values (for example updated
+     * predictions from IERS Bulletin A) are taken into account. Entries are never removed.
+     * </p>
+     * <p>
+     * The update is published atomically: threads interpolating EOP concurrently are
+     * not blocked and see either the former data or the updated data, never a mix of both.
+     * Concurrent updates are serialized.
+     * </p>
+     * <p>
+     * The nutation corrections in the entries must already be expressed in the
+     * paradigm expected by the {@link #getConventions() conventions}, as done by
+     * the {@link EOPHistoryLoader loaders}.
+     * </p>
+     * @param entries new entries
+     * @return earliest date at which interpolated EOP may have changed
+     * ({@link AbsoluteDate#PAST_INFINITY} if data before the former start date
+     * have been added, {@link AbsoluteDate#FUTURE_INFINITY} if nothing changed)
+     * @since 7.1
+     */
+    public synchronized AbsoluteDate update(final Collection<EOPEntry> entries) {
+
+        // merge entries, new ones taking precedence over former ones with the same date
+        final SortedSet<EOPEntry> merged = new TreeSet<EOPEntry>(new ChronologicalComparator());
+        merged.addAll(entries);
+        final List<EOPEntry> former = snapshot.cache.getAll();
+        merged.addAll(former);
+
+        // find the first entry that differs
+        int changed = 0;
+        for (final EOPEntry entry : merged) {
+            if (changed >= former.size() || !sameEntry(entry, former.get(changed))) {
+                break;
+            }
+            ++changed;
+        }
+        if (changed == merged.size()) {
+            // nothing has changed
+            return AbsoluteDate.FUTURE_INFINITY;
         }
+
+        final Snapshot updated = new Snapshot(merged);
+        snapshot = updated;
+
+        // an entry is used for interpolating dates up to INTERPOLATION_POINTS / 2 entries before it
+        final int earliest = changed - INTERPOLATION_POINTS / 2;
+        return (earliest < 0 || former.size() < INTERPOLATION_POINTS) ?
+               AbsoluteDate.PAST_INFINITY : updated.cache.getAll().get(earliest).getDate();
+
+    }
+
+    /** Check if two entries are identical.
+     * @param e1 first entry
+     * @param e2 second entry
+     * @return true if entries have same date and same values
+     */
+    private static boolean sameEntry(final EOPEntry e1, final EOPEntry e2) {
+        return e1.getDate().equals(e2.getDate()) &&
+               e1.getUT1MinusUTC() == e2.getUT1MinusUTC() &&
+               e1.getLOD()         == e2.getLOD()         &&
+               e1.getX()           == e2.getX()           &&
+               e1.getY()           == e2.getY()           &&
+               e1.getDdPsi()       == e2.getDdPsi()       &&
+               e1.getDdEps()       == e2.getDdEps()       &&
+               e1.getDx()          == e2.getDx()          &&
+               e1.getDy()          == e2.getDy();
     }
 
     /** Get the IERS conventions to which these EOP apply.
@@ -91,14 +170,14 @@ public class EOPHistory implements Serializable {
      * @return the start date of the available data
      */
     public AbsoluteDate getStartDate() {
-        return this.cache.getEarliest().getDate();
+        return snapshot.cache.getEarliest().getDate();
     }
 
     /** Get the date of the last available Earth Orientation Parameters.
      * @return the end date of the available data
      */
     public AbsoluteDate getEndDate() {
-        return this.cache.getLatest().getDate();
+        return snapshot.cache.getLatest().getDate();
     }
 
     /** Get the UT1-UTC value.
@@ -108,41 +187,35 @@ public class EOPHistory implements Serializable {
      */
     public double getUT1MinusUTC(final AbsoluteDate date) {
         //check if there is data for date
-        if (!this.hasDataFor(date)) {
+        final Snapshot current = snapshot;
+        if (!current.covers(date)) {
             // no EOP data available for this date, we use a default 0.0 offset
             return (tidalCorrection == null) ? 0.0 : tidalCorrection.value(date)[2];
         }
         //we have EOP data -> interpolate offset
-        try {
-            final List<EOPEntry> neighbors = getNeighbors(date);
-            final HermiteInterpolator interpolator = new HermiteInterpolator();
-            final double firstDUT = neighbors.get(0).getUT1MinusUTC();
-            boolean beforeLeap = true;
-            for (final EOPEntry neighbor : neighbors) {
-                final double dut;
-                if (neighbor.getUT1MinusUTC() - firstDUT > 0.9) {
-                    // there was a leap second between the entries
-                    dut = neighbor.getUT1MinusUTC() - 1.0;
-                    if (neighbor.getDate().compareTo(date) <= 0) {
-                        beforeLeap = false;
-                    }
-                } else {
-                    dut = neighbor.getUT1MinusUTC();
+        final Cursor cursor = locate(current, date);
+        final double[] ut1MinusUTC = current.ut1MinusUTC;
+        final double firstDUT = ut1MinusUTC[cursor.first];
+        boolean beforeLeap = true;
+        double interpolated = 0;
+        for (int k = 0; k < INTERPOLATION_POINTS; ++k) {
+            final int i = cursor.first + k;
+            final double dut;
+            if (ut1MinusUTC[i] - firstDUT > 0.9) {
+                // there was a leap second between the entries
+                dut = ut1MinusUTC[i] - 1.0;
+                if (cursor.offset >= current.offsets[i]) {
+                    beforeLeap = false;
                 }
-                interpolator.addSamplePoint(neighbor.getDate().durationFrom(date),
-                                            new double[] {
-                                                dut
-                                            });
-            }
-            double interpolated = interpolator.value(0)[0];
-            if (tidalCorrection != null) {
-                interpolated += tidalCorrection.value(date)[2];
+            } else {
+                dut = ut1MinusUTC[i];
             }
-            return beforeLeap ? interpolated : interpolated + 1.0;
-        } catch (TimeStampedCacheException tce) {
-            //this should not happen because of date check above
-            throw OrekitException.createInternalError(tce);
+            interpolated += cursor.weights[k] * dut;
         }
+        if (tidalCorrection != null) {
+            interpolated += tidalCorrection.value(date)[2];
+        }
+        return beforeLeap ? interpolated : interpolated + 1.0;
     }
 
     /**
@@ -156,7 +229,7 @@ public class EOPHistory implements Serializable {
      * @exception TimeStampedCacheException if EOP data cannot be retrieved
      */
     protected List<EOPEntry> getNeighbors(final AbsoluteDate central) throws TimeStampedCacheException {
-        return cache.getNeighbors(central);
+        return snapshot.cache.getNeighbors(central);
     }
 
     /** Get the LoD (Length of Day) value.
@@ -166,28 +239,18 @@ public class EOPHistory implements Serializable {
      */
     public double getLOD(final AbsoluteDate date) {
         //check if there is data for date
-        if (!this.hasDataFor(date)) {
+        final Snapshot current = snapshot;
+        if (!current.covers(date)) {
             // no EOP data available for this date, we use a default null correction
             return (tidalCorrection == null) ? 0.0 : tidalCorrection.value(date)[3];
         }
         //we have EOP data for date -> interpolate correction
-        try {
-            final HermiteInterpolator interpolator = new HermiteInterpolator();
-            for (final EOPEntry entry : getNeighbors(date)) {
-                interpolator.addSamplePoint(entry.getDate().durationFrom(date),
-                                            new double[] {
-                                                entry.getLOD()
-                                            });
-            }
-            double interpolated = interpolator.value(0)[0];
-            if (tidalCorrection != null) {
-                interpolated += tidalCorrection.value(date)[3];
-            }
-            return interpolated;
-        } catch (TimeStampedCacheException tce) {
-            // this should not happen because of date check above
-            throw OrekitException.createInternalError(tce);
+        final Cursor cursor = locate(current, date);
+        double interpolated = cursor.interpolate(current.lod);
+        if (tidalCorrection != null) {
+            interpolated += tidalCorrection.value(date)[3];
         }
+        return interpolated;
     }
 
     /** Get the pole IERS Reference Pole correction.
@@ -198,7 +261,8 @@ public class EOPHistory implements Serializable {
      */
     public PoleCorrection getPoleCorrection(final AbsoluteDate date) {
         // check if there is data for date
-        if (!this.hasDataFor(date)) {
+        final Snapshot current = snapshot;
+        if (!current.covers(date)) {
             // no EOP data available for this date, we use a default null correction
             if (tidalCorrection == null) {
                 return PoleCorrection.NULL_CORRECTION;
@@ -208,25 +272,15 @@ public class EOPHistory implements Serializable {
             }
         }
         //we have EOP data for date -> interpolate correction
-        try {
-            final HermiteInterpolator interpolator = new HermiteInterpolator();
-            for (final EOPEntry entry : getNeighbors(date)) {
-                interpolator.addSamplePoint(entry.getDate().durationFrom(date),
-                                            new double[] {
-                                                entry.getX(), entry.getY()
-                                            });
-            }
-            final double[] interpolated = interpolator.value(0);
-            if (tidalCorrection != null) {
-                final double[] correction = tidalCorrection.value(date);
-                interpolated[0] += correction[0];
-                interpolated[1] += correction[1];
-            }
-            return new PoleCorrection(interpolated[0], interpolated[1]);
-        } catch (TimeStampedCacheException tce) {
-            // this should not happen because of date check above
-            throw OrekitException.createInternalError(tce);
+        final Cursor cursor = locate(current, date);
+        double interpolatedX = cursor.interpolate(current.x);
+        double interpolatedY = cursor.interpolate(current.y);
+        if (tidalCorrection != null) {
+            final double[] correction = tidalCorrection.value(date);
+            interpolatedX += correction[0];
+            interpolatedY += correction[1];
         }
+        return new PoleCorrection(interpolatedX, interpolatedY);
     }
 
     /** Get the correction to the nutation parameters for equinox-based paradigm.
@@ -237,24 +291,16 @@ public class EOPHistory implements Serializable {
      */
     public double[] getEquinoxNutationCorrection(final AbsoluteDate date) {
         // check if there is data for date
-        if (!this.hasDataFor(date)) {
+        final Snapshot current = snapshot;
+        if (!current.covers(date)) {
             // no EOP data available for this date, we use a default null correction
             return new double[2];
         }
         //we have EOP data for date -> interpolate correction
-        try {
-            final HermiteInterpolator interpolator = new HermiteInterpolator();
-            for (final EOPEntry entry : getNeighbors(date)) {
-                interpolator.addSamplePoint(entry.getDate().durationFrom(date),
-                                            new double[] {
-                                                entry.getDdPsi(), entry.getDdEps()
-                                            });
-            }
-            return interpolator.value(0);
-        } catch (TimeStampedCacheException tce) {
-            // this should not happen because of date check above
-            throw OrekitException.createInternalError(tce);
-        }
+        final Cursor cursor = locate(current, date);
+        return new double[] {
+            cursor.interpolate(current.ddPsi), cursor.interpolate(current.ddEps)
+        };
     }
 
     /** Get the correction to the nutation parameters for Non-Rotating Origin paradigm.
@@ -265,24 +311,16 @@ public class EOPHistory implements Serializable {
      */
     public double[] getNonRotatinOriginNutationCorrection(final AbsoluteDate date) {
         // check if there is data for date
-        if (!this.hasDataFor(date)) {
+        final Snapshot current = snapshot;
+        if (!current.covers(date)) {
             // no EOP data available for this date, we use a default null correction
             return new double[2];
         }
         //we have EOP data for date -> interpolate correction
-        try {
-            final HermiteInterpolator interpolator = new HermiteInterpolator();
-            for (final EOPEntry entry : getNeighbors(date)) {
-                interpolator.addSamplePoint(entry.getDate().durationFrom(date),
-                                            new double[] {
-                                                entry.getDx(), entry.getDy()
-                                            });
-            }
-            return interpolator.value(0);
-        } catch (TimeStampedCacheException tce) {
-            // this should not happen because of date check above
-            throw OrekitException.createInternalError(tce);
-        }
+        final Cursor cursor = locate(current, date);
+        return new double[] {
+            cursor.interpolate(current.dx), cursor.interpolate(current.dy)
+        };
     }
 
     /** Check Earth orientation parameters continuity.
@@ -291,7 +329,7 @@ public class EOPHistory implements Serializable {
      */
     public void checkEOPContinuity(final double maxGap) throws OrekitException {
         TimeStamped preceding = null;
-        for (final TimeStamped current : this.cache.getAll()) {
+        for (final TimeStamped current : snapshot.cache.getAll()) {
 
             // compare the dates of preceding and current entries
             if ((preceding != null) && ((current.getDate().durationFrom(preceding.getDate())) > maxGap)) {
@@ -310,23 +348,99 @@ public class EOPHistory implements Serializable {
      * {@link #getStartDate()} and {@link #getEndDate()}.
      *
      * @param date the requested date
-     * @return true if the {@link #cache} has data for the requested date, false
+     * @return true if the history has data for the requested date, false
      *         otherwise.
      */
     protected boolean hasDataFor(final AbsoluteDate date) {
-        /*
-         * when there is no EOP data, short circuit getStartDate, which will
-         * throw an exception
-         */
-        return this.hasData && this.getStartDate().compareTo(date) <= 0 &&
-               date.compareTo(this.getEndDate()) <= 0;
+        return snapshot.covers(date);
+    }
+
+    /** Locate a date in the entries.
+     * <p>
+     * The date must be covered by the entries, as checked by {@link Snapshot#covers(AbsoluteDate)}.
+     * </p>
+     * @param current current EOP data
+     * @param date date to locate
+     * @return per-thread cursor, set up for interpolation at specified date
+     */
+    private Cursor locate(final Snapshot current, final AbsoluteDate date) {
+
+        final Cursor cursor = cursors.get();
+        if (cursor.snapshot != current) {
+            // the data have been updated since last use, reset the cursor
+            cursor.snapshot = current;
+            cursor.date     = null;
+            cursor.index    = 0;
+        } else if (date.equals(cursor.date)) {
+            // the cursor is already set up for this date
+            return cursor;
+        }
+
+        // find the index i such that offsets[i] <= dt < offsets[i + 1],
+        // checking first the current and next intervals before using binary search
+        final double[] offsets = current.offsets;
+        final double dt   = date.durationFrom(current.reference);
+        final int    last = offsets.length - 1;
+        int i = cursor.index;
+        if (!covers(offsets, i, dt, last)) {
+            if (covers(offsets, i + 1, dt, last)) {
+                ++i;
+            } else {
+                int low  = 0;
+                int high = last;
+                while (high > low) {
+                    final int middle = (low + high + 1) >>> 1;
+                    if (offsets[middle] <= dt) {
+                        low  = middle;
+                    } else {
+                        high = middle - 1;
+                    }
+                }
+                i = low;
+            }
+        }
+
+        // select neighbors, forcing unbalanced range if necessary
+        final int first = FastMath.max(0, FastMath.min(offsets.length - INTERPOLATION_POINTS,
+                                                       i - (INTERPOLATION_POINTS - 1) / 2));
+
+        // compute Lagrange interpolation weights
+        for (int k = 0; k < INTERPOLATION_POINTS; ++k) {
+            final double tk = offsets[first + k];
+            double w = 1;
+            for (int j = 0; j < INTERPOLATION_POINTS; ++j) {
+                if (j != k) {
+                    final double tj = offsets[first + j];
+                    w *= (dt - tj) / (tk - tj);
+                }
+            }
+            cursor.weights[k] = w;
+        }
+
+        cursor.date   = date;
+        cursor.offset = dt;
+        cursor.index  = i;
+        cursor.first  = first;
+        return cursor;
+
+    }
+
+    /** Check if an entries interval covers an offset.
+     * @param offsets entries offsets
+     * @param i index of the interval start
+     * @param dt offset with respect to reference date
+     * @param last index of the last entry
+     * @return true if offsets[i] &le; dt &lt; offsets[i + 1] (or dt &ge; offsets[last] if i is last)
+     */
+    private static boolean covers(final double[] offsets, final int i, final double dt, final int last) {
+        return i <= last && offsets[i] <= dt && (i == last || dt < offsets[i + 1]);
     }
 
     /** Get a non-modifiable view of the EOP entries.
      * @return non-modifiable view of the EOP entries
      */
     List<EOPEntry> getEntries() {
-        return cache.getAll();
+        return snapshot.cache.getAll();
     }
 
     /** Replace the instance with a data transfer object for serialization.
@@ -339,6 +453,136 @@ public class EOPHistory implements Serializable {
         return new DataTransferObject(conventions, getEntries(), tidalCorrection == null);
     }
 
+    /** Immutable snapshot of the EOP data. */
+    private static class Snapshot {
+
+        /** Indicator for history with any EOP data. */
+        private final boolean hasData;
+
+        /** EOP history entries. */
+        private final ImmutableTimeStampedCache<EOPEntry> cache;
+
+        /** Reference date for the entries offsets. */
+        private final AbsoluteDate reference;
+
+        /** Entries offsets with respect to reference date. */
+        private final double[] offsets;
+
+        /** UT1-UTC column. */
+        private final double[] ut1MinusUTC;
+
+        /** LoD column. */
+        private final double[] lod;
+
+        /** X pole column. */
+        private final double[] x;
+
+        /** Y pole column. */
+        private final double[] y;
+
+        /** ΔΔΨ column. */
+        private final double[] ddPsi;
+
+        /** ΔΔε column. */
+        private final double[] ddEps;
+
+        /** δX column. */
+        private final double[] dx;
+
+        /** δY column. */
+        private final double[] dy;
+
+        /** Simple constructor.
+         * @param data the EOP data to use
+         */
+        Snapshot(final Collection<EOPEntry> data) {
+
+            if (data.size() >= INTERPOLATION_POINTS) {
+                // enough data to interpolate
+                cache   = new ImmutableTimeStampedCache<EOPEntry>(INTERPOLATION_POINTS, data);
+                hasData = true;
+            } else {
+                // not enough data to interpolate -> always use null correction
+                cache   = ImmutableTimeStampedCache.emptyCache();
+                hasData = false;
+            }
+
+            // extract primitive columns
+            final List<EOPEntry> entries = cache.getAll();
+            final int n = entries.size();
+            reference   = hasData ? entries.get(0).getDate() : AbsoluteDate.J2000_EPOCH;
+            offsets     = new double[n];
+            ut1MinusUTC = new double[n];
+            lod         = new double[n];
+            x           = new double[n];
+            y           = new double[n];
+            ddPsi       = new double[n];
+            ddEps       = new double[n];
+            dx          = new double[n];
+            dy          = new double[n];
+            for (int i = 0; i < n; ++i) {
+                final EOPEntry entry = entries.get(i);
+                offsets[i]     = entry.getDate().durationFrom(reference);
+                ut1MinusUTC[i] = entry.getUT1MinusUTC();
+                lod[i]         = entry.getLOD();
+                x[i]           = entry.getX();
+                y[i]           = entry.getY();
+                ddPsi[i]       = entry.getDdPsi();
+                ddEps[i]       = entry.getDdEps();
+                dx[i]          = entry.getDx();
+                dy[i]          = entry.getDy();
+            }
+
+        }
+
+        /** Check if the snapshot has data for a date.
+         * @param date the requested date
+         * @return true if the snapshot has data for the requested date
+         */
+        public boolean covers(final AbsoluteDate date) {
+            // when there is no EOP data, the cache has no earliest/latest entries
+            return hasData &&
+                   cache.getEarliest().getDate().compareTo(date) <= 0 &&
+                   date.compareTo(cache.getLatest().getDate()) <= 0;
+        }
+
+    }
+
+    /** Per-thread interpolation cursor. */
+    private static class Cursor {
+
+        /** EOP data for which the cursor is set up. */
+        private Snapshot snapshot;
+
+        /** Date for which the cursor is set up. */
+        private AbsoluteDate date;
+
+        /** Offset of the date with respect to reference date. */
+        private double offset;
+
+        /** Index of the last entry before date. */
+        private int index;
+
+        /** Index of the first interpolation neighbor. */
+        private int first;
+
+        /** Interpolation weights. */
+        private final double[] weights = new double[INTERPOLATION_POINTS];
+
+        /** Interpolate a column.
+         * @param column column to interpolate
+         * @return interpolated value
+         */
+        public double interpolate(final double[] column) {
+            double value = 0;
+            for (int k = 0; k < INTERPOLATION_POINTS; ++k) {
+                value += weights[k] * column[first + k];
+            }
+            return value;
+        }
+
+    }
+
     /** Internal class used only for serialization. */
     private static class DataTransferObject implements Serializable {
 
@@ -17,16 +17,22 @@
 package org.orekit.frames;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 
 import org.orekit.bodies.CelestialBodyFactory;
 import org.orekit.errors.OrekitException;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.ChronologicalComparator;
+import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.AngularDerivativesFilter;
 import org.orekit.utils.CartesianDerivativesFilter;
 import org.orekit.utils.Constants;
@@ -1190,6 +1196,129 @@ public class FramesFactory {
         }
     }
 
+    /** Precompute the interpolated transforms between a frame and the root frame.
+     * <p>
+     * All the {@link InterpolatingTransformProvider interpolating providers} found
+     * between the frame and the root of the frames tree are {@link
+     * InterpolatingTransformProvider#precompute(AbsoluteDate, AbsoluteDate, ExecutorService)
+     * precomputed} for the whole time span. This is intended for long processing
+     * campaigns, for example calling this method once with {@link
+     * #getITRF(IERSConventions, boolean) ITRF} precomputes the costly precession-nutation
+     * part of the transform between ITRF and GCRF, which will then be interpolated
+     * without any lock and without any cache eviction.
+     * </p>
+     * @param frame frame to consider
+     * @param start start of the time span
+     * @param end end of the time span
+     * @param executor executor to use for concurrent computation
+     * (if null, transforms are computed sequentially in the calling thread)
+     * @exception OrekitException if some transform cannot be computed
+     * @since 7.1
+     */
+    public static void precomputeTransforms(final Frame frame,
+                                            final AbsoluteDate start, final AbsoluteDate end,
+                                            final ExecutorService executor)
+        throws OrekitException {
+        for (Frame f = frame; f.getParent() != null; f = f.getParent()) {
+            if (f.getTransformProvider() instanceof InterpolatingTransformProvider) {
+                ((InterpolatingTransformProvider) f.getTransformProvider()).precompute(start, end, executor);
+            }
+        }
+    }
+
+    /** Update the Earth Orientation Parameters used by the predefined frames.
+     * <p>
+     * This method is intended for long running applications that need to take
+     * new IERS bulletins into account without restarting. The entries are {@link
+     * EOPHistory#update(Collection) merged} into the EOP histories of all already
+     * built predefined frames and {@link TimeScalesFactory#getUT1(IERSConventions, boolean)
+     * UT1 scales} using the specified conventions, and only the cached
+     * or {@link #precomputeTransforms(Frame, AbsoluteDate, AbsoluteDate, ExecutorService)
+     * precomputed} transforms that depend on the changed data are invalidated.
+     * Threads using the frames concurrently are not blocked by the update.
+     * </p>
+     * <p>
+     * The nutation corrections in the entries must already be expressed in the
+     * paradigm expected by the conventions, which is the case for entries provided
+     * by {@link EOPHistoryLoader#fillHistory(IERSConventions.NutationCorrectionConverter,
+     * SortedSet)} using {@link IERSConventions#getNutationCorrectionConverter()}.
+     * EOP histories retrieved directly by users with {@link #getEOPHistory(IERSConventions,
+     * boolean)} are independent instances which are not updated by this method.
+     * </p>
+     * @param conventions IERS conventions to which the entries refer
+     * @param entries new entries
+     * @return earliest date at which Earth Orientation Parameters may have changed
+     * ({@link AbsoluteDate#FUTURE_INFINITY} if nothing changed)
+     * @exception OrekitException if some precomputed transform cannot be refreshed
+     * @since 7.1
+     */
+    public static AbsoluteDate updateEOPHistory(final IERSConventions conventions,
+                                                final Collection<EOPEntry> entries)
+        throws OrekitException {
+
+        synchronized (FramesFactory.class) {
+
+            // update each EOP history only once, even if it is shared between several frames
+            final Set<EOPHistory> updated = Collections.newSetFromMap(new IdentityHashMap<EOPHistory, Boolean>());
+            AbsoluteDate earliest = AbsoluteDate.FUTURE_INFINITY;
+            for (final FactoryManagedFrame frame : FRAMES.values()) {
+                final EOPHistory history = getEOPHistory(frame.getTransformProvider());
+                if (history != null && history.getConventions() == conventions && updated.add(history)) {
+                    final AbsoluteDate changed = history.update(entries);
+                    if (changed.compareTo(earliest) < 0) {
+                        earliest = changed;
+                    }
+                }
+            }
+
+            // keep the cached UT1 and GMST time scales consistent with the frames
+            final AbsoluteDate ut1Changed = TimeScalesFactory.updateUT1(conventions, entries);
+            if (ut1Changed.compareTo(earliest) < 0) {
+                earliest = ut1Changed;
+            }
+
+            if (earliest.compareTo(AbsoluteDate.FUTURE_INFINITY) < 0) {
+                // invalidate the interpolated transforms depending on updated histories
+                for (final FactoryManagedFrame frame : FRAMES.values()) {
+                    final TransformProvider provider = frame.getTransformProvider();
+                    if (provider instanceof InterpolatingTransformProvider &&
+                        updated.contains(getEOPHistory(provider))) {
+                        ((InterpolatingTransformProvider) provider).invalidate(earliest);
+                    }
+                }
+            }
+
+            return earliest;
+
+        }
+
+    }
+
+    /** Get the EOP history used by a predefined frame transform provider.
+     * @param provider transform provider (may be interpolating)
+     * @return EOP history used by the provider, or null if it does not use EOP
+     */
+    private static EOPHistory getEOPHistory(final TransformProvider provider) {
+        final TransformProvider raw = (provider instanceof InterpolatingTransformProvider) ?
+                                      ((InterpolatingTransformProvider) provider).getRawProvider() :
+                                      provider;
+        if (raw instanceof CIRFProvider) {
+            return ((CIRFProvider) raw).getEOPHistory();
+        } else if (raw instanceof TIRFProvider) {
+            return ((TIRFProvider) raw).getEOPHistory();
+        } else if (raw instanceof ITRFProvider) {
+            return ((ITRFProvider) raw).getEOPHistory();
+        } else if (raw instanceof GTODProvider) {
+            return ((GTODProvider) raw).getEOPHistory();
+        } else if (raw instanceof TODProvider) {
+            return ((TODProvider) raw).getEOPHistory();
+        } else if (raw instanceof TEMEProvider) {
+            return ((TEMEProvider) raw).getEOPHistory();
+        } else {
+            return null;
+        }
+    }
+
     /** Get the transform between two frames, suppressing all interpolation.
      * <p>
      * This method is similar to {@link Frame#getTransformTo(Frame, AbsoluteDate)}
@@ -48,6 +48,13 @@ class ITRFProvider implements TransformProvider {
         this.eopHistory = eopHistory;
     }
 
+    /** Get the EOP history.
+     * @return EOP history
+     */
+    EOPHistory getEOPHistory() {
+        return eopHistory;
+    }
+
     /** Get the transform from TIRF 2000 at specified date.
      * <p>The update considers the pole motion from IERS data.</p>
      * @param date new value of the date
@@ -20,6 +20,7 @@ package org.orekit.frames;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitExceptionWrapper;
@@ -37,6 +38,13 @@ import org.orekit.utils.TimeStampedGenerator;
  * derivatives can be used, the derivatives will be added appropriately
  * by the interpolation process.
  * </p>
+ * <p>
+ * For long processing campaigns, the transforms can also be {@link
+ * #precompute(AbsoluteDate, AbsoluteDate, ExecutorService) precomputed} once
+ * for a whole time span. Dates within this span are then interpolated from
+ * an immutable table without any lock and without any cache eviction, the
+ * cache being used only for dates outside of the precomputed span.
+ * </p>
  * @see GenericTimeStampedCache
  * @author Luc Maisonobe
  */
@@ -66,6 +74,9 @@ public class InterpolatingTransformProvider implements TransformProvider {
     /** Cache for sample points. */
     private final transient GenericTimeStampedCache<Transform> cache;
 
+    /** Precomputed transforms (null if no transforms have been precomputed). */
+    private transient volatile TransformTable table;
+
     /** Simple constructor.
      * @param rawProvider provider for raw (non-interpolated) transforms
      * @param useVelocities if true, use sample transforms velocities,
@@ -127,6 +138,7 @@ public class InterpolatingTransformProvider implements TransformProvider {
         this.step        = step;
         this.cache       = new GenericTimeStampedCache<Transform>(gridPoints, maxSlots, maxSpan, newSlotInterval,
                                                                   new Generator(), Transform.class);
+        this.table       = null;
     }
 
     /** Get the underlying provider for raw (non-interpolated) transforms.
@@ -150,8 +162,62 @@ public class InterpolatingTransformProvider implements TransformProvider {
         return step;
     }
 
+    /** Precompute transforms for a time span.
+     * <p>
+     * The raw transforms are computed on a regular grid covering the time span,
+     * using the same step and number of interpolation points as the cache, and
+     * stored in a compact table that replaces any previously precomputed one.
+     * If an executor is provided, grid points are split in chunks computed
+     * concurrently by the calling thread and by helper tasks submitted to the
+     * executor, which is not shut down by this method. In this case, the raw
+     * provider must be thread-safe.
+     * </p>
+     * @param start start of the time span
+     * @param end end of the time span
+     * @param executor executor to use for concurrent computation
+     * (if null, transforms are computed sequentially in the calling thread)
+     * @exception OrekitException if some raw transform cannot be computed
+     * @since 7.1
+     */
+    public synchronized void precompute(final AbsoluteDate start, final AbsoluteDate end,
+                                        final ExecutorService executor)
+        throws OrekitException {
+        table = new TransformTable(rawProvider, cFilter, aFilter, start, end,
+                                   cache.getNeighborsSize(), step, executor);
+    }
+
+    /** Invalidate the transforms from a date.
+     * <p>
+     * This method must be called when the data underlying the raw provider have
+     * changed, for example when Earth Orientation Parameters have been updated.
+     * Cached sample points at or after the specified date are dropped, and the
+     * precomputed transforms at or after the specified date are recomputed
+     * sequentially in the calling thread. Concurrent readers are not blocked
+     * while the precomputed transforms are refreshed, they use the former ones
+     * until the refreshed table is published.
+     * </p>
+     * @param from earliest date at which raw transforms may have changed
+     * @exception OrekitException if some raw transform cannot be recomputed
+     * @see FramesFactory#updateEOPHistory(org.orekit.utils.IERSConventions, java.util.Collection)
+     * @since 7.1
+     */
+    public synchronized void invalidate(final AbsoluteDate from) throws OrekitException {
+        final TransformTable precomputed = table;
+        if (precomputed != null && precomputed.getEnd().compareTo(from) >= 0) {
+            table = precomputed.refresh(rawProvider, from);
+        }
+        cache.invalidate(from);
+    }
+
     /** {@inheritDoc} */
     public Transform getTransform(final AbsoluteDate date) throws OrekitException {
+
+        // use the precomputed transforms if possible
+        final TransformTable precomputed = table;
+        if (precomputed != null && precomputed.covers(date)) {
+            return precomputed.interpolate(date);
+        }
+
         try {
 
             // retrieve a sample from the thread-safe cache
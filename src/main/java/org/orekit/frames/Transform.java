@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.math3.RealFieldElement;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
 import org.apache.commons.math3.geometry.euclidean.threed.Line;
@@ -541,6 +542,178 @@ public class Transform
         return FieldRotation.applyTo(angular.getRotation(), vector);
     }
 
+    /** Transform an array of position vectors (including translation effects).
+     * <p>
+     * This method is equivalent to calling {@link #transformPosition(Vector3D)}
+     * on each point, but it does not create any intermediate object, so it
+     * is suited for converting large sets of points at once.
+     * </p>
+     * <p>
+     * Coordinates are stored in the arrays as x₀, y₀, z₀, x₁, y₁, z₁...
+     * The input and output arrays may be the same array.
+     * </p>
+     * @param in positions to transform (at least 3n elements)
+     * @param out placeholder for transformed positions (at least 3n elements)
+     * @param n number of points to transform
+     * @since 7.1
+     */
+    public void transformPositions(final double[] in, final double[] out, final int n) {
+
+        checkBulkDimensions(in, out, 3, n);
+
+        final double[][] m = angular.getRotation().getMatrix();
+        final double m00 = m[0][0];
+        final double m01 = m[0][1];
+        final double m02 = m[0][2];
+        final double m10 = m[1][0];
+        final double m11 = m[1][1];
+        final double m12 = m[1][2];
+        final double m20 = m[2][0];
+        final double m21 = m[2][1];
+        final double m22 = m[2][2];
+        final Vector3D t = cartesian.getPosition();
+        final double tx  = t.getX();
+        final double ty  = t.getY();
+        final double tz  = t.getZ();
+
+        for (int i = 0; i < 3 * n; i += 3) {
+            final double x = in[i]     + tx;
+            final double y = in[i + 1] + ty;
+            final double z = in[i + 2] + tz;
+            out[i]     = m00 * x + m01 * y + m02 * z;
+            out[i + 1] = m10 * x + m11 * y + m12 * z;
+            out[i + 2] = m20 * x + m21 * y + m22 * z;
+        }
+
+    }
+
+    /** Transform an array of vectors (ignoring translation effects).
+     * <p>
+     * This method is equivalent to calling {@link #transformVector(Vector3D)}
+     * on each vector, but it does not create any intermediate object, so it
+     * is suited for converting large sets of vectors at once.
+     * </p>
+     * <p>
+     * Coordinates are stored in the arrays as x₀, y₀, z₀, x₁, y₁, z₁...
+     * The input and output arrays may be the same array.
+     * </p>
+     * @param in vectors to transform (at least 3n elements)
+     * @param out placeholder for transformed vectors (at least 3n elements)
+     * @param n number of vectors to transform
+     * @since 7.1
+     */
+    public void transformVectors(final double[] in, final double[] out, final int n) {
+
+        checkBulkDimensions(in, out, 3, n);
+
+        final double[][] m = angular.getRotation().getMatrix();
+        final double m00 = m[0][0];
+        final double m01 = m[0][1];
+        final double m02 = m[0][2];
+        final double m10 = m[1][0];
+        final double m11 = m[1][1];
+        final double m12 = m[1][2];
+        final double m20 = m[2][0];
+        final double m21 = m[2][1];
+        final double m22 = m[2][2];
+
+        for (int i = 0; i < 3 * n; i += 3) {
+            final double x = in[i];
+            final double y = in[i + 1];
+            final double z = in[i + 2];
+            out[i]     = m00 * x + m01 * y + m02 * z;
+            out[i + 1] = m10 * x + m11 * y + m12 * z;
+            out[i + 2] = m20 * x + m21 * y + m22 * z;
+        }
+
+    }
+
+    /** Transform an array of position-velocity coordinates including kinematic effects.
+     * <p>
+     * This method is equivalent to calling {@link #transformPVCoordinates(PVCoordinates)}
+     * on each point with null accelerations and keeping only the transformed position
+     * and velocity, but it does not create any intermediate object, so it is suited
+     * for converting large sets of points at once (for example sampled ephemerides).
+     * </p>
+     * <p>
+     * Coordinates are stored in the arrays as x₀, y₀, z₀, vx₀, vy₀, vz₀, x₁, y₁...
+     * The input and output arrays may be the same array.
+     * </p>
+     * @param in position-velocity coordinates to transform (at least 6n elements)
+     * @param out placeholder for transformed position-velocity coordinates (at least 6n elements)
+     * @param n number of points to transform
+     * @since 7.1
+     */
+    public void transformPVCoordinates(final double[] in, final double[] out, final int n) {
+
+        checkBulkDimensions(in, out, 6, n);
+
+        final double[][] m = angular.getRotation().getMatrix();
+        final double m00 = m[0][0];
+        final double m01 = m[0][1];
+        final double m02 = m[0][2];
+        final double m10 = m[1][0];
+        final double m11 = m[1][1];
+        final double m12 = m[1][2];
+        final double m20 = m[2][0];
+        final double m21 = m[2][1];
+        final double m22 = m[2][2];
+        final Vector3D t = cartesian.getPosition();
+        final double tx  = t.getX();
+        final double ty  = t.getY();
+        final double tz  = t.getZ();
+        final Vector3D v = cartesian.getVelocity();
+        final double vx  = v.getX();
+        final double vy  = v.getY();
+        final double vz  = v.getZ();
+        final Vector3D o = angular.getRotationRate();
+        final double ox  = o.getX();
+        final double oy  = o.getY();
+        final double oz  = o.getZ();
+
+        for (int i = 0; i < 6 * n; i += 6) {
+
+            // translation
+            final double x  = in[i]     + tx;
+            final double y  = in[i + 1] + ty;
+            final double z  = in[i + 2] + tz;
+            final double xd = in[i + 3] + vx;
+            final double yd = in[i + 4] + vy;
+            final double zd = in[i + 5] + vz;
+
+            // rotation
+            final double px = m00 * x + m01 * y + m02 * z;
+            final double py = m10 * x + m11 * y + m12 * z;
+            final double pz = m20 * x + m21 * y + m22 * z;
+            out[i]     = px;
+            out[i + 1] = py;
+            out[i + 2] = pz;
+            out[i + 3] = m00 * xd + m01 * yd + m02 * zd - (oy * pz - oz * py);
+            out[i + 4] = m10 * xd + m11 * yd + m12 * zd - (oz * px - ox * pz);
+            out[i + 5] = m20 * xd + m21 * yd + m22 * zd - (ox * py - oy * px);
+
+        }
+
+    }
+
+    /** Check the dimensions of arrays used in bulk transforms.
+     * @param in input array
+     * @param out output array
+     * @param stride number of elements per point
+     * @param n number of points
+     */
+    private static void checkBulkDimensions(final double[] in, final double[] out,
+                                            final int stride, final int n) {
+        if (in.length < stride * n) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 in.length, stride * n);
+        }
+        if (out.length < stride * n) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 out.length, stride * n);
+        }
+    }
+
     /** Transform a line.
      * @param line to transform
      * @return transformed line
@@ -895,6 +1068,33 @@ public class Transform
             return vector;
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public void transformPositions(final double[] in, final double[] out, final int n) {
+            checkBulkDimensions(in, out, 3, n);
+            if (in != out) {
+                System.arraycopy(in, 0, out, 0, 3 * n);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void transformVectors(final double[] in, final double[] out, final int n) {
+            checkBulkDimensions(in, out, 3, n);
+            if (in != out) {
+                System.arraycopy(in, 0, out, 0, 3 * n);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void transformPVCoordinates(final double[] in, final double[] out, final int n) {
+            checkBulkDimensions(in, out, 6, n);
+            if (in != out) {
+                System.arraycopy(in, 0, out, 0, 6 * n);
+            }
+        }
+
         /** {@inheritDoc} */
         @Override
         public Line transformLine(final Line line) {
@@ -0,0 +1,326 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.AngularDerivativesFilter;
+import org.orekit.utils.CartesianDerivativesFilter;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.ParallelChunks;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Immutable table of precomputed transforms on a regular grid.
+ * <p>
+ * The table stores only the components needed by the interpolation filters
+ * in primitive arrays: the quaternion and the rotation derivatives used by the
+ * angular filter, and the translation with its derivatives only if the raw
+ * provider is not a pure rotation. As it is immutable, it can be read
+ * concurrently without any lock.
+ * </p>
+ * @see InterpolatingTransformProvider#precompute(AbsoluteDate, AbsoluteDate, ExecutorService)
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+class TransformTable {
+
+    /** Number of grid points in the chunks used for concurrent computation. */
+    private static final int CHUNK_SIZE = 64;
+
+    /** Filter for Cartesian derivatives to use in interpolation. */
+    private final CartesianDerivativesFilter cFilter;
+
+    /** Filter for angular derivatives to use in interpolation. */
+    private final AngularDerivativesFilter aFilter;
+
+    /** Earliest covered date. */
+    private final AbsoluteDate start;
+
+    /** Latest covered date. */
+    private final AbsoluteDate end;
+
+    /** Date of the first grid point. */
+    private final AbsoluteDate gridStart;
+
+    /** Grid points time step. */
+    private final double step;
+
+    /** Number of grid points used for each interpolation. */
+    private final int gridPoints;
+
+    /** Number of grid points in the table. */
+    private final int n;
+
+    /** Number of angular elements per grid point. */
+    private final int aStride;
+
+    /** Number of Cartesian elements per grid point. */
+    private final int cStride;
+
+    /** Angular elements (quaternion, rotation rate, rotation acceleration). */
+    private final double[] angular;
+
+    /** Cartesian elements (translation, velocity, acceleration), null for pure rotations. */
+    private final double[] cartesian;
+
+    /** Simple constructor.
+     * @param rawProvider provider for raw (non-interpolated) transforms, it must be
+     * thread-safe if an executor is used
+     * @param cFilter filter for derivatives from the sample to use in interpolation
+     * @param aFilter filter for derivatives from the sample to use in interpolation
+     * @param start earliest date to cover
+     * @param end latest date to cover
+     * @param gridPoints number of grid points used for each interpolation
+     * @param step grid points time step
+     * @param executor executor to use for concurrent computation
+     * (if null, transforms are computed sequentially in the calling thread)
+     * @exception OrekitException if some transform cannot be computed
+     */
+    TransformTable(final TransformProvider rawProvider,
+                   final CartesianDerivativesFilter cFilter, final AngularDerivativesFilter aFilter,
+                   final AbsoluteDate start, final AbsoluteDate end,
+                   final int gridPoints, final double step, final ExecutorService executor)
+        throws OrekitException {
+
+        this.cFilter    = cFilter;
+        this.aFilter    = aFilter;
+        this.start      = start;
+        this.end        = end;
+        this.step       = step;
+        this.gridPoints = gridPoints;
+
+        // extend the grid so interpolation is always centered within [start, end]
+        final int before = (gridPoints - 1) / 2;
+        this.gridStart = start.shiftedBy(-before * step);
+        this.n         = (int) FastMath.floor(end.durationFrom(gridStart) / step) + gridPoints - before;
+        this.aStride   = 4 + 3 * aFilter.getMaxOrder();
+        this.cStride   = 3 * (cFilter.getMaxOrder() + 1);
+
+        final double[] a = new double[n * aStride];
+        final double[] c = new double[n * cStride];
+        compute(rawProvider, 0, a, c, executor);
+
+        this.angular   = a;
+        this.cartesian = isPureRotation(c) ? null : c;
+
+    }
+
+    /** Build a table sharing the grid of an existing one.
+     * @param original original table
+     * @param a angular elements
+     * @param c Cartesian elements
+     */
+    private TransformTable(final TransformTable original, final double[] a, final double[] c) {
+        this.cFilter    = original.cFilter;
+        this.aFilter    = original.aFilter;
+        this.start      = original.start;
+        this.end        = original.end;
+        this.step       = original.step;
+        this.gridPoints = original.gridPoints;
+        this.gridStart  = original.gridStart;
+        this.n          = original.n;
+        this.aStride    = original.aStride;
+        this.cStride    = original.cStride;
+        this.angular    = a;
+        this.cartesian  = isPureRotation(c) ? null : c;
+    }
+
+    /** Get the latest covered date.
+     * @return latest covered date
+     */
+    public AbsoluteDate getEnd() {
+        return end;
+    }
+
+    /** Build a refreshed table after the raw transforms have changed.
+     * <p>
+     * Only the grid points at or after the specified date are recomputed,
+     * the other ones are copied from the instance, which is not modified.
+     * </p>
+     * @param rawProvider provider for raw (non-interpolated) transforms
+     * @param from earliest date at which raw transforms may have changed
+     * @return refreshed table (may be the instance itself if no grid points are affected)
+     * @exception OrekitException if some transform cannot be computed
+     */
+    public TransformTable refresh(final TransformProvider rawProvider, final AbsoluteDate from)
+        throws OrekitException {
+
+        // grid points before the date are not affected
+        // (we start one point early to be safe with respect to rounding)
+        final double index = FastMath.floor(from.durationFrom(gridStart) / step);
+        if (index >= n) {
+            return this;
+        }
+        final int firstIndex = (int) FastMath.max(0, index);
+
+        final double[] a = angular.clone();
+        final double[] c = (cartesian == null) ? new double[n * cStride] : cartesian.clone();
+        compute(rawProvider, firstIndex, a, c, null);
+        return new TransformTable(this, a, c);
+
+    }
+
+    /** Check if Cartesian elements all vanish.
+     * @param c Cartesian elements
+     * @return true if all Cartesian elements are zero
+     */
+    private static boolean isPureRotation(final double[] c) {
+        for (final double x : c) {
+            if (x != 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Check if a date is covered by the table.
+     * @param date date to check
+     * @return true if date is covered by the table
+     */
+    public boolean covers(final AbsoluteDate date) {
+        return date.compareTo(start) >= 0 && date.compareTo(end) <= 0;
+    }
+
+    /** Interpolate a transform.
+     * @param date interpolation date (must be {@link #covers(AbsoluteDate) covered})
+     * @return interpolated transform
+     * @exception OrekitException if the number of point is too small for interpolating
+     */
+    public Transform interpolate(final AbsoluteDate date) throws OrekitException {
+
+        // select the grid points centered around date
+        final int i     = (int) FastMath.floor(date.durationFrom(gridStart) / step);
+        final int first = FastMath.max(0, FastMath.min(n - gridPoints, i - (gridPoints - 1) / 2));
+
+        final List<TimeStampedAngularCoordinates> datedAC =
+                new ArrayList<TimeStampedAngularCoordinates>(gridPoints);
+        final List<TimeStampedPVCoordinates> datedPV =
+                (cartesian == null) ? null : new ArrayList<TimeStampedPVCoordinates>(gridPoints);
+        for (int k = first; k < first + gridPoints; ++k) {
+            final AbsoluteDate t = gridStart.shiftedBy(k * step);
+            final int ia = k * aStride;
+            final Rotation r = new Rotation(angular[ia], angular[ia + 1], angular[ia + 2], angular[ia + 3], false);
+            final Vector3D rate = (aStride > 4) ? vector(angular, ia + 4) : Vector3D.ZERO;
+            final Vector3D acc  = (aStride > 7) ? vector(angular, ia + 7) : Vector3D.ZERO;
+            datedAC.add(new TimeStampedAngularCoordinates(t, r, rate, acc));
+            if (datedPV != null) {
+                final int ic = k * cStride;
+                datedPV.add(new TimeStampedPVCoordinates(t,
+                                                         vector(cartesian, ic),
+                                                         (cStride > 3) ? vector(cartesian, ic + 3) : Vector3D.ZERO,
+                                                         (cStride > 6) ? vector(cartesian, ic + 6) : Vector3D.ZERO));
+            }
+        }
+
+        final TimeStampedAngularCoordinates interpolatedAC =
+                TimeStampedAngularCoordinates.interpolate(date, aFilter, datedAC);
+        if (datedPV == null) {
+            return new Transform(date, interpolatedAC);
+        } else {
+            final PVCoordinates interpolatedPV = TimeStampedPVCoordinates.interpolate(date, cFilter, datedPV);
+            return new Transform(date, new Transform(date, interpolatedPV), new Transform(date, interpolatedAC));
+        }
+
+    }
+
+    /** Compute the raw transforms at grid points.
+     * @param rawProvider provider for raw (non-interpolated) transforms
+     * @param firstIndex index of the first grid point to compute
+     * @param a placeholder for angular elements
+     * @param c placeholder for Cartesian elements
+     * @param executor executor to use for concurrent computation (may be null)
+     * @exception OrekitException if some transform cannot be computed
+     */
+    private void compute(final TransformProvider rawProvider, final int firstIndex,
+                         final double[] a, final double[] c, final ExecutorService executor)
+        throws OrekitException {
+
+        // chunks are shared between the current thread and the helpers submitted to the executor
+        final int nbChunks = (n - firstIndex + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ParallelChunks.process(executor, nbChunks, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) throws OrekitException {
+                final int last = FastMath.min(n, firstIndex + (k + 1) * CHUNK_SIZE);
+                for (int j = firstIndex + k * CHUNK_SIZE; j < last; ++j) {
+                    store(rawProvider.getTransform(gridStart.shiftedBy(j * step)), j, a, c);
+                }
+            }
+        });
+
+    }
+
+    /** Store the elements of a transform.
+     * @param transform transform to store
+     * @param index index of the grid point
+     * @param a placeholder for angular elements
+     * @param c placeholder for Cartesian elements
+     */
+    private void store(final Transform transform, final int index, final double[] a, final double[] c) {
+
+        final int ia = index * aStride;
+        final Rotation r = transform.getRotation();
+        a[ia]     = r.getQ0();
+        a[ia + 1] = r.getQ1();
+        a[ia + 2] = r.getQ2();
+        a[ia + 3] = r.getQ3();
+        if (aStride > 4) {
+            store(transform.getRotationRate(), a, ia + 4);
+        }
+        if (aStride > 7) {
+            store(transform.getRotationAcceleration(), a, ia + 7);
+        }
+
+        final int ic = index * cStride;
+        store(transform.getTranslation(), c, ic);
+        if (cStride > 3) {
+            store(transform.getVelocity(), c, ic + 3);
+        }
+        if (cStride > 6) {
+            store(transform.getAcceleration(), c, ic + 6);
+        }
+
+    }
+
+    /** Store a vector in an array.
+     * @param v vector to store
+     * @param array array where to store the vector
+     * @param offset offset of the first coordinate in the array
+     */
+    private static void store(final Vector3D v, final double[] array, final int offset) {
+        array[offset]     = v.getX();
+        array[offset + 1] = v.getY();
+        array[offset + 2] = v.getZ();
+    }
+
+    /** Build a vector from an array.
+     * @param array array containing the vector
+     * @param offset offset of the first coordinate in the array
+     * @return vector
+     */
+    private static Vector3D vector(final double[] array, final int offset) {
+        return new Vector3D(array[offset], array[offset + 1], array[offset + 2]);
+    }
+
+}
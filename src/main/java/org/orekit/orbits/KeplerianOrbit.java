@@ -20,7 +20,6 @@ import java.io.Serializable;
 import java.util.Collection;
 
 import org.apache.commons.math3.analysis.interpolation.HermiteInterpolator;
-import org.apache.commons.math3.exception.ConvergenceException;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.MathUtils;
@@ -76,20 +75,6 @@ public class KeplerianOrbit extends Orbit {
     /** Serializable UID. */
     private static final long serialVersionUID = 20141228L;
 
-    /** First coefficient to compute Kepler equation solver starter. */
-    private static final double A;
-
-    /** Second coefficient to compute Kepler equation solver starter. */
-    private static final double B;
-
-    static {
-        final double k1 = 3 * FastMath.PI + 2;
-        final double k2 = FastMath.PI - 1;
-        final double k3 = 6 * FastMath.PI - 1;
-        A  = 3 * k2 * k2 / k1;
-        B  = k3 * k3 / (6 * k1);
-    }
-
     /** Semi-major axis (m). */
     private final double a;
 
@@ -362,142 +347,22 @@ public class KeplerianOrbit extends Orbit {
     }
 
     /** Computes the elliptic eccentric anomaly from the mean anomaly.
-     * <p>
-     * The algorithm used here for solving Kepler equation has been published
-     * in: "Procedures for  solving Kepler's Equation", A. W. Odell and
-     * R. H. Gooding, Celestial Mechanics 38 (1986) 307-334
-     * </p>
      * @param M mean anomaly (rad)
-     * @return v the true anomaly
+     * @return E the eccentric anomaly
+     * @see OrbitKernels#ellipticMeanToEccentric(double, double)
      */
     private double meanToEllipticEccentric(final double M) {
-
-        // reduce M to [-PI PI) interval
-        final double reducedM = MathUtils.normalizeAngle(M, 0.0);
-
-        // compute start value according to A. W. Odell and R. H. Gooding S12 starter
-        double E;
-        if (FastMath.abs(reducedM) < 1.0 / 6.0) {
-            E = reducedM + e * (FastMath.cbrt(6 * reducedM) - reducedM);
-        } else {
-            if (reducedM < 0) {
-                final double w = FastMath.PI + reducedM;
-                E = reducedM + e * (A * w / (B - w) - FastMath.PI - reducedM);
-            } else {
-                final double w = FastMath.PI - reducedM;
-                E = reducedM + e * (FastMath.PI - A * w / (B - w) - reducedM);
-            }
-        }
-
-        final double e1 = 1 - e;
-        final boolean noCancellationRisk = (e1 + E * E / 6) >= 0.1;
-
-        // perform two iterations, each consisting of one Halley step and one Newton-Raphson step
-        for (int j = 0; j < 2; ++j) {
-            double f;
-            double fd;
-            final double fdd  = e * FastMath.sin(E);
-            final double fddd = e * FastMath.cos(E);
-            if (noCancellationRisk) {
-                f  = (E - fdd) - reducedM;
-                fd = 1 - fddd;
-            } else {
-                f  = eMeSinE(E) - reducedM;
-                final double s = FastMath.sin(0.5 * E);
-                fd = e1 + 2 * e * s * s;
-            }
-            final double dee = f * fd / (0.5 * f * fdd - fd * fd);
-
-            // update eccentric anomaly, using expressions that limit underflow problems
-            final double w = fd + 0.5 * dee * (fdd + dee * fddd / 3);
-            fd += dee * (fdd + 0.5 * dee * fddd);
-            E  -= (f - dee * (fd - w)) / fd;
-
-        }
-
-        // expand the result back to original range
-        E += M - reducedM;
-
-        return E;
-
-    }
-
-    /** Accurate computation of E - e sin(E).
-     * <p>
-     * This method is used when E is close to 0 and e close to 1,
-     * i.e. near the perigee of almost parabolic orbits
-     * </p>
-     * @param E eccentric anomaly
-     * @return E - e sin(E)
-     */
-    private double eMeSinE(final double E) {
-        double x = (1 - e) * FastMath.sin(E);
-        final double mE2 = -E * E;
-        double term = E;
-        double d    = 0;
-        // the inequality test below IS intentional and should NOT be replaced by a check with a small tolerance
-        for (double x0 = Double.NaN; x != x0;) {
-            d += 2;
-            term *= mE2 / (d * (d + 1));
-            x0 = x;
-            x = x - term;
-        }
-        return x;
+        return OrbitKernels.ellipticMeanToEccentric(e, M);
     }
 
     /** Computes the hyperbolic eccentric anomaly from the mean anomaly.
-     * <p>
-     * The algorithm used here for solving hyperbolic Kepler equation is
-     * Danby's iterative method (3rd order) with Vallado's initial guess.
-     * </p>
      * @param M mean anomaly (rad)
      * @param ecc eccentricity
      * @return H the hyperbolic eccentric anomaly
+     * @see OrbitKernels#hyperbolicMeanToEccentric(double, double)
      */
     private double meanToHyperbolicEccentric(final double M, final double ecc) {
-
-        // Resolution of hyperbolic Kepler equation for keplerian parameters
-
-        // Initial guess
-        double H;
-        if (ecc < 1.6) {
-            if ((-FastMath.PI < M && M < 0.) || M > FastMath.PI) {
-                H = M - ecc;
-            } else {
-                H = M + ecc;
-            }
-        } else {
-            if (ecc < 3.6 && FastMath.abs(M) > FastMath.PI) {
-                H = M - FastMath.copySign(ecc, M);
-            } else {
-                H = M / (ecc - 1.);
-            }
-        }
-
-        // Iterative computation
-        int iter = 0;
-        do {
-            final double f3  = ecc * FastMath.cosh(H);
-            final double f2  = ecc * FastMath.sinh(H);
-            final double f1  = f3 - 1.;
-            final double f0  = f2 - H - M;
-            final double f12 = 2. * f1;
-            final double d   = f0 / f12;
-            final double fdf = f1 - d * f2;
-            final double ds  = f0 / fdf;
-
-            final double shift = f0 / (fdf + ds * ds * f3 / 6.);
-
-            H -= shift;
-
-            if (FastMath.abs(shift) <= 1.0e-12) {
-                return H;
-            }
-
-        } while (++iter < 50);
-
-        throw new ConvergenceException(OrekitMessages.UNABLE_TO_COMPUTE_HYPERBOLIC_ECCENTRIC_ANOMALY,
-                                       iter);
+        return OrbitKernels.hyperbolicMeanToEccentric(ecc, M);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,926 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.orbits;
+
+import org.apache.commons.math3.exception.ConvergenceException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+
+/** Allocation-free kernels for orbit conversions on primitive arrays.
+ * <p>
+ * These kernels perform the same conversions as the constructors and getters
+ * of the {@link Orbit} classes, but they work directly on arrays containing
+ * many orbits and do not create any object, so they are suited to bulk
+ * processing, for example statistics on whole catalogs. Frames and dates are
+ * not handled here, the caller is responsible for keeping track of them.
+ * </p>
+ * <p>
+ * Each orbit uses 6 consecutive elements in the arrays, in the same order as
+ * {@link OrbitType#mapOrbitToArray(Orbit, PositionAngle, double[])}:
+ * </p>
+ * <ul>
+ *   <li>Cartesian: x, y, z, vx, vy, vz</li>
+ *   <li>Keplerian: a, e, i, ω, Ω, anomaly</li>
+ *   <li>circular: a, ex, ey, i, Ω, α (latitude argument)</li>
+ *   <li>equinoctial: a, ex, ey, hx, hy, λ (longitude argument)</li>
+ * </ul>
+ * <p>
+ * Input and output arrays may be the same array. Results are the same as
+ * the ones computed by the orbit classes, up to a few units in the last place.
+ * </p>
+ * <p>
+ * The elliptic Kepler equation is solved using A. W. Odell and R. H. Gooding
+ * starter followed by a fixed number of iterations. The kernels are not branch-free
+ * though: near the perigee of almost parabolic orbits, E - e sin(E) is computed
+ * using a series expansion that stops when it has converged, and the hyperbolic
+ * Kepler equation is solved iteratively until convergence. Equinoctial and circular
+ * arguments are reduced to the classical Kepler equation, using the same solver.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class OrbitKernels {
+
+    /** Number of elements per orbit. */
+    private static final int STRIDE = 6;
+
+    /** First coefficient to compute Kepler equation solver starter. */
+    private static final double A;
+
+    /** Second coefficient to compute Kepler equation solver starter. */
+    private static final double B;
+
+    static {
+        final double k1 = 3 * FastMath.PI + 2;
+        final double k2 = FastMath.PI - 1;
+        final double k3 = 6 * FastMath.PI - 1;
+        A  = 3 * k2 * k2 / k1;
+        B  = k3 * k3 / (6 * k1);
+    }
+
+    /** Private constructor for a utility class.
+     */
+    private OrbitKernels() {
+    }
+
+    /** Convert Cartesian coordinates to Keplerian elements.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the anomaly to compute
+     * @param pv Cartesian coordinates (at least 6n elements)
+     * @param elements placeholder for Keplerian elements (at least 6n elements)
+     * @param n number of orbits to convert
+     */
+    public static void cartesianToKeplerian(final double mu, final PositionAngle type,
+                                            final double[] pv, final double[] elements, final int n) {
+
+        checkDimensions(pv, elements, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+
+            final double x  = pv[k];
+            final double y  = pv[k + 1];
+            final double z  = pv[k + 2];
+            final double vx = pv[k + 3];
+            final double vy = pv[k + 4];
+            final double vz = pv[k + 5];
+
+            // momentum
+            final double hx = y * vz - z * vy;
+            final double hy = z * vx - x * vz;
+            final double hz = x * vy - y * vx;
+            final double m2 = hx * hx + hy * hy + hz * hz;
+
+            // inclination and right ascension of ascending node
+            final double i    = inclination(hx, hy, hz, m2);
+            final double raan = FastMath.atan2(hx, -hy);
+
+            // preliminary computations for parameters depending on orbit shape (elliptic or hyperbolic)
+            final double r       = FastMath.sqrt(x * x + y * y + z * z);
+            final double v2      = vx * vx + vy * vy + vz * vz;
+            final double rV2OnMu = r * v2 / mu;
+            final double pDotV   = x * vx + y * vy + z * vz;
+
+            // semi-major axis (negative for hyperbolic orbits)
+            final double a   = r / (2 - rV2OnMu);
+            final double muA = mu * a;
+
+            // eccentricity and true anomaly
+            final double e;
+            final double v;
+            if (a > 0) {
+                final double eSE = pDotV / FastMath.sqrt(muA);
+                final double eCE = rV2OnMu - 1;
+                e = FastMath.sqrt(eSE * eSE + eCE * eCE);
+                v = ellipticEccentricToTrue(e, FastMath.atan2(eSE, eCE));
+            } else {
+                final double eSH = pDotV / FastMath.sqrt(-muA);
+                final double eCH = rV2OnMu - 1;
+                e = FastMath.sqrt(1 - m2 / muA);
+                v = hyperbolicEccentricToTrue(e, FastMath.log((eCH + eSH) / (eCH - eSH)) / 2);
+            }
+
+            // perigee argument
+            final double cosRaan = FastMath.cos(raan);
+            final double sinRaan = FastMath.sin(raan);
+            final double px      = x * cosRaan + y * sinRaan;
+            final double py      = (z * (hx * sinRaan - hy * cosRaan) + hz * (y * cosRaan - x * sinRaan)) /
+                                   FastMath.sqrt(m2);
+            final double pa      = FastMath.atan2(py, px) - v;
+
+            elements[k]     = a;
+            elements[k + 1] = e;
+            elements[k + 2] = i;
+            elements[k + 3] = pa;
+            elements[k + 4] = raan;
+            elements[k + 5] = trueToAnomaly(a, e, v, type);
+
+        }
+
+    }
+
+    /** Convert Keplerian elements to Cartesian coordinates.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the anomaly in the elements
+     * @param elements Keplerian elements (at least 6n elements)
+     * @param pv placeholder for Cartesian coordinates (at least 6n elements)
+     * @param n number of orbits to convert
+     * @exception IllegalArgumentException if some elements are inconsistent
+     * (a and e do not define the same conic type, or anomaly out of hyperbolic range)
+     */
+    public static void keplerianToCartesian(final double mu, final PositionAngle type,
+                                            final double[] elements, final double[] pv, final int n)
+        throws IllegalArgumentException {
+
+        checkDimensions(elements, pv, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+
+            final double a       = elements[k];
+            final double e       = elements[k + 1];
+            final double i       = elements[k + 2];
+            final double pa      = elements[k + 3];
+            final double raan    = elements[k + 4];
+            final double anomaly = elements[k + 5];
+            if (a * (1 - e) < 0) {
+                throw OrekitException.createIllegalArgumentException(OrekitMessages.ORBIT_A_E_MISMATCH_WITH_CONIC_TYPE,
+                                                                     a, e);
+            }
+
+            // reference axes defining the orbital plane
+            final double cosRaan = FastMath.cos(raan);
+            final double sinRaan = FastMath.sin(raan);
+            final double cosPa   = FastMath.cos(pa);
+            final double sinPa   = FastMath.sin(pa);
+            final double cosI    = FastMath.cos(i);
+            final double sinI    = FastMath.sin(i);
+            final double crcp    = cosRaan * cosPa;
+            final double crsp    = cosRaan * sinPa;
+            final double srcp    = sinRaan * cosPa;
+            final double srsp    = sinRaan * sinPa;
+            final double px      =  crcp - cosI * srsp;
+            final double py      =  srcp + cosI * crsp;
+            final double pz      =  sinI * sinPa;
+            final double qx      = -crsp - cosI * srcp;
+            final double qy      = -srsp + cosI * crcp;
+            final double qz      =  sinI * cosPa;
+
+            // coordinates of position and velocity in the orbital plane
+            final double x;
+            final double y;
+            final double xDot;
+            final double yDot;
+            if (a > 0) {
+                final double ecc;
+                switch (type) {
+                case MEAN :
+                    ecc = ellipticMeanToEccentric(e, anomaly);
+                    break;
+                case ECCENTRIC :
+                    ecc = anomaly;
+                    break;
+                default :
+                    ecc = ellipticTrueToEccentric(e, anomaly);
+                }
+                final double s1Me2  = FastMath.sqrt((1 - e) * (1 + e));
+                final double cosE   = FastMath.cos(ecc);
+                final double sinE   = FastMath.sin(ecc);
+                final double factor = FastMath.sqrt(mu / a) / (1 - e * cosE);
+                x    = a * (cosE - e);
+                y    = a * sinE * s1Me2;
+                xDot = -sinE * factor;
+                yDot =  cosE * s1Me2 * factor;
+            } else {
+                final double v;
+                switch (type) {
+                case MEAN :
+                    v = hyperbolicEccentricToTrue(e, hyperbolicMeanToEccentric(e, anomaly));
+                    break;
+                case ECCENTRIC :
+                    v = hyperbolicEccentricToTrue(e, anomaly);
+                    break;
+                default :
+                    v = anomaly;
+                }
+                final double cosV = FastMath.cos(v);
+                final double sinV = FastMath.sin(v);
+                if (1 + e * cosV <= 0) {
+                    final double vMax = FastMath.acos(-1 / e);
+                    throw OrekitException.createIllegalArgumentException(OrekitMessages.ORBIT_ANOMALY_OUT_OF_HYPERBOLIC_RANGE,
+                                                                         v, e, -vMax, vMax);
+                }
+                final double f         = a * (1 - e * e);
+                final double posFactor = f / (1 + e * cosV);
+                final double velFactor = FastMath.sqrt(mu / f);
+                x    =  posFactor * cosV;
+                y    =  posFactor * sinV;
+                xDot = -velFactor * sinV;
+                yDot =  velFactor * (e + cosV);
+            }
+
+            pv[k]     = x    * px + y    * qx;
+            pv[k + 1] = x    * py + y    * qy;
+            pv[k + 2] = x    * pz + y    * qz;
+            pv[k + 3] = xDot * px + yDot * qx;
+            pv[k + 4] = xDot * py + yDot * qy;
+            pv[k + 5] = xDot * pz + yDot * qz;
+
+        }
+
+    }
+
+    /** Convert Cartesian coordinates to equinoctial elements.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the longitude argument to compute
+     * @param pv Cartesian coordinates (at least 6n elements)
+     * @param elements placeholder for equinoctial elements (at least 6n elements)
+     * @param n number of orbits to convert
+     * @exception IllegalArgumentException if some orbit is hyperbolic
+     */
+    public static void cartesianToEquinoctial(final double mu, final PositionAngle type,
+                                              final double[] pv, final double[] elements, final int n)
+        throws IllegalArgumentException {
+
+        checkDimensions(pv, elements, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+
+            final double x  = pv[k];
+            final double y  = pv[k + 1];
+            final double z  = pv[k + 2];
+            final double vx = pv[k + 3];
+            final double vy = pv[k + 4];
+            final double vz = pv[k + 5];
+
+            final double r       = FastMath.sqrt(x * x + y * y + z * z);
+            final double v2      = vx * vx + vy * vy + vz * vz;
+            final double rV2OnMu = r * v2 / mu;
+            if (rV2OnMu > 2) {
+                throw OrekitException.createIllegalArgumentException(OrekitMessages.HYPERBOLIC_ORBIT_NOT_HANDLED_AS,
+                                                                     EquinoctialOrbit.class.getName());
+            }
+
+            // inclination vector
+            final double hx   = y * vz - z * vy;
+            final double hy   = z * vx - x * vz;
+            final double hz   = x * vy - y * vx;
+            final double invH = 1.0 / FastMath.sqrt(hx * hx + hy * hy + hz * hz);
+            final double wx   = hx * invH;
+            final double wy   = hy * invH;
+            final double d    = 1.0 / (1 + hz * invH);
+
+            // true longitude argument
+            final double cLv = (x - d * z * wx) / r;
+            final double sLv = (y - d * z * wy) / r;
+
+            // semi-major axis and eccentricity vector
+            final double a   = r / (2 - rV2OnMu);
+            final double eSE = (x * vx + y * vy + z * vz) / FastMath.sqrt(mu * a);
+            final double eCE = rV2OnMu - 1;
+            final double e2  = eCE * eCE + eSE * eSE;
+            final double f   = eCE - e2;
+            final double g   = FastMath.sqrt(1 - e2) * eSE;
+            final double ex  = a * (f * cLv + g * sLv) / r;
+            final double ey  = a * (f * sLv - g * cLv) / r;
+
+            elements[k]     = a;
+            elements[k + 1] = ex;
+            elements[k + 2] = ey;
+            elements[k + 3] = -d * wy;
+            elements[k + 4] =  d * wx;
+            elements[k + 5] = trueToArgument(ex, ey, FastMath.atan2(sLv, cLv), type);
+
+        }
+
+    }
+
+    /** Convert equinoctial elements to Cartesian coordinates.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the longitude argument in the elements
+     * @param elements equinoctial elements (at least 6n elements)
+     * @param pv placeholder for Cartesian coordinates (at least 6n elements)
+     * @param n number of orbits to convert
+     */
+    public static void equinoctialToCartesian(final double mu, final PositionAngle type,
+                                              final double[] elements, final double[] pv, final int n) {
+
+        checkDimensions(elements, pv, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+            final double ex = elements[k + 1];
+            final double ey = elements[k + 2];
+            equinoctialToCartesian(mu, elements[k], ex, ey, elements[k + 3], elements[k + 4],
+                                   argumentToEccentric(ex, ey, elements[k + 5], type), pv, k);
+        }
+
+    }
+
+    /** Convert Cartesian coordinates to circular elements.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the latitude argument to compute
+     * @param pv Cartesian coordinates (at least 6n elements)
+     * @param elements placeholder for circular elements (at least 6n elements)
+     * @param n number of orbits to convert
+     * @exception IllegalArgumentException if some orbit is hyperbolic
+     */
+    public static void cartesianToCircular(final double mu, final PositionAngle type,
+                                           final double[] pv, final double[] elements, final int n)
+        throws IllegalArgumentException {
+
+        checkDimensions(pv, elements, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+
+            final double x  = pv[k];
+            final double y  = pv[k + 1];
+            final double z  = pv[k + 2];
+            final double vx = pv[k + 3];
+            final double vy = pv[k + 4];
+            final double vz = pv[k + 5];
+
+            final double r       = FastMath.sqrt(x * x + y * y + z * z);
+            final double v2      = vx * vx + vy * vy + vz * vz;
+            final double rV2OnMu = r * v2 / mu;
+            if (rV2OnMu > 2) {
+                throw OrekitException.createIllegalArgumentException(OrekitMessages.HYPERBOLIC_ORBIT_NOT_HANDLED_AS,
+                                                                     CircularOrbit.class.getName());
+            }
+            final double a = r / (2 - rV2OnMu);
+
+            // inclination and right ascension of ascending node
+            final double hx   = y * vz - z * vy;
+            final double hy   = z * vx - x * vz;
+            final double hz   = x * vy - y * vx;
+            final double i    = inclination(hx, hy, hz, hx * hx + hy * hy + hz * hz);
+            final double raan = FastMath.atan2(hx, -hy);
+
+            // 2D-coordinates in the canonical frame
+            final double cosRaan = FastMath.cos(raan);
+            final double sinRaan = FastMath.sin(raan);
+            final double cosI    = FastMath.cos(i);
+            final double sinI    = FastMath.sin(i);
+            final double x2      = (x * cosRaan + y * sinRaan) / a;
+            final double y2      = ((y * cosRaan - x * sinRaan) * cosI + z * sinI) / a;
+
+            // eccentricity vector
+            final double eSE    = (x * vx + y * vy + z * vz) / FastMath.sqrt(mu * a);
+            final double eCE    = rV2OnMu - 1;
+            final double e2     = eCE * eCE + eSE * eSE;
+            final double f      = eCE - e2;
+            final double g      = FastMath.sqrt(1 - e2) * eSE;
+            final double aOnR   = a / r;
+            final double a2OnR2 = aOnR * aOnR;
+            final double ex     = a2OnR2 * (f * x2 + g * y2);
+            final double ey     = a2OnR2 * (f * y2 - g * x2);
+
+            // latitude argument
+            final double beta   = 1 / (1 + FastMath.sqrt(1 - ex * ex - ey * ey));
+            final double alphaE = FastMath.atan2(y2 + ey + eSE * beta * ex, x2 + ex - eSE * beta * ey);
+            final double alpha;
+            switch (type) {
+            case MEAN :
+                alpha = alphaE - ex * FastMath.sin(alphaE) + ey * FastMath.cos(alphaE);
+                break;
+            case ECCENTRIC :
+                alpha = alphaE;
+                break;
+            default :
+                alpha = eccentricToTrueArgument(ex, ey, alphaE);
+            }
+
+            elements[k]     = a;
+            elements[k + 1] = ex;
+            elements[k + 2] = ey;
+            elements[k + 3] = i;
+            elements[k + 4] = raan;
+            elements[k + 5] = alpha;
+
+        }
+
+    }
+
+    /** Convert circular elements to Cartesian coordinates.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param type type of the latitude argument in the elements
+     * @param elements circular elements (at least 6n elements)
+     * @param pv placeholder for Cartesian coordinates (at least 6n elements)
+     * @param n number of orbits to convert
+     */
+    public static void circularToCartesian(final double mu, final PositionAngle type,
+                                           final double[] elements, final double[] pv, final int n) {
+
+        checkDimensions(elements, pv, STRIDE, n);
+        for (int k = 0; k < STRIDE * n; k += STRIDE) {
+
+            final double ex      = elements[k + 1];
+            final double ey      = elements[k + 2];
+            final double raan    = elements[k + 4];
+            final double cosRaan = FastMath.cos(raan);
+            final double sinRaan = FastMath.sin(raan);
+            final double tanI2   = FastMath.tan(elements[k + 3] / 2);
+            final double alphaE  = argumentToEccentric(ex, ey, elements[k + 5], type);
+
+            // the circular elements are converted to equinoctial elements on the fly
+            equinoctialToCartesian(mu, elements[k],
+                                   ex * cosRaan - ey * sinRaan, ey * cosRaan + ex * sinRaan,
+                                   cosRaan * tanI2, sinRaan * tanI2,
+                                   alphaE + raan, pv, k);
+
+        }
+
+    }
+
+    /** Convert elliptic mean anomalies to eccentric anomalies.
+     * @param e eccentricities (at least n elements)
+     * @param mean mean anomalies (at least n elements)
+     * @param eccentric placeholder for eccentric anomalies (at least n elements,
+     * may be the same array as {@code mean})
+     * @param n number of anomalies to convert
+     * @see #ellipticMeanToEccentric(double, double)
+     */
+    public static void ellipticMeanToEccentric(final double[] e, final double[] mean,
+                                               final double[] eccentric, final int n) {
+        checkDimensions(e, mean, 1, n);
+        checkDimensions(e, eccentric, 1, n);
+        for (int k = 0; k < n; ++k) {
+            eccentric[k] = ellipticMeanToEccentric(e[k], mean[k]);
+        }
+    }
+
+    /** Convert elliptic eccentric anomalies to mean anomalies.
+     * @param e eccentricities (at least n elements)
+     * @param eccentric eccentric anomalies (at least n elements)
+     * @param mean placeholder for mean anomalies (at least n elements,
+     * may be the same array as {@code eccentric})
+     * @param n number of anomalies to convert
+     * @see #ellipticEccentricToMean(double, double)
+     */
+    public static void ellipticEccentricToMean(final double[] e, final double[] eccentric,
+                                               final double[] mean, final int n) {
+        checkDimensions(e, eccentric, 1, n);
+        checkDimensions(e, mean, 1, n);
+        for (int k = 0; k < n; ++k) {
+            mean[k] = ellipticEccentricToMean(e[k], eccentric[k]);
+        }
+    }
+
+    /** Convert elliptic eccentric anomalies to true anomalies.
+     * @param e eccentricities (at least n elements)
+     * @param eccentric eccentric anomalies (at least n elements)
+     * @param trueAnomaly placeholder for true anomalies (at least n elements,
+     * may be the same array as {@code eccentric})
+     * @param n number of anomalies to convert
+     * @see #ellipticEccentricToTrue(double, double)
+     */
+    public static void ellipticEccentricToTrue(final double[] e, final double[] eccentric,
+                                               final double[] trueAnomaly, final int n) {
+        checkDimensions(e, eccentric, 1, n);
+        checkDimensions(e, trueAnomaly, 1, n);
+        for (int k = 0; k < n; ++k) {
+            trueAnomaly[k] = ellipticEccentricToTrue(e[k], eccentric[k]);
+        }
+    }
+
+    /** Convert elliptic true anomalies to eccentric anomalies.
+     * @param e eccentricities (at least n elements)
+     * @param trueAnomaly true anomalies (at least n elements)
+     * @param eccentric placeholder for eccentric anomalies (at least n elements,
+     * may be the same array as {@code trueAnomaly})
+     * @param n number of anomalies to convert
+     * @see #ellipticTrueToEccentric(double, double)
+     */
+    public static void ellipticTrueToEccentric(final double[] e, final double[] trueAnomaly,
+                                               final double[] eccentric, final int n) {
+        checkDimensions(e, trueAnomaly, 1, n);
+        checkDimensions(e, eccentric, 1, n);
+        for (int k = 0; k < n; ++k) {
+            eccentric[k] = ellipticTrueToEccentric(e[k], trueAnomaly[k]);
+        }
+    }
+
+    /** Solve the elliptic Kepler equation.
+     * <p>
+     * The algorithm used here for solving Kepler equation has been published
+     * in: "Procedures for  solving Kepler's Equation", A. W. Odell and
+     * R. H. Gooding, Celestial Mechanics 38 (1986) 307-334. It uses a
+     * starter followed by exactly two iterations, each consisting of one
+     * Halley step and one Newton-Raphson step.
+     * </p>
+     * @param e eccentricity (must be smaller than 1)
+     * @param M mean anomaly (rad)
+     * @return eccentric anomaly (rad), in the same 2π range as the mean anomaly
+     */
+    public static double ellipticMeanToEccentric(final double e, final double M) {
+
+        // reduce M to [-PI PI) interval
+        final double reducedM = MathUtils.normalizeAngle(M, 0.0);
+
+        // compute start value according to A. W. Odell and R. H. Gooding S12 starter
+        double E;
+        if (FastMath.abs(reducedM) < 1.0 / 6.0) {
+            E = reducedM + e * (FastMath.cbrt(6 * reducedM) - reducedM);
+        } else {
+            if (reducedM < 0) {
+                final double w = FastMath.PI + reducedM;
+                E = reducedM + e * (A * w / (B - w) - FastMath.PI - reducedM);
+            } else {
+                final double w = FastMath.PI - reducedM;
+                E = reducedM + e * (FastMath.PI - A * w / (B - w) - reducedM);
+            }
+        }
+
+        final double e1 = 1 - e;
+        final boolean noCancellationRisk = (e1 + E * E / 6) >= 0.1;
+
+        // perform two iterations, each consisting of one Halley step and one Newton-Raphson step
+        for (int j = 0; j < 2; ++j) {
+            double f;
+            double fd;
+            final double fdd  = e * FastMath.sin(E);
+            final double fddd = e * FastMath.cos(E);
+            if (noCancellationRisk) {
+                f  = (E - fdd) - reducedM;
+                fd = 1 - fddd;
+            } else {
+                f  = eMeSinE(e, E) - reducedM;
+                final double s = FastMath.sin(0.5 * E);
+                fd = e1 + 2 * e * s * s;
+            }
+            final double dee = f * fd / (0.5 * f * fdd - fd * fd);
+
+            // update eccentric anomaly, using expressions that limit underflow problems
+            final double w = fd + 0.5 * dee * (fdd + dee * fddd / 3);
+            fd += dee * (fdd + 0.5 * dee * fddd);
+            E  -= (f - dee * (fd - w)) / fd;
+
+        }
+
+        // expand the result back to original range
+        E += M - reducedM;
+
+        return E;
+
+    }
+
+    /** Compute elliptic mean anomaly from eccentric anomaly.
+     * @param e eccentricity (must be smaller than 1)
+     * @param E eccentric anomaly (rad)
+     * @return mean anomaly (rad)
+     */
+    public static double ellipticEccentricToMean(final double e, final double E) {
+        return E - e * FastMath.sin(E);
+    }
+
+    /** Compute elliptic true anomaly from eccentric anomaly.
+     * @param e eccentricity (must be smaller than 1)
+     * @param E eccentric anomaly (rad)
+     * @return true anomaly (rad)
+     */
+    public static double ellipticEccentricToTrue(final double e, final double E) {
+        final double beta = e / (1 + FastMath.sqrt((1 - e) * (1 + e)));
+        return E + 2 * FastMath.atan(beta * FastMath.sin(E) / (1 - beta * FastMath.cos(E)));
+    }
+
+    /** Compute elliptic eccentric anomaly from true anomaly.
+     * @param e eccentricity (must be smaller than 1)
+     * @param v true anomaly (rad)
+     * @return eccentric anomaly (rad)
+     */
+    public static double ellipticTrueToEccentric(final double e, final double v) {
+        final double beta = e / (1 + FastMath.sqrt((1 - e) * (1 + e)));
+        return v - 2 * FastMath.atan(beta * FastMath.sin(v) / (1 + beta * FastMath.cos(v)));
+    }
+
+    /** Accurate computation of E - e sin(E).
+     * <p>
+     * This method is used when E is close to 0 and e close to 1,
+     * i.e. near the perigee of almost parabolic orbits
+     * </p>
+     * @param e eccentricity
+     * @param E eccentric anomaly
+     * @return E - e sin(E)
+     */
+    private static double eMeSinE(final double e, final double E) {
+        double x = (1 - e) * FastMath.sin(E);
+        final double mE2 = -E * E;
+        double term = E;
+        double d    = 0;
+        // the inequality test below IS intentional and should NOT be replaced by a check with a small tolerance
+        for (double x0 = Double.NaN; x != x0;) {
+            d += 2;
+            term *= mE2 / (d * (d + 1));
+            x0 = x;
+            x = x - term;
+        }
+        return x;
+    }
+
+    /** Solve the hyperbolic Kepler equation.
+     * <p>
+     * The algorithm used here for solving hyperbolic Kepler equation is
+     * Danby's iterative method (3rd order) with Vallado's initial guess.
+     * </p>
+     * @param ecc eccentricity (must be larger than 1)
+     * @param M mean anomaly (rad)
+     * @return hyperbolic eccentric anomaly
+     * @exception ConvergenceException if the iterations do not converge
+     */
+    public static double hyperbolicMeanToEccentric(final double ecc, final double M)
+        throws ConvergenceException {
+
+        // Initial guess
+        double H;
+        if (ecc < 1.6) {
+            if ((-FastMath.PI < M && M < 0.) || M > FastMath.PI) {
+                H = M - ecc;
+            } else {
+                H = M + ecc;
+            }
+        } else {
+            if (ecc < 3.6 && FastMath.abs(M) > FastMath.PI) {
+                H = M - FastMath.copySign(ecc, M);
+            } else {
+                H = M / (ecc - 1.);
+            }
+        }
+
+        // Iterative computation
+        int iter = 0;
+        do {
+            final double f3  = ecc * FastMath.cosh(H);
+            final double f2  = ecc * FastMath.sinh(H);
+            final double f1  = f3 - 1.;
+            final double f0  = f2 - H - M;
+            final double f12 = 2. * f1;
+            final double d   = f0 / f12;
+            final double fdf = f1 - d * f2;
+            final double ds  = f0 / fdf;
+
+            final double shift = f0 / (fdf + ds * ds * f3 / 6.);
+
+            H -= shift;
+
+            if (FastMath.abs(shift) <= 1.0e-12) {
+                return H;
+            }
+
+        } while (++iter < 50);
+
+        throw new ConvergenceException(OrekitMessages.UNABLE_TO_COMPUTE_HYPERBOLIC_ECCENTRIC_ANOMALY,
+                                       iter);
+    }
+
+    /** Compute hyperbolic mean anomaly from hyperbolic eccentric anomaly.
+     * @param e eccentricity (must be larger than 1)
+     * @param H hyperbolic eccentric anomaly
+     * @return mean anomaly (rad)
+     */
+    public static double hyperbolicEccentricToMean(final double e, final double H) {
+        return e * FastMath.sinh(H) - H;
+    }
+
+    /** Compute true anomaly from hyperbolic eccentric anomaly.
+     * @param e eccentricity (must be larger than 1)
+     * @param H hyperbolic eccentric anomaly
+     * @return true anomaly (rad)
+     */
+    public static double hyperbolicEccentricToTrue(final double e, final double H) {
+        return 2 * FastMath.atan(FastMath.sqrt((e + 1) / (e - 1)) * FastMath.tanh(H / 2));
+    }
+
+    /** Compute hyperbolic eccentric anomaly from true anomaly.
+     * @param e eccentricity (must be larger than 1)
+     * @param v true anomaly (rad)
+     * @return hyperbolic eccentric anomaly
+     */
+    public static double hyperbolicTrueToEccentric(final double e, final double v) {
+        final double sinhH = FastMath.sqrt(e * e - 1) * FastMath.sin(v) / (1 + e * FastMath.cos(v));
+        return FastMath.asinh(sinhH);
+    }
+
+    /** Convert a true anomaly to another anomaly type.
+     * @param a semi-major axis (negative for hyperbolic orbits)
+     * @param e eccentricity
+     * @param v true anomaly (rad)
+     * @param type type of the anomaly to compute
+     * @return anomaly (rad)
+     */
+    private static double trueToAnomaly(final double a, final double e, final double v,
+                                        final PositionAngle type) {
+        switch (type) {
+        case MEAN :
+            return (a < 0) ?
+                   hyperbolicEccentricToMean(e, hyperbolicTrueToEccentric(e, v)) :
+                   ellipticEccentricToMean(e, ellipticTrueToEccentric(e, v));
+        case ECCENTRIC :
+            return (a < 0) ? hyperbolicTrueToEccentric(e, v) : ellipticTrueToEccentric(e, v);
+        default :
+            return v;
+        }
+    }
+
+    /** Convert a true longitude or latitude argument to another type.
+     * @param ex first component of the eccentricity vector
+     * @param ey second component of the eccentricity vector
+     * @param lv true argument (rad)
+     * @param type type of the argument to compute
+     * @return argument (rad)
+     */
+    private static double trueToArgument(final double ex, final double ey, final double lv,
+                                         final PositionAngle type) {
+        if (type == PositionAngle.TRUE) {
+            return lv;
+        }
+        final double epsilon = FastMath.sqrt(1 - ex * ex - ey * ey);
+        final double cosLv   = FastMath.cos(lv);
+        final double sinLv   = FastMath.sin(lv);
+        final double num     = ey * cosLv - ex * sinLv;
+        final double den     = epsilon + 1 + ex * cosLv + ey * sinLv;
+        final double lE      = lv + 2 * FastMath.atan(num / den);
+        return (type == PositionAngle.ECCENTRIC) ? lE : lE - ex * FastMath.sin(lE) + ey * FastMath.cos(lE);
+    }
+
+    /** Convert an eccentric longitude or latitude argument to true argument.
+     * @param ex first component of the eccentricity vector
+     * @param ey second component of the eccentricity vector
+     * @param lE eccentric argument (rad)
+     * @return true argument (rad)
+     */
+    private static double eccentricToTrueArgument(final double ex, final double ey, final double lE) {
+        final double epsilon = FastMath.sqrt(1 - ex * ex - ey * ey);
+        final double cosLE   = FastMath.cos(lE);
+        final double sinLE   = FastMath.sin(lE);
+        final double num     = ex * sinLE - ey * cosLE;
+        final double den     = epsilon + 1 - ex * cosLE - ey * sinLE;
+        return lE + 2 * FastMath.atan(num / den);
+    }
+
+    /** Convert a longitude or latitude argument to eccentric argument.
+     * <p>
+     * The generalized Kepler equation lM = lE - ex sin(lE) + ey cos(lE) is reduced
+     * to the classical one by shifting the arguments by the eccentricity vector angle.
+     * </p>
+     * @param ex first component of the eccentricity vector
+     * @param ey second component of the eccentricity vector
+     * @param l argument (rad)
+     * @param type type of the argument
+     * @return eccentric argument (rad)
+     */
+    private static double argumentToEccentric(final double ex, final double ey, final double l,
+                                              final PositionAngle type) {
+        switch (type) {
+        case MEAN : {
+            final double e      = FastMath.sqrt(ex * ex + ey * ey);
+            final double phase  = FastMath.atan2(ey, ex);
+            return phase + ellipticMeanToEccentric(e, l - phase);
+        }
+        case ECCENTRIC :
+            return l;
+        default : {
+            final double epsilon = FastMath.sqrt(1 - ex * ex - ey * ey);
+            final double cosLv   = FastMath.cos(l);
+            final double sinLv   = FastMath.sin(l);
+            final double num     = ey * cosLv - ex * sinLv;
+            final double den     = epsilon + 1 + ex * cosLv + ey * sinLv;
+            return l + 2 * FastMath.atan(num / den);
+        }
+        }
+    }
+
+    /** Convert one set of equinoctial elements to Cartesian coordinates.
+     * @param mu central attraction coefficient (m³/s²)
+     * @param a semi-major axis (m)
+     * @param ex first component of the eccentricity vector
+     * @param ey second component of the eccentricity vector
+     * @param hx first component of the inclination vector
+     * @param hy second component of the inclination vector
+     * @param lE eccentric longitude argument (rad)
+     * @param pv placeholder for Cartesian coordinates
+     * @param offset offset of the first coordinate in the placeholder
+     */
+    private static void equinoctialToCartesian(final double mu, final double a,
+                                               final double ex, final double ey,
+                                               final double hx, final double hy,
+                                               final double lE, final double[] pv, final int offset) {
+
+        // inclination-related intermediate parameters
+        final double hx2   = hx * hx;
+        final double hy2   = hy * hy;
+        final double factH = 1. / (1 + hx2 + hy2);
+
+        // reference axes defining the orbital plane
+        final double ux = (1 + hx2 - hy2) * factH;
+        final double uy =  2 * hx * hy * factH;
+        final double uz = -2 * hy * factH;
+
+        final double vx = uy;
+        final double vy = (1 - hx2 + hy2) * factH;
+        final double vz =  2 * hx * factH;
+
+        // eccentricity-related intermediate parameters
+        final double exey = ex * ey;
+        final double ex2  = ex * ex;
+        final double ey2  = ey * ey;
+        final double e2   = ex2 + ey2;
+        final double eta  = 1 + FastMath.sqrt(1 - e2);
+        final double beta = 1. / eta;
+
+        // eccentric longitude argument
+        final double cLe    = FastMath.cos(lE);
+        final double sLe    = FastMath.sin(lE);
+        final double exCeyS = ex * cLe + ey * sLe;
+
+        // coordinates of position and velocity in the orbital plane
+        final double x      = a * ((1 - beta * ey2) * cLe + beta * exey * sLe - ex);
+        final double y      = a * ((1 - beta * ex2) * sLe + beta * exey * cLe - ey);
+
+        final double factor = FastMath.sqrt(mu / a) / (1 - exCeyS);
+        final double xdot   = factor * (-sLe + beta * ey * exCeyS);
+        final double ydot   = factor * ( cLe - beta * ex * exCeyS);
+
+        pv[offset]     = x * ux + y * vx;
+        pv[offset + 1] = x * uy + y * vy;
+        pv[offset + 2] = x * uz + y * vz;
+        pv[offset + 3] = xdot * ux + ydot * vx;
+        pv[offset + 4] = xdot * uy + ydot * vy;
+        pv[offset + 5] = xdot * uz + ydot * vz;
+
+    }
+
+    /** Compute the inclination from the momentum.
+     * <p>
+     * This is the angle between the momentum and the Z axis, computed the same
+     * way as {@link org.apache.commons.math3.geometry.euclidean.threed.Vector3D#angle(
+     * org.apache.commons.math3.geometry.euclidean.threed.Vector3D,
+     * org.apache.commons.math3.geometry.euclidean.threed.Vector3D)} to preserve
+     * accuracy for almost equatorial orbits.
+     * </p>
+     * @param hx first component of the momentum
+     * @param hy second component of the momentum
+     * @param hz third component of the momentum
+     * @param m2 squared norm of the momentum
+     * @return inclination (rad)
+     */
+    private static double inclination(final double hx, final double hy, final double hz, final double m2) {
+        final double m         = FastMath.sqrt(m2);
+        final double threshold = m * 0.9999;
+        if (hz < -threshold || hz > threshold) {
+            // the vectors are almost aligned, compute using the sine
+            final double sin = FastMath.sqrt(hx * hx + hy * hy) / m;
+            return (hz >= 0) ? FastMath.asin(sin) : FastMath.PI - FastMath.asin(sin);
+        }
+        return FastMath.acos(hz / m);
+    }
+
+    /** Check arrays dimensions.
+     * @param in input array
+     * @param out output array
+     * @param stride number of elements per item
+     * @param n number of items
+     * @exception IllegalArgumentException if some array is too small
+     */
+    private static void checkDimensions(final double[] in, final double[] out,
+                                        final int stride, final int n)
+        throws IllegalArgumentException {
+        if (in.length < stride * n) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 in.length, stride * n);
+        }
+        if (out.length < stride * n) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 out.length, stride * n);
+        }
+    }
+
+}
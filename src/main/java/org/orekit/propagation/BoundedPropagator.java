@@ -16,6 +16,7 @@
  */
 package org.orekit.propagation;
 
+import org.orekit.errors.OrekitException;
 import org.orekit.time.AbsoluteDate;
 
 /** This interface is intended for ephemerides valid only during a time range.
@@ -41,4 +42,19 @@ public interface BoundedPropagator extends Propagator {
      */
     AbsoluteDate getMaxDate();
 
+    /** Create an independent copy of the ephemeris.
+     * <p>
+     * Propagators are not thread-safe. The copy represents the same trajectory
+     * as the instance, including attitude and additional states, but it has its
+     * own propagation state, so the instance and the copy can be used concurrently
+     * from different threads. Immutable data (tabulated states, state mappers,
+     * attitude and additional states providers) may be shared between them. The
+     * events detectors and step handlers registered in the instance are not copied.
+     * </p>
+     * @return independent copy of the ephemeris
+     * @exception OrekitException if the copy cannot be built
+     * @since 7.1
+     */
+    BoundedPropagator copy() throws OrekitException;
+
 }
@@ -34,6 +34,7 @@ import org.orekit.frames.Frame;
 import org.orekit.orbits.CartesianOrbit;
 import org.orekit.orbits.Orbit;
 import org.orekit.propagation.AbstractPropagator;
+import org.orekit.propagation.AdditionalStateProvider;
 import org.orekit.propagation.BoundedPropagator;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
@@ -412,12 +413,33 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
         /** {@inheritDoc} */
         protected TimeStampedPVCoordinates propagateOrbit(final AbsoluteDate target)
             throws PropagationException {
-            return AbstractAnalyticalPropagator.this.propagateOrbit(target);
+            // the underlying propagator may be shared with copies of the view
+            synchronized (AbstractAnalyticalPropagator.this) {
+                return AbstractAnalyticalPropagator.this.propagateOrbit(target);
+            }
         }
 
         /** {@inheritDoc} */
         public double getMass(final AbsoluteDate date) throws PropagationException {
-            return AbstractAnalyticalPropagator.this.getMass(date);
+            // the underlying propagator may be shared with copies of the view
+            synchronized (AbstractAnalyticalPropagator.this) {
+                return AbstractAnalyticalPropagator.this.getMass(date);
+            }
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * The copy is another view of the same underlying propagator, so
+         * computations from concurrent copies are serialized.
+         * </p>
+         */
+        public BoundedPropagator copy() throws OrekitException {
+            final BoundedPropagatorView copy = new BoundedPropagatorView(minDate, maxDate);
+            copy.setAttitudeProvider(getAttitudeProvider());
+            for (final AdditionalStateProvider provider : getAdditionalStateProviders()) {
+                copy.addAdditionalStateProvider(provider);
+            }
+            return copy;
         }
 
         /** {@inheritDoc} */
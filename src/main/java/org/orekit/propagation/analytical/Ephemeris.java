@@ -30,6 +30,7 @@ import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
 import org.orekit.errors.PropagationException;
 import org.orekit.frames.Frame;
+import org.orekit.propagation.AdditionalStateProvider;
 import org.orekit.propagation.BoundedPropagator;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.time.AbsoluteDate;
@@ -104,6 +105,36 @@ public class Ephemeris extends AbstractAnalyticalPropagator implements BoundedPr
         cache = new ImmutableTimeStampedCache<SpacecraftState>(interpolationPoints, states);
     }
 
+    /** Copy constructor.
+     * <p>
+     * The thread-safe cache of tabulated states is shared with the original instance.
+     * </p>
+     * @param original original instance
+     * @exception OrekitException if the additional states providers cannot be set up
+     */
+    private Ephemeris(final Ephemeris original) throws OrekitException {
+
+        super(DEFAULT_LAW);
+
+        minDate    = original.minDate;
+        maxDate    = original.maxDate;
+        frame      = original.frame;
+        additional = original.additional;
+        pvProvider = new LocalPVProvider();
+        cache      = original.cache;
+
+        setAttitudeProvider(original.getAttitudeProvider());
+        for (final AdditionalStateProvider provider : original.getAdditionalStateProviders()) {
+            addAdditionalStateProvider(provider);
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    public BoundedPropagator copy() throws OrekitException {
+        return new Ephemeris(this);
+    }
+
     /** Get the first date of the range.
      * @return the first date of the range
      */
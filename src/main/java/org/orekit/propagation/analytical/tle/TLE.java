@@ -262,6 +262,49 @@ public class TLE implements TimeStamped, Serializable {
 
     }
 
+    /** Constructor from already parsed elements and the original lines.
+     * <p>
+     * This constructor is used by parsers that already checked and parsed the lines
+     * by themselves, so the original lines are preserved without parsing them again.
+     * </p>
+     * @param line1 the first element (it has to be already trimmed)
+     * @param line2 the second element (it has to be already trimmed)
+     * @param satelliteNumber satellite number
+     * @param classification classification (U for unclassified)
+     * @param launchYear launch year (all digits)
+     * @param launchNumber launch number
+     * @param launchPiece launch piece
+     * @param ephemerisType type of ephemeris
+     * @param elementNumber element number
+     * @param epoch elements epoch
+     * @param meanMotion mean motion (rad/s)
+     * @param meanMotionFirstDerivative mean motion first derivative (rad/s²)
+     * @param meanMotionSecondDerivative mean motion second derivative (rad/s³)
+     * @param e eccentricity
+     * @param i inclination (rad)
+     * @param pa argument of perigee (rad)
+     * @param raan right ascension of ascending node (rad)
+     * @param meanAnomaly mean anomaly (rad)
+     * @param revolutionNumberAtEpoch revolution number at epoch
+     * @param bStar ballistic coefficient
+     * @since 7.1
+     */
+    TLE(final String line1, final String line2,
+        final int satelliteNumber, final char classification,
+        final int launchYear, final int launchNumber, final String launchPiece,
+        final int ephemerisType, final int elementNumber, final AbsoluteDate epoch,
+        final double meanMotion, final double meanMotionFirstDerivative,
+        final double meanMotionSecondDerivative, final double e, final double i,
+        final double pa, final double raan, final double meanAnomaly,
+        final int revolutionNumberAtEpoch, final double bStar) {
+        this(satelliteNumber, classification, launchYear, launchNumber, launchPiece,
+             ephemerisType, elementNumber, epoch, meanMotion, meanMotionFirstDerivative,
+             meanMotionSecondDerivative, e, i, pa, raan, meanAnomaly,
+             revolutionNumberAtEpoch, bStar);
+        this.line1 = line1;
+        this.line2 = line2;
+    }
+
     /** Get the first line.
      * @return first line
      * @exception OrekitException if UTC conversion cannot be done
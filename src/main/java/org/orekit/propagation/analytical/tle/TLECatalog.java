@@ -0,0 +1,637 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.data.DataLoader;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+
+/** This class reads and indexes whole catalogs of TLEs for many space objects.
+ * <p>
+ * Contrary to {@link TLESeries} which loads the TLEs of one object only and
+ * must crawl the data again for each object, this class loads all the TLEs
+ * of all the objects found in the supported files in one pass and indexes them
+ * by satellite number and epoch. TLE data is read using the standard Orekit
+ * mechanism based on a configured {@link DataProvidersManager DataProvidersManager}.
+ * </p>
+ * <p>
+ * Parsing is performed directly on the raw bytes of the files, without building
+ * intermediate strings for fields, and the format checks are done with fixed columns templates
+ * rather than regular expressions. The checks are equivalent to the ones performed by
+ * {@link TLE#isFormatOK(String, String)} and the TLEs built are the same as the ones
+ * built by the {@link TLE#TLE(String, String)} constructor. If an executor is provided
+ * at construction, files are read sequentially but parsed in parallel.
+ * </p>
+ * <p>
+ * This class is not thread-safe during loading, but once loaded the catalog
+ * can be queried concurrently.
+ * </p>
+ * @see TLE
+ * @see TLESeries
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class TLECatalog implements DataLoader {
+
+    /** Default supported files name pattern. */
+    private static final String DEFAULT_SUPPORTED_NAMES = ".*\\.tle$";
+
+    /** Charset for TLE lines. */
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    /** Length of TLE lines (without end of line markers). */
+    private static final int LINE_LENGTH = 69;
+
+    /** Template for first line.
+     * <p>
+     * 'd' stands for digit or space, 'A' for upper case letter or space,
+     * 's' for sign or space, 'e' for sign, other characters must match exactly.
+     * </p>
+     */
+    private static final byte[] LINE_1_TEMPLATE =
+        "1 dddddU dddddAAA ddddd.dddddddd s.dddddddd sddddded sddddded d ddddd".getBytes(US_ASCII);
+
+    /** Template for second line.
+     * @see #LINE_1_TEMPLATE
+     */
+    private static final byte[] LINE_2_TEMPLATE =
+        "2 ddddd ddd.dddd ddd.dddd ddddddd ddd.dddd ddd.dddd dd.dddddddddddddd".getBytes(US_ASCII);
+
+    /** Powers of ten. */
+    private static final double[] POWERS_OF_TEN = {
+        1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7, 1.0e8, 1.0e9, 1.0e10,
+        1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15, 1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20
+    };
+
+    /** Chronological comparator for TLEs of the same object. */
+    private static final Comparator<TLE> COMPARATOR = new Comparator<TLE>() {
+        /** {@inheritDoc} */
+        public int compare(final TLE tle1, final TLE tle2) {
+            if (tle1.getSatelliteNumber() != tle2.getSatelliteNumber()) {
+                return (tle1.getSatelliteNumber() < tle2.getSatelliteNumber()) ? -1 : +1;
+            }
+            return tle1.getDate().compareTo(tle2.getDate());
+        }
+    };
+
+    /** Regular expression for supported files names. */
+    private final String supportedNames;
+
+    /** Indicator for non-TLE extra lines. */
+    private final boolean ignoreNonTLELines;
+
+    /** Executor for parsing tasks (may be null). */
+    private final ExecutorService executor;
+
+    /** TLEs parsed in the caller thread. */
+    private final List<TLE> loaded;
+
+    /** Pending parsing tasks. */
+    private final List<Future<List<TLE>>> pending;
+
+    /** UTC time scale. */
+    private TimeScale utc;
+
+    /** Sorted satellite numbers. */
+    private int[] satelliteNumbers;
+
+    /** Index of the first TLE of each satellite (with an extra element for the end). */
+    private int[] starts;
+
+    /** TLEs, sorted by satellite numbers and then chronologically. */
+    private TLE[] tles;
+
+    /** Offsets of the TLEs epochs with respect to J2000.0. */
+    private double[] offsets;
+
+    /** Simple constructor.
+     * <p>This constructor does not load any data by itself. Data must be
+     * loaded later on by calling the {@link #loadTLEData()} method.</p>
+     * @param supportedNames regular expression for supported files names
+     * (if null, a default pattern matching files with a ".tle" extension will be used)
+     * @param ignoreNonTLELines if true, extra non-TLE lines are silently ignored,
+     * if false an exception will be generated when such lines are encountered
+     */
+    public TLECatalog(final String supportedNames, final boolean ignoreNonTLELines) {
+        this(supportedNames, ignoreNonTLELines, null);
+    }
+
+    /** Simple constructor.
+     * <p>This constructor does not load any data by itself. Data must be
+     * loaded later on by calling the {@link #loadTLEData()} method.</p>
+     * <p>The executor is not shut down by the catalog, it is the responsibility
+     * of the caller to manage its life cycle.</p>
+     * @param supportedNames regular expression for supported files names
+     * (if null, a default pattern matching files with a ".tle" extension will be used)
+     * @param ignoreNonTLELines if true, extra non-TLE lines are silently ignored,
+     * if false an exception will be generated when such lines are encountered
+     * @param executor executor for parsing tasks (if null, files are parsed in
+     * the caller thread)
+     */
+    public TLECatalog(final String supportedNames, final boolean ignoreNonTLELines,
+                      final ExecutorService executor) {
+        this.supportedNames    = (supportedNames == null) ? DEFAULT_SUPPORTED_NAMES : supportedNames;
+        this.ignoreNonTLELines = ignoreNonTLELines;
+        this.executor          = executor;
+        this.loaded            = new ArrayList<TLE>();
+        this.pending           = new ArrayList<Future<List<TLE>>>();
+        this.satelliteNumbers  = new int[0];
+        this.starts            = new int[] {
+            0
+        };
+        this.tles              = new TLE[0];
+        this.offsets           = new double[0];
+    }
+
+    /** Load TLE data for all objects.
+     * <p>The TLE data already loaded in the instance will be discarded
+     * and replaced by the newly loaded data.</p>
+     * @exception OrekitException if some data can't be read, some
+     * file content is corrupted or no TLE data is available
+     */
+    public void loadTLEData() throws OrekitException {
+
+        utc = TimeScalesFactory.getUTC();
+        loaded.clear();
+        pending.clear();
+
+        // load the data from the configured data providers
+        DataProvidersManager.getInstance().feed(supportedNames, this);
+
+        // gather the parsing results
+        try {
+            for (final Future<List<TLE>> future : pending) {
+                loaded.addAll(future.get());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw OrekitException.createInternalError(ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof OrekitException) {
+                throw (OrekitException) ee.getCause();
+            } else {
+                throw OrekitException.createInternalError(ee.getCause());
+            }
+        } finally {
+            pending.clear();
+        }
+
+        buildIndex(loaded);
+        loaded.clear();
+
+        if (tles.length == 0) {
+            throw new OrekitException(OrekitMessages.NO_TLE_DATA_AVAILABLE);
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    public boolean stillAcceptsData() {
+        // we load all the supported files
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    public void loadData(final InputStream input, final String name)
+        throws IOException, OrekitException {
+
+        final byte[] buffer = readFully(input);
+        if (executor == null) {
+            loaded.addAll(parse(buffer, name));
+        } else {
+            pending.add(executor.submit(new Callable<List<TLE>>() {
+                /** {@inheritDoc} */
+                public List<TLE> call() throws OrekitException {
+                    return parse(buffer, name);
+                }
+            }));
+        }
+
+    }
+
+    /** Get the number of TLEs in the catalog.
+     * @return number of TLEs in the catalog
+     */
+    public int size() {
+        return tles.length;
+    }
+
+    /** Get the available satellite numbers.
+     * @return available satellite numbers, in increasing order
+     */
+    public int[] getAvailableSatelliteNumbers() {
+        return satelliteNumbers.clone();
+    }
+
+    /** Get all the TLEs for one object.
+     * @param satelliteNumber satellite number
+     * @return chronologically sorted TLEs for the object
+     * @exception OrekitException if there are no TLEs for this object
+     */
+    public List<TLE> getTLEs(final int satelliteNumber) throws OrekitException {
+        final int k = findSatellite(satelliteNumber);
+        return Collections.unmodifiableList(Arrays.asList(tles).subList(starts[k], starts[k + 1]));
+    }
+
+    /** Get the closest TLE to a date for one object.
+     * @param satelliteNumber satellite number
+     * @param date the date
+     * @return the TLE that will suit the most for propagation
+     * @exception OrekitException if there are no TLEs for this object
+     */
+    public TLE getClosestTLE(final int satelliteNumber, final AbsoluteDate date)
+        throws OrekitException {
+
+        final int k     = findSatellite(satelliteNumber);
+        final int first = starts[k];
+        final int last  = starts[k + 1] - 1;
+        final double t  = date.durationFrom(AbsoluteDate.J2000_EPOCH);
+
+        // find the first TLE not before the date
+        int index = Arrays.binarySearch(offsets, first, last + 1, t);
+        if (index >= 0) {
+            return tles[index];
+        }
+        index = -(index + 1);
+
+        if (index == first) {
+            return tles[first];
+        } else if (index > last) {
+            return tles[last];
+        } else if (offsets[index] - t > t - offsets[index - 1]) {
+            return tles[index - 1];
+        } else {
+            return tles[index];
+        }
+
+    }
+
+    /** Find the index of a satellite.
+     * @param satelliteNumber satellite number
+     * @return index of the satellite in {@link #satelliteNumbers}
+     * @exception OrekitException if there are no TLEs for this object
+     */
+    private int findSatellite(final int satelliteNumber) throws OrekitException {
+        final int k = Arrays.binarySearch(satelliteNumbers, satelliteNumber);
+        if (k < 0) {
+            throw new OrekitException(OrekitMessages.NO_TLE_FOR_OBJECT, satelliteNumber);
+        }
+        return k;
+    }
+
+    /** Build the index.
+     * @param all loaded TLEs
+     */
+    private void buildIndex(final List<TLE> all) {
+
+        Collections.sort(all, COMPARATOR);
+
+        // remove duplicates (same object at same epoch), keeping the first one
+        final List<TLE> unique = new ArrayList<TLE>(all.size());
+        int count = 0;
+        for (final TLE tle : all) {
+            if (unique.isEmpty()) {
+                ++count;
+                unique.add(tle);
+            } else {
+                final TLE previous = unique.get(unique.size() - 1);
+                if (tle.getSatelliteNumber() != previous.getSatelliteNumber()) {
+                    ++count;
+                    unique.add(tle);
+                } else if (!tle.getDate().equals(previous.getDate())) {
+                    unique.add(tle);
+                }
+            }
+        }
+
+        tles             = unique.toArray(new TLE[unique.size()]);
+        offsets          = new double[tles.length];
+        satelliteNumbers = new int[count];
+        starts           = new int[count + 1];
+        int k = -1;
+        for (int i = 0; i < tles.length; ++i) {
+            offsets[i] = tles[i].getDate().durationFrom(AbsoluteDate.J2000_EPOCH);
+            if (k < 0 || tles[i].getSatelliteNumber() != satelliteNumbers[k]) {
+                ++k;
+                satelliteNumbers[k] = tles[i].getSatelliteNumber();
+                starts[k]           = i;
+            }
+        }
+        starts[count] = tles.length;
+
+    }
+
+    /** Read a stream fully.
+     * @param input input stream
+     * @return stream content
+     * @exception IOException if stream cannot be read
+     */
+    private static byte[] readFully(final InputStream input) throws IOException {
+        byte[] buffer = new byte[1 << 16];
+        int size = 0;
+        for (int n = input.read(buffer, 0, buffer.length); n >= 0; n = input.read(buffer, size, buffer.length - size)) {
+            size += n;
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /** Parse a complete file content.
+     * @param buffer file content
+     * @param name name of the file
+     * @return TLEs parsed
+     * @exception OrekitException if file content is corrupted
+     */
+    private List<TLE> parse(final byte[] buffer, final String name) throws OrekitException {
+
+        final List<TLE> parsed = new ArrayList<TLE>(buffer.length / (2 * LINE_LENGTH + 2));
+
+        int lineNumber     = 0;
+        int pendingStart   = -1;
+        int pendingLength  = -1;
+        int start          = 0;
+        while (start < buffer.length) {
+
+            // find the end of the current line
+            int end = start;
+            while (end < buffer.length && buffer[end] != '\n' && buffer[end] != '\r') {
+                ++end;
+            }
+            final int length = end - start;
+            ++lineNumber;
+
+            if (pendingStart < 0) {
+                // we must wait for the second line
+                pendingStart  = start;
+                pendingLength = length;
+            } else if (matches(buffer, pendingStart, pendingLength, LINE_1_TEMPLATE) &&
+                       matches(buffer, start, length, LINE_2_TEMPLATE)) {
+                checkSum(buffer, pendingStart, 1);
+                checkSum(buffer, start, 2);
+                parsed.add(buildTLE(buffer, pendingStart, start));
+                // we need to wait for two new lines
+                pendingStart = -1;
+            } else if (ignoreNonTLELines) {
+                // just shift one line
+                pendingStart  = start;
+                pendingLength = length;
+            } else {
+                throw new OrekitException(OrekitMessages.NOT_TLE_LINES,
+                                          lineNumber - 1, lineNumber,
+                                          new String(buffer, pendingStart, pendingLength, US_ASCII),
+                                          new String(buffer, start, length, US_ASCII));
+            }
+
+            // skip end of line marker
+            if (end < buffer.length - 1 && buffer[end] == '\r' && buffer[end + 1] == '\n') {
+                ++end;
+            }
+            start = end + 1;
+
+        }
+
+        if ((pendingStart >= 0) && !ignoreNonTLELines) {
+            // there is an unexpected last line
+            throw new OrekitException(OrekitMessages.MISSING_SECOND_TLE_LINE,
+                                      lineNumber, new String(buffer, pendingStart, pendingLength, US_ASCII));
+        }
+
+        return parsed;
+
+    }
+
+    /** Check if a line matches a template.
+     * @param buffer buffer containing the line
+     * @param start index of the line start in the buffer
+     * @param length line length
+     * @param template template to match
+     * @return true if the line matches the template
+     */
+    private static boolean matches(final byte[] buffer, final int start, final int length,
+                                   final byte[] template) {
+        if (length != LINE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LINE_LENGTH; ++i) {
+            final byte b = buffer[start + i];
+            switch (template[i]) {
+                case 'd' :
+                    if (b != ' ' && (b < '0' || b > '9')) {
+                        return false;
+                    }
+                    break;
+                case 'A' :
+                    if (b != ' ' && (b < 'A' || b > 'Z')) {
+                        return false;
+                    }
+                    break;
+                case 's' :
+                    if (b != ' ' && b != '+' && b != '-') {
+                        return false;
+                    }
+                    break;
+                case 'e' :
+                    if (b != '+' && b != '-') {
+                        return false;
+                    }
+                    break;
+                default :
+                    if (b != template[i]) {
+                        return false;
+                    }
+            }
+        }
+        return true;
+    }
+
+    /** Check the checksum of a line.
+     * @param buffer buffer containing the line
+     * @param start index of the line start in the buffer
+     * @param lineIndex index of the line in the TLE (1 or 2)
+     * @exception OrekitException if checksum is wrong
+     */
+    private static void checkSum(final byte[] buffer, final int start, final int lineIndex)
+        throws OrekitException {
+        int sum = 0;
+        for (int j = 0; j < LINE_LENGTH - 1; ++j) {
+            final byte b = buffer[start + j];
+            if (b >= '0' && b <= '9') {
+                sum += b - '0';
+            } else if (b == '-') {
+                ++sum;
+            }
+        }
+        final int expected = buffer[start + LINE_LENGTH - 1] - '0';
+        if (expected != sum % 10) {
+            throw new OrekitException(OrekitMessages.TLE_CHECKSUM_ERROR,
+                                      lineIndex, new String(buffer, start + LINE_LENGTH - 1, 1, US_ASCII), sum % 10,
+                                      new String(buffer, start, LINE_LENGTH, US_ASCII));
+        }
+    }
+
+    /** Build a TLE from the raw lines.
+     * @param buffer buffer containing the lines
+     * @param l1 index of the first line start in the buffer
+     * @param l2 index of the second line start in the buffer
+     * @return parsed TLE
+     * @exception OrekitException if lines do not refer to the same object
+     */
+    private TLE buildTLE(final byte[] buffer, final int l1, final int l2)
+        throws OrekitException {
+
+        // identification
+        final int satelliteNumber = parseInteger(buffer, l1 + 2, 5);
+        if (satelliteNumber != parseInteger(buffer, l2 + 2, 5)) {
+            throw new OrekitException(OrekitMessages.TLE_LINES_DO_NOT_REFER_TO_SAME_OBJECT,
+                                      new String(buffer, l1, LINE_LENGTH, US_ASCII),
+                                      new String(buffer, l2, LINE_LENGTH, US_ASCII));
+        }
+        final char   classification = (char) buffer[l1 + 7];
+        final int    launchYear     = parseYear(buffer, l1 + 9);
+        final int    launchNumber   = parseInteger(buffer, l1 + 11, 3);
+        final String launchPiece    = new String(buffer, l1 + 14, 3, US_ASCII).trim();
+        final int    ephemerisType  = parseInteger(buffer, l1 + 62, 1);
+        final int    elementNumber  = parseInteger(buffer, l1 + 64, 4);
+
+        // Date format transform (nota: 27/31250 == 86400/100000000)
+        final int    year      = parseYear(buffer, l1 + 18);
+        final int    dayInYear = parseInteger(buffer, l1 + 20, 3);
+        final long   df        = 27l * parseInteger(buffer, l1 + 24, 8);
+        final int    secondsA  = (int) (df / 31250l);
+        final double secondsB  = (df % 31250l) / 31250.0;
+        final AbsoluteDate epoch = new AbsoluteDate(new DateComponents(year, dayInYear),
+                                                    new TimeComponents(secondsA, secondsB),
+                                                    utc);
+
+        // mean motion development
+        // converted from rev/day, 2 * rev/day^2 and 6 * rev/day^3 to rad/s, rad/s^2 and rad/s^3
+        final double meanMotion                 = parseDecimal(buffer, l2 + 52, 11) * FastMath.PI / 43200.0;
+        final double meanMotionFirstDerivative  = parseDecimal(buffer, l1 + 33, 10) * FastMath.PI / 1.86624e9;
+        final double meanMotionSecondDerivative = parseExponentMarkerFree(buffer, l1 + 44) *
+                                                  FastMath.PI / 5.3747712e13;
+
+        final double eccentricity = parseInteger(buffer, l2 + 26, 7) / POWERS_OF_TEN[7];
+        final double inclination  = FastMath.toRadians(parseDecimal(buffer, l2 + 8, 8));
+        final double pa           = FastMath.toRadians(parseDecimal(buffer, l2 + 34, 8));
+        final double raan         = FastMath.toRadians(parseDecimal(buffer, l2 + 17, 8));
+        final double meanAnomaly  = FastMath.toRadians(parseDecimal(buffer, l2 + 43, 8));
+
+        final int    revolutionNumberAtEpoch = parseInteger(buffer, l2 + 63, 5);
+        final double bStar                   = parseExponentMarkerFree(buffer, l1 + 53);
+
+        return new TLE(new String(buffer, l1, LINE_LENGTH, US_ASCII),
+                       new String(buffer, l2, LINE_LENGTH, US_ASCII),
+                       satelliteNumber, classification, launchYear, launchNumber, launchPiece,
+                       ephemerisType, elementNumber, epoch, meanMotion, meanMotionFirstDerivative,
+                       meanMotionSecondDerivative, eccentricity, inclination, pa, raan, meanAnomaly,
+                       revolutionNumberAtEpoch, bStar);
+
+    }
+
+    /** Parse an integer field, considering spaces as zeros.
+     * @param buffer buffer containing the field
+     * @param start index of the field start in the buffer
+     * @param length length of the field
+     * @return parsed integer
+     */
+    private static int parseInteger(final byte[] buffer, final int start, final int length) {
+        int value = 0;
+        for (int i = start; i < start + length; ++i) {
+            final byte b = buffer[i];
+            value = 10 * value + ((b == ' ') ? 0 : (b - '0'));
+        }
+        return value;
+    }
+
+    /** Parse a two digits year field.
+     * @param buffer buffer containing the field
+     * @param start index of the field start in the buffer
+     * @return parsed year (all digits)
+     */
+    private static int parseYear(final byte[] buffer, final int start) {
+        final int year = 2000 + parseInteger(buffer, start, 2);
+        return (year > 2056) ? (year - 100) : year;
+    }
+
+    /** Parse a decimal field with optional sign, considering spaces as zeros.
+     * <p>
+     * The result is correctly rounded, hence it is identical to the one
+     * obtained with {@code Double.parseDouble}.
+     * </p>
+     * @param buffer buffer containing the field
+     * @param start index of the field start in the buffer
+     * @param length length of the field
+     * @return parsed number
+     */
+    private static double parseDecimal(final byte[] buffer, final int start, final int length) {
+        boolean negative = false;
+        long    mantissa = 0;
+        int     scale    = -1;
+        for (int i = start; i < start + length; ++i) {
+            final byte b = buffer[i];
+            if (b == '-') {
+                negative = true;
+            } else if (b == '.') {
+                scale = 0;
+            } else if (b != '+') {
+                mantissa = 10 * mantissa + ((b == ' ') ? 0 : (b - '0'));
+                if (scale >= 0) {
+                    ++scale;
+                }
+            }
+        }
+        final double value = (scale <= 0) ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /** Parse an exponent marker free field (like " 12345-4" for 0.12345e-4).
+     * @param buffer buffer containing the field
+     * @param start index of the field start in the buffer
+     * @return parsed number
+     */
+    private static double parseExponentMarkerFree(final byte[] buffer, final int start) {
+        final long mantissa = parseInteger(buffer, start + 1, 5);
+        final int  exponent = ((buffer[start + 6] == '-') ? -1 : +1) * parseInteger(buffer, start + 7, 1) - 5;
+        final double value  = (exponent >= 0) ?
+                              mantissa * POWERS_OF_TEN[exponent] :
+                              mantissa / POWERS_OF_TEN[-exponent];
+        return (buffer[start] == '-') ? -value : value;
+    }
+
+}
@@ -0,0 +1,582 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.EquinoctialOrbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+
+/** Dedicated fitter generating {@link TLE} from osculating states.
+ * <p>
+ * This class performs the same task as a {@link
+ * org.orekit.propagation.conversion.FiniteDifferencePropagatorConverter
+ * FiniteDifferencePropagatorConverter} using a {@link
+ * org.orekit.propagation.conversion.TLEPropagatorBuilder TLEPropagatorBuilder},
+ * but it is optimized for the TLE case:
+ * </p>
+ * <ul>
+ *   <li>the estimated parameters are directly the TLE mean elements (mean motion,
+ *   equinoctial eccentricity vector and inclination vector, mean longitude
+ *   argument) and optionally the B* coefficient, so no intermediate Cartesian
+ *   parameters and orbit conversions are needed,</li>
+ *   <li>the Jacobian of the model with respect to the orbital elements is computed
+ *   semi-analytically, using the Keplerian partial derivatives at the sample
+ *   points; only the B* column is computed by finite differences. As this
+ *   Jacobian is only an approximation of the SGP4/SDP4 one, it is computed once
+ *   and reused for all iterations (simplified Gauss-Newton method), and is
+ *   refreshed only if an iteration fails to decrease the residuals,</li>
+ *   <li>each iteration therefore needs only one {@link TLEPropagator} to be built,
+ *   instead of one for each estimated parameter,</li>
+ *   <li>the fit can be warm-started from a previous TLE for the same object, which
+ *   is propagated to the new epoch to provide the initial guess,</li>
+ *   <li>all workspace arrays are allocated once and reused from one fit to the
+ *   next.</li>
+ * </ul>
+ * <p>
+ * As the workspace arrays are reused, instances of this class are <em>not</em>
+ * thread-safe. When generating TLEs for many objects in parallel, one fitter
+ * should be created for each thread.
+ * </p>
+ * <p>
+ * The equinoctial parameterization used is singular for exactly retrograde orbits.
+ * </p>
+ * @see TLE
+ * @see TLEPropagator
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class TLEFitter {
+
+    /** Relative step for B* finite differences. */
+    private static final double B_STAR_RELATIVE_STEP = 1.0e-3;
+
+    /** Minimum step for B* finite differences. */
+    private static final double B_STAR_MIN_STEP = 1.0e-7;
+
+    /** Threshold below which scaled Cholesky pivots are considered non-positive. */
+    private static final double POSITIVITY_THRESHOLD = 1.0e-10;
+
+    /** Index of the mean motion in parameters array. */
+    private static final int N = 0;
+
+    /** Index of the first component of eccentricity vector in parameters array. */
+    private static final int EX = 1;
+
+    /** Index of the second component of eccentricity vector in parameters array. */
+    private static final int EY = 2;
+
+    /** Index of the first component of inclination vector in parameters array. */
+    private static final int HX = 3;
+
+    /** Index of the second component of inclination vector in parameters array. */
+    private static final int HY = 4;
+
+    /** Index of the mean longitude argument in parameters array. */
+    private static final int LM = 5;
+
+    /** Index of the B* coefficient in parameters array. */
+    private static final int B_STAR = 6;
+
+    /** Convergence threshold on position (m). */
+    private final double threshold;
+
+    /** Maximum number of iterations. */
+    private final int maxIterations;
+
+    /** TEME frame. */
+    private final Frame teme;
+
+    /** Current parameters. */
+    private final double[] parameters;
+
+    /** Trial parameters. */
+    private final double[] trial;
+
+    /** Normal matrix, in row-major order (holds its Cholesky factor once decomposed). */
+    private final double[] normal;
+
+    /** Columns scaling factors. */
+    private final double[] scale;
+
+    /** Right hand side of the normal equations. */
+    private final double[] rhs;
+
+    /** Cartesian Jacobian with respect to equinoctial parameters at one sample point. */
+    private final double[][] keplerianJacobian;
+
+    /** Template TLE providing identification data. */
+    private TLE template;
+
+    /** Number of sample points. */
+    private int nbPoints;
+
+    /** Number of estimated parameters. */
+    private int nbParameters;
+
+    /** Dates of sample points. */
+    private AbsoluteDate[] dates;
+
+    /** Target position-velocity at sample points, in TEME. */
+    private double[] target;
+
+    /** Residuals weights. */
+    private double[] weight;
+
+    /** Residuals for current parameters. */
+    private double[] residuals;
+
+    /** Residuals for trial parameters. */
+    private double[] trialResiduals;
+
+    /** Jacobian of the model, in row-major order. */
+    private double[] jacobian;
+
+    /** Root Mean Square Deviation of the last fit. */
+    private double rms;
+
+    /** Number of iterations of the last fit. */
+    private int iterations;
+
+    /** Simple constructor.
+     * @param threshold convergence threshold on the position change
+     * induced by one iteration (m)
+     * @param maxIterations maximum number of iterations
+     * @exception OrekitException if the TEME frame cannot be retrieved
+     */
+    public TLEFitter(final double threshold, final int maxIterations)
+        throws OrekitException {
+        this.threshold         = threshold;
+        this.maxIterations     = maxIterations;
+        this.teme              = FramesFactory.getTEME();
+        this.parameters        = new double[7];
+        this.trial             = new double[7];
+        this.normal            = new double[49];
+        this.scale             = new double[7];
+        this.rhs               = new double[7];
+        this.keplerianJacobian = new double[6][6];
+        this.nbPoints          = 0;
+        this.dates             = new AbsoluteDate[0];
+        this.target            = new double[0];
+        this.weight            = new double[0];
+        this.residuals         = new double[0];
+        this.trialResiduals    = new double[0];
+        this.jacobian          = new double[0];
+    }
+
+    /** Fit a TLE to a sample of states, warm-starting from a previous TLE.
+     * <p>
+     * The initial guess is computed by propagating the previous TLE mean elements
+     * to the date of the first state, which is also the epoch of the fitted TLE.
+     * The identification data, element number, revolution number and mean motion
+     * derivatives are copied from the previous TLE, as well as the B* coefficient
+     * if it is not fitted.
+     * </p>
+     * @param states spacecraft states to fit (at least two points if only positions are used)
+     * @param previous previous TLE for the same object
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param fitBStar if true, the B* coefficient is estimated too
+     * @return fitted TLE
+     * @exception OrekitException if the fit does not converge, if the sample does
+     * not constrain all fitted parameters or if the states cannot be converted to TEME frame
+     */
+    public TLE fit(final List<SpacecraftState> states, final TLE previous,
+                   final boolean positionOnly, final boolean fitBStar)
+        throws OrekitException {
+
+        setSample(states, previous, positionOnly, fitBStar);
+
+        // propagate the previous mean elements to the new epoch
+        final TLEPropagator propagator = TLEPropagator.selectExtrapolator(previous);
+        propagator.sxpPropagate(dates[0].durationFrom(previous.getDate()) / 60.0);
+        final double tanHalfI = FastMath.tan(0.5 * propagator.i);
+        final double pa       = propagator.omega + propagator.xnode;
+        final double ratio    = propagator.a0dp / propagator.a;
+        parameters[N]      = previous.getMeanMotion() * ratio * FastMath.sqrt(ratio);
+        parameters[EX]     = propagator.e * FastMath.cos(pa);
+        parameters[EY]     = propagator.e * FastMath.sin(pa);
+        parameters[HX]     = tanHalfI * FastMath.cos(propagator.xnode);
+        parameters[HY]     = tanHalfI * FastMath.sin(propagator.xnode);
+        parameters[LM]     = propagator.xl;
+        parameters[B_STAR] = previous.getBStar();
+
+        return solve();
+
+    }
+
+    /** Fit a TLE to a sample of states, starting from the osculating elements of the first state.
+     * <p>
+     * The epoch of the fitted TLE is the date of the first state. The identification
+     * data, element number, revolution number and mean motion derivatives are copied
+     * from the template TLE, as well as the B* coefficient if it is not fitted. The
+     * orbital elements of the template are ignored.
+     * </p>
+     * @param states spacecraft states to fit (at least two points if only positions are used)
+     * @param template template TLE providing identification data
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param fitBStar if true, the B* coefficient is estimated too
+     * @return fitted TLE
+     * @exception OrekitException if the fit does not converge, if the sample does
+     * not constrain all fitted parameters or if the states cannot be converted to TEME frame
+     */
+    public TLE fitFromOsculating(final List<SpacecraftState> states, final TLE template,
+                                 final boolean positionOnly, final boolean fitBStar)
+        throws OrekitException {
+
+        setSample(states, template, positionOnly, fitBStar);
+
+        // very rough first guess using osculating parameters of first sample point
+        final EquinoctialOrbit osculating =
+                new EquinoctialOrbit(new PVCoordinates(new Vector3D(target[0], target[1], target[2]),
+                                                       new Vector3D(target[3], target[4], target[5])),
+                                     teme, dates[0], TLEPropagator.getMU());
+        parameters[N]      = osculating.getKeplerianMeanMotion();
+        parameters[EX]     = osculating.getEquinoctialEx();
+        parameters[EY]     = osculating.getEquinoctialEy();
+        parameters[HX]     = osculating.getHx();
+        parameters[HY]     = osculating.getHy();
+        parameters[LM]     = osculating.getLM();
+        parameters[B_STAR] = template.getBStar();
+
+        return solve();
+
+    }
+
+    /** Get the Root Mean Square Deviation of the last fit.
+     * @return RMSD (m)
+     */
+    public double getRMS() {
+        return rms;
+    }
+
+    /** Get the number of iterations of the last fit.
+     * @return number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /** Set up the sample points.
+     * @param states spacecraft states to fit
+     * @param tle TLE providing identification data
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param fitBStar if true, the B* coefficient is estimated too
+     * @exception OrekitException if the states cannot be converted to TEME frame
+     */
+    private void setSample(final List<SpacecraftState> states, final TLE tle,
+                           final boolean positionOnly, final boolean fitBStar)
+        throws OrekitException {
+
+        template     = tle;
+        nbPoints     = states.size();
+        nbParameters = fitBStar ? 7 : 6;
+
+        // reallocate workspace only if it is too small
+        if (dates.length < nbPoints) {
+            dates          = new AbsoluteDate[nbPoints];
+            target         = new double[6 * nbPoints];
+            weight         = new double[6 * nbPoints];
+            residuals      = new double[6 * nbPoints];
+            trialResiduals = new double[6 * nbPoints];
+            jacobian       = new double[42 * nbPoints];
+        }
+
+        for (int k = 0; k < nbPoints; ++k) {
+            final SpacecraftState state = states.get(k);
+            final PVCoordinates pv = state.getPVCoordinates(teme);
+            final Vector3D p = pv.getPosition();
+            final Vector3D v = pv.getVelocity();
+            dates[k] = state.getDate();
+            final int row = 6 * k;
+            target[row]     = p.getX();
+            target[row + 1] = p.getY();
+            target[row + 2] = p.getZ();
+            target[row + 3] = v.getX();
+            target[row + 4] = v.getY();
+            target[row + 5] = v.getZ();
+            final double vWeight = positionOnly ? 0.0 : v.getNorm() * p.getNormSq() / state.getMu();
+            for (int j = 0; j < 3; ++j) {
+                weight[row + j]     = 1.0;
+                weight[row + 3 + j] = vWeight;
+            }
+        }
+
+    }
+
+    /** Solve the least squares problem starting from current parameters.
+     * @return fitted TLE
+     * @exception OrekitException if the fit does not converge or is singular
+     */
+    private TLE solve() throws OrekitException {
+
+        iterations = 0;
+        rms = evaluate(parameters, residuals);
+        updateJacobian();
+        boolean freshJacobian = true;
+
+        while (iterations++ < maxIterations) {
+
+            // compute the simplified Gauss-Newton step
+            final double stepSize = computeStep();
+            for (int j = 0; j < 7; ++j) {
+                trial[j] = parameters[j] + (j < nbParameters ? rhs[j] : 0.0);
+            }
+            final double trialRMS = evaluate(trial, trialResiduals);
+
+            if (trialRMS > rms && !freshJacobian && stepSize > threshold) {
+                // the Jacobian is too far from the true one, refresh it and try again
+                updateJacobian();
+                freshJacobian = true;
+            } else {
+
+                // accept the step
+                System.arraycopy(trial, 0, parameters, 0, trial.length);
+                final double[] tmp = residuals;
+                residuals          = trialResiduals;
+                trialResiduals     = tmp;
+                rms                = trialRMS;
+                freshJacobian      = false;
+
+                if (stepSize <= threshold) {
+                    return buildTLE(parameters);
+                }
+
+            }
+
+        }
+
+        throw new OrekitException(OrekitMessages.UNABLE_TO_COMPUTE_TLE, maxIterations);
+
+    }
+
+    /** Compute the residuals for a parameters set.
+     * @param p parameters set
+     * @param r placeholder where to put the residuals (target - model)
+     * @return weighted Root Mean Square Deviation
+     * @exception OrekitException if the TLE cannot be propagated
+     */
+    private double evaluate(final double[] p, final double[] r) throws OrekitException {
+        final TLEPropagator propagator = TLEPropagator.selectExtrapolator(buildTLE(p));
+        double sum2  = 0;
+        double count = 0;
+        for (int k = 0; k < nbPoints; ++k) {
+            final PVCoordinates pv = propagator.getPVCoordinates(dates[k]);
+            final Vector3D position = pv.getPosition();
+            final Vector3D velocity = pv.getVelocity();
+            final int row = 6 * k;
+            r[row]     = target[row]     - position.getX();
+            r[row + 1] = target[row + 1] - position.getY();
+            r[row + 2] = target[row + 2] - position.getZ();
+            r[row + 3] = target[row + 3] - velocity.getX();
+            r[row + 4] = target[row + 4] - velocity.getY();
+            r[row + 5] = target[row + 5] - velocity.getZ();
+            for (int j = row; j < row + 6; ++j) {
+                if (weight[j] > 0) {
+                    sum2  += weight[j] * r[j] * r[j];
+                    count += 1;
+                }
+            }
+        }
+        return FastMath.sqrt(sum2 / count);
+    }
+
+    /** Update the Jacobian and the decomposed normal matrix at current parameters.
+     * <p>
+     * The residuals for the current parameters must be up to date.
+     * </p>
+     * @exception OrekitException if the TLE cannot be propagated
+     * or if the normal matrix is not positive definite
+     */
+    private void updateJacobian() throws OrekitException {
+
+        final double mu = TLEPropagator.getMU();
+
+        // semi-analytical part, using Keplerian partial derivatives at sample points
+        for (int k = 0; k < nbPoints; ++k) {
+            final int row = 6 * k;
+            final EquinoctialOrbit orbit =
+                    new EquinoctialOrbit(new PVCoordinates(new Vector3D(target[row]     - residuals[row],
+                                                                        target[row + 1] - residuals[row + 1],
+                                                                        target[row + 2] - residuals[row + 2]),
+                                                           new Vector3D(target[row + 3] - residuals[row + 3],
+                                                                        target[row + 4] - residuals[row + 4],
+                                                                        target[row + 5] - residuals[row + 5])),
+                                         teme, dates[k], mu);
+            orbit.getJacobianWrtParameters(PositionAngle.MEAN, keplerianJacobian);
+
+            // mean motion changes both semi-major axis and mean longitude drift
+            final double dadn = -2.0 * orbit.getA() / (3.0 * orbit.getKeplerianMeanMotion());
+            final double dt   = dates[k].durationFrom(dates[0]);
+
+            for (int i = 0; i < 6; ++i) {
+                final double[] kRow = keplerianJacobian[i];
+                final int      jRow = 7 * (row + i);
+                jacobian[jRow + N]  = kRow[0] * dadn + kRow[5] * dt;
+                jacobian[jRow + EX] = kRow[1];
+                jacobian[jRow + EY] = kRow[2];
+                jacobian[jRow + HX] = kRow[3];
+                jacobian[jRow + HY] = kRow[4];
+                jacobian[jRow + LM] = kRow[5];
+            }
+
+        }
+
+        // finite differences part
+        if (nbParameters > B_STAR) {
+            final double h = FastMath.max(B_STAR_MIN_STEP, B_STAR_RELATIVE_STEP * FastMath.abs(parameters[B_STAR]));
+            System.arraycopy(parameters, 0, trial, 0, parameters.length);
+            trial[B_STAR] += h;
+            evaluate(trial, trialResiduals);
+            for (int i = 0; i < 6 * nbPoints; ++i) {
+                // residuals are target - model, so the model derivative has opposite sign
+                jacobian[7 * i + B_STAR] = (residuals[i] - trialResiduals[i]) / h;
+            }
+        }
+
+        // normal matrix
+        for (int j = 0; j < nbParameters; ++j) {
+            for (int l = 0; l <= j; ++l) {
+                double sum = 0;
+                for (int i = 0; i < 6 * nbPoints; ++i) {
+                    final int jRow = 7 * i;
+                    sum += weight[i] * jacobian[jRow + j] * jacobian[jRow + l];
+                }
+                normal[7 * j + l] = sum;
+            }
+        }
+
+        // scale columns to improve conditioning
+        for (int j = 0; j < nbParameters; ++j) {
+            if (!(normal[7 * j + j] > 0)) {
+                // the sample does not depend on this parameter at all
+                throw new OrekitException(new NonPositiveDefiniteMatrixException(normal[7 * j + j], j, 0.0),
+                                          OrekitMessages.SINGULAR_TLE_FITTING_PROBLEM);
+            }
+            scale[j] = 1.0 / FastMath.sqrt(normal[7 * j + j]);
+        }
+        for (int j = 0; j < nbParameters; ++j) {
+            for (int l = 0; l <= j; ++l) {
+                normal[7 * j + l] *= scale[j] * scale[l];
+            }
+        }
+
+        // in-place Cholesky decomposition of the lower triangular part
+        for (int j = 0; j < nbParameters; ++j) {
+            double d = normal[7 * j + j];
+            for (int l = 0; l < j; ++l) {
+                d -= normal[7 * j + l] * normal[7 * j + l];
+            }
+            if (!(d > POSITIVITY_THRESHOLD)) {
+                // the scaled matrix has a unit diagonal, so this is a relative test
+                throw new OrekitException(new NonPositiveDefiniteMatrixException(d, j, POSITIVITY_THRESHOLD),
+                                          OrekitMessages.SINGULAR_TLE_FITTING_PROBLEM);
+            }
+            d = FastMath.sqrt(d);
+            normal[7 * j + j] = d;
+            for (int i = j + 1; i < nbParameters; ++i) {
+                double s = normal[7 * i + j];
+                for (int l = 0; l < j; ++l) {
+                    s -= normal[7 * i + l] * normal[7 * j + l];
+                }
+                normal[7 * i + j] = s / d;
+            }
+        }
+
+    }
+
+    /** Compute the simplified Gauss-Newton step from current residuals.
+     * <p>
+     * The step is stored in the {@link #rhs} array.
+     * </p>
+     * @return RMS of the position change induced by the step (m)
+     */
+    private double computeStep() {
+
+        // right hand side of normal equations
+        for (int j = 0; j < nbParameters; ++j) {
+            double sum = 0;
+            for (int i = 0; i < 6 * nbPoints; ++i) {
+                sum += weight[i] * jacobian[7 * i + j] * residuals[i];
+            }
+            rhs[j] = sum * scale[j];
+        }
+
+        // forward and backward substitutions
+        for (int j = 0; j < nbParameters; ++j) {
+            double s = rhs[j];
+            for (int l = 0; l < j; ++l) {
+                s -= normal[7 * j + l] * rhs[l];
+            }
+            rhs[j] = s / normal[7 * j + j];
+        }
+        for (int j = nbParameters - 1; j >= 0; --j) {
+            double s = rhs[j];
+            for (int l = j + 1; l < nbParameters; ++l) {
+                s -= normal[7 * l + j] * rhs[l];
+            }
+            rhs[j] = s / normal[7 * j + j];
+        }
+        for (int j = 0; j < nbParameters; ++j) {
+            rhs[j] *= scale[j];
+        }
+
+        // position change induced by the step
+        double sum2 = 0;
+        for (int k = 0; k < nbPoints; ++k) {
+            for (int i = 6 * k; i < 6 * k + 3; ++i) {
+                double delta = 0;
+                for (int j = 0; j < nbParameters; ++j) {
+                    delta += jacobian[7 * i + j] * rhs[j];
+                }
+                sum2 += delta * delta;
+            }
+        }
+        return FastMath.sqrt(sum2 / (3 * nbPoints));
+
+    }
+
+    /** Build a TLE from a parameters set.
+     * @param p parameters set
+     * @return TLE at first sample date
+     */
+    private TLE buildTLE(final double[] p) {
+        final double raan = FastMath.atan2(p[HY], p[HX]);
+        final double pa   = FastMath.atan2(p[EY], p[EX]) - raan;
+        return new TLE(template.getSatelliteNumber(), template.getClassification(),
+                       template.getLaunchYear(), template.getLaunchNumber(), template.getLaunchPiece(),
+                       TLE.DEFAULT, template.getElementNumber(), dates[0],
+                       p[N], template.getMeanMotionFirstDerivative(), template.getMeanMotionSecondDerivative(),
+                       FastMath.hypot(p[EX], p[EY]),
+                       MathUtils.normalizeAngle(2.0 * FastMath.atan(FastMath.hypot(p[HX], p[HY])), FastMath.PI),
+                       MathUtils.normalizeAngle(pa, FastMath.PI),
+                       MathUtils.normalizeAngle(raan, FastMath.PI),
+                       MathUtils.normalizeAngle(p[LM] - pa - raan, FastMath.PI),
+                       template.getRevolutionNumberAtEpoch(), p[B_STAR]);
+    }
+
+}
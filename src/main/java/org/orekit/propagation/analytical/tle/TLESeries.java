@@ -20,10 +20,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.apache.commons.math3.util.FastMath;
 import org.orekit.data.DataLoader;
 import org.orekit.data.DataProvidersManager;
 import org.orekit.errors.OrekitException;
@@ -44,6 +48,15 @@ import org.orekit.utils.PVCoordinates;
  *  This class provides bounded ephemerides by finding the best initial TLE to
  *  propagate and then handling the propagation.
  *  </p>
+ *  <p>
+ *  As propagators initialization is costly, the propagators already built for the
+ *  most recently used TLEs are kept in a bounded cache, so scanning back and forth
+ *  a long history only initializes each propagator once as long as the number of
+ *  TLEs involved does not exceed the cache size. The TLEs are also indexed in a
+ *  sorted array of dates, so closest TLE selection is a simple binary search, or
+ *  even a few steps forward from the previous selection when a time-sorted array of
+ *  dates is provided to the {@link #getPVCoordinates(AbsoluteDate[])} method.
+ *  </p>
  *
  * @see TLE
  * @see DataProvidersManager
@@ -55,6 +68,11 @@ public class TLESeries implements DataLoader {
     /** Default supported files name pattern. */
     private static final String DEFAULT_SUPPORTED_NAMES = ".*\\.tle$";
 
+    /** Default number of propagators kept in cache.
+     * @since 7.1
+     */
+    public static final int DEFAULT_PROPAGATORS_CACHE_SIZE = 16;
+
     /** Regular expression for supported files names. */
     private final String supportedNames;
 
@@ -82,11 +100,14 @@ public class TLESeries implements DataLoader {
     /** Next TLE in the cached selection. */
     private TLE next;
 
-    /** Last used TLE. */
-    private TLE lastTLE;
+    /** Sorted array of TLE entries (built on first use after loading). */
+    private TLE[] sortedTLEs;
 
-    /** Associated propagator. */
-    private TLEPropagator lastPropagator;
+    /** Offsets of TLE entries dates with respect to the first one. */
+    private double[] sortedOffsets;
+
+    /** Cache for propagators, in least recently used order. */
+    private final Map<TLE, TLEPropagator> propagators;
 
     /** Date of the first TLE. */
     private AbsoluteDate firstDate;
@@ -112,6 +133,28 @@ public class TLESeries implements DataLoader {
      * @see #loadTLEData(int, int, String)
      */
     public TLESeries(final String supportedNames, final boolean ignoreNonTLELines) {
+        this(supportedNames, ignoreNonTLELines, DEFAULT_PROPAGATORS_CACHE_SIZE);
+    }
+
+    /** Simple constructor with a TLE file.
+     * <p>This constructor does not load any data by itself. Data must be
+     * loaded later on by calling one of the {@link #loadTLEData()
+     * loadTLEData()} method, the {@link #loadTLEData(int)
+     * loadTLEData(filterSatelliteNumber)} method or the {@link #loadTLEData(int,
+     * int, String) loadTLEData(filterLaunchYear, filterLaunchNumber, filterLaunchPiece)} method.<p>
+     * @param supportedNames regular expression for supported files names
+     * (if null, a default pattern matching files with a ".tle" extension will be used)
+     * @param ignoreNonTLELines if true, extra non-TLE lines are silently ignored,
+     * if false an exception will be generated when such lines are encountered
+     * @param propagatorsCacheSize maximum number of initialized propagators kept in cache
+     * @see #loadTLEData()
+     * @see #loadTLEData(int)
+     * @see #loadTLEData(int, int, String)
+     * @see #DEFAULT_PROPAGATORS_CACHE_SIZE
+     * @since 7.1
+     */
+    public TLESeries(final String supportedNames, final boolean ignoreNonTLELines,
+                     final int propagatorsCacheSize) {
 
         this.supportedNames    = (supportedNames == null) ? DEFAULT_SUPPORTED_NAMES : supportedNames;
         availableSatNums       = new TreeSet<Integer>();
@@ -125,6 +168,20 @@ public class TLESeries implements DataLoader {
         previous = null;
         next     = null;
 
+        final int maxSize = FastMath.max(1, propagatorsCacheSize);
+        propagators = new LinkedHashMap<TLE, TLEPropagator>(maxSize + 1, 1.0f, true) {
+
+            /** Serializable UID. */
+            private static final long serialVersionUID = 20150512L;
+
+            /** {@inheritDoc} */
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<TLE, TLEPropagator> eldest) {
+                return size() > maxSize;
+            }
+
+        };
+
     }
 
     /** Load TLE data for a specified object.
@@ -151,9 +208,7 @@ public class TLESeries implements DataLoader {
         filterLaunchPiece     = null;
 
         // load the data from the configured data providers
-        tles.clear();
-        previous = null;
-        next     = null;
+        clearLoadedData();
         DataProvidersManager.getInstance().feed(supportedNames, this);
         if (tles.isEmpty()) {
             throw new OrekitException(OrekitMessages.NO_TLE_DATA_AVAILABLE);
@@ -161,6 +216,19 @@ public class TLESeries implements DataLoader {
 
     }
 
+    /** Clear the loaded data and all associated caches.
+     */
+    private void clearLoadedData() {
+        tles.clear();
+        previous      = null;
+        next          = null;
+        sortedTLEs    = null;
+        sortedOffsets = null;
+        firstDate     = null;
+        lastDate      = null;
+        propagators.clear();
+    }
+
     /** Get the available satellite numbers.
      * @return available satellite numbers
      * @throws OrekitException if some data can't be read, some
@@ -197,9 +265,7 @@ public class TLESeries implements DataLoader {
             filterLaunchPiece     = null;
 
             // load the data from the configured data providers
-            tles.clear();
-            previous = null;
-            next     = null;
+            clearLoadedData();
             DataProvidersManager.getInstance().feed(supportedNames, this);
             if (tles.isEmpty()) {
                 throw new OrekitException(OrekitMessages.NO_TLE_FOR_OBJECT, satelliteNumber);
@@ -237,9 +303,7 @@ public class TLESeries implements DataLoader {
             filterLaunchPiece     = launchPiece;
 
             // load the data from the configured data providers
-            tles.clear();
-            previous = null;
-            next     = null;
+            clearLoadedData();
             DataProvidersManager.getInstance().feed(supportedNames, this);
             if (tles.isEmpty()) {
                 throw new OrekitException(OrekitMessages.NO_TLE_FOR_LAUNCH_YEAR_NUMBER_PIECE,
@@ -333,12 +397,61 @@ public class TLESeries implements DataLoader {
      */
     public PVCoordinates getPVCoordinates(final AbsoluteDate date)
         throws OrekitException {
-        final TLE toExtrapolate = getClosestTLE(date);
-        if (toExtrapolate != lastTLE) {
-            lastTLE = toExtrapolate;
-            lastPropagator = TLEPropagator.selectExtrapolator(lastTLE);
+        return getPropagator(getClosestTLE(date)).getPVCoordinates(date);
+    }
+
+    /** Get the extrapolated positions and velocities at several dates.
+     * <p>
+     * This method is equivalent to calling {@link #getPVCoordinates(AbsoluteDate)}
+     * for each date, but it is faster when dates are sorted in chronological order,
+     * as the closest TLE is then found by walking forward from the previous one.
+     * Unsorted dates are nevertheless allowed.
+     * </p>
+     * @param dates the final dates
+     * @return the final PVCoordinates, in the same order as the dates
+     * @exception OrekitException if the underlying propagators cannot be initialized
+     * @since 7.1
+     */
+    public PVCoordinates[] getPVCoordinates(final AbsoluteDate[] dates)
+        throws OrekitException {
+
+        buildIndex();
+        final AbsoluteDate reference = sortedTLEs[0].getDate();
+
+        final PVCoordinates[] pv = new PVCoordinates[dates.length];
+        int index       = 0;
+        double previousT = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < dates.length; ++i) {
+            final double t = dates[i].durationFrom(reference);
+            if (t >= previousT) {
+                // walk forward from the previous selection
+                while (index < sortedOffsets.length && sortedOffsets[index] < t) {
+                    ++index;
+                }
+            } else {
+                // dates are not sorted, we need a full search
+                index = lowerBound(t);
+            }
+            previousT = t;
+            pv[i] = getPropagator(select(index, t)).getPVCoordinates(dates[i]);
+        }
+
+        return pv;
+
+    }
+
+    /** Get the propagator associated with a TLE, using the cache if possible.
+     * @param tle TLE to propagate
+     * @return propagator for the TLE
+     * @exception OrekitException if the underlying propagator cannot be initialized
+     */
+    private TLEPropagator getPropagator(final TLE tle) throws OrekitException {
+        TLEPropagator propagator = propagators.get(tle);
+        if (propagator == null) {
+            propagator = TLEPropagator.selectExtrapolator(tle);
+            propagators.put(tle, propagator);
         }
-        return lastPropagator.getPVCoordinates(date);
+        return propagator;
     }
 
     /** Get the closest TLE to the selected date.
@@ -357,26 +470,60 @@ public class TLESeries implements DataLoader {
                 return next;
             }
         }
+
         // reset the selection before the search phase
         previous  = null;
         next      = null;
-        final SortedSet<TimeStamped> headSet = tles.headSet(date);
-        final SortedSet<TimeStamped> tailSet = tles.tailSet(date);
-
 
-        if (headSet.isEmpty()) {
-            return (TLE) tailSet.first();
+        buildIndex();
+        final double t   = date.durationFrom(sortedTLEs[0].getDate());
+        final int    index = lowerBound(t);
+        if (index > 0 && index < sortedTLEs.length) {
+            previous = sortedTLEs[index - 1];
+            next     = sortedTLEs[index];
         }
-        if (tailSet.isEmpty()) {
-            return (TLE) headSet.last();
+
+        return select(index, t);
+
+    }
+
+    /** Build the sorted arrays index, if not already built.
+     */
+    private void buildIndex() {
+        if (sortedTLEs == null) {
+            sortedTLEs    = tles.toArray(new TLE[tles.size()]);
+            sortedOffsets = new double[sortedTLEs.length];
+            for (int i = 0; i < sortedTLEs.length; ++i) {
+                sortedOffsets[i] = sortedTLEs[i].getDate().durationFrom(sortedTLEs[0].getDate());
+            }
         }
-        previous = (TLE) headSet.last();
-        next = (TLE) tailSet.first();
+    }
 
-        if (next.getDate().durationFrom(date) > date.durationFrom(previous.getDate())) {
-            return previous;
+    /** Find the index of the first TLE whose date is not before a date.
+     * @param t offset of the date with respect to the first TLE
+     * @return index of the first TLE not before the date (may be equal to
+     * the number of TLEs if date is after the last TLE)
+     */
+    private int lowerBound(final double t) {
+        // as TLEs are stored in a set, there is at most one TLE per date
+        final int index = Arrays.binarySearch(sortedOffsets, t);
+        return (index < 0) ? -(index + 1) : index;
+    }
+
+    /** Select the closest TLE around a lower bound index.
+     * @param index index of the first TLE not before the date
+     * @param t offset of the date with respect to the first TLE
+     * @return closest TLE
+     */
+    private TLE select(final int index, final double t) {
+        if (index == 0) {
+            return sortedTLEs[0];
+        } else if (index == sortedTLEs.length) {
+            return sortedTLEs[sortedTLEs.length - 1];
+        } else if (sortedOffsets[index] - t > t - sortedOffsets[index - 1]) {
+            return sortedTLEs[index - 1];
         } else {
-            return next;
+            return sortedTLEs[index];
         }
     }
 
@@ -231,6 +231,14 @@ public abstract class AbstractPropagatorConverter implements PropagatorConverter
         return false;
     }
 
+    /** Get the propagator builder.
+     * @return propagator builder
+     * @since 7.1
+     */
+    public PropagatorBuilder getBuilder() {
+        return builder;
+    }
+
     /** Get the adapted propagator.
      * @return adapted propagator
      */
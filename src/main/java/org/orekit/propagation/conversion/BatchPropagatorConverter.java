@@ -0,0 +1,253 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conversion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.utils.ParallelChunks;
+
+/** Converter fitting propagators to many states samples concurrently.
+ * <p>
+ * {@link AbstractPropagatorConverter Propagators converters} hold the state of the
+ * current fit and their {@link PropagatorBuilder builders} are mutable, so one converter
+ * cannot be used by several threads at once. This class manages a pool of converters
+ * created on demand by a user-provided {@link ConverterFactory factory}: each
+ * conversion borrows one converter from the pool and returns it afterwards, so
+ * converters and their builders are reused from one sample to the next and at
+ * most one converter per active thread is ever created. Before each conversion,
+ * the builder parameters are reset to the values they had when the converter was
+ * created, so the results do not depend on which converter handled which sample.
+ * </p>
+ * <p>
+ * As builders are reused, the adapted propagators must not depend on builder
+ * state that changes at each fit. This is the case for the analytical propagators
+ * builders, but not for {@link NumericalPropagatorBuilder} when force models
+ * parameters are free, as the propagators it builds share its force models instances.
+ * </p>
+ * <p>
+ * The samples are shared between the calling thread and helper tasks submitted
+ * to the executor, so the executor may also be used by the converters themselves
+ * (for example by {@link FiniteDifferencePropagatorConverter}) without deadlock.
+ * The executor is not shut down by this class.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class BatchPropagatorConverter {
+
+    /** Factory for converters. */
+    private final ConverterFactory factory;
+
+    /** Executor for concurrent conversions (may be null). */
+    private final ExecutorService executor;
+
+    /** Pool of available converters. */
+    private final ConcurrentLinkedQueue<PooledConverter> pool;
+
+    /** Number of converters created so far. */
+    private final AtomicInteger created;
+
+    /** Simple constructor.
+     * @param factory factory for converters
+     * @param executor executor to use for concurrent conversions
+     * (if null, the conversions are performed sequentially in the calling thread)
+     */
+    public BatchPropagatorConverter(final ConverterFactory factory, final ExecutorService executor) {
+        this.factory  = factory;
+        this.executor = executor;
+        this.pool     = new ConcurrentLinkedQueue<PooledConverter>();
+        this.created  = new AtomicInteger(0);
+    }
+
+    /** Find the propagators that minimize the mean square error for several samples of {@link SpacecraftState states}.
+     * @param samples spacecraft states samples to fit
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param freeParameters names of the free parameters
+     * @return conversion results, in the same order as the samples
+     * @exception OrekitException if one of the propagators cannot be adapted
+     */
+    public List<Result> convert(final List<List<SpacecraftState>> samples,
+                                final boolean positionOnly,
+                                final String ... freeParameters) throws OrekitException {
+        return convert(samples, positionOnly, Arrays.asList(freeParameters));
+    }
+
+    /** Find the propagators that minimize the mean square error for several samples of {@link SpacecraftState states}.
+     * @param samples spacecraft states samples to fit
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param freeParameters names of the free parameters
+     * @return conversion results, in the same order as the samples
+     * @exception OrekitException if one of the propagators cannot be adapted
+     */
+    public List<Result> convert(final List<List<SpacecraftState>> samples,
+                                final boolean positionOnly,
+                                final Collection<String> freeParameters) throws OrekitException {
+
+        final int n = samples.size();
+        final Result[] results = new Result[n];
+
+        // samples are shared between the current thread and the helpers submitted to the executor
+        ParallelChunks.process(executor, n, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) throws OrekitException {
+                results[k] = convertSample(samples.get(k), positionOnly, freeParameters);
+            }
+        });
+
+        return Arrays.asList(results);
+
+    }
+
+    /** Get the number of converters created so far.
+     * @return number of converters created so far
+     */
+    public int getConvertersNumber() {
+        return created.get();
+    }
+
+    /** Convert one sample, using a converter borrowed from the pool.
+     * @param sample spacecraft states sample to fit
+     * @param positionOnly if true, consider only position data otherwise both position and velocity are used
+     * @param freeParameters names of the free parameters
+     * @return conversion result
+     * @exception OrekitException if the propagator cannot be adapted
+     */
+    private Result convertSample(final List<SpacecraftState> sample, final boolean positionOnly,
+                                 final Collection<String> freeParameters)
+        throws OrekitException {
+        PooledConverter pooled = pool.poll();
+        if (pooled == null) {
+            pooled = new PooledConverter(factory.createConverter());
+            created.incrementAndGet();
+        }
+        try {
+            final AbstractPropagatorConverter converter = pooled.getConverter();
+            final Propagator propagator = converter.convert(sample, positionOnly, new ArrayList<String>(freeParameters));
+            return new Result(propagator, converter.getRMS(), converter.getEvaluations());
+        } finally {
+            pool.offer(pooled);
+        }
+    }
+
+    /** Container for a converter and the initial values of its builder parameters. */
+    private static class PooledConverter {
+
+        /** Converter. */
+        private final AbstractPropagatorConverter converter;
+
+        /** Initial values of the builder parameters. */
+        private final double[] initialValues;
+
+        /** Simple constructor.
+         * @param converter converter
+         */
+        PooledConverter(final AbstractPropagatorConverter converter) {
+            this.converter = converter;
+            final PropagatorBuilder builder = converter.getBuilder();
+            this.initialValues = new double[builder.getParametersNames().size()];
+            int i = 0;
+            for (final String name : builder.getParametersNames()) {
+                initialValues[i++] = builder.getParameter(name);
+            }
+        }
+
+        /** Get the converter, with its builder parameters reset to their initial values.
+         * @return converter
+         */
+        public AbstractPropagatorConverter getConverter() {
+            final PropagatorBuilder builder = converter.getBuilder();
+            int i = 0;
+            for (final String name : builder.getParametersNames()) {
+                builder.setParameter(name, initialValues[i++]);
+            }
+            return converter;
+        }
+
+    }
+
+    /** Factory for propagators converters.
+     * <p>
+     * Each call to {@link #createConverter()} must return a new converter,
+     * with its own {@link PropagatorBuilder builder}.
+     * </p>
+     */
+    public interface ConverterFactory {
+
+        /** Create a new converter.
+         * @return new converter
+         * @exception OrekitException if converter cannot be created
+         */
+        AbstractPropagatorConverter createConverter() throws OrekitException;
+
+    }
+
+    /** Container for one conversion result. */
+    public static class Result {
+
+        /** Adapted propagator. */
+        private final Propagator propagator;
+
+        /** Root Mean Square Deviation of the fitting. */
+        private final double rms;
+
+        /** Number of objective function evaluations. */
+        private final int evaluations;
+
+        /** Simple constructor.
+         * @param propagator adapted propagator
+         * @param rms Root Mean Square Deviation of the fitting
+         * @param evaluations number of objective function evaluations
+         */
+        private Result(final Propagator propagator, final double rms, final int evaluations) {
+            this.propagator  = propagator;
+            this.rms         = rms;
+            this.evaluations = evaluations;
+        }
+
+        /** Get the adapted propagator.
+         * @return adapted propagator
+         */
+        public Propagator getPropagator() {
+            return propagator;
+        }
+
+        /** Get the Root Mean Square Deviation of the fitting.
+         * @return RMSD
+         */
+        public double getRMS() {
+            return rms;
+        }
+
+        /** Get the number of objective function evaluations.
+         * @return number of objective function evaluations
+         */
+        public int getEvaluations() {
+            return evaluations;
+        }
+
+    }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.orekit.propagation.conversion;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.math3.analysis.MultivariateMatrixFunction;
 import org.apache.commons.math3.analysis.MultivariateVectorFunction;
 import org.apache.commons.math3.util.FastMath;
@@ -25,8 +27,20 @@ import org.orekit.errors.OrekitExceptionWrapper;
 import org.orekit.propagation.Propagator;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.ParallelChunks;
 
 /** Propagator converter using finite differences to compute the jacobian.
+ * <p>
+ * Each column of the finite differences Jacobian requires building and running
+ * a new propagator. If an {@link ExecutorService executor} is provided at
+ * construction, the nominal evaluation and the shifted evaluations are run
+ * concurrently, the calling thread sharing the work with helper tasks submitted
+ * to the executor. Propagators are still built one at a time, but the propagators
+ * built must be independent from each other. This is the case for the analytical
+ * propagators builders, but not for {@link NumericalPropagatorBuilder} when force
+ * models parameters are free, as all the propagators it builds share the same force
+ * models instances. The executor is not shut down by this class.
+ * </p>
  * @author Pascal Parraud
  * @since 6.0
  */
@@ -35,6 +49,9 @@ public class FiniteDifferencePropagatorConverter extends AbstractPropagatorConve
     /** Propagator builder. */
     private final PropagatorBuilder builder;
 
+    /** Executor for concurrent evaluation of Jacobian columns (may be null). */
+    private final ExecutorService executor;
+
     /** Simple constructor.
      * @param factory builder for adapted propagator
      * @param threshold absolute threshold for optimization algorithm
@@ -43,8 +60,24 @@ public class FiniteDifferencePropagatorConverter extends AbstractPropagatorConve
     public FiniteDifferencePropagatorConverter(final PropagatorBuilder factory,
                                                final double threshold,
                                                final int maxIterations) {
+        this(factory, threshold, maxIterations, null);
+    }
+
+    /** Simple constructor.
+     * @param factory builder for adapted propagator
+     * @param threshold absolute threshold for optimization algorithm
+     * @param maxIterations maximum number of iterations for fitting
+     * @param executor executor to use for concurrent evaluation of Jacobian columns
+     * (if null, the columns are evaluated sequentially in the calling thread)
+     * @since 7.1
+     */
+    public FiniteDifferencePropagatorConverter(final PropagatorBuilder factory,
+                                               final double threshold,
+                                               final int maxIterations,
+                                               final ExecutorService executor) {
         super(factory, threshold, maxIterations);
-        this.builder = factory;
+        this.builder  = factory;
+        this.executor = executor;
     }
 
     /** {@inheritDoc} */
@@ -64,7 +97,11 @@ public class FiniteDifferencePropagatorConverter extends AbstractPropagatorConve
         public double[] value(final double[] arg)
             throws IllegalArgumentException, OrekitExceptionWrapper {
             try {
-                final Propagator propagator = builder.buildPropagator(getDate(), arg);
+                // builders are not thread-safe, but the propagators they build can be used concurrently
+                final Propagator propagator;
+                synchronized (builder) {
+                    propagator = builder.buildPropagator(getDate(), arg);
+                }
                 final double[] eval = new double[getTargetSize()];
                 int k = 0;
                 for (SpacecraftState state : getSample()) {
@@ -96,26 +133,61 @@ public class FiniteDifferencePropagatorConverter extends AbstractPropagatorConve
 
             final MultivariateVectorFunction f = new ObjectiveFunction();
 
-            final double[][] jacob = new double[getTargetSize()][arg.length];
-            final double[] eval = f.value(arg);
-            final double[] arg1 = new double[arg.length];
-            double increment = 0;
+            // set up nominal point (at index 0) and shifted points (at indices 1 to n)
+            final double[][] args       = new double[arg.length + 1][];
+            final double[]   increments = new double[arg.length + 1];
+            args[0] = arg;
             for (int j = 0; j < arg.length; j++) {
-                System.arraycopy(arg, 0, arg1, 0, arg.length);
-                increment = FastMath.sqrt(Precision.EPSILON) * FastMath.abs(arg[j]);
+                double increment = FastMath.sqrt(Precision.EPSILON) * FastMath.abs(arg[j]);
                 if (increment <= Precision.SAFE_MIN) {
                     increment = FastMath.sqrt(Precision.EPSILON);
                 }
-                arg1[j] += increment;
-                final double[] eval1 = f.value(arg1);
+                args[j + 1]        = arg.clone();
+                args[j + 1][j]    += increment;
+                increments[j + 1]  = increment;
+            }
+
+            final double[][] evals = evaluate(f, args);
+            final double[]   eval  = evals[0];
+            final double[][] jacob = new double[getTargetSize()][arg.length];
+            for (int j = 0; j < arg.length; j++) {
+                final double[] eval1 = evals[j + 1];
                 for (int t = 0; t < eval.length; t++) {
-                    jacob[t][j] = (eval1[t] - eval[t]) / increment;
+                    jacob[t][j] = (eval1[t] - eval[t]) / increments[j + 1];
                 }
             }
 
             return jacob;
         }
 
+        /** Evaluate the objective function at several points.
+         * @param f objective function
+         * @param args points at which the function should be evaluated
+         * @return function values, in the same order as the points
+         * @exception OrekitExceptionWrapper if the function cannot be evaluated
+         */
+        private double[][] evaluate(final MultivariateVectorFunction f, final double[][] args)
+            throws OrekitExceptionWrapper {
+
+            final int n = args.length;
+            final double[][] evals = new double[n][];
+
+            // points are shared between the current thread and the helpers submitted to the executor
+            try {
+                ParallelChunks.process(executor, n, new ParallelChunks.ChunkProcessor() {
+                    /** {@inheritDoc} */
+                    public void process(final int k) {
+                        evals[k] = f.value(args[k]);
+                    }
+                });
+            } catch (OrekitException oe) {
+                throw new OrekitExceptionWrapper(oe);
+            }
+
+            return evals;
+
+        }
+
     }
 
 }
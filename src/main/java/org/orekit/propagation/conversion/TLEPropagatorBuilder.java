@@ -165,7 +165,8 @@ public class TLEPropagatorBuilder extends AbstractParameterizable
     public double getParameter(final String name)
         throws IllegalArgumentException {
         complainIfNotSupported(name);
-        return bStar;
+        // the parameter is scaled the same way as in setParameter
+        return bStar * 1.e4;
     }
 
     /** {@inheritDoc} */
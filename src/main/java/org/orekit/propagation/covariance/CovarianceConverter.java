@@ -0,0 +1,112 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.LOFType;
+import org.orekit.frames.Transform;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.CartesianDerivativesFilter;
+import org.orekit.utils.PVCoordinates;
+
+/** Utility class for converting Cartesian covariance matrices between frames.
+ * <p>
+ * The covariance matrices are either 6x6 (position and velocity) or 7x7
+ * (position, velocity and mass). The conversions rely on the {@link
+ * Transform#getJacobian(CartesianDerivativesFilter, double[][]) Jacobian}
+ * of the transforms, so they take the relative motion of the frames into
+ * account: converting a covariance to a rotating frame (including {@link
+ * LOFType local orbital frames}) changes the velocity part according to
+ * the frames rotation rate. Mass is not affected by the conversions.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class CovarianceConverter {
+
+    /** Private constructor for a utility class.
+     */
+    private CovarianceConverter() {
+    }
+
+    /** Convert a covariance matrix using a transform.
+     * @param covariance covariance in the origin frame of the transform (6x6 or 7x7)
+     * @param transform transform to apply
+     * @return covariance in the destination frame of the transform
+     */
+    public static RealMatrix transform(final RealMatrix covariance, final Transform transform) {
+
+        final int n = covariance.getRowDimension();
+        if (n != covariance.getColumnDimension() || (n != 6 && n != 7)) {
+            throw OrekitException.createIllegalArgumentException(OrekitMessages.UNSUPPORTED_COVARIANCE_DIMENSION,
+                                                                 n, covariance.getColumnDimension());
+        }
+
+        final double[][] jacobian = new double[n][n];
+        transform.getJacobian(CartesianDerivativesFilter.USE_PV, jacobian);
+        if (n > 6) {
+            jacobian[6][6] = 1.0;
+        }
+
+        final RealMatrix j = MatrixUtils.createRealMatrix(jacobian);
+        return j.multiply(covariance).multiply(j.transpose());
+
+    }
+
+    /** Convert a covariance matrix from one frame to another.
+     * @param covariance covariance in the origin frame (6x6 or 7x7)
+     * @param from origin frame
+     * @param to destination frame
+     * @param date date of the covariance
+     * @return covariance in the destination frame
+     * @exception OrekitException if transform between frames cannot be computed
+     */
+    public static RealMatrix changeFrame(final RealMatrix covariance, final Frame from, final Frame to,
+                                         final AbsoluteDate date)
+        throws OrekitException {
+        return transform(covariance, from.getTransformTo(to, date));
+    }
+
+    /** Convert a covariance matrix from an inertial frame to a local orbital frame.
+     * @param covariance covariance in the inertial frame (6x6 or 7x7)
+     * @param type type of the local orbital frame
+     * @param date date of the covariance
+     * @param pv position-velocity of the spacecraft in the inertial frame
+     * @return covariance in the local orbital frame
+     */
+    public static RealMatrix toLOF(final RealMatrix covariance, final LOFType type,
+                                   final AbsoluteDate date, final PVCoordinates pv) {
+        return transform(covariance, type.transformFromInertial(date, pv));
+    }
+
+    /** Convert a covariance matrix from a local orbital frame to an inertial frame.
+     * @param covariance covariance in the local orbital frame (6x6 or 7x7)
+     * @param type type of the local orbital frame
+     * @param date date of the covariance
+     * @param pv position-velocity of the spacecraft in the inertial frame
+     * @return covariance in the inertial frame
+     */
+    public static RealMatrix fromLOF(final RealMatrix covariance, final LOFType type,
+                                     final AbsoluteDate date, final PVCoordinates pv) {
+        return transform(covariance, type.transformFromInertial(date, pv).getInverse());
+    }
+
+}
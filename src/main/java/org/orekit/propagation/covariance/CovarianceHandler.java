@@ -0,0 +1,47 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import org.apache.commons.math3.linear.RealMatrix;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.SpacecraftState;
+
+/** Interface for handlers receiving propagated covariance matrices.
+ * <p>
+ * The covariance matrices are expressed in Cartesian coordinates (position,
+ * velocity and optionally mass), in the propagation frame.
+ * </p>
+ * @see StmCovarianceHandler
+ * @see UnscentedCovariancePropagator
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public interface CovarianceHandler {
+
+    /** Handle the covariance at one output step.
+     * <p>
+     * The covariance matrix may be reused by the caller for the next steps,
+     * so implementations that need to keep it must copy it.
+     * </p>
+     * @param state state at output step
+     * @param covariance Cartesian covariance at output step (6x6 or 7x7)
+     * @exception OrekitException if covariance cannot be handled
+     */
+    void handleCovariance(SpacecraftState state, RealMatrix covariance)
+        throws OrekitException;
+
+}
@@ -0,0 +1,180 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.PropagationException;
+import org.orekit.orbits.Orbit;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.JacobiansMapper;
+import org.orekit.propagation.sampling.OrekitFixedStepHandler;
+import org.orekit.time.AbsoluteDate;
+
+/** Fixed step handler propagating covariance using the state transition matrix.
+ * <p>
+ * This handler must be registered in a {@link
+ * org.orekit.propagation.numerical.NumericalPropagator NumericalPropagator}
+ * whose initial state contains the Jacobians computed by {@link
+ * org.orekit.propagation.numerical.PartialDerivativesEquations
+ * PartialDerivativesEquations}, initialized to identity (which is what {@link
+ * org.orekit.propagation.numerical.PartialDerivativesEquations#setInitialJacobians(SpacecraftState,
+ * int, int) setInitialJacobians(s0, stateDimension, paramDimension)} does). At each step,
+ * the Cartesian state transition matrix Φ is extracted from the state and
+ * the covariance P = Φ P₀ Φ<sup>T</sup> is provided to a {@link CovarianceHandler}.
+ * </p>
+ * <p>
+ * Only the current state transition matrix is used, so no history is stored
+ * and all matrices are allocated once. This includes the covariance matrix
+ * provided to the {@link CovarianceHandler}, which is overwritten at each
+ * step: handlers that need to keep it after {@link
+ * CovarianceHandler#handleCovariance(SpacecraftState, RealMatrix)
+ * handleCovariance} returns must copy it.
+ * </p>
+ * @see UnscentedCovariancePropagator
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class StmCovarianceHandler implements OrekitFixedStepHandler {
+
+    /** Mapper for Jacobians. */
+    private final JacobiansMapper mapper;
+
+    /** Initial Cartesian covariance. */
+    private final double[][] initialCovariance;
+
+    /** Handler for propagated covariance. */
+    private final CovarianceHandler handler;
+
+    /** Dimension of the state. */
+    private final int n;
+
+    /** Initial covariance in the mapper parameters. */
+    private final double[][] parametersCovariance;
+
+    /** Cartesian state transition matrix. */
+    private final double[][] phi;
+
+    /** Intermediate product Φ P₀. */
+    private final double[][] product;
+
+    /** Propagated covariance Φ P₀ Φ<sup>T</sup>. */
+    private final double[][] covarianceData;
+
+    /** Matrix wrapping the propagated covariance data (without copying). */
+    private final RealMatrix covariance;
+
+    /** Simple constructor.
+     * @param mapper mapper for the Jacobians computed by the partial derivatives equations
+     * @param initialCovariance initial Cartesian covariance in the propagation frame
+     * (6x6 or 7x7, consistent with the state dimension of the mapper)
+     * @param handler handler for propagated covariance
+     */
+    public StmCovarianceHandler(final JacobiansMapper mapper, final RealMatrix initialCovariance,
+                                final CovarianceHandler handler) {
+        this.n = mapper.getStateDimension();
+        final int rows    = initialCovariance.getRowDimension();
+        final int columns = initialCovariance.getColumnDimension();
+        if (rows != columns || (rows != 6 && rows != 7)) {
+            throw OrekitException.createIllegalArgumentException(OrekitMessages.UNSUPPORTED_COVARIANCE_DIMENSION,
+                                                                 rows, columns);
+        }
+        if (rows != n) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_2x2,
+                                                                 rows, columns, n, n);
+        }
+        this.mapper               = mapper;
+        this.initialCovariance    = initialCovariance.getData();
+        this.handler              = handler;
+        this.parametersCovariance = new double[n][n];
+        this.phi                  = new double[n][n];
+        this.product              = new double[n][n];
+        this.covarianceData       = new double[n][n];
+        this.covariance           = new Array2DRowRealMatrix(covarianceData, false);
+    }
+
+    /** {@inheritDoc} */
+    public void init(final SpacecraftState s0, final AbsoluteDate t) {
+
+        // convert initial covariance to the parameters used by the mapper
+        final Orbit orbit = mapper.getOrbitType().convertType(s0.getOrbit());
+        final double[][] dYdC = new double[n][n];
+        orbit.getJacobianWrtCartesian(mapper.getPositionAngle(), dYdC);
+        for (int i = 6; i < n; ++i) {
+            dYdC[i][i] = 1.0;
+        }
+        multiply(dYdC, initialCovariance, product);
+        multiplyTransposed(product, dYdC, parametersCovariance);
+
+    }
+
+    /** {@inheritDoc} */
+    public void handleStep(final SpacecraftState currentState, final boolean isLast)
+        throws PropagationException {
+        try {
+            mapper.getCartesianStateJacobian(currentState, phi);
+            multiply(phi, parametersCovariance, product);
+            multiplyTransposed(product, phi, covarianceData);
+            handler.handleCovariance(currentState, covariance);
+        } catch (OrekitException oe) {
+            throw new PropagationException(oe);
+        }
+    }
+
+    /** Compute a matrix product.
+     * @param a left matrix
+     * @param b right matrix
+     * @param ab placeholder for a × b
+     */
+    private void multiply(final double[][] a, final double[][] b, final double[][] ab) {
+        for (int i = 0; i < n; ++i) {
+            final double[] rowA  = a[i];
+            final double[] rowAB = ab[i];
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                for (int k = 0; k < n; ++k) {
+                    sum += rowA[k] * b[k][j];
+                }
+                rowAB[j] = sum;
+            }
+        }
+    }
+
+    /** Compute a matrix product with a transposed matrix.
+     * @param a left matrix
+     * @param b right matrix
+     * @param abT placeholder for a × b<sup>T</sup>
+     */
+    private void multiplyTransposed(final double[][] a, final double[][] b, final double[][] abT) {
+        for (int i = 0; i < n; ++i) {
+            final double[] rowA   = a[i];
+            final double[] rowABT = abT[i];
+            for (int j = 0; j < n; ++j) {
+                final double[] rowB = b[j];
+                double sum = 0;
+                for (int k = 0; k < n; ++k) {
+                    sum += rowA[k] * rowB[k];
+                }
+                rowABT[j] = sum;
+            }
+        }
+    }
+
+}
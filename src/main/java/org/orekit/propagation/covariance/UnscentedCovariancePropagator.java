@@ -0,0 +1,274 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RectangularCholeskyDecomposition;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.conversion.PropagatorBuilder;
+import org.orekit.propagation.dispersion.DispersionEngine;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.ParallelChunks;
+
+/** Covariance propagator based on the unscented transform.
+ * <p>
+ * The initial covariance is represented by a set of sigma points
+ * around the nominal state, which are propagated independently with the
+ * full non-linear model. At each output step, the covariance is recomputed
+ * from the weighted sigma points. Sigma points are generated along the
+ * columns of a {@link RectangularCholeskyDecomposition rectangular Cholesky}
+ * root of the covariance, so singular covariances (for example with a null
+ * mass variance) are supported, the number of sigma points being 2r+1
+ * where r is the rank of the covariance.
+ * </p>
+ * <p>
+ * Each sigma point has its own propagator, built by its own {@link
+ * PropagatorBuilder builder}, so force models are never shared between
+ * concurrently running propagations. Builders are created once by a
+ * user-provided {@link DispersionEngine.BuilderFactory factory} and reused
+ * for subsequent propagations. At each output step, the sigma points are
+ * propagated concurrently, sharing them between the calling thread and
+ * helper tasks submitted to the executor, which is not shut down by this class.
+ * </p>
+ * @see StmCovarianceHandler
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class UnscentedCovariancePropagator {
+
+    /** Factory for builders. */
+    private final DispersionEngine.BuilderFactory factory;
+
+    /** Spread of the sigma points. */
+    private final double alpha;
+
+    /** Prior knowledge parameter (2 is optimal for Gaussian distributions). */
+    private final double beta;
+
+    /** Secondary scaling parameter. */
+    private final double kappa;
+
+    /** Executor for concurrent propagations (may be null). */
+    private final ExecutorService executor;
+
+    /** Builders, one for each sigma point. */
+    private final List<PropagatorBuilder> builders;
+
+    /** Simple constructor.
+     * <p>
+     * This constructor uses α = 1, β = 2 and κ = 0.
+     * </p>
+     * @param factory factory for propagator builders
+     * @param executor executor to use for concurrent propagations
+     * (if null, the sigma points are propagated sequentially in the calling thread)
+     */
+    public UnscentedCovariancePropagator(final DispersionEngine.BuilderFactory factory,
+                                         final ExecutorService executor) {
+        this(factory, 1.0, 2.0, 0.0, executor);
+    }
+
+    /** Simple constructor.
+     * @param factory factory for propagator builders
+     * @param alpha spread of the sigma points
+     * @param beta prior knowledge parameter (2 is optimal for Gaussian distributions)
+     * @param kappa secondary scaling parameter
+     * @param executor executor to use for concurrent propagations
+     * (if null, the sigma points are propagated sequentially in the calling thread)
+     */
+    public UnscentedCovariancePropagator(final DispersionEngine.BuilderFactory factory,
+                                         final double alpha, final double beta, final double kappa,
+                                         final ExecutorService executor) {
+        this.factory  = factory;
+        this.alpha    = alpha;
+        this.beta     = beta;
+        this.kappa    = kappa;
+        this.executor = executor;
+        this.builders = new ArrayList<PropagatorBuilder>();
+    }
+
+    /** Propagate covariance.
+     * <p>
+     * The handler is called at the initial date, then at each step and finally
+     * at the target date. The state provided to the handler is the one of the
+     * central sigma point (i.e. the propagated nominal state), and the covariance
+     * is computed with respect to the weighted mean of the sigma points.
+     * </p>
+     * @param nominal nominal initial state
+     * @param covariance initial Cartesian covariance in the builders frame
+     * (6x6 for position-velocity or 7x7 for position-velocity-mass)
+     * @param target target date
+     * @param step output step (s)
+     * @param small diagonal elements threshold under which covariance columns
+     * are considered to be dependent on previous ones and are discarded
+     * @param handler handler for propagated covariance
+     * @exception OrekitException if propagation fails
+     */
+    public void propagate(final SpacecraftState nominal, final RealMatrix covariance,
+                          final AbsoluteDate target, final double step, final double small,
+                          final CovarianceHandler handler)
+        throws OrekitException {
+
+        final int n = covariance.getRowDimension();
+        if (n != covariance.getColumnDimension() || (n != 6 && n != 7)) {
+            throw OrekitException.createIllegalArgumentException(OrekitMessages.UNSUPPORTED_COVARIANCE_DIMENSION,
+                                                                 n, covariance.getColumnDimension());
+        }
+
+        // unscented transform weights
+        final RectangularCholeskyDecomposition decomposition =
+                new RectangularCholeskyDecomposition(covariance, small);
+        final double[][] root = decomposition.getRootMatrix().getData();
+        final int    r        = decomposition.getRank();
+        final int    nbPoints = 2 * r + 1;
+        final double lambda   = alpha * alpha * (r + kappa) - r;
+        final double scale    = FastMath.sqrt(r + lambda);
+        final double[] wm     = new double[nbPoints];
+        final double[] wc     = new double[nbPoints];
+        wm[0] = lambda / (r + lambda);
+        wc[0] = wm[0] + 1 - alpha * alpha + beta;
+        for (int k = 1; k < nbPoints; ++k) {
+            wm[k] = 0.5 / (r + lambda);
+            wc[k] = wm[k];
+        }
+
+        // build the sigma points propagators
+        while (builders.size() < nbPoints) {
+            final PropagatorBuilder builder = factory.createBuilder();
+            builder.setFreeParameters(Collections.<String>emptyList());
+            builders.add(builder);
+        }
+        final Propagator[] propagators = new Propagator[nbPoints];
+        for (int k = 0; k < nbPoints; ++k) {
+            final PropagatorBuilder builder = builders.get(k);
+            final double[] sigma = stateVector(nominal, builder, n);
+            if (k > 0) {
+                final int    column = (k - 1) % r;
+                final double sign   = (k > r) ? -1 : +1;
+                for (int i = 0; i < n; ++i) {
+                    sigma[i] += sign * scale * root[i][column];
+                }
+            }
+            final double[] pv = new double[6];
+            System.arraycopy(sigma, 0, pv, 0, 6);
+            propagators[k] = builder.buildPropagator(nominal.getDate(), pv);
+            final SpacecraftState initial = propagators[k].getInitialState();
+            final double mass = (n > 6) ? sigma[6] : nominal.getMass();
+            if (mass != initial.getMass()) {
+                propagators[k].resetInitialState(new SpacecraftState(initial.getOrbit(), initial.getAttitude(), mass));
+            }
+        }
+
+        // propagate step by step
+        final SpacecraftState[] states  = new SpacecraftState[nbPoints];
+        final double[][]        vectors = new double[nbPoints][];
+        final double duration = target.durationFrom(nominal.getDate());
+        final int nbSteps = (int) FastMath.ceil(FastMath.abs(duration) / step);
+        for (int s = 0; s <= nbSteps; ++s) {
+
+            final AbsoluteDate date = (s == nbSteps) ?
+                                      target :
+                                      nominal.getDate().shiftedBy(FastMath.copySign(s * step, duration));
+            propagateAll(propagators, date, states);
+
+            // compute mean and covariance of the sigma points
+            final double[] mean = new double[n];
+            for (int k = 0; k < nbPoints; ++k) {
+                vectors[k] = stateVector(states[k], builders.get(k), n);
+                for (int i = 0; i < n; ++i) {
+                    mean[i] += wm[k] * vectors[k][i];
+                }
+            }
+            final double[][] propagated = new double[n][n];
+            for (int k = 0; k < nbPoints; ++k) {
+                final double[] v = vectors[k];
+                for (int i = 0; i < n; ++i) {
+                    final double di = v[i] - mean[i];
+                    for (int j = 0; j <= i; ++j) {
+                        propagated[i][j] += wc[k] * di * (v[j] - mean[j]);
+                    }
+                }
+            }
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < i; ++j) {
+                    propagated[j][i] = propagated[i][j];
+                }
+            }
+
+            handler.handleCovariance(states[0], MatrixUtils.createRealMatrix(propagated));
+
+        }
+
+    }
+
+    /** Propagate all sigma points to a date.
+     * @param propagators sigma points propagators
+     * @param date target date
+     * @param states placeholder for propagated states
+     * @exception OrekitException if propagation fails
+     */
+    private void propagateAll(final Propagator[] propagators, final AbsoluteDate date,
+                              final SpacecraftState[] states)
+        throws OrekitException {
+
+        // sigma points are shared between the current thread and the helpers submitted to the executor
+        ParallelChunks.process(executor, propagators.length, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) throws OrekitException {
+                states[k] = propagators[k].propagate(date);
+            }
+        });
+
+    }
+
+    /** Extract Cartesian state vector.
+     * @param state spacecraft state
+     * @param builder builder defining the frame
+     * @param n dimension of the vector (6 or 7)
+     * @return state vector in builder frame
+     * @exception OrekitException if state cannot be converted to builder frame
+     */
+    private double[] stateVector(final SpacecraftState state, final PropagatorBuilder builder, final int n)
+        throws OrekitException {
+        final PVCoordinates pv = state.getPVCoordinates(builder.getFrame());
+        final Vector3D p = pv.getPosition();
+        final Vector3D v = pv.getVelocity();
+        final double[] vector = new double[n];
+        vector[0] = p.getX();
+        vector[1] = p.getY();
+        vector[2] = p.getZ();
+        vector[3] = v.getX();
+        vector[4] = v.getY();
+        vector[5] = v.getZ();
+        if (n > 6) {
+            vector[6] = state.getMass();
+        }
+        return vector;
+    }
+
+}
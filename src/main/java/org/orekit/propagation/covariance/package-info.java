@@ -0,0 +1,36 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * This package provides tools to propagate and transform orbit covariance matrices.
+ * <p>
+ * Covariance can be propagated either linearly, using the state transition matrix
+ * computed by {@link org.orekit.propagation.numerical.PartialDerivativesEquations
+ * PartialDerivativesEquations} with a {@link
+ * org.orekit.propagation.covariance.StmCovarianceHandler StmCovarianceHandler},
+ * or non-linearly, propagating sigma points with an {@link
+ * org.orekit.propagation.covariance.UnscentedCovariancePropagator
+ * UnscentedCovariancePropagator}. In both cases, the covariance matrices are
+ * streamed to a {@link org.orekit.propagation.covariance.CovarianceHandler
+ * CovarianceHandler} at each output step and no history is stored. Covariance
+ * matrices can be converted between frames and local orbital frames using
+ * {@link org.orekit.propagation.covariance.CovarianceConverter CovarianceConverter}.
+ * </p>
+ *
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+package org.orekit.propagation.covariance;
@@ -0,0 +1,50 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.orekit.errors.OrekitException;
+
+/** Interface for dispersion models used in Monte-Carlo analyses.
+ * <p>
+ * The dispersed parameters vector contains, in this order, the Cartesian
+ * position and velocity in the {@link
+ * org.orekit.propagation.conversion.PropagatorBuilder#getFrame() builder frame},
+ * the free parameters of the builder in the order they were specified, and
+ * the spacecraft mass.
+ * </p>
+ * <p>
+ * Dispersion models are shared by all the threads of a {@link DispersionEngine},
+ * so implementations must be thread-safe. This is simple to achieve as all random
+ * draws must be performed using the generator provided as an argument.
+ * </p>
+ * @see DispersionEngine
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public interface Dispersion {
+
+    /** Disperse parameters.
+     * @param generator random generator to use for drawing values
+     * @param parameters parameters vector, containing the nominal values on input
+     * and that must be replaced by the dispersed values on output
+     * @exception OrekitException if the parameters cannot be dispersed
+     */
+    void disperse(RandomGenerator generator, double[] parameters)
+        throws OrekitException;
+
+}
@@ -0,0 +1,268 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937a;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.conversion.PropagatorBuilder;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.ParallelChunks;
+
+/** Engine for Monte-Carlo dispersion analyses.
+ * <p>
+ * For each sample, the engine disperses the nominal parameters (initial
+ * position and velocity, builder free parameters and mass) using a {@link
+ * Dispersion dispersion model}, builds a propagator from the dispersed
+ * parameters, propagates it to a target date and provides the final state
+ * to a {@link SampleHandler sample handler}.
+ * </p>
+ * <p>
+ * Building force models may be expensive (loading gravity fields, setting up
+ * atmosphere models ...), so the propagator builders are not recreated for each
+ * sample. They are created on demand by a user-provided {@link BuilderFactory
+ * factory} and kept in a pool: each sample borrows one builder and returns it
+ * to the pool as soon as it has been handled, so at most one builder per
+ * concurrently active thread is ever created and builders are also reused
+ * from one sample and one run to the next. As propagators built by {@link
+ * org.orekit.propagation.conversion.NumericalPropagatorBuilder NumericalPropagatorBuilder}
+ * share the force models of the builder, force models instances are reused too.
+ * </p>
+ * <p>
+ * The random draws for each sample are performed with a generator seeded
+ * from the run seed and the sample index, so the dispersed parameters of
+ * one sample do not depend on which thread handled it, and a run can be
+ * reproduced exactly. The samples are shared between the calling thread and
+ * helper tasks submitted to the executor, which is not shut down by this class.
+ * </p>
+ * @see Dispersion
+ * @see SampleHandler
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class DispersionEngine {
+
+    /** Factory for builders. */
+    private final BuilderFactory factory;
+
+    /** Names of the free parameters. */
+    private final List<String> freeParameters;
+
+    /** Executor for concurrent samples (may be null). */
+    private final ExecutorService executor;
+
+    /** Pool of available builders. */
+    private final ConcurrentLinkedQueue<PooledBuilder> pool;
+
+    /** Number of builders created so far. */
+    private final AtomicInteger created;
+
+    /** Simple constructor.
+     * @param factory factory for propagator builders
+     * @param freeParameters names of the builders free parameters to disperse
+     * @param executor executor to use for concurrent samples
+     * (if null, the samples are run sequentially in the calling thread)
+     */
+    public DispersionEngine(final BuilderFactory factory, final Collection<String> freeParameters,
+                            final ExecutorService executor) {
+        this.factory        = factory;
+        this.freeParameters = new ArrayList<String>(freeParameters);
+        this.executor       = executor;
+        this.pool           = new ConcurrentLinkedQueue<PooledBuilder>();
+        this.created        = new AtomicInteger(0);
+    }
+
+    /** Get the dimension of the dispersed parameters vector.
+     * @return dimension of the dispersed parameters vector (6 + number of free parameters + 1)
+     */
+    public int getDimension() {
+        return freeParameters.size() + 7;
+    }
+
+    /** Run a Monte-Carlo analysis.
+     * <p>
+     * The nominal values of the free parameters are the values they have in the
+     * builders when they are created by the factory.
+     * </p>
+     * @param nominal nominal initial state
+     * @param target target date of the propagation
+     * @param nbSamples number of samples
+     * @param seed seed for the random draws
+     * @param dispersion dispersion model
+     * @param handler handler for samples results
+     * @exception OrekitException if one sample cannot be propagated or handled
+     */
+    public void run(final SpacecraftState nominal, final AbsoluteDate target,
+                    final int nbSamples, final long seed,
+                    final Dispersion dispersion, final SampleHandler handler)
+        throws OrekitException {
+
+        // samples are shared between the current thread and the helpers submitted to the executor
+        ParallelChunks.process(executor, nbSamples, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) throws OrekitException {
+                final PooledBuilder pooled = borrow();
+                try {
+                    pooled.runSample(nominal, target, k, seed, dispersion, handler);
+                } finally {
+                    pool.offer(pooled);
+                }
+            }
+        });
+
+    }
+
+    /** Get the number of builders created so far.
+     * @return number of builders created so far
+     */
+    public int getBuildersNumber() {
+        return created.get();
+    }
+
+    /** Borrow a builder from the pool, creating a new one if needed.
+     * @return builder container
+     * @exception OrekitException if a new builder cannot be created
+     */
+    private PooledBuilder borrow() throws OrekitException {
+        final PooledBuilder pooled = pool.poll();
+        if (pooled != null) {
+            return pooled;
+        }
+        final PropagatorBuilder builder = factory.createBuilder();
+        builder.setFreeParameters(freeParameters);
+        created.incrementAndGet();
+        return new PooledBuilder(builder);
+    }
+
+    /** Container for a builder and its per-thread workspace. */
+    private class PooledBuilder {
+
+        /** Builder. */
+        private final PropagatorBuilder builder;
+
+        /** Nominal values of the free parameters. */
+        private final double[] nominalFree;
+
+        /** Dispersed parameters. */
+        private final double[] dispersed;
+
+        /** Parameters for the builder. */
+        private final double[] builderParameters;
+
+        /** Seed array for the random generator. */
+        private final int[] seedArray;
+
+        /** Random generator. */
+        private final RandomGenerator generator;
+
+        /** Simple constructor.
+         * @param builder builder
+         */
+        PooledBuilder(final PropagatorBuilder builder) {
+            this.builder           = builder;
+            this.nominalFree       = new double[freeParameters.size()];
+            for (int i = 0; i < nominalFree.length; ++i) {
+                nominalFree[i] = builder.getParameter(freeParameters.get(i));
+            }
+            this.dispersed         = new double[getDimension()];
+            this.builderParameters = new double[getDimension() - 1];
+            this.seedArray         = new int[3];
+            this.generator         = new Well19937a(seedArray);
+        }
+
+        /** Run one sample.
+         * @param nominal nominal initial state
+         * @param target target date of the propagation
+         * @param index index of the sample
+         * @param seed seed for the random draws
+         * @param dispersion dispersion model
+         * @param handler handler for samples results
+         * @exception OrekitException if the sample cannot be propagated or handled
+         */
+        public void runSample(final SpacecraftState nominal, final AbsoluteDate target,
+                              final int index, final long seed,
+                              final Dispersion dispersion, final SampleHandler handler)
+            throws OrekitException {
+
+            // set up nominal parameters
+            final PVCoordinates pv = nominal.getPVCoordinates(builder.getFrame());
+            final Vector3D p = pv.getPosition();
+            final Vector3D v = pv.getVelocity();
+            dispersed[0] = p.getX();
+            dispersed[1] = p.getY();
+            dispersed[2] = p.getZ();
+            dispersed[3] = v.getX();
+            dispersed[4] = v.getY();
+            dispersed[5] = v.getZ();
+            System.arraycopy(nominalFree, 0, dispersed, 6, nominalFree.length);
+            dispersed[dispersed.length - 1] = nominal.getMass();
+
+            // disperse them, with a generator depending only on the seed and sample index
+            seedArray[0] = (int) (seed >>> 32);
+            seedArray[1] = (int) seed;
+            seedArray[2] = index;
+            generator.setSeed(seedArray);
+            dispersion.disperse(generator, dispersed);
+
+            // build the propagator
+            System.arraycopy(dispersed, 0, builderParameters, 0, builderParameters.length);
+            final Propagator propagator = builder.buildPropagator(nominal.getDate(), builderParameters);
+            final double mass = dispersed[dispersed.length - 1];
+            final SpacecraftState initial = propagator.getInitialState();
+            if (mass != initial.getMass()) {
+                propagator.resetInitialState(new SpacecraftState(initial.getOrbit(), initial.getAttitude(), mass));
+            }
+
+            // propagate
+            final SpacecraftState finalState = propagator.propagate(target);
+
+            synchronized (handler) {
+                handler.handleSample(index, dispersed, finalState);
+            }
+
+        }
+
+    }
+
+    /** Factory for propagators builders.
+     * <p>
+     * Each call to {@link #createBuilder()} must return a new builder,
+     * with its own force models.
+     * </p>
+     */
+    public interface BuilderFactory {
+
+        /** Create a new builder.
+         * @return new builder
+         * @exception OrekitException if builder cannot be created
+         */
+        PropagatorBuilder createBuilder() throws OrekitException;
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RectangularCholeskyDecomposition;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+
+/** Dispersion model adding correlated Gaussian noise to the nominal parameters.
+ * <p>
+ * The covariance matrix may be singular (for example if some parameters are
+ * not dispersed at all) or even null, it is decomposed once at construction using a
+ * {@link RectangularCholeskyDecomposition rectangular Cholesky decomposition}.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class GaussianDispersion implements Dispersion {
+
+    /** Root of the covariance matrix. */
+    private final double[][] root;
+
+    /** Rank of the covariance matrix. */
+    private final int rank;
+
+    /** Simple constructor.
+     * @param covariance covariance matrix of the parameters
+     * @param small diagonal elements threshold under which columns are
+     * considered to be dependent on previous ones and are discarded
+     */
+    public GaussianDispersion(final RealMatrix covariance, final double small) {
+        double maxDiagonal = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < covariance.getRowDimension(); ++i) {
+            maxDiagonal = FastMath.max(maxDiagonal, covariance.getEntry(i, i));
+        }
+        if (maxDiagonal < small) {
+            // nothing is dispersed
+            this.root = new double[covariance.getRowDimension()][0];
+            this.rank = 0;
+        } else {
+            final RectangularCholeskyDecomposition decomposition =
+                    new RectangularCholeskyDecomposition(covariance, small);
+            this.root = decomposition.getRootMatrix().getData();
+            this.rank = decomposition.getRank();
+        }
+    }
+
+    /** Get the dimension of the parameters vector.
+     * @return dimension of the parameters vector
+     */
+    public int getDimension() {
+        return root.length;
+    }
+
+    /** {@inheritDoc} */
+    public void disperse(final RandomGenerator generator, final double[] parameters)
+        throws OrekitException {
+
+        if (parameters.length != root.length) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.DIMENSIONS_MISMATCH_SIMPLE,
+                                                                 parameters.length, root.length);
+        }
+
+        // draw uncorrelated normalized values
+        final double[] normalized = new double[rank];
+        for (int j = 0; j < rank; ++j) {
+            normalized[j] = generator.nextGaussian();
+        }
+
+        // correlate them
+        for (int i = 0; i < root.length; ++i) {
+            final double[] row = root[i];
+            double sum = 0;
+            for (int j = 0; j < rank; ++j) {
+                sum += row[j] * normalized[j];
+            }
+            parameters[i] += sum;
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.SpacecraftState;
+
+/** Interface for handlers receiving the results of Monte-Carlo samples.
+ * <p>
+ * The {@link DispersionEngine} serializes the calls to {@link #handleSample(int,
+ * double[], SpacecraftState) handleSample}, so implementations do not need to be
+ * thread-safe. The samples are however provided in an arbitrary order when the
+ * engine runs them concurrently, so implementations should not depend on the
+ * samples order.
+ * </p>
+ * @see DispersionEngine
+ * @see StateStatistics
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public interface SampleHandler {
+
+    /** Handle the result of one sample.
+     * @param index index of the sample
+     * @param parameters dispersed parameters used for this sample
+     * (the array is reused, it must be copied if it is stored)
+     * @param finalState final state of the sample
+     * @exception OrekitException if the sample cannot be handled
+     */
+    void handleSample(int index, double[] parameters, SpacecraftState finalState)
+        throws OrekitException;
+
+}
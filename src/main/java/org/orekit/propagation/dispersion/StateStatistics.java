@@ -0,0 +1,181 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.stat.descriptive.rank.PSquarePercentile;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.utils.PVCoordinates;
+
+/** Online statistics on the final states of Monte-Carlo samples.
+ * <p>
+ * The statistics are computed on the 7 elements vector containing the
+ * Cartesian position and velocity in a user-specified frame followed by
+ * the mass. They are updated as samples are handled, so the states
+ * themselves are not stored. Mean and covariance are updated using
+ * Welford's algorithm, which avoids the cancellations that would occur
+ * with sums of squares as positions are large with respect to their
+ * dispersion. Percentiles are estimated using the
+ * P<sup>2</sup> algorithm, which uses a fixed amount of memory regardless
+ * of the number of samples.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class StateStatistics implements SampleHandler {
+
+    /** Size of the statistics vector. */
+    private static final int DIMENSION = 7;
+
+    /** Frame in which positions and velocities are considered. */
+    private final Frame frame;
+
+    /** Number of samples handled. */
+    private long n;
+
+    /** Mean of the samples. */
+    private final double[] mean;
+
+    /** Sums of products of deviations from the mean (lower triangular part, row-major). */
+    private final double[] comoments;
+
+    /** Percentiles estimators, one array for each requested percentile. */
+    private final PSquarePercentile[][] estimators;
+
+    /** Workspace vector. */
+    private final double[] vector;
+
+    /** Workspace deviations vector. */
+    private final double[] delta;
+
+    /** Simple constructor.
+     * @param frame frame in which positions and velocities are considered
+     * @param percentiles percentiles to estimate (between 0 excluded and 100 included)
+     */
+    public StateStatistics(final Frame frame, final double ... percentiles) {
+        this.frame      = frame;
+        this.n          = 0;
+        this.mean       = new double[DIMENSION];
+        this.comoments  = new double[DIMENSION * (DIMENSION + 1) / 2];
+        this.estimators = new PSquarePercentile[percentiles.length][DIMENSION];
+        for (int i = 0; i < percentiles.length; ++i) {
+            for (int j = 0; j < DIMENSION; ++j) {
+                estimators[i][j] = new PSquarePercentile(percentiles[i]);
+            }
+        }
+        this.vector     = new double[DIMENSION];
+        this.delta      = new double[DIMENSION];
+    }
+
+    /** {@inheritDoc} */
+    public void handleSample(final int index, final double[] parameters,
+                             final SpacecraftState finalState)
+        throws OrekitException {
+
+        final PVCoordinates pv = finalState.getPVCoordinates(frame);
+        final Vector3D p = pv.getPosition();
+        final Vector3D v = pv.getVelocity();
+        vector[0] = p.getX();
+        vector[1] = p.getY();
+        vector[2] = p.getZ();
+        vector[3] = v.getX();
+        vector[4] = v.getY();
+        vector[5] = v.getZ();
+        vector[6] = finalState.getMass();
+
+        // Welford update of mean and co-moments
+        ++n;
+        for (int i = 0; i < DIMENSION; ++i) {
+            delta[i] = vector[i] - mean[i];
+            mean[i] += delta[i] / n;
+        }
+        int k = 0;
+        for (int i = 0; i < DIMENSION; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                comoments[k++] += delta[i] * (vector[j] - mean[j]);
+            }
+        }
+
+        for (final PSquarePercentile[] estimator : estimators) {
+            for (int j = 0; j < DIMENSION; ++j) {
+                estimator[j].increment(vector[j]);
+            }
+        }
+
+    }
+
+    /** Get the number of samples handled.
+     * @return number of samples handled
+     */
+    public long getN() {
+        return n;
+    }
+
+    /** Get the mean of the samples.
+     * @return mean of the samples (position, velocity, mass)
+     */
+    public double[] getMean() {
+        return mean.clone();
+    }
+
+    /** Get the standard deviation of the samples.
+     * @return standard deviation of the samples (position, velocity, mass)
+     */
+    public double[] getStandardDeviation() {
+        final double[] sigma = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; ++i) {
+            sigma[i] = (n < 2) ? 0.0 : FastMath.sqrt(comoments[i * (i + 3) / 2] / (n - 1));
+        }
+        return sigma;
+    }
+
+    /** Get the covariance of the samples.
+     * @return covariance of the samples (position, velocity, mass)
+     */
+    public RealMatrix getCovariance() {
+        final RealMatrix covariance = MatrixUtils.createRealMatrix(DIMENSION, DIMENSION);
+        if (n > 1) {
+            int k = 0;
+            for (int i = 0; i < DIMENSION; ++i) {
+                for (int j = 0; j <= i; ++j) {
+                    final double c = comoments[k++] / (n - 1);
+                    covariance.setEntry(i, j, c);
+                    covariance.setEntry(j, i, c);
+                }
+            }
+        }
+        return covariance;
+    }
+
+    /** Get the estimate of one percentile.
+     * @param index index of the percentile, in the order used at construction
+     * @return estimate of the percentile (position, velocity, mass)
+     */
+    public double[] getPercentile(final int index) {
+        final double[] percentile = new double[DIMENSION];
+        for (int j = 0; j < DIMENSION; ++j) {
+            percentile[j] = estimators[index][j].getResult();
+        }
+        return percentile;
+    }
+
+}
@@ -0,0 +1,34 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * This package provides tools to perform Monte-Carlo dispersion analyses.
+ * <p>
+ * A {@link org.orekit.propagation.dispersion.DispersionEngine DispersionEngine}
+ * propagates many samples whose initial state, propagator parameters (drag
+ * coefficient, reflection coefficient ...) and mass are drawn from a
+ * {@link org.orekit.propagation.dispersion.Dispersion Dispersion} model. The
+ * propagators are built by {@link org.orekit.propagation.conversion.PropagatorBuilder
+ * propagator builders} which are reused from one sample to the next, and the
+ * final states are streamed to {@link org.orekit.propagation.dispersion.SampleHandler
+ * sample handlers} such as {@link org.orekit.propagation.dispersion.StateStatistics
+ * StateStatistics}, so trajectories do not need to be stored.
+ * </p>
+ *
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+package org.orekit.propagation.dispersion;
@@ -0,0 +1,440 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.apache.commons.math3.analysis.solvers.AllowedSolution;
+import org.apache.commons.math3.analysis.solvers.BracketingNthOrderBrentSolver;
+import org.apache.commons.math3.exception.MathRuntimeException;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.PropagationException;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.events.EventsLogger.LoggedEvent;
+import org.orekit.propagation.events.handlers.EventHandler;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.ParallelChunks;
+
+/** Events scanner working on already computed ephemerides.
+ *
+ * <p>
+ * This class allows to find events occurring along a {@link BoundedPropagator
+ * bounded propagator} (typically an {@link org.orekit.propagation.analytical.Ephemeris
+ * Ephemeris} or an {@link org.orekit.propagation.integration.IntegratedEphemeris
+ * IntegratedEphemeris}) without running a propagation step by step. The scanned
+ * time range is split into chunks and the roots of all the {@link EventDetector
+ * events detectors} switching functions are searched independently in each chunk,
+ * using the tasks executor provided by the user. Once all chunks have been scanned,
+ * the roots are merged in chronological order and the {@link
+ * EventDetector#eventOccurred(SpacecraftState, boolean) eventOccurred} methods of
+ * the detectors are called sequentially, from the caller thread, exactly as during
+ * a regular propagation. The events are returned as a log similar to the one
+ * gathered by {@link EventsLogger}.
+ * </p>
+ * <p>
+ * As in regular propagation, an event handler returning {@link EventHandler.Action#STOP
+ * STOP} ends the scan, so the log contains no event after it. An event handler returning
+ * {@link EventHandler.Action#RESET_STATE RESET_STATE} triggers a call to {@link
+ * EventDetector#resetState(SpacecraftState)} and the new state is used to {@link
+ * BoundedPropagator#resetInitialState(SpacecraftState) reset} the scanned propagator,
+ * then the remaining part of the range is scanned again. Note that most ephemerides
+ * do not support resetting their state and will trigger an error in this case, just as
+ * they would do during propagation.
+ * </p>
+ * <p>
+ * Propagators are not thread-safe, so each thread involved in the scan uses
+ * its own {@link BoundedPropagator#copy() copy} of the ephemeris, which keeps
+ * its attitude and additional states. Detectors extending {@link AbstractDetector}
+ * are also copied for each thread, using their {@code withXxx} methods, so they
+ * may have an internal state. Other detectors are shared between threads, so their
+ * {@link EventDetector#g(SpacecraftState) g} method must support concurrent calls.
+ * The event handlers are never called by the scanning threads, they are only
+ * notified of the events from the caller thread.
+ * </p>
+ *
+ * @see EventsLogger
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class EphemerisEventScanner {
+
+    /** Scanned ephemeris. */
+    private final BoundedPropagator ephemeris;
+
+    /** Executor for scanning tasks. */
+    private final ExecutorService executor;
+
+    /** Number of chunks in which scanned range is split. */
+    private final int chunks;
+
+    /** Events detectors. */
+    private final List<EventDetector> detectors;
+
+    /** Simple constructor.
+     * <p>
+     * The executor is not shut down by the scanner, it is the responsibility
+     * of the caller to manage its life cycle.
+     * </p>
+     * @param ephemeris ephemeris to scan
+     * @param executor executor for scanning tasks
+     * @param chunks number of chunks in which scanned range is split (a good choice is
+     * a few times the number of threads available in the executor)
+     */
+    public EphemerisEventScanner(final BoundedPropagator ephemeris,
+                                 final ExecutorService executor,
+                                 final int chunks) {
+        this.ephemeris = ephemeris;
+        this.executor  = executor;
+        this.chunks    = FastMath.max(1, chunks);
+        this.detectors = new ArrayList<EventDetector>();
+    }
+
+    /** Add an event detector.
+     * @param detector event detector to add
+     * @see #clearEventsDetectors()
+     * @see #getEventsDetectors()
+     * @param <T> class type for the generic version
+     */
+    public <T extends EventDetector> void addEventDetector(final T detector) {
+        detectors.add(detector);
+    }
+
+    /** Get all the events detectors that have been added.
+     * @return an unmodifiable list of events detectors
+     * @see #addEventDetector(EventDetector)
+     * @see #clearEventsDetectors()
+     */
+    public List<EventDetector> getEventsDetectors() {
+        return Collections.unmodifiableList(detectors);
+    }
+
+    /** Remove all events detectors.
+     * @see #addEventDetector(EventDetector)
+     * @see #getEventsDetectors()
+     */
+    public void clearEventsDetectors() {
+        detectors.clear();
+    }
+
+    /** Scan the whole ephemeris range.
+     * @return chronologically sorted log of the events that occurred
+     * @exception PropagationException if ephemeris cannot be evaluated, events cannot
+     * be located or a state reset is requested but not allowed
+     */
+    public List<LoggedEvent> scan() throws PropagationException {
+        return scan(ephemeris.getMinDate(), ephemeris.getMaxDate());
+    }
+
+    /** Scan a part of the ephemeris range.
+     * @param start start of the scanned range
+     * @param end end of the scanned range (must be after start)
+     * @return chronologically sorted log of the events that occurred
+     * @exception PropagationException if ephemeris cannot be evaluated, events cannot
+     * be located or a state reset is requested but not allowed
+     */
+    public List<LoggedEvent> scan(final AbsoluteDate start, final AbsoluteDate end)
+        throws PropagationException {
+        try {
+
+            final List<LoggedEvent> log = new ArrayList<LoggedEvent>();
+
+            // initialize the detectors
+            final SpacecraftState s0 = ephemeris.propagate(start);
+            for (final EventDetector detector : detectors) {
+                detector.init(s0, end);
+            }
+
+            AbsoluteDate current = start;
+            while (current.compareTo(end) < 0) {
+
+                // locate all roots in the remaining range
+                final List<Root> roots = locateRoots(current, end);
+
+                // handle the events in chronological order
+                current = end;
+                for (final Root root : roots) {
+                    final EventDetector detector = detectors.get(root.getIndex());
+                    final SpacecraftState state  = ephemeris.propagate(root.getDate());
+                    log.add(new LoggedEvent(detector, state, root.isIncreasing()));
+                    final EventHandler.Action action = detector.eventOccurred(state, root.isIncreasing());
+                    if (action == EventHandler.Action.STOP) {
+                        return log;
+                    } else if (action == EventHandler.Action.RESET_STATE) {
+                        // the precomputed roots are not valid anymore past this point,
+                        // we need to scan the remaining range again
+                        ephemeris.resetInitialState(detector.resetState(state));
+                        current = root.getDate();
+                        break;
+                    }
+                }
+
+            }
+
+            return log;
+
+        } catch (PropagationException pe) {
+            throw pe;
+        } catch (OrekitException oe) {
+            throw PropagationException.unwrap(oe);
+        } catch (MathRuntimeException mre) {
+            throw PropagationException.unwrap(mre);
+        }
+    }
+
+    /** Locate the roots of all detectors in a range.
+     * @param start start of the range
+     * @param end end of the range
+     * @return chronologically sorted roots
+     * @exception OrekitException if ephemeris or switching functions cannot be evaluated
+     */
+    private List<Root> locateRoots(final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        // prepare the scanners pool, scanners are created only when all existing ones are busy,
+        // so there is at most one scanner per thread involved
+        final ConcurrentLinkedQueue<Scanner> pool = new ConcurrentLinkedQueue<Scanner>();
+        pool.add(new Scanner(ephemeris, copyDetectors()));
+
+        // scan all chunks
+        final double duration = end.durationFrom(start);
+        final List<List<Root>> chunksRoots = new ArrayList<List<Root>>(chunks);
+        for (int i = 0; i < chunks; ++i) {
+            chunksRoots.add(null);
+        }
+        ParallelChunks.process(executor, chunks, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int index) throws OrekitException {
+                Scanner scanner = pool.poll();
+                if (scanner == null) {
+                    // all existing scanners are busy, we need another one
+                    scanner = new Scanner(ephemeris.copy(), copyDetectors());
+                }
+                try {
+                    final AbsoluteDate chunkStart = start.shiftedBy((index * duration) / chunks);
+                    final AbsoluteDate chunkEnd   = (index == chunks - 1) ?
+                                                    end : start.shiftedBy(((index + 1) * duration) / chunks);
+                    chunksRoots.set(index, scanner.scan(chunkStart, chunkEnd, end));
+                } finally {
+                    pool.add(scanner);
+                }
+            }
+        });
+
+        // merge the results
+        final List<Root> roots = new ArrayList<Root>();
+        for (final List<Root> chunkRoots : chunksRoots) {
+            roots.addAll(chunkRoots);
+        }
+
+        // sort roots chronologically, keeping detectors order for simultaneous events
+        Collections.sort(roots, new Comparator<Root>() {
+            /** {@inheritDoc} */
+            public int compare(final Root r1, final Root r2) {
+                final int dateComparison = r1.getDate().compareTo(r2.getDate());
+                return (dateComparison != 0) ? dateComparison : (r1.getIndex() - r2.getIndex());
+            }
+        });
+
+        return roots;
+
+    }
+
+    /** Copy the events detectors for use by one scanner.
+     * <p>
+     * Detectors extending {@link AbstractDetector} are copied, other detectors are shared.
+     * </p>
+     * @return detectors copies
+     */
+    private List<EventDetector> copyDetectors() {
+        final List<EventDetector> copies = new ArrayList<EventDetector>(detectors.size());
+        for (final EventDetector detector : detectors) {
+            if (detector instanceof AbstractDetector) {
+                copies.add(((AbstractDetector<?>) detector).withMaxCheck(detector.getMaxCheckInterval()));
+            } else {
+                copies.add(detector);
+            }
+        }
+        return copies;
+    }
+
+    /** Scanner for one chunk. */
+    private static class Scanner {
+
+        /** Ephemeris used by the scanner. */
+        private final BoundedPropagator ephemeris;
+
+        /** Detectors used by the scanner. */
+        private final List<EventDetector> detectors;
+
+        /** Simple constructor.
+         * @param ephemeris ephemeris used by the scanner
+         * @param detectors detectors used by the scanner
+         */
+        public Scanner(final BoundedPropagator ephemeris, final List<EventDetector> detectors) {
+            this.ephemeris = ephemeris;
+            this.detectors = detectors;
+        }
+
+        /** Locate the roots of all detectors in a chunk.
+         * <p>
+         * Only roots in the semi-open range (chunkStart, chunkEnd] are located,
+         * so a root at a chunks boundary is located only once.
+         * </p>
+         * @param chunkStart start of the chunk
+         * @param chunkEnd end of the chunk
+         * @param end end of the full scanned range
+         * @return roots found in the chunk
+         * @exception OrekitException if ephemeris or switching functions cannot be evaluated
+         */
+        public List<Root> scan(final AbsoluteDate chunkStart, final AbsoluteDate chunkEnd,
+                               final AbsoluteDate end)
+            throws OrekitException {
+            try {
+
+                final List<Root> roots = new ArrayList<Root>();
+                final SpacecraftState s0 = ephemeris.propagate(chunkStart);
+                final double dt = chunkEnd.durationFrom(chunkStart);
+
+                for (int k = 0; k < detectors.size(); ++k) {
+
+                    final EventDetector detector = detectors.get(k);
+                    if (detector instanceof AbstractDetector) {
+                        // this is a private copy, shared detectors were initialized at scan start
+                        detector.init(s0, end);
+                    }
+
+                    final UnivariateFunction f = new UnivariateFunction() {
+                        /** {@inheritDoc} */
+                        public double value(final double t) throws LocalWrapperException {
+                            try {
+                                return detector.g(ephemeris.propagate(chunkStart.shiftedBy(t)));
+                            } catch (OrekitException oe) {
+                                throw new LocalWrapperException(oe);
+                            }
+                        }
+                    };
+                    final BracketingNthOrderBrentSolver solver =
+                            new BracketingNthOrderBrentSolver(detector.getThreshold(), 5);
+
+                    final int    n = FastMath.max(1, (int) FastMath.ceil(dt / detector.getMaxCheckInterval()));
+                    final double h = dt / n;
+                    double ta = 0;
+                    double ga = detector.g(s0);
+                    for (int i = 0; i < n; ++i) {
+                        final double tb = (i == n - 1) ? dt : (i + 1) * h;
+                        final double gb = f.value(tb);
+                        if ((ga >= 0) ^ (gb >= 0)) {
+                            // there is a sign change: an event occurs during this sub-interval
+                            final double tRoot = solver.solve(detector.getMaxIterationCount(), f,
+                                                              ta, tb, AllowedSolution.RIGHT_SIDE);
+                            roots.add(new Root(k, chunkStart.shiftedBy(tRoot), gb >= ga));
+                        }
+                        ta = tb;
+                        ga = gb;
+                    }
+
+                }
+
+                return roots;
+
+            } catch (LocalWrapperException lwe) {
+                throw lwe.getWrappedException();
+            }
+        }
+
+    }
+
+    /** Container for one root of a switching function. */
+    private static class Root {
+
+        /** Index of the detector. */
+        private final int index;
+
+        /** Root date. */
+        private final AbsoluteDate date;
+
+        /** Increasing/decreasing status. */
+        private final boolean increasing;
+
+        /** Simple constructor.
+         * @param index index of the detector
+         * @param date root date
+         * @param increasing indicator if the switching function was increasing
+         */
+        public Root(final int index, final AbsoluteDate date, final boolean increasing) {
+            this.index      = index;
+            this.date       = date;
+            this.increasing = increasing;
+        }
+
+        /** Get the index of the detector.
+         * @return index of the detector
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /** Get the root date.
+         * @return root date
+         */
+        public AbsoluteDate getDate() {
+            return date;
+        }
+
+        /** Get the increasing/decreasing status.
+         * @return true if the switching function was increasing
+         */
+        public boolean isIncreasing() {
+            return increasing;
+        }
+
+    }
+
+    /** Local runtime exception wrapping OrekitException. */
+    private static class LocalWrapperException extends RuntimeException {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20150512L;
+
+        /** Wrapped exception. */
+        private final OrekitException wrappedException;
+
+        /** Simple constructor.
+         * @param wrapped wrapped exception
+         */
+        public LocalWrapperException(final OrekitException wrapped) {
+            this.wrappedException = wrapped;
+        }
+
+        /** Get the wrapped exception.
+         * @return wrapped exception
+         */
+        public OrekitException getWrappedException() {
+            return wrappedException;
+        }
+
+    }
+
+}
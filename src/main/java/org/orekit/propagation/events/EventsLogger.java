@@ -126,7 +126,7 @@ public class EventsLogger implements Serializable {
          * @param increasing indicator if the event switching function was increasing
          * or decreasing at event occurrence date
          */
-        private LoggedEvent(final EventDetector detector, final SpacecraftState state, final boolean increasing) {
+        LoggedEvent(final EventDetector detector, final SpacecraftState state, final boolean increasing) {
             this.detector   = detector;
             this.state      = state;
             this.increasing = increasing;
@@ -36,6 +36,7 @@ import org.orekit.propagation.BoundedPropagator;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.analytical.AbstractAnalyticalPropagator;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateCursor;
 import org.orekit.utils.TimeStampedPVCoordinates;
 
 /** This class stores sequentially generated orbital parameters for
@@ -104,6 +105,9 @@ public class IntegratedEphemeris
     /** Unmanaged additional states that must be simply copied. */
     private final Map<String, double[]> unmanaged;
 
+    /** Cursor for checking the current model date (lazily allocated, as it is not serialized). */
+    private transient DateCursor cursor;
+
     /** Creates a new instance of IntegratedEphemeris.
      * @param startDate Start date of the integration (can be minDate or maxDate)
      * @param minDate first date of the range
@@ -130,6 +134,7 @@ public class IntegratedEphemeris
         this.startDate = startDate;
         this.minDate   = minDate;
         this.maxDate   = maxDate;
+        this.cursor    = null;
         this.mapper    = mapper;
         this.meanOrbit = meanOrbit;
         this.model     = model;
@@ -155,7 +160,11 @@ public class IntegratedEphemeris
     private void setInterpolationDate(final AbsoluteDate date)
         throws PropagationException {
 
-        if (date.equals(startDate.shiftedBy(model.getInterpolatedTime()))) {
+        if (cursor == null) {
+            cursor = new DateCursor(startDate);
+        }
+        cursor.setDate(startDate, model.getInterpolatedTime());
+        if (cursor.compareTo(date) == 0) {
             // the current model date is already the desired one
             return;
         }
@@ -246,6 +255,37 @@ public class IntegratedEphemeris
         return updateAdditionalStates(basicPropagate(getMinDate()));
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * The underlying mathematical model is duplicated, as it holds the
+     * interpolation state, the state mapper is shared.
+     * </p>
+     */
+    public BoundedPropagator copy() throws OrekitException {
+
+        final ContinuousOutputModel modelCopy = new ContinuousOutputModel();
+        modelCopy.append(model);
+
+        // the local providers must be rebuilt around the copied model
+        final List<AdditionalStateProvider> providers = new ArrayList<AdditionalStateProvider>();
+        final List<String> equationNames = new ArrayList<String>();
+        for (final AdditionalStateProvider provider : getAdditionalStateProviders()) {
+            if (provider instanceof LocalProvider) {
+                equationNames.add(((LocalProvider) provider).getName());
+            } else {
+                providers.add(provider);
+            }
+        }
+
+        final IntegratedEphemeris copy =
+                new IntegratedEphemeris(startDate, minDate, maxDate, mapper, meanOrbit, modelCopy,
+                                        unmanaged, providers,
+                                        equationNames.toArray(new String[equationNames.size()]));
+        copy.setAttitudeProvider(getAttitudeProvider());
+        return copy;
+
+    }
+
     /** Replace the instance with a data transfer object for serialization.
      * @return data transfer object that will be serialized
      * @exception NotSerializableException if the state mapper cannot be serialized (typically for DSST propagator)
@@ -19,6 +19,7 @@ package org.orekit.propagation.numerical;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
@@ -38,6 +39,7 @@ import org.orekit.orbits.Orbit;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.ParallelChunks;
 
 /** Class helping implementation of partial derivatives in {@link ForceModel force models} implementations.
  * <p>
@@ -45,6 +47,17 @@ import org.orekit.utils.PVCoordinates;
  * partial derivatives analytically. However, in some cases, it may be difficult. This class
  * allows to compute the derivatives by finite differences relying only on the basic acceleration.
  * </p>
+ * <p>
+ * The accelerations for the shifted position, velocity and mass used to compute
+ * derivatives with respect to state are independent from each other. If an
+ * {@link ExecutorService executor} is provided at construction, they are evaluated
+ * concurrently, the calling thread sharing the work with helper tasks submitted
+ * to the executor. The wrapped force model {@link ForceModel#addContribution(SpacecraftState,
+ * TimeDerivativesEquations) addContribution} method must then support being called
+ * from several threads at once. Derivatives with respect to force model parameters
+ * are always computed sequentially, as they require changing the parameters values.
+ * The executor is not shut down by this class.
+ * </p>
  * @author V&eacute;ronique Pommier-Maurussane
  * @author Luc Maisonobe
  */
@@ -62,6 +75,9 @@ public class Jacobianizer {
     /** Step used for finite difference computation with respect to parameters value. */
     private final Map<String, Double> hParam;
 
+    /** Executor for concurrent evaluation of shifted accelerations (may be null). */
+    private final ExecutorService executor;
+
     /** Simple constructor.
      * @param forceModel force model instance to wrap
      * @param mu central attraction coefficient (m³/s²)
@@ -70,11 +86,27 @@ public class Jacobianizer {
      */
     public Jacobianizer(final ForceModel forceModel, final double mu,
                         final Collection<ParameterConfiguration> paramsAndSteps, final double hPos) {
+        this(forceModel, mu, paramsAndSteps, hPos, null);
+    }
+
+    /** Simple constructor.
+     * @param forceModel force model instance to wrap
+     * @param mu central attraction coefficient (m³/s²)
+     * @param paramsAndSteps collection of parameters and their associated steps
+     * @param hPos step used for finite difference computation with respect to spacecraft position (m)
+     * @param executor executor to use for concurrent evaluation of shifted accelerations
+     * (if null, the accelerations are evaluated sequentially in the calling thread)
+     * @since 7.1
+     */
+    public Jacobianizer(final ForceModel forceModel, final double mu,
+                        final Collection<ParameterConfiguration> paramsAndSteps, final double hPos,
+                        final ExecutorService executor) {
 
         this.forceModel = forceModel;
         this.mu         = mu;
         this.hParam     = new HashMap<String, Double>();
         this.hPos       = hPos;
+        this.executor   = executor;
 
         // set up parameters for jacobian computation
         for (final ParameterConfiguration param : paramsAndSteps) {
@@ -144,39 +176,40 @@ public class Jacobianizer {
         // estimate mass step, applying the same relative value as position
         final double hMass = mass.getValue() * hPos / FastMath.sqrt(r2);
 
-        // compute nominal acceleration
-        final AccelerationRetriever nominal = new AccelerationRetriever();
-        computeShiftedAcceleration(nominal, date, frame, p0, v0, rotation.toRotation(), mass.getValue());
-        final double[] a0 = nominal.getAcceleration().toArray();
-
-        // compute accelerations with shifted states
-        final AccelerationRetriever shifted = new AccelerationRetriever();
+        // set up nominal and shifted states
+        final int n = (parameters < 7) ? 7 : 8;
+        final Vector3D[] positions  = new Vector3D[n];
+        final Vector3D[] velocities = new Vector3D[n];
+        final Rotation[] rotations  = new Rotation[n];
+        final double[]   masses     = new double[n];
+        positions[0]  = p0;
+        velocities[0] = v0;
+        rotations[0]  = rotation.toRotation();
+        masses[0]     = mass.getValue();
+        for (int k = 1; k < n; ++k) {
+            // shift position by hPos along x, y and z, velocity by hVel along x, y and z and mass by hMass
+            final int    index = k - 1;
+            final double h     = (index < 3) ? hPos : ((index < 6) ? hVel : hMass);
+            positions[k]  = (index < 3) ? shift(position, index, h) : p0;
+            velocities[k] = (index < 3 || index > 5) ? v0 : shift(velocity, index, h);
+            rotations[k]  = shift(rotation, index, h);
+            masses[k]     = shift(mass, index, h);
+        }
 
-        // shift position by hPos alon x, y and z
-        computeShiftedAcceleration(shifted, date, frame, shift(position, 0, hPos), v0, shift(rotation, 0, hPos), shift(mass, 0, hPos));
-        final double[] derPx = new Vector3D(1 / hPos, shifted.getAcceleration(), -1 / hPos, nominal.getAcceleration()).toArray();
-        computeShiftedAcceleration(shifted, date, frame, shift(position, 1, hPos), v0, shift(rotation, 1, hPos), shift(mass, 1, hPos));
-        final double[] derPy = new Vector3D(1 / hPos, shifted.getAcceleration(), -1 / hPos, nominal.getAcceleration()).toArray();
-        computeShiftedAcceleration(shifted, date, frame, shift(position, 2, hPos), v0, shift(rotation, 2, hPos), shift(mass, 2, hPos));
-        final double[] derPz = new Vector3D(1 / hPos, shifted.getAcceleration(), -1 / hPos, nominal.getAcceleration()).toArray();
-
-        // shift velocity by hVel alon x, y and z
-        computeShiftedAcceleration(shifted, date, frame, p0, shift(velocity, 3, hVel), shift(rotation, 3, hVel), shift(mass, 3, hVel));
-        final double[] derVx = new Vector3D(1 / hVel, shifted.getAcceleration(), -1 / hVel, nominal.getAcceleration()).toArray();
-        computeShiftedAcceleration(shifted, date, frame, p0, shift(velocity, 4, hVel), shift(rotation, 4, hVel), shift(mass, 4, hVel));
-        final double[] derVy = new Vector3D(1 / hVel, shifted.getAcceleration(), -1 / hVel, nominal.getAcceleration()).toArray();
-        computeShiftedAcceleration(shifted, date, frame, p0, shift(velocity, 5, hVel), shift(rotation, 5, hVel), shift(mass, 5, hVel));
-        final double[] derVz = new Vector3D(1 / hVel, shifted.getAcceleration(), -1 / hVel, nominal.getAcceleration()).toArray();
-
-        final double[] derM;
-        if (parameters < 7) {
-            derM = null;
-        } else {
-            // shift mass by hMass
-            computeShiftedAcceleration(shifted, date, frame, p0, v0, shift(rotation, 6, hMass), shift(mass, 6, hMass));
-            derM = new Vector3D(1 / hMass, shifted.getAcceleration(), -1 / hMass, nominal.getAcceleration()).toArray();
+        // compute nominal and shifted accelerations
+        final Vector3D[] accelerations = computeAccelerations(date, frame, positions, velocities, rotations, masses);
+        final Vector3D nominal = accelerations[0];
+        final double[] a0      = nominal.toArray();
+        final double[] derPx   = new Vector3D(1 / hPos, accelerations[1], -1 / hPos, nominal).toArray();
+        final double[] derPy   = new Vector3D(1 / hPos, accelerations[2], -1 / hPos, nominal).toArray();
+        final double[] derPz   = new Vector3D(1 / hPos, accelerations[3], -1 / hPos, nominal).toArray();
+        final double[] derVx   = new Vector3D(1 / hVel, accelerations[4], -1 / hVel, nominal).toArray();
+        final double[] derVy   = new Vector3D(1 / hVel, accelerations[5], -1 / hVel, nominal).toArray();
+        final double[] derVz   = new Vector3D(1 / hVel, accelerations[6], -1 / hVel, nominal).toArray();
+        final double[] derM    = (n < 8) ?
+                                 null :
+                                 new Vector3D(1 / hMass, accelerations[7], -1 / hMass, nominal).toArray();
 
-        }
         final double[] derivatives = new double[1 + parameters];
         final DerivativeStructure[] accDer = new DerivativeStructure[3];
         for (int i = 0; i < 3; ++i) {
@@ -207,6 +240,38 @@ public class Jacobianizer {
 
     }
 
+    /** Compute accelerations for several states.
+     * @param date current date
+     * @param frame inertial reference frame for states (both orbit and attitude)
+     * @param positions positions of spacecraft in reference frame
+     * @param velocities velocities of spacecraft in reference frame
+     * @param rotations orientations (attitudes) of the spacecraft with respect to reference frame
+     * @param masses spacecraft masses
+     * @return accelerations, in the same order as the states
+     * @exception OrekitException if the underlying force models cannot compute the acceleration
+     */
+    private Vector3D[] computeAccelerations(final AbsoluteDate date, final Frame frame,
+                                            final Vector3D[] positions, final Vector3D[] velocities,
+                                            final Rotation[] rotations, final double[] masses)
+        throws OrekitException {
+
+        final int n = positions.length;
+        final Vector3D[] accelerations = new Vector3D[n];
+
+        ParallelChunks.process(executor, n, new ParallelChunks.ChunkProcessor() {
+            /** {@inheritDoc} */
+            public void process(final int k) throws OrekitException {
+                final AccelerationRetriever retriever = new AccelerationRetriever();
+                computeShiftedAcceleration(retriever, date, frame,
+                                           positions[k], velocities[k], rotations[k], masses[k]);
+                accelerations[k] = retriever.getAcceleration();
+            }
+        });
+
+        return accelerations;
+
+    }
+
     /** Shift a vector.
      * @param nominal nominal vector
      * @param index index of the variable with respect to which we shift
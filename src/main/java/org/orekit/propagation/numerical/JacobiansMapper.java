@@ -101,6 +101,22 @@ public class JacobiansMapper {
         return parameters;
     }
 
+    /** Get the orbit type used for the state parameters.
+     * @return orbit type used for the state parameters
+     * @since 7.1
+     */
+    public OrbitType getOrbitType() {
+        return orbitType;
+    }
+
+    /** Get the position angle type used for the state parameters.
+     * @return position angle type used for the state parameters
+     * @since 7.1
+     */
+    public PositionAngle getPositionAngle() {
+        return angleType;
+    }
+
     /** Get the conversion Jacobian between state parameters and cartesian parameters.
      * @param state spacecraft state
      * @return conversion Jacobian
@@ -203,6 +219,28 @@ public class JacobiansMapper {
 
     }
 
+    /** Get the Jacobian of Cartesian state with respect to initial state from a one-dimensional additional state array.
+     * <p>
+     * Contrary to {@link #getStateJacobian(SpacecraftState, double[][])}, the current
+     * state is given as Cartesian parameters (and mass), so no conversion is needed
+     * and the Jacobian is extracted directly from the additional state. The initial
+     * state is given as parameters of the {@link #getOrbitType() orbit type} and
+     * {@link #getPositionAngle() position angle type} of the mapper.
+     * </p>
+     * @param state spacecraft state
+     * @param dCdY0 placeholder where to put the Jacobian of Cartesian state
+     * with respect to initial state
+     * @exception OrekitException if state does not contain the Jacobian additional state
+     * @since 7.1
+     */
+    public void getCartesianStateJacobian(final SpacecraftState state, final double[][] dCdY0)
+        throws OrekitException {
+        final double[] p = state.getAdditionalState(name);
+        for (int i = 0; i < stateDimension; ++i) {
+            System.arraycopy(p, i * stateDimension, dCdY0[i], 0, stateDimension);
+        }
+    }
+
     /** Get theJacobian with respect to parameters from a one-dimensional additional state array.
      * <p>
      * This method extract the data from the {@code p} array and put it in the
@@ -31,9 +31,12 @@ import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Precision;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
+import org.orekit.forces.AccelerationJacobiansProvider;
 import org.orekit.forces.ForceModel;
 import org.orekit.propagation.SpacecraftState;
+import org.orekit.frames.Frame;
 import org.orekit.propagation.integration.AdditionalEquations;
+import org.orekit.time.AbsoluteDate;
 
 /** Set of {@link AdditionalEquations additional equations} computing the partial derivatives
  * of the state (orbit) with respect to initial state and force models parameters.
@@ -42,6 +45,11 @@ import org.orekit.propagation.integration.AdditionalEquations;
  * in order to compute partial derivatives of the orbit along with the orbit itself. This is
  * useful for example in orbit determination applications.
  * </p>
+ * <p>
+ * Force models implementing {@link AccelerationJacobiansProvider} provide their
+ * acceleration Jacobians analytically, the other ones are handled using
+ * {@link DerivativeStructure} automatic differentiation.
+ * </p>
  * @author V&eacute;ronique Pommier-Maurussane
  */
 public class PartialDerivativesEquations implements AdditionalEquations {
@@ -71,11 +79,11 @@ public class PartialDerivativesEquations implements AdditionalEquations {
     /** Boolean for force models / selected parameters consistency. */
     private boolean dirty = false;
 
-    /** Jacobian of acceleration with respect to spacecraft position. */
-    private transient double[][] dAccdPos;
+    /** Jacobian of acceleration with respect to spacecraft position (row-major 3x3 matrix). */
+    private transient double[]   dAccdPos;
 
-    /** Jacobian of acceleration with respect to spacecraft velocity. */
-    private transient double[][] dAccdVel;
+    /** Jacobian of acceleration with respect to spacecraft velocity (row-major 3x3 matrix). */
+    private transient double[]   dAccdVel;
 
     /** Jacobian of acceleration with respect to spacecraft mass. */
     private transient double[]   dAccdM;
@@ -312,8 +320,8 @@ public class PartialDerivativesEquations implements AdditionalEquations {
             }
 
             dAccdParam = new double[dim];
-            dAccdPos   = new double[dim][dim];
-            dAccdVel   = new double[dim][dim];
+            dAccdPos   = new double[dim * dim];
+            dAccdVel   = new double[dim * dim];
             dAccdM     = (stateDim > 6) ? new double[dim] : null;
 
             dirty = false;
@@ -321,53 +329,69 @@ public class PartialDerivativesEquations implements AdditionalEquations {
         }
 
         // initialize acceleration Jacobians to zero
-        for (final double[] row : dAccdPos) {
-            Arrays.fill(row, 0.0);
-        }
-        for (final double[] row : dAccdVel) {
-            Arrays.fill(row, 0.0);
-        }
+        Arrays.fill(dAccdPos, 0.0);
+        Arrays.fill(dAccdVel, 0.0);
         if (dAccdM != null) {
             Arrays.fill(dAccdM, 0.0);
         }
 
-        // prepare derivation variables, 3 for position, 3 for velocity and optionally 1 for mass
-        final int nbVars = (dAccdM == null) ? 6 : 7;
-
-        // position corresponds three free parameters
-        final Vector3D position = s.getPVCoordinates().getPosition();
-        final FieldVector3D<DerivativeStructure> dsP = new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 0, position.getX()),
-                                              new DerivativeStructure(nbVars, 1, 1, position.getY()),
-                                              new DerivativeStructure(nbVars, 1, 2, position.getZ()));
-
-        // velocity corresponds three free parameters
-        final Vector3D velocity = s.getPVCoordinates().getVelocity();
-        final FieldVector3D<DerivativeStructure> dsV = new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 3, velocity.getX()),
-                                              new DerivativeStructure(nbVars, 1, 4, velocity.getY()),
-                                              new DerivativeStructure(nbVars, 1, 5, velocity.getZ()));
-
-        // mass corresponds either to a constant or to one free parameter
-        final DerivativeStructure dsM = (dAccdM == null) ?
-                                        new DerivativeStructure(nbVars, 1,    s.getMass()) :
-                                        new DerivativeStructure(nbVars, 1, 6, s.getMass());
-
-        // TODO:  we should compute attitude partial derivatives with respect to position/velocity
-        final Rotation rotation = s.getAttitude().getRotation();
-        final FieldRotation<DerivativeStructure> dsR =
-                new FieldRotation<DerivativeStructure>(new DerivativeStructure(nbVars, 1, rotation.getQ0()),
-                               new DerivativeStructure(nbVars, 1, rotation.getQ1()),
-                               new DerivativeStructure(nbVars, 1, rotation.getQ2()),
-                               new DerivativeStructure(nbVars, 1, rotation.getQ3()),
-                               false);
-
-        // compute acceleration Jacobians
+        // compute acceleration Jacobians, analytically when possible
+        final AbsoluteDate date     = s.getDate();
+        final Frame        frame    = s.getFrame();
+        final Vector3D     position = s.getPVCoordinates().getPosition();
+        final Vector3D     velocity = s.getPVCoordinates().getVelocity();
+        final Rotation     rotation = s.getAttitude().getRotation();
+        FieldVector3D<DerivativeStructure> dsP = null;
+        FieldVector3D<DerivativeStructure> dsV = null;
+        DerivativeStructure                dsM = null;
+        FieldRotation<DerivativeStructure> dsR = null;
         for (final ForceModel derivativesProvider : derivativesProviders) {
+
+            if (derivativesProvider instanceof AccelerationJacobiansProvider &&
+                ((AccelerationJacobiansProvider) derivativesProvider).addAccelerationJacobians(date, frame,
+                                                                                               position, velocity,
+                                                                                               rotation, s.getMass(),
+                                                                                               dAccdPos, dAccdVel,
+                                                                                               dAccdM)) {
+                // the contribution has been added analytically
+                continue;
+            }
+
+            if (dsP == null) {
+
+                // prepare derivation variables, 3 for position, 3 for velocity and optionally 1 for mass
+                final int nbVars = (dAccdM == null) ? 6 : 7;
+
+                // position corresponds three free parameters
+                dsP = new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 0, position.getX()),
+                                                             new DerivativeStructure(nbVars, 1, 1, position.getY()),
+                                                             new DerivativeStructure(nbVars, 1, 2, position.getZ()));
+
+                // velocity corresponds three free parameters
+                dsV = new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 3, velocity.getX()),
+                                                             new DerivativeStructure(nbVars, 1, 4, velocity.getY()),
+                                                             new DerivativeStructure(nbVars, 1, 5, velocity.getZ()));
+
+                // mass corresponds either to a constant or to one free parameter
+                dsM = (dAccdM == null) ?
+                      new DerivativeStructure(nbVars, 1,    s.getMass()) :
+                      new DerivativeStructure(nbVars, 1, 6, s.getMass());
+
+                // TODO:  we should compute attitude partial derivatives with respect to position/velocity
+                dsR = new FieldRotation<DerivativeStructure>(new DerivativeStructure(nbVars, 1, rotation.getQ0()),
+                                                             new DerivativeStructure(nbVars, 1, rotation.getQ1()),
+                                                             new DerivativeStructure(nbVars, 1, rotation.getQ2()),
+                                                             new DerivativeStructure(nbVars, 1, rotation.getQ3()),
+                                                             false);
+
+            }
+
             final FieldVector3D<DerivativeStructure> acceleration =
-                    derivativesProvider.accelerationDerivatives(s.getDate(), s.getFrame(),
-                                                                dsP, dsV, dsR, dsM);
+                    derivativesProvider.accelerationDerivatives(date, frame, dsP, dsV, dsR, dsM);
             addToRow(acceleration.getX(), 0);
             addToRow(acceleration.getY(), 1);
             addToRow(acceleration.getZ(), 2);
+
         }
 
         // the variational equations of the complete state Jacobian matrix have the
@@ -413,13 +437,19 @@ public class PartialDerivativesEquations implements AdditionalEquations {
 
         // compute Ddot, Edot and Fdot
         for (int i = 0; i < dim; ++i) {
-            final double[] dAdPi = dAccdPos[i];
-            final double[] dAdVi = dAccdVel[i];
+            final double dAdP0 = dAccdPos[dim * i];
+            final double dAdP1 = dAccdPos[dim * i + 1];
+            final double dAdP2 = dAccdPos[dim * i + 2];
+            final double dAdV0 = dAccdVel[dim * i];
+            final double dAdV1 = dAccdVel[dim * i + 1];
+            final double dAdV2 = dAccdVel[dim * i + 2];
+            final double dAdM  = (dAccdM == null) ? 0.0 : dAccdM[i];
+            final int    row   = (dim + i) * stateDim;
             for (int j = 0; j < stateDim; ++j) {
-                pDot[(dim + i) * stateDim + j] =
-                    dAdPi[0] * p[j]                + dAdPi[1] * p[j +     stateDim] + dAdPi[2] * p[j + 2 * stateDim] +
-                    dAdVi[0] * p[j + 3 * stateDim] + dAdVi[1] * p[j + 4 * stateDim] + dAdVi[2] * p[j + 5 * stateDim] +
-                    ((dAccdM == null) ? 0.0 : dAccdM[i] * p[j + 6 * stateDim]);
+                pDot[row + j] =
+                    dAdP0 * p[j]                + dAdP1 * p[j +     stateDim] + dAdP2 * p[j + 2 * stateDim] +
+                    dAdV0 * p[j + 3 * stateDim] + dAdV1 * p[j + 4 * stateDim] + dAdV2 * p[j + 5 * stateDim] +
+                    ((dAccdM == null) ? 0.0 : dAdM * p[j + 6 * stateDim]);
             }
         }
 
@@ -473,12 +503,11 @@ public class PartialDerivativesEquations implements AdditionalEquations {
 
             // compute Kdot
             for (int i = 0; i < dim; ++i) {
-                final double[] dAdPi = dAccdPos[i];
-                final double[] dAdVi = dAccdVel[i];
+                final int iP = dim * i;
                 pDot[columnTop + (dim + i) * paramDim] =
                     dAccdParam[i] +
-                    dAdPi[0] * p[columnTop]                + dAdPi[1] * p[columnTop +     paramDim] + dAdPi[2] * p[columnTop + 2 * paramDim] +
-                    dAdVi[0] * p[columnTop + 3 * paramDim] + dAdVi[1] * p[columnTop + 4 * paramDim] + dAdVi[2] * p[columnTop + 5 * paramDim] +
+                    dAccdPos[iP] * p[columnTop]                + dAccdPos[iP + 1] * p[columnTop +     paramDim] + dAccdPos[iP + 2] * p[columnTop + 2 * paramDim] +
+                    dAccdVel[iP] * p[columnTop + 3 * paramDim] + dAccdVel[iP + 1] * p[columnTop + 4 * paramDim] + dAccdVel[iP + 2] * p[columnTop + 5 * paramDim] +
                     ((dAccdM == null) ? 0.0 : dAccdM[i] * p[columnTop + 6 * paramDim]);
             }
 
@@ -503,26 +532,26 @@ public class PartialDerivativesEquations implements AdditionalEquations {
         if (dAccdM == null) {
 
             // free parameters 0, 1, 2 are for position
-            dAccdPos[index][0] += accelerationComponent.getPartialDerivative(1, 0, 0, 0, 0, 0);
-            dAccdPos[index][1] += accelerationComponent.getPartialDerivative(0, 1, 0, 0, 0, 0);
-            dAccdPos[index][2] += accelerationComponent.getPartialDerivative(0, 0, 1, 0, 0, 0);
+            dAccdPos[3 * index] += accelerationComponent.getPartialDerivative(1, 0, 0, 0, 0, 0);
+            dAccdPos[3 * index + 1] += accelerationComponent.getPartialDerivative(0, 1, 0, 0, 0, 0);
+            dAccdPos[3 * index + 2] += accelerationComponent.getPartialDerivative(0, 0, 1, 0, 0, 0);
 
             // free parameters 3, 4, 5 are for velocity
-            dAccdVel[index][0] += accelerationComponent.getPartialDerivative(0, 0, 0, 1, 0, 0);
-            dAccdVel[index][1] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 1, 0);
-            dAccdVel[index][2] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 0, 1);
+            dAccdVel[3 * index] += accelerationComponent.getPartialDerivative(0, 0, 0, 1, 0, 0);
+            dAccdVel[3 * index + 1] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 1, 0);
+            dAccdVel[3 * index + 2] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 0, 1);
 
         } else {
 
             // free parameters 0, 1, 2 are for position
-            dAccdPos[index][0] += accelerationComponent.getPartialDerivative(1, 0, 0, 0, 0, 0, 0);
-            dAccdPos[index][1] += accelerationComponent.getPartialDerivative(0, 1, 0, 0, 0, 0, 0);
-            dAccdPos[index][2] += accelerationComponent.getPartialDerivative(0, 0, 1, 0, 0, 0, 0);
+            dAccdPos[3 * index] += accelerationComponent.getPartialDerivative(1, 0, 0, 0, 0, 0, 0);
+            dAccdPos[3 * index + 1] += accelerationComponent.getPartialDerivative(0, 1, 0, 0, 0, 0, 0);
+            dAccdPos[3 * index + 2] += accelerationComponent.getPartialDerivative(0, 0, 1, 0, 0, 0, 0);
 
             // free parameters 3, 4, 5 are for velocity
-            dAccdVel[index][0] += accelerationComponent.getPartialDerivative(0, 0, 0, 1, 0, 0, 0);
-            dAccdVel[index][1] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 1, 0, 0);
-            dAccdVel[index][2] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 0, 1, 0);
+            dAccdVel[3 * index] += accelerationComponent.getPartialDerivative(0, 0, 0, 1, 0, 0, 0);
+            dAccdVel[3 * index + 1] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 1, 0, 0);
+            dAccdVel[3 * index + 2] += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 0, 1, 0);
 
             // free parameter 6 is for mass
             dAccdM[index]      += accelerationComponent.getPartialDerivative(0, 0, 0, 0, 0, 0, 1);
@@ -21,6 +21,7 @@ import org.orekit.errors.OrekitException;
 import org.orekit.errors.PropagationException;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateCursor;
 
 /**
  * This class wraps an object implementing {@link OrekitFixedStepHandler}
@@ -39,8 +40,8 @@ public class OrekitStepNormalizer implements OrekitStepHandler {
     /** Underlying step handler. */
     private OrekitFixedStepHandler handler;
 
-    /** Last step date. */
-    private AbsoluteDate lastDate;
+    /** Date of the next fixed step, reused throughout the propagation. */
+    private DateCursor nextTime;
 
     /** Last State vector. */
     private SpacecraftState lastState;
@@ -55,7 +56,7 @@ public class OrekitStepNormalizer implements OrekitStepHandler {
     public OrekitStepNormalizer(final double h, final OrekitFixedStepHandler handler) {
         this.h       = FastMath.abs(h);
         this.handler = handler;
-        lastDate  = null;
+        nextTime  = null;
         lastState = null;
         forward   = true;
     }
@@ -73,7 +74,6 @@ public class OrekitStepNormalizer implements OrekitStepHandler {
     /** {@inheritDoc} */
     public void init(final SpacecraftState s0, final AbsoluteDate t)
         throws PropagationException {
-        lastDate  = null;
         lastState = null;
         forward   = true;
         handler.init(s0, t);
@@ -99,34 +99,43 @@ public class OrekitStepNormalizer implements OrekitStepHandler {
             if (lastState == null) {
                 // initialize lastState in the first step case
 
-                lastDate = interpolator.getPreviousDate();
-                interpolator.setInterpolatedDate(lastDate);
+                final AbsoluteDate firstDate = interpolator.getPreviousDate();
+                interpolator.setInterpolatedDate(firstDate);
                 lastState = interpolator.getInterpolatedState();
 
                 // take the propagation direction into account
-                forward = interpolator.getCurrentDate().compareTo(lastDate) >= 0;
+                forward = interpolator.getCurrentDate().compareTo(firstDate) >= 0;
                 if (!forward) {
                     h = -h;
                 }
 
+                // the cursor is allocated once and then reset in place for each propagation
+                if (nextTime == null) {
+                    nextTime = new DateCursor(firstDate);
+                } else {
+                    nextTime.setDate(firstDate);
+                }
+                nextTime.shift(h);
+
             }
 
-            // use the interpolator to push fixed steps events to the underlying handler
-            AbsoluteDate nextTime = lastDate.shiftedBy(h);
-            boolean nextInStep = forward ^ (nextTime.compareTo(interpolator.getCurrentDate()) > 0);
+            // use the interpolator to push fixed steps events to the underlying handler,
+            // the next time is tracked by the cursor from one step to the next, so the
+            // only dates created are the ones of the states provided to the handler
+            final AbsoluteDate currentDate = interpolator.getCurrentDate();
+            boolean nextInStep = forward ^ (nextTime.compareTo(currentDate) > 0);
             while (nextInStep) {
 
                 // output the stored previous step
                 handler.handleStep(lastState, false);
 
                 // store the next step
-                lastDate = nextTime;
-                interpolator.setInterpolatedDate(lastDate);
+                interpolator.setInterpolatedDate(nextTime.toDate());
                 lastState = interpolator.getInterpolatedState();
 
                 // prepare next iteration
-                nextTime = nextTime.shiftedBy(h);
-                nextInStep = forward ^ (nextTime.compareTo(interpolator.getCurrentDate()) > 0);
+                nextTime.shift(h);
+                nextInStep = forward ^ (nextTime.compareTo(currentDate) > 0);
 
             }
 
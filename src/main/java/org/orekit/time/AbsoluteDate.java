@@ -348,6 +348,18 @@ public class AbsoluteDate
         }
     }
 
+    /** Build an instance from its internal representation.
+     * @param epoch reference epoch in seconds from 2000-01-01T12:00:00 TAI
+     * @param offset offset from the reference epoch in seconds (must be
+     * between 0.0 included and 1.0 excluded)
+     * @see DateCursor#toDate()
+     * @since 7.1
+     */
+    AbsoluteDate(final long epoch, final double offset) {
+        this.epoch  = epoch;
+        this.offset = offset;
+    }
+
     /** Build an instance from an apparent clock offset with respect to another
      * instant <em>in the perspective of a specific {@link TimeScale time scale}</em>.
      * <p>It is important to note that the apparent clock offset <em>is</em> the
@@ -679,6 +691,22 @@ public class AbsoluteDate
         return new AbsoluteDate(this, dt);
     }
 
+    /** Get the reference epoch.
+     * @return reference epoch in seconds from 2000-01-01T12:00:00 TAI
+     * @since 7.1
+     */
+    long getEpoch() {
+        return epoch;
+    }
+
+    /** Get the offset from the reference epoch.
+     * @return offset from the reference epoch in seconds
+     * @since 7.1
+     */
+    double getOffset() {
+        return offset;
+    }
+
     /** Compute the physically elapsed duration between two instants.
      * <p>The returned duration is the number of seconds physically
      * elapsed between the two instants, measured in a regular time
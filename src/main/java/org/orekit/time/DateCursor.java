@@ -0,0 +1,154 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.time;
+
+import org.apache.commons.math3.util.FastMath;
+
+/** Mutable cursor moving along the time line.
+ * <p>
+ * {@link AbsoluteDate} instances are immutable, so each {@link
+ * AbsoluteDate#shiftedBy(double) shift} creates a new object. This class
+ * uses the same internal representation (a long epoch and a double offset)
+ * but can be shifted and compared in place, so loops that only need to
+ * compute intermediate dates for comparison or duration purposes do not
+ * create any garbage. An {@link AbsoluteDate} is created only when {@link
+ * #toDate()} is called.
+ * </p>
+ * <p>
+ * Shifting a cursor gives exactly the same instant as calling {@link
+ * AbsoluteDate#shiftedBy(double)} on the date it represents.
+ * </p>
+ * <p>
+ * Instances of this class are <em>not</em> thread-safe.
+ * </p>
+ * @see AbsoluteDate
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class DateCursor {
+
+    /** Reference epoch in seconds from 2000-01-01T12:00:00 TAI. */
+    private long epoch;
+
+    /** Offset from the reference epoch in seconds. */
+    private double offset;
+
+    /** Simple constructor.
+     * @param date initial date of the cursor
+     */
+    public DateCursor(final AbsoluteDate date) {
+        setDate(date);
+    }
+
+    /** Set the cursor to a date.
+     * @param date date to set
+     */
+    public void setDate(final AbsoluteDate date) {
+        epoch  = date.getEpoch();
+        offset = date.getOffset();
+    }
+
+    /** Set the cursor to a date shifted from a reference.
+     * <p>
+     * This method gives the same instant as {@code reference.shiftedBy(dt)}.
+     * </p>
+     * @param reference reference date
+     * @param dt time shift in seconds
+     */
+    public void setDate(final AbsoluteDate reference, final double dt) {
+        set(reference.getEpoch(), reference.getOffset(), dt);
+    }
+
+    /** Shift the cursor in place.
+     * @param dt time shift in seconds
+     */
+    public void shift(final double dt) {
+        set(epoch, offset, dt);
+    }
+
+    /** Compute the physically elapsed duration between the cursor and an instant.
+     * @param instant instant to subtract from the cursor
+     * @return offset in seconds between the cursor and the instant (positive
+     * if the cursor is posterior to the argument)
+     * @see AbsoluteDate#durationFrom(AbsoluteDate)
+     */
+    public double durationFrom(final AbsoluteDate instant) {
+        return (epoch - instant.getEpoch()) + (offset - instant.getOffset());
+    }
+
+    /** Compute the physically elapsed duration between two cursors.
+     * @param cursor cursor to subtract from the instance
+     * @return offset in seconds between the two cursors (positive
+     * if the instance is posterior to the argument)
+     */
+    public double durationFrom(final DateCursor cursor) {
+        return (epoch - cursor.epoch) + (offset - cursor.offset);
+    }
+
+    /** Compare the cursor with a date.
+     * @param date date to compare the cursor with
+     * @return a negative integer, zero, or a positive integer as the cursor
+     * is before, simultaneous, or after the specified date.
+     * @see AbsoluteDate#compareTo(AbsoluteDate)
+     */
+    public int compareTo(final AbsoluteDate date) {
+        final double delta = durationFrom(date);
+        if (delta < 0) {
+            return -1;
+        } else if (delta > 0) {
+            return +1;
+        }
+        return 0;
+    }
+
+    /** Create a date at the cursor location.
+     * @return a new date, at the cursor location
+     */
+    public AbsoluteDate toDate() {
+        return new AbsoluteDate(epoch, offset);
+    }
+
+    /** Set the cursor to a shifted instant.
+     * <p>
+     * This method uses the same algorithm as the {@link
+     * AbsoluteDate#AbsoluteDate(AbsoluteDate, double)} constructor.
+     * </p>
+     * @param referenceEpoch reference epoch
+     * @param referenceOffset offset from the reference epoch
+     * @param dt time shift in seconds
+     */
+    private void set(final long referenceEpoch, final double referenceOffset, final double dt) {
+        final double sum = referenceOffset + dt;
+        if (Double.isInfinite(sum)) {
+            offset = sum;
+            epoch  = (sum < 0) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        } else {
+            // compute sum exactly, using Møller-Knuth TwoSum algorithm without branching
+            // the following statements must NOT be simplified, they rely on floating point
+            // arithmetic properties (rounding and representable numbers)
+            final double oPrime   = sum - dt;
+            final double dPrime   = sum - oPrime;
+            final double deltaO   = referenceOffset - oPrime;
+            final double deltaD   = dt - dPrime;
+            final double residual = deltaO + deltaD;
+            final long   dl       = (long) FastMath.floor(sum);
+            offset = (sum - dl) + residual;
+            epoch  = referenceEpoch + dl;
+        }
+    }
+
+}
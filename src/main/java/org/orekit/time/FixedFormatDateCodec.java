@@ -0,0 +1,736 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.time;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+
+/** Fast codec for fixed format ISO-8601 / CCSDS ASCII timestamps.
+ * <p>
+ * This class parses and formats dates in the two fixed formats used by
+ * CCSDS ASCII time codes A and B, which are also ISO-8601 formats:
+ * </p>
+ * <ul>
+ *   <li>calendar format: YYYY-MM-DDThh:mm:ss[.d&#x2192;d][Z]</li>
+ *   <li>day of year format: YYYY-DDDThh:mm:ss[.d&#x2192;d][Z]</li>
+ * </ul>
+ * <p>
+ * Contrary to the general {@link DateTimeComponents#parseDateTime(String)} and
+ * {@link AbsoluteDate#toString(TimeScale)} methods, which rely on regular expressions
+ * and on intermediate {@link DateComponents}/{@link TimeComponents} instances, this
+ * codec reads and writes characters directly from/to {@link CharSequence}, {@link
+ * StringBuilder} or {@link ByteBuffer} (the latter using ASCII encoding). The calendar
+ * conversion and the time scale offset are cached for the last day encountered, so
+ * when dates are processed chronologically, which is the typical case when reading or
+ * writing ephemerides, no intermediate objects are created at all. The cached offset
+ * is used only for time scales whose offset is constant throughout the day, which is
+ * the case for {@link UTCScale UTC} after 1972 (even on days ending with a leap second)
+ * and for the atomic time scales. For UTC, it is recomputed if the leap seconds are
+ * {@link TimeScalesFactory#updateUTC(java.util.SortedMap) updated}.
+ * </p>
+ * <p>
+ * Parsed dates are exactly the same as the ones built from the {@link
+ * AbsoluteDate#AbsoluteDate(String, TimeScale) general string constructor}.
+ * Formatted dates always use the calendar format, with a fixed number of digits
+ * for the seconds fractional part, rounded to nearest. Rounding takes leap seconds
+ * into account, so a date just before a leap second may be written with 60 seconds.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe.
+ * </p>
+ * @see AbsoluteDate#AbsoluteDate(String, TimeScale)
+ * @see AbsoluteDate#toString(TimeScale)
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class FixedFormatDateCodec {
+
+    /** Maximum number of digits for the seconds fractional part. */
+    public static final int MAX_FRACTION_DIGITS = 14;
+
+    /** Offset between epoch day (1970-01-01) and J2000 day (2000-01-01). */
+    private static final int J2000_FROM_EPOCH = 10957;
+
+    /** First day handled by the fast calendar conversions (1583-01-01),
+     * previous days are in or before the gregorian reform. */
+    private static final int FIRST_FAST_DAY = daysFromCivil(1583, 1, 1) - J2000_FROM_EPOCH;
+
+    /** Powers of ten. */
+    private static final double[] POWERS_OF_TEN = new double[MAX_FRACTION_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = 10.0 * POWERS_OF_TEN[i - 1];
+        }
+    }
+
+    /** Time scale. */
+    private final TimeScale timeScale;
+
+    /** Number of digits for the seconds fractional part in formatted dates. */
+    private final int fractionDigits;
+
+    /** Last day encountered while parsing (offset included). */
+    private Day lastParsed;
+
+    /** Last day encountered while formatting (offset not computed). */
+    private Day lastFormatted;
+
+    /** Simple constructor.
+     * @param timeScale time scale in which dates are parsed and formatted
+     * @param fractionDigits number of digits for the seconds fractional part
+     * in formatted dates (between 0 and {@link #MAX_FRACTION_DIGITS}), parsed
+     * dates may use any number of digits
+     */
+    public FixedFormatDateCodec(final TimeScale timeScale, final int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits > MAX_FRACTION_DIGITS) {
+            throw OrekitException.createIllegalArgumentException(LocalizedFormats.OUT_OF_RANGE_SIMPLE,
+                                                                 fractionDigits, 0, MAX_FRACTION_DIGITS);
+        }
+        this.timeScale      = timeScale;
+        this.fractionDigits = fractionDigits;
+        this.lastParsed     = null;
+        this.lastFormatted  = null;
+    }
+
+    /** Get the time scale.
+     * @return time scale in which dates are parsed and formatted
+     */
+    public TimeScale getTimeScale() {
+        return timeScale;
+    }
+
+    /** Get the number of digits for the seconds fractional part in formatted dates.
+     * @return number of digits for the seconds fractional part in formatted dates
+     */
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    /** Parse a date.
+     * @param s characters sequence containing only the date
+     * @return parsed date
+     * @exception IllegalArgumentException if the sequence does not contain a valid date
+     */
+    public AbsoluteDate parse(final CharSequence s) {
+        return parse(s, null, 0, s.length());
+    }
+
+    /** Parse a date from a part of a characters sequence.
+     * @param s characters sequence containing the date
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @return parsed date
+     * @exception IllegalArgumentException if the characters between start and end
+     * do not form a valid date
+     */
+    public AbsoluteDate parse(final CharSequence s, final int start, final int end) {
+        return parse(s, null, start, end);
+    }
+
+    /** Parse a date from a part of an ASCII encoded bytes buffer.
+     * <p>
+     * The buffer is accessed with absolute indices, its position is not changed.
+     * </p>
+     * @param b bytes buffer containing the date
+     * @param start index of the first byte of the date
+     * @param end index after the last byte of the date
+     * @return parsed date
+     * @exception IllegalArgumentException if the bytes between start and end
+     * do not form a valid date
+     */
+    public AbsoluteDate parse(final ByteBuffer b, final int start, final int end) {
+        return parse(null, b, start, end);
+    }
+
+    /** Get the length of formatted dates.
+     * <p>
+     * This length is fixed for years between 0 and 9999.
+     * </p>
+     * @return length of formatted dates
+     */
+    public int getFormattedLength() {
+        return (fractionDigits > 0) ? 20 + fractionDigits : 19;
+    }
+
+    /** Format a date.
+     * @param date date to format
+     * @return formatted date
+     */
+    public String format(final AbsoluteDate date) {
+        final StringBuilder builder = new StringBuilder(getFormattedLength());
+        format(date, builder, null);
+        return builder.toString();
+    }
+
+    /** Format a date, appending it to a builder.
+     * @param date date to format
+     * @param builder builder where to append the formatted date
+     */
+    public void format(final AbsoluteDate date, final StringBuilder builder) {
+        format(date, builder, null);
+    }
+
+    /** Format a date, putting it in an ASCII encoded bytes buffer.
+     * <p>
+     * The bytes are put at the buffer current position, which is updated.
+     * </p>
+     * @param date date to format
+     * @param buffer buffer where to put the formatted date
+     * @exception java.nio.BufferOverflowException if there are not enough
+     * bytes remaining in the buffer
+     */
+    public void format(final AbsoluteDate date, final ByteBuffer buffer) {
+        format(date, null, buffer);
+    }
+
+    /** Parse a date from either a characters sequence or a bytes buffer.
+     * @param s characters sequence containing the date (null if b is used)
+     * @param b bytes buffer containing the date (null if s is used)
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @return parsed date
+     * @exception IllegalArgumentException if the characters between start and end
+     * do not form a valid date
+     */
+    private AbsoluteDate parse(final CharSequence s, final ByteBuffer b,
+                               final int start, final int end) {
+
+        // date part
+        if (end - start < 17 || charAt(s, b, start + 4) != '-') {
+            throw invalid(s, b, start, end);
+        }
+        final int  year  = (int) digits(s, b, start, 4, end);
+        final boolean dayOfYearFormat = charAt(s, b, start + 8) == 'T';
+        final int  timeStart;
+        final Object leaps = leapsSnapshot();
+        Day day = lastParsed;
+        if (day != null && day.leaps != leaps) {
+            // leap seconds have been updated since the offset was cached
+            day = null;
+        }
+        if (dayOfYearFormat) {
+            final int dayOfYear = (int) digits(s, b, start + 5, 3, end);
+            if (day == null || day.year != year || day.dayOfYear != dayOfYear) {
+                day = new Day(timeScale, leaps, year, dayOfYear);
+                lastParsed = day;
+            }
+            timeStart = start + 9;
+        } else {
+            if (charAt(s, b, start + 7) != '-' || charAt(s, b, start + 10) != 'T') {
+                throw invalid(s, b, start, end);
+            }
+            final int month      = (int) digits(s, b, start + 5, 2, end);
+            final int dayOfMonth = (int) digits(s, b, start + 8, 2, end);
+            if (day == null || day.year != year || day.month != month || day.dayOfMonth != dayOfMonth) {
+                day = new Day(timeScale, leaps, year, month, dayOfMonth);
+                lastParsed = day;
+            }
+            timeStart = start + 11;
+        }
+
+        // time part
+        if (timeStart + 8 > end ||
+            charAt(s, b, timeStart + 2) != ':' || charAt(s, b, timeStart + 5) != ':') {
+            throw invalid(s, b, start, end);
+        }
+        final int hour         = (int) digits(s, b, timeStart,     2, end);
+        final int minute       = (int) digits(s, b, timeStart + 3, 2, end);
+        final int wholeSeconds = (int) digits(s, b, timeStart + 6, 2, end);
+        int last = end;
+        if (charAt(s, b, last - 1) == 'Z') {
+            --last;
+        }
+        double second = wholeSeconds;
+        final int fractionStart = timeStart + 9;
+        if (last > timeStart + 8) {
+            if (charAt(s, b, timeStart + 8) != '.' || last == fractionStart) {
+                throw invalid(s, b, start, end);
+            }
+            final int n = last - fractionStart;
+            if (n <= MAX_FRACTION_DIGITS) {
+                // both numerator and denominator are exact integers,
+                // so the single division gives the correctly rounded result
+                second = (wholeSeconds * POWERS_OF_TEN[n] + digits(s, b, fractionStart, n, end)) /
+                         POWERS_OF_TEN[n];
+            } else {
+                // too many digits for exact integer arithmetic, use the general parser
+                for (int i = fractionStart; i < last; ++i) {
+                    digit(s, b, i, end);
+                }
+                second = Double.parseDouble(substring(s, b, timeStart + 6, last));
+            }
+        }
+        if (hour > 23 || minute > 59 || second >= 61.0) {
+            throw OrekitException.createIllegalArgumentException(OrekitMessages.NON_EXISTENT_HMS_TIME,
+                                                                 hour, minute, second);
+        }
+
+        final double tsOffset = Double.isNaN(day.offset) ?
+                                timeScale.offsetToTAI(day.getComponents(),
+                                                      new TimeComponents(hour, minute, second)) :
+                                day.offset;
+
+        // compute sum exactly, using Møller-Knuth TwoSum algorithm without branching
+        // as in the AbsoluteDate(DateComponents, TimeComponents, TimeScale) constructor
+        // the following statements must NOT be simplified, they rely on floating point
+        // arithmetic properties (rounding and representable numbers)
+        final double sum      = second + tsOffset;
+        final double sPrime   = sum - tsOffset;
+        final double tPrime   = sum - sPrime;
+        final double deltaS   = second   - sPrime;
+        final double deltaT   = tsOffset - tPrime;
+        final double residual = deltaS   + deltaT;
+        final long   dl       = (long) FastMath.floor(sum);
+
+        return new AbsoluteDate(60l * ((day.j2000Day * 24l + hour) * 60l + minute - 720l) + dl,
+                                (sum - dl) + residual);
+
+    }
+
+    /** Format a date to either a builder or a bytes buffer.
+     * @param date date to format
+     * @param builder builder where to append the formatted date (null if buffer is used)
+     * @param buffer buffer where to put the formatted date (null if builder is used)
+     */
+    private void format(final AbsoluteDate date, final StringBuilder builder, final ByteBuffer buffer) {
+
+        final boolean utc = timeScale instanceof UTCScale;
+        if (utc && ((UTCScale) timeScale).insideLeap(date)) {
+            // rare case: the date is inside a leap second
+            formatAroundLeap(date, builder, buffer);
+            return;
+        }
+
+        // compute offset from 2000-01-01T00:00:00 in time scale exactly,
+        // using the same algorithm as AbsoluteDate.getComponents
+        // the following statements must NOT be simplified, they rely on floating point
+        // arithmetic properties (rounding and representable numbers)
+        final double taiOffset = timeScale.offsetFromTAI(date);
+        final double sum       = date.getOffset() + taiOffset;
+        final double oPrime    = sum - taiOffset;
+        final double dPrime    = sum - oPrime;
+        final double deltaO    = date.getOffset() - oPrime;
+        final double deltaD    = taiOffset - dPrime;
+        final double residual  = deltaO + deltaD;
+
+        final long   carry = (long) FastMath.floor(sum);
+        double offset2000B = (sum - carry) + residual;
+        long   offset2000A = date.getEpoch() + carry + 43200l;
+        if (offset2000B < 0) {
+            offset2000A -= 1;
+            offset2000B += 1;
+        }
+
+        // round the fractional part, carrying to the whole seconds if needed
+        final long scale = (long) POWERS_OF_TEN[fractionDigits];
+        long fraction = FastMath.round(offset2000B * scale);
+        final boolean rounded = fraction >= scale;
+        if (rounded) {
+            fraction    -= scale;
+            offset2000A += 1;
+        }
+
+        long time = offset2000A % 86400l;
+        if (time < 0l) {
+            time += 86400l;
+        }
+
+        if (utc && rounded && time == 0l) {
+            // rare case: rounding reached the end of the day, which may be followed by a leap second
+            formatAroundLeap(date, builder, buffer);
+            return;
+        }
+
+        write((int) ((offset2000A - time) / 86400l), (int) (time / 3600), (int) ((time % 3600) / 60),
+              (int) (time % 60), fraction, builder, buffer);
+
+    }
+
+    /** Format a date at the end of an UTC day, when a leap second may occur.
+     * <p>
+     * This method uses the general algorithm, and rounds seconds to 60 only
+     * if a leap second really occurs at the end of the day.
+     * </p>
+     * @param date date to format
+     * @param builder builder where to append the formatted date (null if buffer is used)
+     * @param buffer buffer where to put the formatted date (null if builder is used)
+     */
+    private void formatAroundLeap(final AbsoluteDate date, final StringBuilder builder, final ByteBuffer buffer) {
+
+        final long scale = (long) POWERS_OF_TEN[fractionDigits];
+        final DateTimeComponents components = date.getComponents(timeScale);
+        final double second = components.getTime().getSecond();
+        final long   units  = FastMath.round(second * scale);
+
+        // check if rounding reaches the start of next day, taking the
+        // leap second that may lengthen the last minute into account
+        final DateComponents next = new DateComponents(components.getDate(), 1);
+        final double remaining    = new AbsoluteDate(next, timeScale).durationFrom(date);
+        final double leap         = remaining - (86400 - components.getTime().getSecondsInDay());
+        if (units >= FastMath.round((60 + leap) * scale)) {
+            write(next.getJ2000Day(), 0, 0, 0, 0l, builder, buffer);
+        } else {
+            write(components.getDate().getJ2000Day(),
+                  components.getTime().getHour(), components.getTime().getMinute(),
+                  (int) (units / scale), units % scale, builder, buffer);
+        }
+
+    }
+
+    /** Write a date to either a builder or a bytes buffer.
+     * @param j2000Day day number with respect to J2000 epoch
+     * @param hour hour number from 0 to 23
+     * @param minute minute number from 0 to 59
+     * @param wholeSeconds whole number of seconds, from 0 to 60
+     * @param fraction fractional part of the seconds, as a number of units of the last digit
+     * @param builder builder where to append the formatted date (null if buffer is used)
+     * @param buffer buffer where to put the formatted date (null if builder is used)
+     */
+    private void write(final int j2000Day, final int hour, final int minute,
+                       final int wholeSeconds, final long fraction,
+                       final StringBuilder builder, final ByteBuffer buffer) {
+
+        Day day = lastFormatted;
+        if (day == null || day.j2000Day != j2000Day) {
+            day = new Day(j2000Day);
+            lastFormatted = day;
+        }
+
+        // write the date
+        if (day.year < 0) {
+            put(builder, buffer, '-');
+            putDigits(builder, buffer, -day.year, FastMath.max(4, countDigits(-day.year)));
+        } else {
+            putDigits(builder, buffer, day.year, FastMath.max(4, countDigits(day.year)));
+        }
+        put(builder, buffer, '-');
+        putDigits(builder, buffer, day.month, 2);
+        put(builder, buffer, '-');
+        putDigits(builder, buffer, day.dayOfMonth, 2);
+        put(builder, buffer, 'T');
+        putDigits(builder, buffer, hour, 2);
+        put(builder, buffer, ':');
+        putDigits(builder, buffer, minute, 2);
+        put(builder, buffer, ':');
+        putDigits(builder, buffer, wholeSeconds, 2);
+        if (fractionDigits > 0) {
+            put(builder, buffer, '.');
+            putDigits(builder, buffer, fraction, fractionDigits);
+        }
+
+    }
+
+    /** Get the current leap seconds snapshot.
+     * @return current leap seconds snapshot if time scale is UTC, null otherwise
+     */
+    private Object leapsSnapshot() {
+        return (timeScale instanceof UTCScale) ? ((UTCScale) timeScale).getLeapsSnapshot() : null;
+    }
+
+    /** Get a character from either a characters sequence or a bytes buffer.
+     * @param s characters sequence (null if b is used)
+     * @param b bytes buffer (null if s is used)
+     * @param index index of the character
+     * @return character at specified index
+     */
+    private static char charAt(final CharSequence s, final ByteBuffer b, final int index) {
+        return (s != null) ? s.charAt(index) : (char) (b.get(index) & 0xff);
+    }
+
+    /** Parse a digit.
+     * @param s characters sequence (null if b is used)
+     * @param b bytes buffer (null if s is used)
+     * @param index index of the digit
+     * @param end index after the last character of the date (for error messages)
+     * @return value of the digit
+     * @exception IllegalArgumentException if character is not a digit
+     */
+    private static int digit(final CharSequence s, final ByteBuffer b, final int index, final int end) {
+        final int d = charAt(s, b, index) - '0';
+        if (d < 0 || d > 9) {
+            throw invalid(s, b, index, end);
+        }
+        return d;
+    }
+
+    /** Parse a fixed number of digits.
+     * @param s characters sequence (null if b is used)
+     * @param b bytes buffer (null if s is used)
+     * @param start index of the first digit
+     * @param n number of digits
+     * @param end index after the last character of the date (for error messages)
+     * @return value of the digits
+     * @exception IllegalArgumentException if characters are not all digits
+     */
+    private static long digits(final CharSequence s, final ByteBuffer b,
+                               final int start, final int n, final int end) {
+        long value = 0;
+        for (int i = start; i < start + n; ++i) {
+            value = 10 * value + digit(s, b, i, end);
+        }
+        return value;
+    }
+
+    /** Extract a sub-string from either a characters sequence or a bytes buffer.
+     * @param s characters sequence (null if b is used)
+     * @param b bytes buffer (null if s is used)
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return extracted string
+     */
+    private static String substring(final CharSequence s, final ByteBuffer b, final int start, final int end) {
+        final StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; ++i) {
+            builder.append(charAt(s, b, i));
+        }
+        return builder.toString();
+    }
+
+    /** Create an exception for an invalid date.
+     * @param s characters sequence (null if b is used)
+     * @param b bytes buffer (null if s is used)
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @return exception
+     */
+    private static IllegalArgumentException invalid(final CharSequence s, final ByteBuffer b,
+                                                    final int start, final int end) {
+        return OrekitException.createIllegalArgumentException(OrekitMessages.NON_EXISTENT_DATE,
+                                                              substring(s, b, start, end));
+    }
+
+    /** Put a character in either a builder or a bytes buffer.
+     * @param builder builder (null if buffer is used)
+     * @param buffer bytes buffer (null if builder is used)
+     * @param c character to put
+     */
+    private static void put(final StringBuilder builder, final ByteBuffer buffer, final char c) {
+        if (builder != null) {
+            builder.append(c);
+        } else {
+            buffer.put((byte) c);
+        }
+    }
+
+    /** Put a fixed number of digits in either a builder or a bytes buffer.
+     * @param builder builder (null if buffer is used)
+     * @param buffer bytes buffer (null if builder is used)
+     * @param value non-negative value to put
+     * @param n number of digits (leading zeros are added if needed)
+     */
+    private static void putDigits(final StringBuilder builder, final ByteBuffer buffer,
+                                  final long value, final int n) {
+        long power = 1;
+        for (int i = 1; i < n; ++i) {
+            power *= 10;
+        }
+        for (long remaining = value; power > 0; power /= 10) {
+            final int d = (int) (remaining / power);
+            put(builder, buffer, (char) ('0' + d));
+            remaining -= d * power;
+        }
+    }
+
+    /** Count the number of digits of a non-negative value.
+     * @param value value to check
+     * @return number of digits
+     */
+    private static int countDigits(final int value) {
+        int n = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            ++n;
+        }
+        return n;
+    }
+
+    /** Compute the number of days since 1970-01-01 in the gregorian calendar.
+     * @param year year number
+     * @param month month number from 1 to 12
+     * @param dayOfMonth day number from 1 to 31
+     * @return number of days since 1970-01-01
+     */
+    private static int daysFromCivil(final int year, final int month, final int dayOfMonth) {
+        // algorithm from Howard Hinnant's chrono-compatible low-level date algorithms,
+        // using 400 years eras starting on March 1st
+        final int y   = (month <= 2) ? year - 1 : year;
+        final int era = ((y >= 0) ? y : y - 399) / 400;
+        final int yoe = y - era * 400;
+        final int doy = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** Check if a year is a leap year in the gregorian calendar.
+     * @param year year number
+     * @return true if year is a leap year
+     */
+    private static boolean isLeapYear(final int year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /** Immutable cache entry for one day. */
+    private static class Day {
+
+        /** Year number. */
+        private final int year;
+
+        /** Month number. */
+        private final int month;
+
+        /** Day in month. */
+        private final int dayOfMonth;
+
+        /** Day in year. */
+        private final int dayOfYear;
+
+        /** Day number with respect to J2000 epoch. */
+        private final int j2000Day;
+
+        /** Offset to TAI, if constant throughout the day (NaN otherwise). */
+        private final double offset;
+
+        /** Leap seconds snapshot used to compute the offset (null if not UTC). */
+        private final Object leaps;
+
+        /** Build a day from its calendar components.
+         * @param timeScale time scale for offset computation
+         * @param leaps leap seconds snapshot of the time scale (null if not UTC)
+         * @param year year number
+         * @param month month number from 1 to 12
+         * @param dayOfMonth day number from 1 to 31
+         * @exception IllegalArgumentException if components are out of range
+         */
+        Day(final TimeScale timeScale, final Object leaps,
+            final int year, final int month, final int dayOfMonth) {
+            if (year < 1583) {
+                // slow path for dates in or before the gregorian reform
+                final DateComponents dc = new DateComponents(year, month, dayOfMonth);
+                this.dayOfYear = dc.getDayOfYear();
+                this.j2000Day  = dc.getJ2000Day();
+            } else {
+                if (month < 1 || month > 12) {
+                    throw OrekitException.createIllegalArgumentException(OrekitMessages.NON_EXISTENT_MONTH,
+                                                                         month);
+                }
+                final int monthLength = (month == 2) ?
+                                        (isLeapYear(year) ? 29 : 28) :
+                                        (((month < 8) ? month : month + 1) % 2 == 0 ? 30 : 31);
+                if (dayOfMonth < 1 || dayOfMonth > monthLength) {
+                    throw OrekitException.createIllegalArgumentException(OrekitMessages.NON_EXISTENT_YEAR_MONTH_DAY,
+                                                                         year, month, dayOfMonth);
+                }
+                this.j2000Day  = daysFromCivil(year, month, dayOfMonth) - J2000_FROM_EPOCH;
+                this.dayOfYear = j2000Day + J2000_FROM_EPOCH - daysFromCivil(year, 1, 1) + 1;
+            }
+            this.year       = year;
+            this.month      = month;
+            this.dayOfMonth = dayOfMonth;
+            this.offset     = constantOffset(timeScale);
+            this.leaps      = leaps;
+        }
+
+        /** Build a day from its day of year components.
+         * @param timeScale time scale for offset computation
+         * @param leaps leap seconds snapshot of the time scale (null if not UTC)
+         * @param year year number
+         * @param dayOfYear day number in the year from 1 to 366
+         * @exception IllegalArgumentException if components are out of range
+         */
+        Day(final TimeScale timeScale, final Object leaps, final int year, final int dayOfYear) {
+            if (year < 1583) {
+                // slow path for dates in or before the gregorian reform
+                final DateComponents dc = new DateComponents(year, dayOfYear);
+                this.month      = dc.getMonth();
+                this.dayOfMonth = dc.getDay();
+                this.j2000Day   = dc.getJ2000Day();
+            } else {
+                if (dayOfYear < 1 || dayOfYear > (isLeapYear(year) ? 366 : 365)) {
+                    throw OrekitException.createIllegalArgumentException(OrekitMessages.NON_EXISTENT_DAY_NUMBER_IN_YEAR,
+                                                                         dayOfYear, year);
+                }
+                this.j2000Day = daysFromCivil(year, 1, 1) - J2000_FROM_EPOCH + dayOfYear - 1;
+                final Day calendar = new Day(j2000Day);
+                this.month      = calendar.month;
+                this.dayOfMonth = calendar.dayOfMonth;
+            }
+            this.year      = year;
+            this.dayOfYear = dayOfYear;
+            this.offset    = constantOffset(timeScale);
+            this.leaps     = leaps;
+        }
+
+        /** Build a day from its day number with respect to J2000 epoch.
+         * <p>
+         * The offset is not computed by this constructor.
+         * </p>
+         * @param j2000Day day number with respect to J2000 epoch
+         */
+        Day(final int j2000Day) {
+            if (j2000Day < FIRST_FAST_DAY) {
+                // slow path for dates in or before the gregorian reform
+                final DateComponents dc = new DateComponents(j2000Day);
+                this.year       = dc.getYear();
+                this.month      = dc.getMonth();
+                this.dayOfMonth = dc.getDay();
+                this.dayOfYear  = dc.getDayOfYear();
+            } else {
+                // algorithm from Howard Hinnant's chrono-compatible low-level date algorithms,
+                // using 400 years eras starting on March 1st (all values are positive here)
+                final int z   = j2000Day + J2000_FROM_EPOCH + 719468;
+                final int era = z / 146097;
+                final int doe = z - era * 146097;
+                final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+                final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+                final int mp  = (5 * doy + 2) / 153;
+                this.month      = (mp < 10) ? mp + 3 : mp - 9;
+                this.year       = yoe + era * 400 + ((month <= 2) ? 1 : 0);
+                this.dayOfMonth = doy - (153 * mp + 2) / 5 + 1;
+                this.dayOfYear  = j2000Day + J2000_FROM_EPOCH - daysFromCivil(year, 1, 1) + 1;
+            }
+            this.j2000Day = j2000Day;
+            this.offset   = Double.NaN;
+            this.leaps    = null;
+        }
+
+        /** Get the day as date components.
+         * @return date components
+         */
+        public DateComponents getComponents() {
+            return new DateComponents(j2000Day);
+        }
+
+        /** Compute the offset to TAI if it is constant throughout the day.
+         * @param timeScale time scale
+         * @return constant offset to TAI, or NaN if offset changes during the day
+         */
+        private double constantOffset(final TimeScale timeScale) {
+            final DateComponents dc = getComponents();
+            final double start  = timeScale.offsetToTAI(dc, TimeComponents.H00);
+            final double middle = timeScale.offsetToTAI(dc, TimeComponents.H12);
+            final double end    = timeScale.offsetToTAI(dc, new TimeComponents(23, 59, 59.0));
+            return (start == middle && start == end) ? start : Double.NaN;
+        }
+
+    }
+
+}
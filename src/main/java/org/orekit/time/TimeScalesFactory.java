@@ -18,6 +18,8 @@ package org.orekit.time;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +29,7 @@ import java.util.TreeMap;
 import org.orekit.data.DataProvidersManager;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.EOPEntry;
 import org.orekit.frames.EOPHistory;
 import org.orekit.frames.FramesFactory;
 import org.orekit.utils.IERSConventions;
@@ -174,6 +177,34 @@ public class TimeScalesFactory implements Serializable {
         }
     }
 
+    /** Update the leap seconds of the Universal Time Coordinate scale.
+     * <p>
+     * This method is intended for long running applications that need to take
+     * newly announced leap seconds into account without restarting. The entries,
+     * typically obtained from a fresh {@link UTCTAILoader}, are merged into the
+     * existing ones, new entries replacing existing ones for the same day. The
+     * {@link #getUTC() UTC scale} instance is preserved and threads using it
+     * concurrently are not blocked by the update.
+     * </p>
+     * <p>
+     * As UT1 depends on UTC, the Earth Orientation Parameters should be updated
+     * afterwards using {@link org.orekit.frames.FramesFactory#updateEOPHistory(
+     * org.orekit.utils.IERSConventions, java.util.Collection)
+     * FramesFactory.updateEOPHistory}, with a bulletin including the new leap second,
+     * so the frames transforms after the leap are recomputed.
+     * </p>
+     * @param entries new leap seconds entries (TAI-UTC offsets in seconds, starting at
+     * the specified days)
+     * @return start of the earliest changed leap ({@link AbsoluteDate#FUTURE_INFINITY}
+     * if nothing changed)
+     * @exception OrekitException if the existing UTC data cannot be loaded
+     * @since 7.1
+     */
+    public static AbsoluteDate updateUTC(final SortedMap<DateComponents, Integer> entries)
+        throws OrekitException {
+        return getUTC().update(entries);
+    }
+
     /** Get the Universal Time 1 scale.
      * <p>
      * UT1 scale depends on both UTC scale and Earth Orientation Parameters,
@@ -226,6 +257,39 @@ public class TimeScalesFactory implements Serializable {
         return new UT1Scale(history, getUTC());
     }
 
+    /** Update the Earth Orientation Parameters used by the cached Universal Time 1 scales.
+     * <p>
+     * The entries are {@link EOPHistory#update(Collection) merged} into the EOP histories
+     * of the scales already returned by {@link #getUT1(IERSConventions, boolean)} for the
+     * specified conventions, and hence also into the {@link #getGMST(IERSConventions, boolean)
+     * GMST scale} built on top of them. This method is called by {@link
+     * FramesFactory#updateEOPHistory(IERSConventions, Collection)
+     * FramesFactory.updateEOPHistory}, which should be used instead so the time scales
+     * and the predefined frames remain consistent.
+     * </p>
+     * @param conventions IERS conventions to which the entries refer
+     * @param entries new entries
+     * @return earliest date at which dUT1 may have changed
+     * ({@link AbsoluteDate#FUTURE_INFINITY} if nothing changed)
+     * @since 7.1
+     */
+    public static AbsoluteDate updateUT1(final IERSConventions conventions,
+                                         final Collection<EOPEntry> entries) {
+        synchronized (TimeScalesFactory.class) {
+            AbsoluteDate earliest = AbsoluteDate.FUTURE_INFINITY;
+            for (final Map<IERSConventions, UT1Scale> map : Arrays.asList(ut1MapSimpleEOP, ut1MapCompleteEOP)) {
+                final UT1Scale ut1 = map.get(conventions);
+                if (ut1 != null) {
+                    final AbsoluteDate changed = ut1.getEOPHistory().update(entries);
+                    if (changed.compareTo(earliest) < 0) {
+                        earliest = changed;
+                    }
+                }
+            }
+            return earliest;
+        }
+    }
+
     /** Get the Terrestrial Time scale.
      * @return Terrestrial Time scale
      */
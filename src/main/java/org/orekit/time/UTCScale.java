@@ -18,15 +18,14 @@ package org.orekit.time;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.orekit.errors.OrekitException;
-import org.orekit.errors.TimeStampedCacheException;
 import org.orekit.utils.Constants;
-import org.orekit.utils.ImmutableTimeStampedCache;
-import org.orekit.utils.TimeStampedCache;
 
 /** Coordinated Universal Time.
  * <p>UTC is related to TAI using step adjustments from time to time
@@ -47,6 +46,8 @@ import org.orekit.utils.TimeStampedCache;
  * so there is no public constructor. Every call to {@link TimeScalesFactory#getUTC()}
  * will create a new {@link UTCScale} instance, sharing the UTC-TAI offset table between
  * all instances.</p>
+ * <p>New leap seconds can be taken into account while the scale is in use, see
+ * {@link TimeScalesFactory#updateUTC(SortedMap)}.</p>
  * @author Luc Maisonobe
  * @see AbsoluteDate
  */
@@ -55,20 +56,94 @@ public class UTCScale implements TimeScale {
     /** Serializable UID. */
     private static final long serialVersionUID = 20131209L;
 
-    /** Time steps. */
-    private transient TimeStampedCache<UTCTAIOffset> cache;
+    /** Current leap seconds data, replaced atomically on updates. */
+    private transient volatile Leaps leaps;
+
+    /** Index of the last offset found by a bracketing search, for each thread. */
+    private transient ThreadLocal<int[]> hint;
 
     /** Package private constructor for the factory.
      * Used to create the prototype instance of this class that is used to
      * clone all subsequent instances of {@link UTCScale}. Initializes the offset
      * table that is shared among all instances.
      * @param entries user supplied entries
-     * @exception OrekitException if cache cannot be set up
+     * @exception OrekitException if offsets cannot be set up
      */
     UTCScale(final SortedMap<DateComponents, Integer> entries) throws OrekitException {
-        // create cache
-        final List<UTCTAIOffset> data = new Generator(entries).getOffsets();
-        cache = new ImmutableTimeStampedCache<UTCTAIOffset>(2, data);
+        leaps = new Leaps(entries);
+        hint  = new ThreadLocal<int[]>() {
+            /** {@inheritDoc} */
+            @Override
+            protected int[] initialValue() {
+                return new int[1];
+            }
+        };
+    }
+
+    /** Update the leap seconds.
+     * <p>
+     * The new entries are merged with the existing ones, new entries replacing
+     * existing ones for the same day. The update is published atomically, so
+     * threads using the scale concurrently are not blocked.
+     * </p>
+     * @param entries new entries
+     * @return start of the earliest changed leap ({@link AbsoluteDate#FUTURE_INFINITY}
+     * if nothing changed)
+     * @see TimeScalesFactory#updateUTC(SortedMap)
+     */
+    synchronized AbsoluteDate update(final SortedMap<DateComponents, Integer> entries) {
+
+        final Leaps former = leaps;
+        final SortedMap<DateComponents, Integer> merged = new TreeMap<DateComponents, Integer>(former.entries);
+        merged.putAll(entries);
+
+        // find the first changed entry
+        DateComponents changed = null;
+        for (final Map.Entry<DateComponents, Integer> entry : merged.entrySet()) {
+            if (!entry.getValue().equals(former.entries.get(entry.getKey()))) {
+                changed = entry.getKey();
+                break;
+            }
+        }
+        if (changed == null) {
+            return AbsoluteDate.FUTURE_INFINITY;
+        }
+
+        // each merged entry starts an offset, so the changed one is always found
+        final Leaps updated = new Leaps(merged);
+        final AbsoluteDate start = updated.offsets[Arrays.binarySearch(updated.mjds, changed.getMJD())].getDate();
+
+        // publish the new data only once it is complete
+        leaps = updated;
+        return start;
+
+    }
+
+    /** Immutable snapshot of the leap seconds data. */
+    private static class Leaps {
+
+        /** Post-1972 leap seconds entries. */
+        private final SortedMap<DateComponents, Integer> entries;
+
+        /** Offsets, in chronological order. */
+        private final UTCTAIOffset[] offsets;
+
+        /** Start days of the offsets, as modified julian days. */
+        private final int[] mjds;
+
+        /** Simple constructor.
+         * @param entries post-1972 leap seconds entries
+         */
+        Leaps(final SortedMap<DateComponents, Integer> entries) {
+            this.entries = new TreeMap<DateComponents, Integer>(entries);
+            final List<UTCTAIOffset> data = new Generator(entries).getOffsets();
+            offsets = data.toArray(new UTCTAIOffset[data.size()]);
+            mjds    = new int[offsets.length];
+            for (int i = 0; i < offsets.length; ++i) {
+                mjds[i] = offsets[i].getMJD();
+            }
+        }
+
     }
 
     /** Generator for leap seconds entries. */
@@ -166,50 +241,93 @@ public class UTCScale implements TimeScale {
 
     /** {@inheritDoc} */
     public double offsetFromTAI(final AbsoluteDate date) {
-        if (cache.getEarliest().getDate().compareTo(date) > 0) {
-            // the date is before the first known leap
-            return 0;
-        } else if (cache.getLatest().getDate().compareTo(date) < 0) {
-            // the date is after the last known leap
-            return -cache.getLatest().getOffset(date);
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                return -cache.getNeighbors(date).get(0).getOffset(date);
-            } catch (TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw OrekitException.createInternalError(tce);
-            }
-        }
+        final UTCTAIOffset[] offsets = leaps.offsets;
+        final int index = findIndex(offsets, date);
+        return (index < 0) ? 0 : -offsets[index].getOffset(date);
     }
 
     /** {@inheritDoc} */
     public double offsetToTAI(final DateComponents date,
                               final TimeComponents time) {
 
-        if (cache.getEarliest().getMJD() > date.getMJD()) {
+        // leaps always occur at day boundaries in UTC, so the day is sufficient
+        // to select the offset, even within the leap second itself (i.e. at 23:59:60)
+        final Leaps current = leaps;
+        final UTCTAIOffset[] offsets = current.offsets;
+        final int[] mjds = current.mjds;
+        final int mjd  = date.getMJD();
+        final int last = mjds.length - 1;
+        if (mjd >= mjds[last]) {
+            // the date is after the last known leap
+            return offsets[last].getOffset(date, time);
+        } else if (mjd < mjds[0]) {
             // the date is before the first known leap
             return 0;
-        } else if (cache.getLatest().getMJD() <= date.getMJD()) {
+        }
+
+        // the date is nominally bracketed by two leaps
+        int low  = 0;
+        int high = last;
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (mjd < mjds[middle]) {
+                high = middle;
+            } else {
+                low  = middle;
+            }
+        }
+        return offsets[low].getOffset(date, time);
+
+    }
+
+    /** Find the index of the offset applicable at a date.
+     * <p>
+     * Dates after the last known leap are checked first as they are the most
+     * frequent ones, then the offset found by the previous bracketing search
+     * in the same thread is checked, and a binary search is performed only
+     * if both checks fail. No objects are created.
+     * </p>
+     * @param offsets current offsets
+     * @param date date to check
+     * @return index of the last offset starting at or before date, or -1
+     * if date is before the first known leap
+     */
+    private int findIndex(final UTCTAIOffset[] offsets, final AbsoluteDate date) {
+
+        final int last = offsets.length - 1;
+        if (date.durationFrom(offsets[last].getDate()) >= 0) {
             // the date is after the last known leap
-            return cache.getLatest().getOffset(date, time);
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                // find close neighbors, assuming date in TAI, i.e a date earlier than real UTC date
-                final List<UTCTAIOffset> neighbors =
-                        cache.getNeighbors(new AbsoluteDate(date, time, TimeScalesFactory.getTAI()));
-                if (neighbors.get(1).getMJD() <= date.getMJD()) {
-                    // the date is in fact just after a leap second!
-                    return neighbors.get(1).getOffset(date, time);
-                } else {
-                    return neighbors.get(0).getOffset(date, time);
-                }
-            } catch (TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw OrekitException.createInternalError(tce);
+            return last;
+        }
+
+        // check the offset found by the previous search
+        // (it may come from a former offsets table if leap seconds have been updated)
+        final int[] previous = hint.get();
+        final int   k        = previous[0];
+        if (k < last &&
+            date.durationFrom(offsets[k].getDate()) >= 0 &&
+            date.durationFrom(offsets[k + 1].getDate()) < 0) {
+            return k;
+        }
+
+        if (date.durationFrom(offsets[0].getDate()) < 0) {
+            // the date is before the first known leap
+            return -1;
+        }
+
+        // the date is nominally bracketed by two leaps
+        int low  = 0;
+        int high = last;
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (date.durationFrom(offsets[middle].getDate()) < 0) {
+                high = middle;
+            } else {
+                low  = middle;
             }
         }
+        previous[0] = low;
+        return low;
 
     }
 
@@ -227,14 +345,27 @@ public class UTCScale implements TimeScale {
      * @return date of the first known leap second
      */
     public AbsoluteDate getFirstKnownLeapSecond() {
-        return cache.getEarliest().getDate();
+        return leaps.offsets[0].getDate();
     }
 
     /** Get the date of the last known leap second.
      * @return date of the last known leap second
      */
     public AbsoluteDate getLastKnownLeapSecond() {
-        return cache.getLatest().getDate();
+        final UTCTAIOffset[] offsets = leaps.offsets;
+        return offsets[offsets.length - 1].getDate();
+    }
+
+    /** Get the current leap seconds snapshot.
+     * <p>
+     * The snapshot is an immutable object replaced by a new one each time the
+     * leap seconds are updated, so its identity can be checked to find if data
+     * derived from the leap seconds is still up to date.
+     * </p>
+     * @return current leap seconds snapshot
+     */
+    Object getLeapsSnapshot() {
+        return leaps;
     }
 
     /** Check if date is within a leap second introduction.
@@ -242,21 +373,9 @@ public class UTCScale implements TimeScale {
      * @return true if time is within a leap second introduction
      */
     public boolean insideLeap(final AbsoluteDate date) {
-        if (cache.getEarliest().getDate().compareTo(date) > 0) {
-            // the date is before the first known leap
-            return false;
-        } else if (cache.getLatest().getDate().compareTo(date) < 0) {
-            // the date is after the last known leap
-            return date.compareTo(cache.getLatest().getValidityStart()) < 0;
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                return date.compareTo(cache.getNeighbors(date).get(0).getValidityStart()) < 0;
-            } catch (TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw OrekitException.createInternalError(tce);
-            }
-        }
+        final UTCTAIOffset[] offsets = leaps.offsets;
+        final int index = findIndex(offsets, date);
+        return (index >= 0) && date.compareTo(offsets[index].getValidityStart()) < 0;
     }
 
     /** Get the value of the previous leap.
@@ -264,20 +383,9 @@ public class UTCScale implements TimeScale {
      * @return value of the previous leap
      */
     public double getLeap(final AbsoluteDate date) {
-        if (cache.getEarliest().getDate().compareTo(date) > 0) {
-            return 0;
-        } else if (cache.getLatest().getDate().compareTo(date) < 0) {
-            // the date is after the last known leap
-            return cache.getLatest().getLeap();
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                return cache.getNeighbors(date).get(0).getLeap();
-            } catch (TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw OrekitException.createInternalError(tce);
-            }
-        }
+        final UTCTAIOffset[] offsets = leaps.offsets;
+        final int index = findIndex(offsets, date);
+        return (index < 0) ? 0 : offsets[index].getLeap();
     }
 
     /** Replace the instance with a data transfer object for serialization.
@@ -19,6 +19,7 @@ package org.orekit.utils;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -209,6 +210,30 @@ public class GenericTimeStampedCache<T extends TimeStamped> implements TimeStamp
 
     }
 
+    /** Invalidate the cached entries from a date.
+     * <p>
+     * This method is intended to be called when the data underlying the
+     * generator have changed, starting at some date. All slots containing
+     * entries at or after this date are dropped, the other slots are preserved.
+     * </p>
+     * @param from earliest date of the entries to invalidate
+     * @since 7.1
+     */
+    public void invalidate(final AbsoluteDate from) {
+
+        lock.writeLock().lock();
+        try {
+            for (final Iterator<Slot> iterator = slots.iterator(); iterator.hasNext();) {
+                if (iterator.next().getLatest().getDate().compareTo(from) >= 0) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
     /** Get the total number of entries cached.
      * @return total number of entries cached
      */
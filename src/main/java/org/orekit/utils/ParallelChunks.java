@@ -0,0 +1,204 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+
+/** Utility to process independent chunks of work using a caller-provided executor.
+ * <p>
+ * The chunks are processed by the calling thread and by helper tasks submitted
+ * to the executor, all of them picking the next unprocessed chunk from a shared
+ * counter. Helpers are submitted one at a time: each helper that gets a chunk
+ * submits another helper if chunks remain. This adapts the number of helpers to
+ * the threads the executor really makes available, whatever its kind: with a
+ * single-thread executor at most one helper is queued, and with a large pool
+ * all idle threads are enlisted. As the calling thread also processes chunks and
+ * only waits for the chunks already picked by running helpers, it never waits
+ * for helpers that the executor could not start, so it is safe to use an executor
+ * whose threads are busy, including the one running the calling thread.
+ * </p>
+ * <p>
+ * This class is intended for internal use by Orekit algorithms accepting an
+ * {@link ExecutorService}, the executor is never shut down.
+ * </p>
+ * @author Luc Maisonobe
+ * @since 7.1
+ */
+public class ParallelChunks {
+
+    /** Private constructor for a utility class.
+     */
+    private ParallelChunks() {
+    }
+
+    /** Interface for processing one chunk. */
+    public interface ChunkProcessor {
+
+        /** Process one chunk.
+         * <p>
+         * This method may be called concurrently from several threads,
+         * always with different indices.
+         * </p>
+         * @param index index of the chunk, between 0 (included) and the number of chunks (excluded)
+         * @exception OrekitException if the chunk cannot be processed
+         */
+        void process(int index) throws OrekitException;
+
+    }
+
+    /** Process all chunks.
+     * <p>
+     * If several chunks fail, only the first failure is reported and the chunks
+     * not yet started are skipped. {@link OrekitExceptionWrapper wrapped} exceptions
+     * are unwrapped. Errors thrown in helper threads are rethrown as is in the
+     * calling thread.
+     * </p>
+     * @param executor executor for helper tasks (if null, all chunks are processed
+     * sequentially in the calling thread)
+     * @param nbChunks number of chunks
+     * @param processor processor for the chunks
+     * @exception OrekitException if some chunk cannot be processed
+     */
+    public static void process(final ExecutorService executor, final int nbChunks,
+                               final ChunkProcessor processor)
+        throws OrekitException {
+
+        if (executor == null || nbChunks < 2) {
+            for (int k = 0; k < nbChunks; ++k) {
+                processor.process(k);
+            }
+            return;
+        }
+
+        final Worker worker = new Worker(executor, nbChunks, processor);
+        worker.run();
+        worker.waitForCompletion();
+
+    }
+
+    /** Worker sharing chunks with its helpers. */
+    private static class Worker implements Runnable {
+
+        /** Executor for helper tasks. */
+        private final ExecutorService executor;
+
+        /** Number of chunks. */
+        private final int nbChunks;
+
+        /** Processor for the chunks. */
+        private final ChunkProcessor processor;
+
+        /** Index of the next chunk to process. */
+        private final AtomicInteger next;
+
+        /** Number of helpers submitted. */
+        private final AtomicInteger helpers;
+
+        /** Counter for processed or skipped chunks. */
+        private final CountDownLatch done;
+
+        /** First failure encountered. */
+        private final AtomicReference<Throwable> failure;
+
+        /** Simple constructor.
+         * @param executor executor for helper tasks
+         * @param nbChunks number of chunks
+         * @param processor processor for the chunks
+         */
+        Worker(final ExecutorService executor, final int nbChunks, final ChunkProcessor processor) {
+            this.executor  = executor;
+            this.nbChunks  = nbChunks;
+            this.processor = processor;
+            this.next      = new AtomicInteger(0);
+            this.helpers   = new AtomicInteger(0);
+            this.done      = new CountDownLatch(nbChunks);
+            this.failure   = new AtomicReference<Throwable>();
+        }
+
+        /** {@inheritDoc} */
+        public void run() {
+            boolean first = true;
+            for (int k = next.getAndIncrement(); k < nbChunks; k = next.getAndIncrement()) {
+                if (first) {
+                    // we got some work, enlist another helper if work remains
+                    first = false;
+                    submitHelper();
+                }
+                try {
+                    if (failure.get() == null) {
+                        processor.process(k);
+                    }
+                } catch (OrekitException oe) {
+                    failure.compareAndSet(null, oe);
+                } catch (OrekitExceptionWrapper oew) {
+                    failure.compareAndSet(null, oew.getException());
+                } catch (RuntimeException re) {
+                    failure.compareAndSet(null, re);
+                } catch (Error err) {
+                    // the chunk has not been processed, this must be reported
+                    failure.compareAndSet(null, err);
+                } finally {
+                    done.countDown();
+                }
+            }
+        }
+
+        /** Submit a new helper if there are chunks left.
+         */
+        private void submitHelper() {
+            if (next.get() < nbChunks && helpers.incrementAndGet() < nbChunks) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ree) {
+                    // the remaining chunks will be processed by the running workers
+                }
+            }
+        }
+
+        /** Wait until all chunks have been processed.
+         * @exception OrekitException if some chunk could not be processed
+         */
+        public void waitForCompletion() throws OrekitException {
+
+            try {
+                done.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw OrekitException.createInternalError(ie);
+            }
+
+            final Throwable t = failure.get();
+            if (t instanceof OrekitException) {
+                throw (OrekitException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw (RuntimeException) t;
+            }
+
+        }
+
+    }
+
+}
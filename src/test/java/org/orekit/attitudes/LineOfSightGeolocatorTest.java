@@ -0,0 +1,173 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.attitudes;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Line;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CircularOrbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+public class LineOfSightGeolocatorTest {
+
+    private OneAxisEllipsoid earth;
+    private Propagator propagator;
+    private NadirPointing nadir;
+    private double[] los;
+
+    @Test
+    public void testSingleLine() throws OrekitException {
+
+        LineOfSightGeolocator geolocator = new LineOfSightGeolocator(earth, los, null);
+        Assert.assertEquals(los.length / 3, geolocator.getNbPixels());
+
+        AbsoluteDate date     = propagator.getInitialState().getDate().shiftedBy(100.0);
+        Frame        frame    = propagator.getFrame();
+        Attitude     attitude = nadir.getAttitude(propagator, date, frame);
+        Vector3D     position = propagator.getPVCoordinates(date, frame).getPosition();
+        double[] latitudes  = new double[geolocator.getNbPixels()];
+        double[] longitudes = new double[geolocator.getNbPixels()];
+        geolocator.geolocate(attitude, position, latitudes, longitudes);
+
+        for (int i = 0; i < geolocator.getNbPixels(); ++i) {
+            Vector3D direction = attitude.getRotation().applyInverseTo(new Vector3D(los[3 * i], los[3 * i + 1], los[3 * i + 2]));
+            Line line = new Line(position, position.add(direction), 1.0e-10);
+            GeodeticPoint gp = earth.getIntersectionPoint(line, position, frame, date);
+            // the single line method is less accurate as lines are built from points
+            Assert.assertEquals(gp.getLatitude(),  latitudes[i],  1.0e-10);
+            Assert.assertEquals(gp.getLongitude(), longitudes[i], 1.0e-10);
+
+            // the ground point is aligned with the line of sight
+            Vector3D ground = earth.getBodyFrame().getTransformTo(frame, date).
+                              transformPosition(earth.transform(new GeodeticPoint(latitudes[i], longitudes[i], 0.0)));
+            Assert.assertEquals(0.0, Vector3D.angle(ground.subtract(position), direction), 1.0e-14);
+        }
+
+    }
+
+    @Test
+    public void testOutOfEarth() throws OrekitException {
+
+        // pixels looking sideways to deep space or backward
+        double[] outLos = new double[] {
+            0.0, 1.0, 0.1, 0.0, 0.0, -1.0, 0.0, 0.0, 1.0
+        };
+        LineOfSightGeolocator geolocator = new LineOfSightGeolocator(earth, outLos, null);
+        AbsoluteDate date     = propagator.getInitialState().getDate();
+        Frame        frame    = propagator.getFrame();
+        double[] latitudes  = new double[3];
+        double[] longitudes = new double[3];
+        geolocator.geolocate(nadir.getAttitude(propagator, date, frame),
+                             propagator.getPVCoordinates(date, frame).getPosition(),
+                             latitudes, longitudes);
+        Assert.assertTrue(Double.isNaN(latitudes[0]));
+        Assert.assertTrue(Double.isNaN(longitudes[0]));
+        Assert.assertTrue(Double.isNaN(latitudes[1]));
+        Assert.assertTrue(Double.isNaN(longitudes[1]));
+        Assert.assertFalse(Double.isNaN(latitudes[2]));
+        Assert.assertFalse(Double.isNaN(longitudes[2]));
+
+    }
+
+    @Test
+    public void testImageConcurrent() throws OrekitException, InterruptedException {
+
+        AbsoluteDate[] dates = new AbsoluteDate[200];
+        for (int i = 0; i < dates.length; ++i) {
+            dates[i] = propagator.getInitialState().getDate().shiftedBy(0.001 * i);
+        }
+        int nbPixels = los.length / 3;
+        Frame frame = propagator.getFrame();
+
+        double[][] sLatitudes  = new double[dates.length][nbPixels];
+        double[][] sLongitudes = new double[dates.length][nbPixels];
+        new LineOfSightGeolocator(earth, los, null).geolocate(propagator, nadir, frame, dates,
+                                                              sLatitudes, sLongitudes);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        double[][] cLatitudes  = new double[dates.length][nbPixels];
+        double[][] cLongitudes = new double[dates.length][nbPixels];
+        new LineOfSightGeolocator(earth, los, executor).geolocate(propagator, nadir, frame, dates,
+                                                                  cLatitudes, cLongitudes);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < dates.length; ++i) {
+            Assert.assertArrayEquals(sLatitudes[i],  cLatitudes[i],  0.0);
+            Assert.assertArrayEquals(sLongitudes[i], cLongitudes[i], 0.0);
+            if (i > 0) {
+                // the footprint moves forward along track
+                Assert.assertTrue(sLatitudes[i][nbPixels / 2] > sLatitudes[i - 1][nbPixels / 2]);
+            }
+        }
+
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testWrongImageDimension() throws OrekitException {
+        AbsoluteDate[] dates = new AbsoluteDate[] {
+            propagator.getInitialState().getDate()
+        };
+        new LineOfSightGeolocator(earth, los, null).geolocate(propagator, nadir, propagator.getFrame(), dates,
+                                                              new double[2][los.length / 3],
+                                                              new double[2][los.length / 3]);
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                     Constants.WGS84_EARTH_FLATTENING,
+                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        nadir = new NadirPointing(earth);
+        AbsoluteDate date = new AbsoluteDate(2012, 3, 1, 10, 42, 0.0, TimeScalesFactory.getUTC());
+        CircularOrbit orbit = new CircularOrbit(7178000.0, 0.5e-4, -0.5e-4, FastMath.toRadians(98.7),
+                                                FastMath.toRadians(270.), FastMath.toRadians(5.3),
+                                                PositionAngle.MEAN, FramesFactory.getEME2000(), date,
+                                                Constants.EIGEN5C_EARTH_MU);
+        propagator = new KeplerianPropagator(orbit, nadir);
+
+        // 5000 pixels push-broom sensor spanning ±20° across track
+        los = new double[3 * 5000];
+        for (int i = 0; i < los.length / 3; ++i) {
+            double alpha = FastMath.toRadians(-20.0 + 40.0 * i / (los.length / 3 - 1));
+            los[3 * i]     = 0;
+            los[3 * i + 1] = FastMath.sin(alpha);
+            los[3 * i + 2] = FastMath.cos(alpha);
+        }
+    }
+
+}
@@ -24,10 +24,16 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 
 import org.apache.commons.math3.geometry.euclidean.oned.Vector1D;
 import org.apache.commons.math3.geometry.euclidean.threed.Line;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937a;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.MathUtils;
 import org.junit.Assert;
@@ -565,6 +571,77 @@ public class OneAxisEllipsoidTest {
 
     }
 
+    @Test
+    public void testBulkTransform() throws OrekitException, InterruptedException {
+
+        AbsoluteDate date = new AbsoluteDate(2008, 3, 21, 12, 34, 56.0, TimeScalesFactory.getUTC());
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        Frame eme2000 = FramesFactory.getEME2000();
+        OneAxisEllipsoid earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                      Constants.WGS84_EARTH_FLATTENING,
+                                                      itrf);
+
+        // points from deep inside the Earth to beyond geosynchronous altitude,
+        // including the poles and the equator
+        RandomGenerator random = new Well19937a(0x5c8f2a1e4d6b7093l);
+        int n = 10000;
+        double[] xyz = new double[3 * n];
+        for (int i = 0; i < n; ++i) {
+            double rho   = (i < 10) ? 1000.0 * (i + 1) : 1.0e5 + 5.0e7 * random.nextDouble();
+            double theta = FastMath.PI * random.nextDouble();
+            double phi   = 2 * FastMath.PI * random.nextDouble();
+            if (i % 100 == 1) {
+                theta = 0;
+            } else if (i % 100 == 2) {
+                theta = 0.5 * FastMath.PI;
+            }
+            xyz[3 * i]     = rho * FastMath.sin(theta) * FastMath.cos(phi);
+            xyz[3 * i + 1] = rho * FastMath.sin(theta) * FastMath.sin(phi);
+            xyz[3 * i + 2] = rho * FastMath.cos(theta);
+        }
+
+        double[] latitudes  = new double[n];
+        double[] longitudes = new double[n];
+        double[] altitudes  = new double[n];
+        earth.transform(xyz, eme2000, date, latitudes, longitudes, altitudes, n, null);
+        for (int i = 0; i < n; ++i) {
+            Vector3D p = new Vector3D(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]);
+            GeodeticPoint gp = earth.transform(p, eme2000, date);
+            // the problem is ill-conditioned deep inside the Earth, close to the meridian ellipse evolute
+            double angularTolerance = (p.getNorm() < 0.5 * Constants.WGS84_EARTH_EQUATORIAL_RADIUS) ? 1.0e-12 : 2.0e-15;
+            Assert.assertEquals(gp.getLatitude(), latitudes[i], angularTolerance);
+            // longitude is ill-conditioned near the polar axis
+            Vector3D pBody = earth.transform(gp);
+            double   ratio = p.getNorm() / FastMath.hypot(pBody.getX(), pBody.getY());
+            Assert.assertEquals(gp.getLongitude(), MathUtils.normalizeAngle(longitudes[i], gp.getLongitude()),
+                                angularTolerance * ratio);
+            Assert.assertEquals(gp.getAltitude(), altitudes[i], 1.0e-8 + 2.0e-15 * p.getNorm());
+        }
+
+        // concurrent conversion gives exactly the same results
+        double[] cLatitudes  = new double[n];
+        double[] cLongitudes = new double[n];
+        double[] cAltitudes  = new double[n];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        earth.transform(xyz, eme2000, date, cLatitudes, cLongitudes, cAltitudes, n, executor);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertArrayEquals(latitudes,  cLatitudes,  0.0);
+        Assert.assertArrayEquals(longitudes, cLongitudes, 0.0);
+        Assert.assertArrayEquals(altitudes,  cAltitudes,  0.0);
+
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBulkTransformWrongDimension() throws OrekitException {
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        OneAxisEllipsoid earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                      Constants.WGS84_EARTH_FLATTENING,
+                                                      itrf);
+        earth.transform(new double[9], itrf, AbsoluteDate.J2000_EPOCH,
+                        new double[3], new double[2], new double[3], 3, null);
+    }
+
     private void checkCartesianToEllipsoidic(double ae, double f,
                                              double x, double y, double z,
                                              double longitude, double latitude,
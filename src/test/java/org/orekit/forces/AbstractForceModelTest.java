@@ -18,9 +18,12 @@ package org.orekit.forces;
 
 
 import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
+import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
 import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.UnknownParameterException;
+import org.apache.commons.math3.util.FastMath;
 import org.junit.Assert;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
@@ -105,6 +108,67 @@ public abstract class AbstractForceModelTest {
 
     }
 
+    protected void checkAccelerationJacobians(SpacecraftState state, ForceModel forceModel, double tol)
+        throws OrekitException {
+
+        // reference Jacobians, using DerivativeStructure
+        final Vector3D position = state.getPVCoordinates().getPosition();
+        final Vector3D velocity = state.getPVCoordinates().getVelocity();
+        final Rotation rotation = state.getAttitude().getRotation();
+        final FieldVector3D<DerivativeStructure> dsP =
+                new FieldVector3D<DerivativeStructure>(new DerivativeStructure(7, 1, 0, position.getX()),
+                                                       new DerivativeStructure(7, 1, 1, position.getY()),
+                                                       new DerivativeStructure(7, 1, 2, position.getZ()));
+        final FieldVector3D<DerivativeStructure> dsV =
+                new FieldVector3D<DerivativeStructure>(new DerivativeStructure(7, 1, 3, velocity.getX()),
+                                                       new DerivativeStructure(7, 1, 4, velocity.getY()),
+                                                       new DerivativeStructure(7, 1, 5, velocity.getZ()));
+        final DerivativeStructure dsM = new DerivativeStructure(7, 1, 6, state.getMass());
+        final FieldRotation<DerivativeStructure> dsR =
+                new FieldRotation<DerivativeStructure>(new DerivativeStructure(7, 1, rotation.getQ0()),
+                                                       new DerivativeStructure(7, 1, rotation.getQ1()),
+                                                       new DerivativeStructure(7, 1, rotation.getQ2()),
+                                                       new DerivativeStructure(7, 1, rotation.getQ3()),
+                                                       false);
+        final FieldVector3D<DerivativeStructure> reference =
+                forceModel.accelerationDerivatives(state.getDate(), state.getFrame(), dsP, dsV, dsR, dsM);
+        final DerivativeStructure[] refComponents = new DerivativeStructure[] {
+            reference.getX(), reference.getY(), reference.getZ()
+        };
+
+        // analytical Jacobians, computed twice to check contributions are added
+        final double[] dAccdPos = new double[9];
+        final double[] dAccdVel = new double[9];
+        final double[] dAccdM   = new double[3];
+        for (int k = 0; k < 2; ++k) {
+            Assert.assertTrue(((AccelerationJacobiansProvider) forceModel).addAccelerationJacobians(state.getDate(), state.getFrame(),
+                                                                                                    position, velocity,
+                                                                                                    rotation, state.getMass(),
+                                                                                                    dAccdPos, dAccdVel, dAccdM));
+        }
+
+        double maxPos = 0;
+        double maxVel = 0;
+        double maxM   = 0;
+        for (int i = 0; i < 3; ++i) {
+            final double[] all = refComponents[i].getAllDerivatives();
+            for (int j = 0; j < 3; ++j) {
+                maxPos = FastMath.max(maxPos, FastMath.abs(all[1 + j]));
+                maxVel = FastMath.max(maxVel, FastMath.abs(all[4 + j]));
+            }
+            maxM = FastMath.max(maxM, FastMath.abs(all[7]));
+        }
+        for (int i = 0; i < 3; ++i) {
+            final double[] all = refComponents[i].getAllDerivatives();
+            for (int j = 0; j < 3; ++j) {
+                Assert.assertEquals(all[1 + j], 0.5 * dAccdPos[3 * i + j], tol * maxPos);
+                Assert.assertEquals(all[4 + j], 0.5 * dAccdVel[3 * i + j], tol * maxVel);
+            }
+            Assert.assertEquals(all[7], 0.5 * dAccdM[i], tol * maxM);
+        }
+
+    }
+
     protected void checkStateJacobian(NumericalPropagator propagator, SpacecraftState state0,
                                       AbsoluteDate targetDate, double hFactor,
                                       double[] integratorAbsoluteTolerances, double checkTolerance)
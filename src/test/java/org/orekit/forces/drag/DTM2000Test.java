@@ -18,6 +18,13 @@ package org.orekit.forces.drag;
 
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.FastMath;
 import org.junit.Assert;
@@ -138,6 +145,94 @@ public class DTM2000Test {
 
     }
 
+    @Test
+    public void testOutput() throws OrekitException {
+
+        DTM2000 atm = new DTM2000(SolarInputs97to05.getInstance(), CelestialBodyFactory.getSun(),
+                                  new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101,
+                                                       FramesFactory.getITRF(IERSConventions.IERS_2010, true)));
+        DTM2000.Output output = atm.compute(185, 800*1000, 0, FastMath.toRadians(40), 16*FastMath.PI/12, 150, 150, 0, 0);
+        Assert.assertEquals(1.8710001353820e-17 * 1000, output.getDensity(), 1.0e-14 * output.getDensity());
+        Assert.assertEquals(1165.4839828984, output.getT(),    1.0e-13 * output.getT());
+        Assert.assertEquals(1165.4919505608, output.getTinf(), 1.0e-13 * output.getTinf());
+
+        double sum = 0;
+        for (int i = DTM2000.HYDROGEN; i <= DTM2000.ATOMIC_NITROGEN; ++i) {
+            sum += output.getPartialDensity(i);
+        }
+        Assert.assertEquals(output.getDensity(), sum, 1.0e-15 * sum);
+
+        // the deprecated getters must still give the same results
+        double density = atm.getDensity(185, 800*1000, 0, FastMath.toRadians(40), 16*FastMath.PI/12, 150, 150, 0, 0);
+        Assert.assertEquals(output.getDensity(), density,         0.0);
+        Assert.assertEquals(output.getT(),       atm.getT(),      0.0);
+        Assert.assertEquals(output.getTinf(),    atm.getTinf(),   0.0);
+        Assert.assertEquals(output.getMam(),     atm.getMam(),    0.0);
+        for (int i = DTM2000.HYDROGEN; i <= DTM2000.ATOMIC_NITROGEN; ++i) {
+            Assert.assertEquals(output.getPartialDensity(i), atm.getPartialDensities(i), 0.0);
+        }
+
+    }
+
+    @Test
+    public void testDeprecatedGettersBeforeComputation() throws OrekitException {
+        DTM2000 atm = new DTM2000(SolarInputs97to05.getInstance(), CelestialBodyFactory.getSun(),
+                                  new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101,
+                                                       FramesFactory.getITRF(IERSConventions.IERS_2010, true)));
+        Assert.assertEquals(0.0, atm.getT(),    0.0);
+        Assert.assertEquals(0.0, atm.getTinf(), 0.0);
+        Assert.assertEquals(0.0, atm.getMam(),  0.0);
+        for (int i = DTM2000.HYDROGEN; i <= DTM2000.ATOMIC_NITROGEN; ++i) {
+            Assert.assertEquals(0.0, atm.getPartialDensities(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testSharedInstance() throws OrekitException, InterruptedException, ExecutionException {
+
+        final DTM2000 atm = new DTM2000(SolarInputs97to05.getInstance(), CelestialBodyFactory.getSun(),
+                                        new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101,
+                                                             FramesFactory.getITRF(IERSConventions.IERS_2010, true)));
+
+        // reference values computed sequentially
+        final double[][] reference = new double[36][];
+        for (int i = 0; i < reference.length; ++i) {
+            reference[i] = evaluate(atm, i);
+        }
+
+        // concurrent computation with a single shared instance
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+            for (int k = 0; k < 20; ++k) {
+                for (int i = 0; i < reference.length; ++i) {
+                    final int index = i;
+                    futures.add(executor.submit(new Callable<double[]>() {
+                        public double[] call() throws OrekitException {
+                            return evaluate(atm, index);
+                        }
+                    }));
+                }
+            }
+            for (int j = 0; j < futures.size(); ++j) {
+                Assert.assertArrayEquals(reference[j % reference.length], futures.get(j).get(), 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    private double[] evaluate(final DTM2000 atm, final int i) throws OrekitException {
+        final DTM2000.Output output = atm.compute(10 * i + 5, (200 + 20 * i) * 1000,
+                                                  FastMath.toRadians(10 * i), FastMath.toRadians(5 * i - 80),
+                                                  0.17 * i, 70 + 5 * i, 80 + 4 * i,
+                                                  i % 9, (i + 3) % 9);
+        return new double[] {
+            output.getDensity(), output.getT(), output.getTinf(), output.getMam()
+        };
+    }
+
     @Before
     public void setUp() {
         Utils.setDataRoot("regular-data");
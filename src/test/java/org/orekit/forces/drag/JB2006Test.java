@@ -19,6 +19,13 @@ package org.orekit.forces.drag;
 
 import java.io.FileNotFoundException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
@@ -181,6 +188,67 @@ public class JB2006Test {
 
     }
 
+    @Test
+    public void testDeprecatedGettersBeforeComputation() throws OrekitException {
+        JB2006 atm = new JB2006(SolarInputs97to05.getInstance(), CelestialBodyFactory.getSun(),
+                                new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101,
+                                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true)));
+        Assert.assertEquals(0.0, atm.getExosphericTemp(), 0.0);
+        Assert.assertEquals(0.0, atm.getLocalTemp(),      0.0);
+    }
+
+    @Test
+    public void testSharedInstance() throws OrekitException, InterruptedException, ExecutionException {
+
+        final JB2006 atm = new JB2006(SolarInputs97to05.getInstance(), CelestialBodyFactory.getSun(),
+                                      new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101,
+                                                           FramesFactory.getITRF(IERSConventions.IERS_2010, true)));
+
+        // reference values computed sequentially, also checking deprecated getters
+        final double[][] reference = new double[36][];
+        for (int i = 0; i < reference.length; ++i) {
+            reference[i] = evaluate(atm, i);
+            Assert.assertEquals(reference[i][0],
+                                atm.getDensity(52000.0 + 10 * i, 0.1 * i, 0.4 * FastMath.sin(i), 0.17 * i,
+                                               FastMath.toRadians(5 * i - 80), (100 + 30 * i) * 1000,
+                                               130 + i, 95 + i, 5 * (i % 7), 140 - i, 100 + i, 130, 95),
+                                0.0);
+            Assert.assertEquals(reference[i][1], atm.getExosphericTemp(), 0.0);
+            Assert.assertEquals(reference[i][2], atm.getLocalTemp(),      0.0);
+        }
+
+        // concurrent computation with a single shared instance
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+            for (int k = 0; k < 20; ++k) {
+                for (int i = 0; i < reference.length; ++i) {
+                    final int index = i;
+                    futures.add(executor.submit(new Callable<double[]>() {
+                        public double[] call() {
+                            return evaluate(atm, index);
+                        }
+                    }));
+                }
+            }
+            for (int j = 0; j < futures.size(); ++j) {
+                Assert.assertArrayEquals(reference[j % reference.length], futures.get(j).get(), 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    private double[] evaluate(final JB2006 atm, final int i) {
+        final JB2006.Output output = atm.compute(52000.0 + 10 * i, 0.1 * i, 0.4 * FastMath.sin(i), 0.17 * i,
+                                                 FastMath.toRadians(5 * i - 80), (100 + 30 * i) * 1000,
+                                                 130 + i, 95 + i, 5 * (i % 7), 140 - i, 100 + i, 130, 95);
+        return new double[] {
+            output.getDensity(), output.getExosphericTemp(), output.getLocalTemp()
+        };
+    }
+
     public void testComparisonWithDTM2000() throws OrekitException, ParseException, FileNotFoundException {
 
         AbsoluteDate date = new AbsoluteDate(new DateComponents(2003, 01, 01),
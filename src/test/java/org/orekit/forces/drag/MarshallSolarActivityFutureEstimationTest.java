@@ -16,6 +16,14 @@
  */
 package org.orekit.forces.drag;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -209,6 +217,45 @@ public class MarshallSolarActivityFutureEstimationTest {
                             1.0e-14);
     }
 
+    @Test
+    public void testConcurrentAccess() throws OrekitException, InterruptedException, ExecutionException {
+
+        final MarshallSolarActivityFutureEstimation msafe =
+            loadMsafe(MarshallSolarActivityFutureEstimation.StrengthLevel.AVERAGE);
+        final AbsoluteDate start = new AbsoluteDate("2010-06-01", utc);
+
+        // reference values computed sequentially
+        final double[][] reference = new double[200][];
+        for (int i = 0; i < reference.length; ++i) {
+            final AbsoluteDate date = start.shiftedBy(i * 86400.0 * 1.7);
+            reference[i] = new double[] {
+                msafe.getMeanFlux(date), msafe.get24HoursKp(date)
+            };
+        }
+
+        // concurrent access in random order, which breaks the bracket cache
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+            for (int i = 0; i < 4 * reference.length; ++i) {
+                final AbsoluteDate date = start.shiftedBy(((i * 37) % reference.length) * 86400.0 * 1.7);
+                futures.add(executor.submit(new Callable<double[]>() {
+                    public double[] call() throws OrekitException {
+                        return new double[] {
+                            msafe.getMeanFlux(date), msafe.get24HoursKp(date)
+                        };
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); ++i) {
+                Assert.assertArrayEquals(reference[(i * 37) % reference.length], futures.get(i).get(), 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
     @Test(expected=OrekitException.class)
     public void testPastOutOfRange() throws OrekitException {
         MarshallSolarActivityFutureEstimation msafe =
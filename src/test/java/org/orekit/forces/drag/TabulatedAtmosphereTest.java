@@ -0,0 +1,192 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.drag;
+
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinatesProvider;
+
+public class TabulatedAtmosphereTest {
+
+    @Test
+    public void testInterpolationError() throws OrekitException {
+        TabulatedAtmosphere tabulated = buildTabulated(null, 4);
+        RandomGenerator random = new Well19937a(0x5e4b1d8ec2ac6b8bl);
+        double maxError = 0;
+        for (int i = 0; i < 200; ++i) {
+            AbsoluteDate date = start.shiftedBy(random.nextDouble() * Constants.JULIAN_DAY);
+            Vector3D position = randomPosition(random, 410000.0, 490000.0);
+            double reference = dtm.getDensity(date, position, bodyFrame);
+            double interpolated = tabulated.getDensity(date, position, bodyFrame);
+            maxError = FastMath.max(maxError, FastMath.abs(interpolated - reference) / reference);
+        }
+        Assert.assertTrue(maxError > 0.01);
+        Assert.assertTrue(maxError < 0.04);
+        Assert.assertSame(dtm, tabulated.getAtmosphere());
+        Assert.assertSame(dtm.getFrame(), tabulated.getFrame());
+    }
+
+    @Test
+    public void testOutsideGrid() throws OrekitException {
+        TabulatedAtmosphere tabulated = buildTabulated(null, 2);
+        RandomGenerator random = new Well19937a(0x4d4e1f05c4a4e02el);
+
+        // altitude out of tabulated range
+        AbsoluteDate date = start.shiftedBy(3600.0);
+        Vector3D low = randomPosition(random, 300000.0, 350000.0);
+        Assert.assertEquals(dtm.getDensity(date, low, bodyFrame),
+                            tabulated.getDensity(date, low, bodyFrame),
+                            0.0);
+
+        // date out of tabulated range
+        Vector3D inside = randomPosition(random, 410000.0, 490000.0);
+        AbsoluteDate after = start.shiftedBy(1.5 * Constants.JULIAN_DAY);
+        Assert.assertEquals(dtm.getDensity(after, inside, bodyFrame),
+                            tabulated.getDensity(after, inside, bodyFrame),
+                            0.0);
+
+        // no tile needed for these points
+        Assert.assertEquals(0, tabulated.getCachedTilesNumber());
+
+        Assert.assertEquals(dtm.getVelocity(date, inside, bodyFrame),
+                            tabulated.getVelocity(date, inside, bodyFrame));
+
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws OrekitException {
+        TabulatedAtmosphere tabulated = buildTabulated(null, 2);
+        Assert.assertEquals(4, tabulated.getTilesNumber());
+        RandomGenerator random = new Well19937a(0x7cf1a1ab0b6e5e3el);
+        Vector3D position = randomPosition(random, 410000.0, 490000.0);
+        for (int i = 0; i < 4; ++i) {
+            tabulated.getDensity(start.shiftedBy((i + 0.5) * Constants.JULIAN_DAY / 4), position, bodyFrame);
+            Assert.assertEquals(FastMath.min(i + 1, 2), tabulated.getCachedTilesNumber());
+        }
+    }
+
+    @Test
+    public void testParallelBuild() throws OrekitException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TabulatedAtmosphere sequential = buildTabulated(null, 4);
+            TabulatedAtmosphere parallel   = buildTabulated(executor, 4);
+            RandomGenerator random = new Well19937a(0x1f6bd2ec03a5c2b1l);
+            for (int i = 0; i < 100; ++i) {
+                AbsoluteDate date = start.shiftedBy(random.nextDouble() * Constants.JULIAN_DAY);
+                Vector3D position = randomPosition(random, 410000.0, 490000.0);
+                Assert.assertEquals(sequential.getDensity(date, position, bodyFrame),
+                                    parallel.getDensity(date, position, bodyFrame),
+                                    0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private TabulatedAtmosphere buildTabulated(final ExecutorService executor, final int maxTiles) {
+        return new TabulatedAtmosphere(dtm, earth, sun,
+                                       start, start.shiftedBy(Constants.JULIAN_DAY), 3 * 3600.0,
+                                       400000.0, 500000.0, 10000.0,
+                                       FastMath.toRadians(10.0), FastMath.toRadians(30.0),
+                                       2, maxTiles, executor);
+    }
+
+    private Vector3D randomPosition(final RandomGenerator random,
+                                    final double minAltitude, final double maxAltitude) {
+        final GeodeticPoint gp =
+                new GeodeticPoint(FastMath.asin(2 * random.nextDouble() - 1),
+                                  2 * FastMath.PI * random.nextDouble(),
+                                  minAltitude + (maxAltitude - minAltitude) * random.nextDouble());
+        return earth.transform(gp);
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        sun       = CelestialBodyFactory.getSun();
+        earth     = new OneAxisEllipsoid(6378136.460, 1.0 / 298.257222101, itrf);
+        bodyFrame = itrf;
+        start     = new AbsoluteDate(2003, 4, 12, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        dtm       = new DTM2000(new ConstantActivity(start), sun, earth);
+    }
+
+    /** Solar activity frozen over a few days, as typically used in Monte-Carlo studies. */
+    private static class ConstantActivity implements DTM2000InputParameters {
+
+        private static final long serialVersionUID = 20150512L;
+
+        private final AbsoluteDate start;
+
+        public ConstantActivity(final AbsoluteDate start) {
+            this.start = start;
+        }
+
+        public AbsoluteDate getMinDate() {
+            return start.shiftedBy(-5 * Constants.JULIAN_DAY);
+        }
+
+        public AbsoluteDate getMaxDate() {
+            return start.shiftedBy(5 * Constants.JULIAN_DAY);
+        }
+
+        public double getInstantFlux(AbsoluteDate date) {
+            return 140.0;
+        }
+
+        public double getMeanFlux(AbsoluteDate date) {
+            return 130.0;
+        }
+
+        public double getThreeHourlyKP(AbsoluteDate date) {
+            return 3.0;
+        }
+
+        public double get24HoursKp(AbsoluteDate date) {
+            return 2.7;
+        }
+
+    }
+
+    private PVCoordinatesProvider sun;
+    private OneAxisEllipsoid      earth;
+    private DTM2000               dtm;
+    private Frame                 bodyFrame;
+    private AbsoluteDate          start;
+
+}
@@ -0,0 +1,153 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider.NormalizedSphericalHarmonics;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+
+public class GravityFieldKernelTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameField() throws OrekitException {
+        final GravityFieldKernel kernel = new GravityFieldKernel(provider, date);
+        Assert.assertEquals(provider.getMaxDegree(), kernel.getMaxDegree());
+        Assert.assertEquals(provider.getMaxOrder(),  kernel.getMaxOrder());
+        Assert.assertEquals(provider.getMu(),        kernel.getMu(), 0.0);
+        Assert.assertEquals(provider.getAe(),        kernel.getAe(), 0.0);
+        Assert.assertEquals(provider.getTideSystem(), kernel.getTideSystem());
+        Assert.assertNull(kernel.getReferenceDate());
+        Assert.assertEquals(0.0, kernel.getFreezingDate().durationFrom(date), 0.0);
+        final HolmesFeatherstoneAttractionModel reference = new HolmesFeatherstoneAttractionModel(itrf, provider);
+        final HolmesFeatherstoneAttractionModel shared    = new HolmesFeatherstoneAttractionModel(itrf, kernel);
+        final Vector3D position = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, 2.0e5);
+        final double[] g1 = reference.gradient(date, position);
+        final double[] g2 = shared.gradient(date, position);
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(g1[i], g2[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testSharedRecursion() {
+        Assert.assertSame(GravityFieldKernel.getRecursionCoefficients(12).getGnmOj(),
+                          GravityFieldKernel.getRecursionCoefficients(12).getGnmOj());
+        Assert.assertNotSame(GravityFieldKernel.getRecursionCoefficients(12).getGnmOj(),
+                             GravityFieldKernel.getRecursionCoefficients(13).getGnmOj());
+    }
+
+    @Test
+    public void testBoundedRecursionCache() {
+        final double[] first = GravityFieldKernel.getRecursionCoefficients(20).getGnmOj();
+        for (int degree = 21; degree < 40; ++degree) {
+            GravityFieldKernel.getRecursionCoefficients(degree);
+        }
+        // least recently used degrees have been evicted and are recomputed
+        final double[] recomputed = GravityFieldKernel.getRecursionCoefficients(20).getGnmOj();
+        Assert.assertNotSame(first, recomputed);
+        Assert.assertArrayEquals(first, recomputed, 0.0);
+    }
+
+    @Test
+    public void testSaveLoad() throws OrekitException, IOException {
+        final GravityFieldKernel kernel = new GravityFieldKernel(provider, date);
+        final File file = tempFolder.newFile("kernel.bin");
+        kernel.save(file);
+        final GravityFieldKernel loaded = GravityFieldKernel.load(file);
+        Assert.assertEquals(kernel.getMaxDegree(), loaded.getMaxDegree());
+        Assert.assertEquals(kernel.getMaxOrder(),  loaded.getMaxOrder());
+        Assert.assertEquals(kernel.getMu(),        loaded.getMu(), 0.0);
+        Assert.assertEquals(kernel.getAe(),        loaded.getAe(), 0.0);
+        Assert.assertEquals(kernel.getTideSystem(), loaded.getTideSystem());
+        Assert.assertEquals(0.0, loaded.getFreezingDate().durationFrom(date), 1.0e-6);
+        final NormalizedSphericalHarmonics h1 = kernel.onDate(date);
+        final NormalizedSphericalHarmonics h2 = loaded.onDate(date);
+        for (int n = 0; n <= kernel.getMaxDegree(); ++n) {
+            for (int m = 0; m <= n; ++m) {
+                Assert.assertEquals(h1.getNormalizedCnm(n, m), h2.getNormalizedCnm(n, m), 0.0);
+                Assert.assertEquals(h1.getNormalizedSnm(n, m), h2.getNormalizedSnm(n, m), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testNotAKernel() throws OrekitException, IOException {
+        final File file = tempFolder.newFile("not-a-kernel.bin");
+        final FileOutputStream fos = new FileOutputStream(file);
+        fos.write(new byte[100]);
+        fos.close();
+        try {
+            GravityFieldKernel.load(file);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNEXPECTED_FILE_FORMAT_ERROR_FOR_LOADER, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testLimits() throws OrekitException {
+        final NormalizedSphericalHarmonics harmonics = new GravityFieldKernel(provider, date).onDate(date);
+        try {
+            harmonics.getNormalizedCnm(21, 0);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.TOO_LARGE_DEGREE_FOR_GRAVITY_FIELD, oe.getSpecifier());
+        }
+        try {
+            harmonics.getNormalizedSnm(12, 13);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.TOO_LARGE_ORDER_FOR_GRAVITY_FIELD, oe.getSpecifier());
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        provider = GravityFieldFactory.getNormalizedProvider(20, 20);
+        itrf     = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        date     = new AbsoluteDate(2000, 7, 1, 13, 59, 27.816, TimeScalesFactory.getUTC());
+    }
+
+    private NormalizedSphericalHarmonicsProvider provider;
+    private Frame                                itrf;
+    private AbsoluteDate                         date;
+
+}
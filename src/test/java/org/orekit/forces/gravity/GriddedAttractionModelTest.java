@@ -0,0 +1,156 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.ode.nonstiff.DormandPrince853Integrator;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.ForceModel;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+
+public class GriddedAttractionModelTest {
+
+    @Test
+    public void testGradientAccuracy() throws OrekitException {
+        final GriddedAttractionModel gridded =
+                new GriddedAttractionModel(itrf, provider, 8, date,
+                                           6.8e6, 7.4e6, 20000.0, FastMath.toRadians(0.5), 1000);
+        final RandomGenerator random = new Well19937a(0x8d5e0c1fa72ec5f0l);
+        double maxError = 0;
+        for (int i = 0; i < 1000; ++i) {
+            // the test is restricted to a small area to limit the number of tiles built
+            final double r = 6.8e6 + 0.6e6 * random.nextDouble();
+            final double lat = FastMath.toRadians(40.0 + 5.0 * random.nextDouble());
+            final double lon = FastMath.toRadians(10.0 + 5.0 * random.nextDouble());
+            final Vector3D p = new Vector3D(r * FastMath.cos(lat) * FastMath.cos(lon),
+                                            r * FastMath.cos(lat) * FastMath.sin(lon),
+                                            r * FastMath.sin(lat));
+            final Vector3D reference = new Vector3D(full.gradient(date, p));
+            final Vector3D interpolated = new Vector3D(gridded.gradient(date, p));
+            final double total = provider.getMu() / p.getNormSq();
+            maxError = FastMath.max(maxError, Vector3D.distance(reference, interpolated) / total);
+        }
+        Assert.assertTrue(maxError < 2.0e-10);
+        Assert.assertEquals(4, gridded.getCachedTilesNumber());
+    }
+
+    @Test
+    public void testPolesAndOutside() throws OrekitException {
+        final GriddedAttractionModel gridded =
+                new GriddedAttractionModel(itrf, provider, 8, date,
+                                           6.8e6, 7.4e6, 20000.0, FastMath.toRadians(1.0), 1000);
+        for (final Vector3D p : new Vector3D[] {
+            new Vector3D(1.0, 0, 7.0e6), new Vector3D(-1.0, 1.0, -7.0e6),
+            new Vector3D(7.0e6, 1.0e-3, 0), new Vector3D(7.0e6, -1.0e-3, 0)
+        }) {
+            final Vector3D reference = new Vector3D(full.gradient(date, p));
+            final Vector3D interpolated = new Vector3D(gridded.gradient(date, p));
+            final double total = provider.getMu() / p.getNormSq();
+            Assert.assertEquals(0.0, Vector3D.distance(reference, interpolated) / total, 3.0e-9);
+        }
+        final Vector3D outside = new Vector3D(3.0e6, 4.0e6, 6.0e6);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(new Vector3D(full.gradient(date, outside)),
+                                              new Vector3D(gridded.gradient(date, outside))),
+                            1.0e-15);
+    }
+
+    @Test
+    public void testLazyTiles() throws OrekitException {
+        final GriddedAttractionModel gridded =
+                new GriddedAttractionModel(itrf, provider, 8, date,
+                                           6.8e6, 7.4e6, 20000.0, FastMath.toRadians(1.0), 4);
+        Assert.assertEquals(23 * 45, gridded.getTilesNumber());
+        Assert.assertEquals(0, gridded.getCachedTilesNumber());
+        gridded.gradient(date, new Vector3D(7.0e6, 0, 0));
+        Assert.assertEquals(1, gridded.getCachedTilesNumber());
+        for (int i = 0; i < 10; ++i) {
+            final double lon = FastMath.toRadians(36.0 * i);
+            gridded.gradient(date, new Vector3D(7.0e6 * FastMath.cos(lon), 7.0e6 * FastMath.sin(lon), 0));
+        }
+        Assert.assertEquals(4, gridded.getCachedTilesNumber());
+    }
+
+    @Test
+    public void testPropagation() throws OrekitException {
+
+        final double mu = provider.getMu();
+        final Orbit orbit = new KeplerianOrbit(7201009.7124401, 1e-3, FastMath.toRadians(98.7),
+                                               FastMath.toRadians(93.0), FastMath.toRadians(15.0 * 22.5),
+                                               0, PositionAngle.MEAN, FramesFactory.getEME2000(), date, mu);
+        final GriddedAttractionModel gridded =
+                new GriddedAttractionModel(itrf, provider, 8, date,
+                                           6.8e6, 7.4e6, 20000.0, FastMath.toRadians(1.0), 1000);
+        gridded.setParameter(NewtonianAttraction.CENTRAL_ATTRACTION_COEFFICIENT, mu);
+        Assert.assertEquals(mu, gridded.getParameter(NewtonianAttraction.CENTRAL_ATTRACTION_COEFFICIENT), 0.0);
+
+        final SpacecraftState reference = propagate(orbit, full, orbit.getKeplerianPeriod());
+        final SpacecraftState approximate = propagate(orbit, gridded, orbit.getKeplerianPeriod());
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(reference.getPVCoordinates().getPosition(),
+                                              approximate.getPVCoordinates().getPosition()),
+                            0.1);
+
+    }
+
+    private SpacecraftState propagate(final Orbit orbit, final ForceModel model, final double duration)
+        throws OrekitException {
+        final double[][] tolerances = NumericalPropagator.tolerances(0.001, orbit, OrbitType.CARTESIAN);
+        final NumericalPropagator propagator =
+                new NumericalPropagator(new DormandPrince853Integrator(1.0e-3, 300, tolerances[0], tolerances[1]));
+        propagator.setOrbitType(OrbitType.CARTESIAN);
+        propagator.addForceModel(model);
+        propagator.setInitialState(new SpacecraftState(orbit));
+        return propagator.propagate(orbit.getDate().shiftedBy(duration));
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        provider = GravityFieldFactory.getNormalizedProvider(40, 40);
+        itrf     = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        date     = new AbsoluteDate(2000, 7, 1, 13, 59, 27.816, TimeScalesFactory.getUTC());
+        full     = new HolmesFeatherstoneAttractionModel(itrf, provider);
+    }
+
+    private NormalizedSphericalHarmonicsProvider provider;
+    private Frame                                itrf;
+    private AbsoluteDate                         date;
+    private HolmesFeatherstoneAttractionModel    full;
+
+}
@@ -594,6 +594,29 @@ public class HolmesFeatherstoneAttractionModelTest extends AbstractForceModelTes
 
     }
 
+    @Test
+    public void testAccelerationJacobians() throws OrekitException {
+
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+
+        // pos-vel (from a ZOOM ephemeris reference)
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        final SpacecraftState state =
+                new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getGCRF(),
+                                                       new AbsoluteDate(2005, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       GravityFieldFactory.getUnnormalizedProvider(1, 1).getMu()));
+
+        final HolmesFeatherstoneAttractionModel holmesFeatherstoneModel =
+                new HolmesFeatherstoneAttractionModel(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                      GravityFieldFactory.getNormalizedProvider(20, 20));
+        checkAccelerationJacobians(state, holmesFeatherstoneModel, 1.0e-12);
+        checkAccelerationJacobians(state, new NewtonianAttraction(state.getMu()), 1.0e-12);
+
+    }
+
     @Test
     public void testParameterDerivative() throws OrekitException {
 
@@ -25,7 +25,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.orekit.Utils;
+import org.orekit.data.BodiesElements;
 import org.orekit.data.DataProvidersManager;
+import org.orekit.data.FundamentalNutationArguments;
 import org.orekit.errors.OrekitException;
 import org.orekit.forces.gravity.potential.AstronomicalAmplitudeReader;
 import org.orekit.forces.gravity.potential.FESCHatEpsilonReader;
@@ -81,6 +83,84 @@ public class OceanTidesFieldTest {
         }
     }
 
+    @Test
+    public void testFlattenedSummation() throws OrekitException {
+
+        // complete model, compared with wave by wave summation
+        getWaves(6, 6);
+        List<OceanTidesWave> waves = GravityFieldFactory.getOceanTidesWaves(6, 6);
+        Assert.assertTrue(waves.size() > 10);
+
+        UT1Scale ut1 = TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true);
+        FundamentalNutationArguments arguments = IERSConventions.IERS_2010.getNutationArguments(ut1);
+        OceanTidesField tidesField =
+                new OceanTidesField(Constants.EIGEN5C_EARTH_EQUATORIAL_RADIUS, Constants.EIGEN5C_EARTH_MU,
+                                    waves, arguments, null);
+
+        AbsoluteDate t0 = new AbsoluteDate(2003, 5, 6, 13, 43, 32.125, TimeScalesFactory.getUTC());
+        for (double dt = 0; dt < 86400; dt += 3600) {
+            AbsoluteDate date = t0.shiftedBy(dt);
+            double[][] cnm = new double[7][];
+            double[][] snm = new double[7][];
+            for (int n = 0; n < cnm.length; ++n) {
+                cnm[n] = new double[n + 1];
+                snm[n] = new double[n + 1];
+            }
+            BodiesElements elements = arguments.evaluateAll(date);
+            for (final OceanTidesWave wave : waves) {
+                wave.addContribution(elements, cnm, snm);
+            }
+            NormalizedSphericalHarmonics harmonics = tidesField.onDate(date);
+            for (int n = 0; n < cnm.length; ++n) {
+                for (int m = 0; m <= n; ++m) {
+                    Assert.assertEquals(cnm[n][m], harmonics.getNormalizedCnm(n, m), 1.0e-22);
+                    Assert.assertEquals(snm[n][m], harmonics.getNormalizedSnm(n, m), 1.0e-22);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testMixedDegrees() throws OrekitException {
+
+        // waves truncated at different degrees
+        getWaves(6, 6);
+        List<OceanTidesWave> waves = new ArrayList<OceanTidesWave>();
+        waves.addAll(GravityFieldFactory.getOceanTidesWaves(3, 2).subList(0, 3));
+        waves.addAll(GravityFieldFactory.getOceanTidesWaves(6, 6).subList(3, 6));
+        waves.addAll(GravityFieldFactory.getOceanTidesWaves(2, 2).subList(6, 9));
+        Assert.assertEquals(6, waves.get(4).getMaxDegree());
+        Assert.assertEquals(2, waves.get(8).getMaxDegree());
+
+        UT1Scale ut1 = TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true);
+        FundamentalNutationArguments arguments = IERSConventions.IERS_2010.getNutationArguments(ut1);
+        OceanTidesField tidesField =
+                new OceanTidesField(Constants.EIGEN5C_EARTH_EQUATORIAL_RADIUS, Constants.EIGEN5C_EARTH_MU,
+                                    waves, arguments, null);
+        Assert.assertEquals(6, tidesField.getMaxDegree());
+
+        AbsoluteDate date = new AbsoluteDate(2003, 5, 6, 13, 43, 32.125, TimeScalesFactory.getUTC());
+        double[][] cnm = new double[7][];
+        double[][] snm = new double[7][];
+        for (int n = 0; n < cnm.length; ++n) {
+            cnm[n] = new double[n + 1];
+            snm[n] = new double[n + 1];
+        }
+        BodiesElements elements = arguments.evaluateAll(date);
+        for (final OceanTidesWave wave : waves) {
+            wave.addContribution(elements, cnm, snm);
+        }
+        NormalizedSphericalHarmonics harmonics = tidesField.onDate(date);
+        for (int n = 0; n < cnm.length; ++n) {
+            for (int m = 0; m <= n; ++m) {
+                Assert.assertEquals(cnm[n][m], harmonics.getNormalizedCnm(n, m), 1.0e-22);
+                Assert.assertEquals(snm[n][m], harmonics.getNormalizedSnm(n, m), 1.0e-22);
+            }
+        }
+
+    }
+
     private List<OceanTidesWave> getWaves(int degree, int order, int ... doodson)
         throws OrekitException {
 
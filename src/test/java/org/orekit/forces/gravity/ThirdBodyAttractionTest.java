@@ -164,6 +164,22 @@ public class ThirdBodyAttractionTest extends AbstractForceModelTest {
 
     }
 
+    @Test
+    public void testAccelerationJacobians() throws OrekitException {
+
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        final SpacecraftState state =
+                new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getGCRF(),
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       Constants.EIGEN5C_EARTH_MU));
+
+        checkAccelerationJacobians(state, new ThirdBodyAttraction(CelestialBodyFactory.getSun()),  1.0e-12);
+        checkAccelerationJacobians(state, new ThirdBodyAttraction(CelestialBodyFactory.getMoon()), 1.0e-12);
+
+    }
+
     @Test
     public void testStateJacobian()
         throws OrekitException {
@@ -0,0 +1,174 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.gravity;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.potential.AstronomicalAmplitudeReader;
+import org.orekit.forces.gravity.potential.FESCHatEpsilonReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider.NormalizedSphericalHarmonics;
+import org.orekit.forces.gravity.potential.OceanLoadDeformationCoefficients;
+import org.orekit.forces.gravity.potential.TideSystem;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.time.UT1Scale;
+import org.orekit.utils.IERSConventions;
+
+public class TimeDependentGravityFieldTest {
+
+    @Test
+    public void testSameGradient() throws OrekitException {
+
+        final SolidTides solid = new SolidTides(itrf, gravityField.getAe(), gravityField.getMu(),
+                                                gravityField.getTideSystem(), IERSConventions.IERS_2010, ut1,
+                                                CelestialBodyFactory.getSun(), CelestialBodyFactory.getMoon());
+        final OceanTides ocean = new OceanTides(itrf, gravityField.getAe(), gravityField.getMu(),
+                                                6, 6, IERSConventions.IERS_2010, ut1);
+        final TimeDependentGravityField combined =
+                new TimeDependentGravityField(gravityField, solid.getTidesProvider(), ocean.getTidesProvider());
+        Assert.assertEquals(6, combined.getMaxDegree());
+        Assert.assertEquals(6, combined.getMaxOrder());
+        Assert.assertEquals(gravityField.getTideSystem(), combined.getTideSystem());
+
+        final HolmesFeatherstoneAttractionModel single = new HolmesFeatherstoneAttractionModel(itrf, combined);
+        final HolmesFeatherstoneAttractionModel[] separate = new HolmesFeatherstoneAttractionModel[] {
+            new HolmesFeatherstoneAttractionModel(itrf, gravityField),
+            new HolmesFeatherstoneAttractionModel(itrf, solid.getTidesProvider()),
+            new HolmesFeatherstoneAttractionModel(itrf, ocean.getTidesProvider())
+        };
+
+        checkGradients(single, separate, 2.0e-15);
+
+    }
+
+    @Test
+    public void testRescaling() throws OrekitException {
+
+        // tides fields built with different constants represent the same physical potential
+        final SolidTides solid = new SolidTides(itrf, 1.1 * gravityField.getAe(), 0.9 * gravityField.getMu(),
+                                                gravityField.getTideSystem(), IERSConventions.IERS_2010, ut1,
+                                                CelestialBodyFactory.getSun(), CelestialBodyFactory.getMoon());
+        final TimeDependentGravityField combined =
+                new TimeDependentGravityField(gravityField, solid.getTidesProvider());
+        Assert.assertEquals(5, combined.getMaxDegree());
+
+        final HolmesFeatherstoneAttractionModel single = new HolmesFeatherstoneAttractionModel(itrf, combined);
+        final HolmesFeatherstoneAttractionModel[] separate = new HolmesFeatherstoneAttractionModel[] {
+            new HolmesFeatherstoneAttractionModel(itrf, gravityField),
+            new HolmesFeatherstoneAttractionModel(itrf, solid.getTidesProvider())
+        };
+
+        checkGradients(single, separate, 2.0e-15);
+
+    }
+
+    @Test
+    public void testPerThreadCache() throws OrekitException, InterruptedException {
+
+        final SolidTides solid = new SolidTides(itrf, gravityField.getAe(), gravityField.getMu(),
+                                                gravityField.getTideSystem(), IERSConventions.IERS_2010, ut1,
+                                                CelestialBodyFactory.getSun(), CelestialBodyFactory.getMoon());
+        final TimeDependentGravityField combined =
+                new TimeDependentGravityField(gravityField, solid.getTidesProvider());
+
+        final NormalizedSphericalHarmonics h1 = combined.onDate(date);
+        final double c21 = h1.getNormalizedCnm(2, 1);
+        Assert.assertSame(h1, combined.onDate(date));
+        Assert.assertEquals(c21, combined.onDate(date).getNormalizedCnm(2, 1), 0.0);
+
+        // another thread has its own deltas
+        final AtomicReference<Object> other = new AtomicReference<Object>();
+        final Thread thread = new Thread() {
+            public void run() {
+                try {
+                    final NormalizedSphericalHarmonics h = combined.onDate(date.shiftedBy(3600.0));
+                    h.getNormalizedCnm(2, 1);
+                    other.set(h);
+                } catch (OrekitException oe) {
+                    other.set(oe);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        Assert.assertTrue(other.get() instanceof NormalizedSphericalHarmonics);
+        Assert.assertNotSame(h1, other.get());
+        Assert.assertEquals(0.0, h1.getDate().durationFrom(date), 0.0);
+        Assert.assertEquals(c21, h1.getNormalizedCnm(2, 1), 0.0);
+
+        // in the same thread, a new date updates the deltas
+        Assert.assertEquals(3600.0, combined.onDate(date.shiftedBy(3600.0)).getDate().durationFrom(date), 0.0);
+        Assert.assertTrue(FastMath.abs(c21 - combined.onDate(date.shiftedBy(3600.0)).getNormalizedCnm(2, 1)) > 1.0e-15);
+
+    }
+
+    private void checkGradients(final HolmesFeatherstoneAttractionModel single,
+                                final HolmesFeatherstoneAttractionModel[] separate,
+                                final double tolerance)
+        throws OrekitException {
+        for (double dt = 0; dt < 86400; dt += 3000.0) {
+            final AbsoluteDate current = date.shiftedBy(dt);
+            final Vector3D position = new Vector3D(7.0e6 * FastMath.cos(1.0e-3 * dt),
+                                                   7.0e6 * FastMath.sin(1.0e-3 * dt),
+                                                   1.0e6);
+            Vector3D sum = Vector3D.ZERO;
+            for (final HolmesFeatherstoneAttractionModel model : separate) {
+                sum = sum.add(new Vector3D(model.gradient(current, position)));
+            }
+            final Vector3D combined = new Vector3D(single.gradient(current, position));
+            Assert.assertEquals(0.0, Vector3D.distance(sum, combined) / sum.getNorm(), tolerance);
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/icgem-format:tides");
+        final AstronomicalAmplitudeReader aaReader =
+                new AstronomicalAmplitudeReader("hf-fes2004.dat", 5, 2, 3, 1.0);
+        DataProvidersManager.getInstance().feed(aaReader.getSupportedNames(), aaReader);
+        final Map<Integer, Double> map = aaReader.getAstronomicalAmplitudesMap();
+        GravityFieldFactory.addOceanTidesReader(new FESCHatEpsilonReader("fes2004-7x7.dat",
+                                                                         0.01, FastMath.toRadians(1.0),
+                                                                         OceanLoadDeformationCoefficients.IERS_2010,
+                                                                         map));
+        gravityField = GravityFieldFactory.getConstantNormalizedProvider(5, 5);
+        Assert.assertEquals(TideSystem.TIDE_FREE, gravityField.getTideSystem());
+        itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        ut1  = TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true);
+        date = new AbsoluteDate(2003, 7, 1, 13, 59, 27.816, TimeScalesFactory.getUTC());
+    }
+
+    private NormalizedSphericalHarmonicsProvider gravityField;
+    private Frame                                itrf;
+    private UT1Scale                             ut1;
+    private AbsoluteDate                         date;
+
+}
@@ -125,6 +125,25 @@ public class SolarRadiationPressureTest extends AbstractForceModelTest {
 
     }
 
+    @Test
+    public void testAccelerationJacobiansSphere() throws OrekitException {
+
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        final SpacecraftState state =
+                new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getGCRF(),
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       Constants.EIGEN5C_EARTH_MU));
+
+        SolarRadiationPressure forceModel =
+                new SolarRadiationPressure(CelestialBodyFactory.getSun(), Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                           new SphericalSpacecraft(2.5, 1.2, 0.7, 0.2));
+
+        checkAccelerationJacobians(state, forceModel, 1.0e-12);
+
+    }
+
     @Test
     public void testStateJacobianSphere()
         throws OrekitException {
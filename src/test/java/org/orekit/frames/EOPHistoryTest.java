@@ -21,7 +21,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
 
+import org.apache.commons.math3.analysis.interpolation.HermiteInterpolator;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -73,6 +78,75 @@ public class EOPHistoryTest {
         }
     }
 
+    @Test
+    public void testSameAsNeighborsInterpolation() throws OrekitException {
+        EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        RandomGenerator random = new Well1024a(0x5d3e1b7c92a8f064l);
+        double span = history.getEndDate().durationFrom(history.getStartDate());
+        AbsoluteDate date = history.getStartDate();
+        for (int i = 0; i < 2000; ++i) {
+            // mix close successive dates and random jumps
+            date = (i % 10 == 0) ?
+                   history.getStartDate().shiftedBy(span * random.nextDouble()) :
+                   date.shiftedBy(3600.0 * random.nextDouble());
+            if (date.compareTo(history.getEndDate()) > 0) {
+                continue;
+            }
+            HermiteInterpolator interpolator = new HermiteInterpolator();
+            List<EOPEntry> neighbors = history.getNeighbors(date);
+            for (final EOPEntry entry : neighbors) {
+                interpolator.addSamplePoint(entry.getDate().durationFrom(date),
+                                            new double[] {
+                                                entry.getLOD(), entry.getX(), entry.getY(),
+                                                entry.getDx(), entry.getDy()
+                                            });
+            }
+            double[] reference = interpolator.value(0);
+            Assert.assertEquals(reference[0], history.getLOD(date), 1.0e-15);
+            PoleCorrection pole = history.getPoleCorrection(date);
+            Assert.assertEquals(reference[1], pole.getXp(), 1.0e-20);
+            Assert.assertEquals(reference[2], pole.getYp(), 1.0e-20);
+            double[] nro = history.getNonRotatinOriginNutationCorrection(date);
+            Assert.assertEquals(reference[3], nro[0], 1.0e-20);
+            Assert.assertEquals(reference[4], nro[1], 1.0e-20);
+        }
+    }
+
+    @Test
+    public void testUpdate() throws OrekitException {
+        EOPHistory full = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        List<EOPEntry> entries = full.getEntries();
+        int half = entries.size() / 2;
+        EOPHistory history = new EOPHistory(IERSConventions.IERS_2010, entries.subList(0, half), true);
+        Assert.assertEquals(entries.get(half - 1).getDate(), history.getEndDate());
+
+        // appending the remaining entries
+        AbsoluteDate changed = history.update(entries.subList(half - 10, entries.size()));
+        Assert.assertEquals(entries.get(half - 2).getDate(), changed);
+        Assert.assertEquals(full.getEndDate(), history.getEndDate());
+        Assert.assertEquals(AbsoluteDate.FUTURE_INFINITY, history.update(entries.subList(0, 10)));
+
+        // revising one entry
+        EOPEntry old = entries.get(half + 20);
+        EOPEntry revised = new EOPEntry(old.getMjd(), old.getUT1MinusUTC(), old.getLOD(),
+                                        old.getX() + 1.0e-9, old.getY(),
+                                        old.getDdPsi(), old.getDdEps(), old.getDx(), old.getDy());
+        AbsoluteDate before = entries.get(half + 17).getDate();
+        double xBefore = history.getPoleCorrection(before).getXp();
+        double xAfter  = history.getPoleCorrection(old.getDate()).getXp();
+        Assert.assertEquals(entries.get(half + 18).getDate(),
+                            history.update(Arrays.asList(revised)));
+        Assert.assertEquals(entries.size(), history.getEntries().size());
+        Assert.assertEquals(xBefore, history.getPoleCorrection(before).getXp(), 0.0);
+        Assert.assertEquals(xAfter + 1.0e-9, history.getPoleCorrection(old.getDate()).getXp(), 1.0e-20);
+
+        // prepending entries affects the whole past
+        EOPHistory late = new EOPHistory(IERSConventions.IERS_2010, entries.subList(half, entries.size()), true);
+        Assert.assertEquals(AbsoluteDate.PAST_INFINITY, late.update(entries.subList(0, half)));
+        Assert.assertEquals(full.getStartDate(), late.getStartDate());
+
+    }
+
     @Test
     public void testSerialization() throws OrekitException, IOException, ClassNotFoundException {
         EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
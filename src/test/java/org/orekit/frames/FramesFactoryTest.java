@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.junit.Assert;
 import org.junit.Before;
@@ -36,8 +37,11 @@ import org.orekit.errors.OrekitException;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.ChronologicalComparator;
 import org.orekit.time.DateComponents;
+import org.orekit.time.GMSTScale;
 import org.orekit.time.TimeComponents;
 import org.orekit.time.TimeScalesFactory;
+import org.orekit.time.UT1Scale;
+import org.orekit.time.UTCScale;
 import org.orekit.utils.Constants;
 import org.orekit.utils.IERSConventions;
 
@@ -307,6 +311,95 @@ public class FramesFactoryTest {
 
     }
 
+    @Test
+    public void testUpdateEOPHistory() throws OrekitException {
+
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        Frame gcrf = FramesFactory.getGCRF();
+        List<EOPEntry> entries = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true).getEntries();
+        int k = entries.size() / 2;
+        AbsoluteDate start = entries.get(k - 5).getDate();
+        AbsoluteDate end   = entries.get(k + 5).getDate();
+        FramesFactory.precomputeTransforms(itrf, start, end, null);
+
+        // dates before the change, within the precomputed span and within the cache
+        AbsoluteDate early   = entries.get(k - 3).getDate().shiftedBy(1000.0);
+        AbsoluteDate late    = entries.get(k + 2).getDate().shiftedBy(1000.0);
+        AbsoluteDate outside = entries.get(k + 8).getDate().shiftedBy(1000.0);
+        Transform earlyBefore   = itrf.getTransformTo(gcrf, early);
+        Transform lateBefore    = itrf.getTransformTo(gcrf, late);
+        Transform outsideBefore = itrf.getTransformTo(gcrf, outside);
+
+        // revise pole and nutation correction from entry k onward
+        List<EOPEntry> revised = new ArrayList<EOPEntry>();
+        for (final EOPEntry entry : entries.subList(k, entries.size())) {
+            revised.add(new EOPEntry(entry.getMjd(), entry.getUT1MinusUTC(), entry.getLOD(),
+                                     entry.getX() + 1.0e-8, entry.getY(),
+                                     entry.getDdPsi(), entry.getDdEps(),
+                                     entry.getDx() + 1.0e-8, entry.getDy()));
+        }
+        Assert.assertEquals(entries.get(k - 2).getDate(),
+                            FramesFactory.updateEOPHistory(IERSConventions.IERS_2010, revised));
+        Assert.assertEquals(AbsoluteDate.FUTURE_INFINITY,
+                            FramesFactory.updateEOPHistory(IERSConventions.IERS_2010, revised));
+
+        // unaffected date
+        Transform earlyAfter = itrf.getTransformTo(gcrf, early);
+        Assert.assertEquals(0.0, Rotation.distance(earlyBefore.getRotation(), earlyAfter.getRotation()), 0.0);
+
+        // affected dates, both within the precomputed span and within the cache
+        for (final Transform[] pair : new Transform[][] {
+            { lateBefore,    itrf.getTransformTo(gcrf, late)    },
+            { outsideBefore, itrf.getTransformTo(gcrf, outside) }
+        }) {
+            Transform reference = FramesFactory.getNonInterpolatingTransform(itrf, gcrf, pair[1].getDate());
+            Assert.assertTrue(Rotation.distance(pair[0].getRotation(), pair[1].getRotation()) > 1.0e-8);
+            Assert.assertEquals(0.0, Rotation.distance(reference.getRotation(), pair[1].getRotation()), 2.0e-13);
+        }
+
+    }
+
+    @Test
+    public void testUpdateEOPHistoryUT1() throws OrekitException {
+
+        UT1Scale  ut1  = TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true);
+        GMSTScale gmst = TimeScalesFactory.getGMST(IERSConventions.IERS_2010, true);
+        Frame     cirf = FramesFactory.getCIRF(IERSConventions.IERS_2010, true);
+        Frame     tirf = FramesFactory.getTIRF(IERSConventions.IERS_2010, true);
+        EOPHistory reference = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        List<EOPEntry> entries = reference.getEntries();
+        int k = entries.size() / 2;
+        AbsoluteDate date = entries.get(k + 2).getDate().shiftedBy(1000.0);
+        double gmstBefore = gmst.offsetFromTAI(date);
+
+        // revise UT1-UTC from entry k onward
+        List<EOPEntry> revised = new ArrayList<EOPEntry>();
+        for (final EOPEntry entry : entries.subList(k, entries.size())) {
+            revised.add(new EOPEntry(entry.getMjd(), entry.getUT1MinusUTC() + 1.0e-3, entry.getLOD(),
+                                     entry.getX(), entry.getY(),
+                                     entry.getDdPsi(), entry.getDdEps(),
+                                     entry.getDx(), entry.getDy()));
+        }
+        FramesFactory.updateEOPHistory(IERSConventions.IERS_2010, revised);
+        reference.update(revised);
+
+        // the cached time scales follow the update
+        UTCScale utc = TimeScalesFactory.getUTC();
+        Assert.assertSame(ut1, TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true));
+        Assert.assertEquals(reference.getUT1MinusUTC(date),
+                            ut1.offsetFromTAI(date) - utc.offsetFromTAI(date),
+                            1.0e-13);
+        Assert.assertTrue(gmst.offsetFromTAI(date) - gmstBefore > 0.9e-3);
+
+        // the frames use the same UT1 as the cached time scale
+        double era = IERSConventions.IERS_2010.getEarthOrientationAngleFunction(ut1).value(date).getValue();
+        Transform t = FramesFactory.getNonInterpolatingTransform(cirf, tirf, date);
+        Assert.assertEquals(0.0,
+                            Rotation.distance(new Rotation(Vector3D.PLUS_K, -era), t.getRotation()),
+                            1.0e-15);
+
+    }
+
     @Before
     public void setUp() {
         Utils.setDataRoot("regular-data");
@@ -22,6 +22,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
@@ -94,6 +97,91 @@ public class InterpolatingTransformProviderTest {
 
     }
 
+    @Test
+    public void testPrecomputed() throws OrekitException {
+
+        AbsoluteDate t0 = AbsoluteDate.GALILEO_EPOCH;
+        CirclingProvider referenceProvider = new CirclingProvider(t0, 0.2);
+        CirclingProvider rawProvider = new CirclingProvider(t0, 0.2);
+        InterpolatingTransformProvider interpolatingProvider =
+                new InterpolatingTransformProvider(rawProvider,
+                                                   CartesianDerivativesFilter.USE_PVA,
+                                                   AngularDerivativesFilter.USE_RR,
+                                                   AbsoluteDate.PAST_INFINITY, AbsoluteDate.FUTURE_INFINITY,
+                                                   5, 0.8, 10, 60.0, 60.0);
+        interpolatingProvider.precompute(t0.shiftedBy(0.1), t0.shiftedBy(3.1), null);
+        Assert.assertEquals(8, rawProvider.getCount());
+
+        for (double dt = 0.1; dt <= 3.1; dt += 0.001) {
+            Transform reference = referenceProvider.getTransform(t0.shiftedBy(dt));
+            Transform interpolated = interpolatingProvider.getTransform(t0.shiftedBy(dt));
+            Transform error = new Transform(reference.getDate(), reference, interpolated.getInverse());
+            Assert.assertEquals(0.0, error.getCartesian().getPosition().getNorm(),           7.0e-15);
+            Assert.assertEquals(0.0, error.getCartesian().getVelocity().getNorm(),           3.0e-14);
+            Assert.assertEquals(0.0, error.getAngular().getRotation().getAngle(),            1.3e-15);
+            Assert.assertEquals(0.0, error.getAngular().getRotationRate().getNorm(),         2.2e-15);
+            Assert.assertEquals(0.0, error.getAngular().getRotationAcceleration().getNorm(), 1.2e-14);
+        }
+
+        // no raw transforms computed within the precomputed span
+        Assert.assertEquals(8, rawProvider.getCount());
+
+        // the cache is still used outside of the precomputed span
+        interpolatingProvider.getTransform(t0.shiftedBy(10.0));
+        Assert.assertTrue(rawProvider.getCount() > 8);
+
+    }
+
+    @Test
+    public void testPrecomputedConcurrent() throws OrekitException, InterruptedException {
+
+        final AbsoluteDate t0 = AbsoluteDate.GALILEO_EPOCH;
+        final TransformProvider spinning = new TransformProvider() {
+            private static final long serialVersionUID = 20150512L;
+            public Transform getTransform(AbsoluteDate date) {
+                final double dt = date.durationFrom(t0);
+                return new Transform(date,
+                                     new Rotation(Vector3D.PLUS_K, 7.29e-5 * dt).
+                                     applyTo(new Rotation(Vector3D.PLUS_I, 1.0e-3 * FastMath.sin(1.0e-6 * dt))),
+                                     new Vector3D(-7.29e-5, Vector3D.PLUS_K));
+            }
+        };
+        AbsoluteDate start = t0;
+        AbsoluteDate end   = t0.shiftedBy(10 * 86400.0);
+
+        InterpolatingTransformProvider sequential =
+                new InterpolatingTransformProvider(spinning,
+                                                   CartesianDerivativesFilter.USE_PVA,
+                                                   AngularDerivativesFilter.USE_R,
+                                                   AbsoluteDate.PAST_INFINITY, AbsoluteDate.FUTURE_INFINITY,
+                                                   6, 60.0, 10, 86400.0, 86400.0);
+        sequential.precompute(start, end, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        InterpolatingTransformProvider concurrent =
+                new InterpolatingTransformProvider(spinning,
+                                                   CartesianDerivativesFilter.USE_PVA,
+                                                   AngularDerivativesFilter.USE_R,
+                                                   AbsoluteDate.PAST_INFINITY, AbsoluteDate.FUTURE_INFINITY,
+                                                   6, 60.0, 10, 86400.0, 86400.0);
+        concurrent.precompute(start, end, executor);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (double dt = 0; dt <= end.durationFrom(start); dt += 997.0) {
+            AbsoluteDate date = start.shiftedBy(dt);
+            Transform reference = spinning.getTransform(date);
+            Transform t1 = sequential.getTransform(date);
+            Transform t2 = concurrent.getTransform(date);
+            Assert.assertEquals(0.0, Rotation.distance(t1.getRotation(), t2.getRotation()), 0.0);
+            Assert.assertEquals(0.0, Vector3D.distance(t1.getRotationRate(), t2.getRotationRate()), 0.0);
+            Assert.assertEquals(0.0, t1.getTranslation().getNorm(), 0.0);
+            Assert.assertEquals(0.0, Rotation.distance(reference.getRotation(), t1.getRotation()), 1.0e-14);
+            Assert.assertEquals(0.0, Vector3D.distance(reference.getRotationRate(), t1.getRotationRate()), 1.1e-9);
+        }
+
+    }
+
     @Test(expected=OrekitException.class)
     public void testForwardException() throws OrekitException {
         InterpolatingTransformProvider interpolatingProvider =
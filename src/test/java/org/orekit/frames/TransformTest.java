@@ -901,6 +901,57 @@ public class TransformTest {
         }
     }
 
+    @Test
+    public void testBulkTransforms() {
+        RandomGenerator random = new Well19937a(0x3d0d5c0bb4b2f6dfl);
+        for (int k = 0; k < 20; ++k) {
+            Transform transform = randomTransform(random);
+            int n = 50;
+            double[] positions = new double[3 * n];
+            double[] pvs       = new double[6 * n];
+            PVCoordinates[] reference = new PVCoordinates[n];
+            for (int i = 0; i < n; ++i) {
+                reference[i] = new PVCoordinates(randomVector(1.0e3, random), randomVector(1.0, random));
+                System.arraycopy(reference[i].getPosition().toArray(), 0, positions, 3 * i,     3);
+                System.arraycopy(reference[i].getPosition().toArray(), 0, pvs,       6 * i,     3);
+                System.arraycopy(reference[i].getVelocity().toArray(), 0, pvs,       6 * i + 3, 3);
+            }
+
+            double[] tPositions = new double[3 * n];
+            double[] tVectors   = new double[3 * n];
+            transform.transformPositions(positions, tPositions, n);
+            transform.transformVectors(positions, tVectors, n);
+            // in place conversion
+            transform.transformPVCoordinates(pvs, pvs, n);
+
+            for (int i = 0; i < n; ++i) {
+                Vector3D p = new Vector3D(tPositions[3 * i], tPositions[3 * i + 1], tPositions[3 * i + 2]);
+                checkVector(transform.transformPosition(reference[i].getPosition()), p, 1.0e-14);
+                Vector3D v = new Vector3D(tVectors[3 * i], tVectors[3 * i + 1], tVectors[3 * i + 2]);
+                checkVector(transform.transformVector(reference[i].getPosition()), v, 1.0e-14);
+                PVCoordinates tPV = transform.transformPVCoordinates(reference[i]);
+                checkVector(tPV.getPosition(), new Vector3D(pvs[6 * i],     pvs[6 * i + 1], pvs[6 * i + 2]), 1.0e-14);
+                checkVector(tPV.getVelocity(), new Vector3D(pvs[6 * i + 3], pvs[6 * i + 4], pvs[6 * i + 5]), 1.0e-14);
+            }
+
+        }
+    }
+
+    @Test
+    public void testBulkIdentity() {
+        double[] in  = new double[] { 1, 2, 3, 4, 5, 6 };
+        double[] out = new double[6];
+        Transform.IDENTITY.transformPVCoordinates(in, out, 1);
+        Assert.assertArrayEquals(in, out, 0.0);
+        Transform.IDENTITY.transformPositions(in, in, 2);
+        Assert.assertArrayEquals(new double[] { 1, 2, 3, 4, 5, 6 }, in, 0.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBulkWrongDimension() {
+        new Transform(AbsoluteDate.J2000_EPOCH, Vector3D.PLUS_I).transformPVCoordinates(new double[6], new double[6], 2);
+    }
+
     @Test
     public void testInterpolation() throws OrekitException {
 
@@ -0,0 +1,268 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.orbits;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+
+
+public class OrbitKernelsTest {
+
+    // Computation date
+    private AbsoluteDate date;
+
+    // Inertial frame
+    private Frame frame;
+
+    // Body mu
+    private double mu;
+
+    @Test
+    public void testKeplerianElliptic() {
+        for (final PositionAngle type : PositionAngle.values()) {
+            checkConversions(OrbitType.KEPLERIAN, type, randomKeplerian(new Well1024a(0x4c1e5a3b8f2d7091l), 200, false));
+        }
+    }
+
+    @Test
+    public void testKeplerianHyperbolic() {
+        for (final PositionAngle type : PositionAngle.values()) {
+            checkConversions(OrbitType.KEPLERIAN, type, randomKeplerian(new Well1024a(0x9a3e6d1c52b7f480l), 200, true));
+        }
+    }
+
+    @Test
+    public void testCircular() {
+        for (final PositionAngle type : PositionAngle.values()) {
+            checkConversions(OrbitType.CIRCULAR, type, randomKeplerian(new Well1024a(0x1f7b3d92c6e4a058l), 200, false));
+        }
+    }
+
+    @Test
+    public void testEquinoctial() {
+        for (final PositionAngle type : PositionAngle.values()) {
+            checkConversions(OrbitType.EQUINOCTIAL, type, randomKeplerian(new Well1024a(0x65d2b8e0a9c13f47l), 200, false));
+        }
+    }
+
+    @Test
+    public void testInPlace() {
+        final Orbit[] orbits = randomKeplerian(new Well1024a(0x2e8c41f7b05d96a3l), 50, false);
+        final double[] reference = new double[6 * orbits.length];
+        final double[] data      = new double[6 * orbits.length];
+        for (int k = 0; k < orbits.length; ++k) {
+            OrbitType.CARTESIAN.mapOrbitToArray(orbits[k], PositionAngle.TRUE, data);
+            System.arraycopy(data, 0, reference, 6 * k, 6);
+        }
+        System.arraycopy(reference, 0, data, 0, data.length);
+        OrbitKernels.cartesianToEquinoctial(mu, PositionAngle.MEAN, data, data, orbits.length);
+        OrbitKernels.equinoctialToCartesian(mu, PositionAngle.MEAN, data, data, orbits.length);
+        for (int k = 0; k < data.length; ++k) {
+            final double scale = (k % 6 < 3) ? 1.0e7 : 1.0e4;
+            Assert.assertEquals(reference[k], data[k], 1.0e-12 * scale);
+        }
+    }
+
+    @Test
+    public void testAnomalies() {
+        final RandomGenerator random = new Well1024a(0xb3f50a6c17e29d84l);
+        final int n = 1000;
+        final double[] e    = new double[n];
+        final double[] mean = new double[n];
+        for (int k = 0; k < n; ++k) {
+            e[k]    = (k < 10) ? 1 - 1.0e-6 * random.nextDouble() : 0.999 * random.nextDouble();
+            mean[k] = 20 * (random.nextDouble() - 0.5);
+        }
+        final double[] eccentric = new double[n];
+        final double[] trueAnom  = new double[n];
+        final double[] back      = new double[n];
+        OrbitKernels.ellipticMeanToEccentric(e, mean, eccentric, n);
+        OrbitKernels.ellipticEccentricToTrue(e, eccentric, trueAnom, n);
+        OrbitKernels.ellipticTrueToEccentric(e, trueAnom, back, n);
+        OrbitKernels.ellipticEccentricToMean(e, back, back, n);
+        for (int k = 0; k < n; ++k) {
+            final KeplerianOrbit orbit = new KeplerianOrbit(1.0e7, e[k], 0.5, 1.0, 2.0, mean[k],
+                                                            PositionAngle.MEAN, frame, date, mu);
+            Assert.assertEquals(orbit.getEccentricAnomaly(),
+                                MathUtils.normalizeAngle(eccentric[k], orbit.getEccentricAnomaly()),
+                                1.0e-12);
+            Assert.assertEquals(orbit.getTrueAnomaly(),
+                                MathUtils.normalizeAngle(trueAnom[k], orbit.getTrueAnomaly()),
+                                1.0e-12);
+            Assert.assertEquals(mean[k], MathUtils.normalizeAngle(back[k], mean[k]), 1.0e-11);
+        }
+    }
+
+    @Test
+    public void testHyperbolicAnomalies() {
+        final RandomGenerator random = new Well1024a(0x07d9c2e4f613ab58l);
+        for (int k = 0; k < 1000; ++k) {
+            final double e = 1 + 5 * random.nextDouble();
+            final double M = 20 * (random.nextDouble() - 0.5);
+            final double H = OrbitKernels.hyperbolicMeanToEccentric(e, M);
+            Assert.assertEquals(M, OrbitKernels.hyperbolicEccentricToMean(e, H), 1.0e-12 * FastMath.max(1, FastMath.abs(M)));
+            final double v = OrbitKernels.hyperbolicEccentricToTrue(e, H);
+            Assert.assertEquals(H, OrbitKernels.hyperbolicTrueToEccentric(e, v), 1.0e-10 * FastMath.max(1, FastMath.abs(H)));
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testHyperbolicEquinoctial() {
+        final Orbit[] orbits = randomKeplerian(new Well1024a(0xc85e1a2d4f9073b6l), 1, true);
+        final double[] data = new double[6];
+        OrbitType.CARTESIAN.mapOrbitToArray(orbits[0], PositionAngle.TRUE, data);
+        OrbitKernels.cartesianToEquinoctial(mu, PositionAngle.TRUE, data, data, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testHyperbolicCircular() {
+        final Orbit[] orbits = randomKeplerian(new Well1024a(0x3a6f0e5b92d7c148l), 1, true);
+        final double[] data = new double[6];
+        OrbitType.CARTESIAN.mapOrbitToArray(orbits[0], PositionAngle.TRUE, data);
+        OrbitKernels.cartesianToCircular(mu, PositionAngle.TRUE, data, data, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConicTypeMismatch() {
+        OrbitKernels.keplerianToCartesian(mu, PositionAngle.TRUE,
+                                          new double[] { -1.0e7, 0.5, 0.1, 0.2, 0.3, 0.4 },
+                                          new double[6], 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testDimensionMismatch() {
+        OrbitKernels.cartesianToKeplerian(mu, PositionAngle.TRUE, new double[12], new double[11], 2);
+    }
+
+    private void checkConversions(final OrbitType orbitType, final PositionAngle type, final Orbit[] orbits) {
+
+        final int n = orbits.length;
+        final double[] refPV       = new double[6 * n];
+        final double[] refElements = new double[6 * n];
+        final double[] buffer      = new double[6];
+        for (int k = 0; k < n; ++k) {
+            final Orbit converted = orbitType.convertType(orbits[k]);
+            final PVCoordinates pv = converted.getPVCoordinates();
+            setVector(refPV, 6 * k,     pv.getPosition());
+            setVector(refPV, 6 * k + 3, pv.getVelocity());
+            orbitType.mapOrbitToArray(orbitType.convertType(new CartesianOrbit(pv, frame, date, mu)), type, buffer);
+            System.arraycopy(buffer, 0, refElements, 6 * k, 6);
+        }
+
+        final double[] elements = new double[6 * n];
+        final double[] pv       = new double[6 * n];
+        switch (orbitType) {
+        case KEPLERIAN :
+            OrbitKernels.cartesianToKeplerian(mu, type, refPV, elements, n);
+            OrbitKernels.keplerianToCartesian(mu, type, refElements, pv, n);
+            break;
+        case CIRCULAR :
+            OrbitKernels.cartesianToCircular(mu, type, refPV, elements, n);
+            OrbitKernels.circularToCartesian(mu, type, refElements, pv, n);
+            break;
+        default :
+            OrbitKernels.cartesianToEquinoctial(mu, type, refPV, elements, n);
+            OrbitKernels.equinoctialToCartesian(mu, type, refElements, pv, n);
+        }
+
+        for (int k = 0; k < 6 * n; k += 6) {
+
+            // elements computed from Cartesian coordinates
+            Assert.assertEquals(refElements[k], elements[k], 1.0e-12 * FastMath.abs(refElements[k]));
+            for (int j = 1; j < 6; ++j) {
+                final boolean isAngle = (orbitType == OrbitType.KEPLERIAN) ? (j > 1) : (j == 5 || (orbitType == OrbitType.CIRCULAR && j > 2));
+                final double ref = refElements[k + j];
+                final double value = isAngle ? MathUtils.normalizeAngle(elements[k + j], ref) : elements[k + j];
+                Assert.assertEquals(ref, value, 1.0e-10);
+            }
+
+            // Cartesian coordinates computed from elements
+            final double r = FastMath.sqrt(refPV[k] * refPV[k] + refPV[k + 1] * refPV[k + 1] + refPV[k + 2] * refPV[k + 2]);
+            final double v = FastMath.sqrt(refPV[k + 3] * refPV[k + 3] + refPV[k + 4] * refPV[k + 4] + refPV[k + 5] * refPV[k + 5]);
+            for (int j = 0; j < 3; ++j) {
+                Assert.assertEquals(refPV[k + j],     pv[k + j],     1.0e-12 * r);
+                Assert.assertEquals(refPV[k + j + 3], pv[k + j + 3], 1.0e-12 * v);
+            }
+
+        }
+
+    }
+
+    private void setVector(final double[] array, final int offset, final Vector3D v) {
+        array[offset]     = v.getX();
+        array[offset + 1] = v.getY();
+        array[offset + 2] = v.getZ();
+    }
+
+    private Orbit[] randomKeplerian(final RandomGenerator random, final int n, final boolean hyperbolic) {
+        final Orbit[] orbits = new Orbit[n];
+        for (int k = 0; k < n; ++k) {
+            final double a;
+            final double e;
+            final double v;
+            if (hyperbolic) {
+                a = -1.0e7 * (1 + 4 * random.nextDouble());
+                e = 1.1 + 3 * random.nextDouble();
+                v = 0.8 * FastMath.acos(-1 / e) * (2 * random.nextDouble() - 1);
+            } else {
+                a = 7.0e6 + 3.5e7 * random.nextDouble();
+                e = 0.01 + 0.8 * random.nextDouble();
+                v = MathUtils.TWO_PI * random.nextDouble();
+            }
+            final double i    = 0.1 + (FastMath.PI - 0.2) * random.nextDouble();
+            final double pa   = MathUtils.TWO_PI * random.nextDouble();
+            final double raan = MathUtils.TWO_PI * random.nextDouble();
+            orbits[k] = new KeplerianOrbit(a, e, i, pa, raan, v, PositionAngle.TRUE, frame, date, mu);
+        }
+        return orbits;
+    }
+
+    @Before
+    public void setUp() {
+
+        Utils.setDataRoot("regular-data");
+
+        // Computation date
+        date = AbsoluteDate.J2000_EPOCH;
+
+        // Inertial frame
+        frame = FramesFactory.getEME2000();
+
+        // Body mu
+        mu = 3.9860047e14;
+
+    }
+
+    @After
+    public void tearDown() {
+        date  = null;
+        frame = null;
+    }
+
+}
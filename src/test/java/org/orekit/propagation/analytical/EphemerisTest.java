@@ -18,6 +18,7 @@ import org.orekit.frames.LOFType;
 import org.orekit.orbits.KeplerianOrbit;
 import org.orekit.orbits.Orbit;
 import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
 import org.orekit.propagation.Propagator;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.analytical.Ephemeris;
@@ -100,6 +101,40 @@ public class EphemerisTest {
 
     }
 
+    @Test
+    public void testCopy() throws OrekitException {
+
+        Frame inertialFrame = FramesFactory.getEME2000();
+        Orbit initialState = new KeplerianOrbit(7187990.1979844316, 0.5e-4, 1.7105407051081795,
+                                                1.9674147913622104, FastMath.toRadians(261), 0.0,
+                                                PositionAngle.TRUE, inertialFrame, initDate, 3.9860047e14);
+        Propagator propagator = new KeplerianPropagator(initialState);
+
+        List<SpacecraftState> states = new ArrayList<SpacecraftState>();
+        for (double dt = 0; dt <= finalDate.durationFrom(initDate); dt += 60.0) {
+            states.add(propagator.propagate(initDate.shiftedBy(dt)));
+        }
+        Ephemeris ephemeris = new Ephemeris(states, 2);
+        ephemeris.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.QSW));
+        propagator.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.QSW));
+
+        BoundedPropagator copy = ephemeris.copy();
+        Assert.assertNotSame(ephemeris, copy);
+        Assert.assertSame(ephemeris.getAttitudeProvider(), copy.getAttitudeProvider());
+        Assert.assertEquals(0.0, copy.getMinDate().durationFrom(ephemeris.getMinDate()), 1.0e-15);
+        Assert.assertEquals(0.0, copy.getMaxDate().durationFrom(ephemeris.getMaxDate()), 1.0e-15);
+        for (double dt = 30.0; dt < finalDate.durationFrom(initDate); dt += 600.0) {
+            AbsoluteDate currentDate = initDate.shiftedBy(dt);
+            SpacecraftState original = ephemeris.propagate(currentDate);
+            SpacecraftState copied   = copy.propagate(currentDate);
+            Assert.assertEquals(0.0, calculatePositionDelta(original, copied), 1.0e-15);
+            Assert.assertEquals(0.0, calculateVelocityDelta(original, copied), 1.0e-15);
+            Assert.assertEquals(0.0, calculateAttitudeDelta(original, copied), 1.0e-15);
+            Assert.assertEquals(0.0, calculateAttitudeDelta(propagator.propagate(currentDate), copied), 1.0e-6);
+        }
+
+    }
+
     @Before
     public void setUp() throws IllegalArgumentException, OrekitException {
         Utils.setDataRoot("regular-data");
@@ -0,0 +1,185 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.Constants;
+
+
+public class TLECatalogTest {
+
+    @Test(expected=OrekitException.class)
+    public void testNoData() throws OrekitException {
+        TLECatalog catalog = new TLECatalog("^inexistant\\.tle$", false);
+        catalog.loadTLEData();
+    }
+
+    @Test
+    public void testUnknownObject() throws OrekitException {
+        TLECatalog catalog = new TLECatalog("^spot-5\\.tle$", false);
+        catalog.loadTLEData();
+        try {
+            catalog.getTLEs(22076);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NO_TLE_FOR_OBJECT, oe.getSpecifier());
+            Assert.assertEquals(22076, ((Integer) oe.getParts()[0]).intValue());
+        }
+    }
+
+    @Test
+    public void testAvailableSatNums() throws OrekitException {
+        int[] refIds = {
+            5, 4632, 6251, 8195, 9880, 9998, 11801, 14128, 16925,
+            20413, 21897, 22312, 22674, 23177, 23333, 23599, 24208, 25954, 26900,
+            26975, 28057, 28129, 28350, 28623, 28626, 28872, 29141, 29238, 88888};
+
+        Utils.setDataRoot("tle/extrapolationTest-data:regular-data");
+        TLECatalog catalog = new TLECatalog(".*-entry$", true);
+        catalog.loadTLEData();
+        Assert.assertArrayEquals(refIds, catalog.getAvailableSatelliteNumbers());
+        for (int ref : refIds) {
+            TLESeries series = new TLESeries(".*-entry$", true);
+            series.loadTLEData(ref);
+            checkSame(series.getFirst(), catalog.getTLEs(ref).get(0));
+        }
+    }
+
+    @Test
+    public void testSameAsSeries() throws OrekitException {
+        TLESeries series = new TLESeries("^spot-5\\.tle$", false);
+        series.loadTLEData();
+        TLECatalog catalog = new TLECatalog("^spot-5\\.tle$", false);
+        catalog.loadTLEData();
+        checkSameAsSeries(series, catalog);
+    }
+
+    @Test
+    public void testParallelParsing() throws OrekitException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TLECatalog sequential = new TLECatalog("^spot-5.*\\.tle$", true);
+            sequential.loadTLEData();
+            TLECatalog parallel   = new TLECatalog("^spot-5.*\\.tle$", true, executor);
+            parallel.loadTLEData();
+            Assert.assertEquals(sequential.size(), parallel.size());
+            List<TLE> sequentialTLEs = sequential.getTLEs(27421);
+            List<TLE> parallelTLEs   = parallel.getTLEs(27421);
+            for (int i = 0; i < sequentialTLEs.size(); ++i) {
+                checkSame(sequentialTLEs.get(i), parallelTLEs.get(i));
+            }
+
+            TLESeries series = new TLESeries("^spot-5\\.tle$", false);
+            series.loadTLEData();
+            TLECatalog catalog = new TLECatalog("^spot-5\\.tle$", false, executor);
+            catalog.loadTLEData();
+            checkSameAsSeries(series, catalog);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWithExtraLines() throws OrekitException {
+        TLECatalog catalog = new TLECatalog("^spot-5-with-extra-lines\\.tle$", true);
+        catalog.loadTLEData();
+        Assert.assertEquals(1, catalog.getAvailableSatelliteNumbers().length);
+        Assert.assertEquals(27421, catalog.getAvailableSatelliteNumbers()[0]);
+    }
+
+    @Test
+    public void testWithExtraLinesExpectException() throws OrekitException {
+        TLECatalog catalog = new TLECatalog("^spot-5-with-extra-lines\\.tle$", false);
+        try {
+            catalog.loadTLEData();
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NOT_TLE_LINES, oe.getSpecifier());
+            Assert.assertEquals(1, ((Integer) oe.getParts()[0]).intValue());
+            Assert.assertEquals(2, ((Integer) oe.getParts()[1]).intValue());
+        }
+    }
+
+    @Test
+    public void testOneLineExpectException() throws OrekitException {
+        TLECatalog catalog = new TLECatalog("^spot-5-one-line\\.tle$", false);
+        try {
+            catalog.loadTLEData();
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.MISSING_SECOND_TLE_LINE, oe.getSpecifier());
+        }
+    }
+
+    private void checkSameAsSeries(TLESeries series, TLECatalog catalog) throws OrekitException {
+
+        List<TLE> tles = catalog.getTLEs(27421);
+        Assert.assertEquals(tles.size(), catalog.size());
+        checkSame(series.getFirst(), tles.get(0));
+        checkSame(series.getLast(),  tles.get(tles.size() - 1));
+        for (int i = 1; i < tles.size(); ++i) {
+            Assert.assertTrue(tles.get(i).getDate().compareTo(tles.get(i - 1).getDate()) > 0);
+        }
+
+        AbsoluteDate start = series.getFirstDate().shiftedBy(-Constants.JULIAN_DAY);
+        AbsoluteDate end   = series.getLastDate().shiftedBy(Constants.JULIAN_DAY);
+        for (AbsoluteDate date = start; date.compareTo(end) < 0; date = date.shiftedBy(1234.5)) {
+            checkSame(series.getClosestTLE(date), catalog.getClosestTLE(27421, date));
+        }
+
+    }
+
+    private void checkSame(TLE expected, TLE actual) throws OrekitException {
+        Assert.assertEquals(expected.getSatelliteNumber(),            actual.getSatelliteNumber());
+        Assert.assertEquals(expected.getClassification(),             actual.getClassification());
+        Assert.assertEquals(expected.getLaunchYear(),                 actual.getLaunchYear());
+        Assert.assertEquals(expected.getLaunchNumber(),               actual.getLaunchNumber());
+        Assert.assertEquals(expected.getLaunchPiece(),                actual.getLaunchPiece());
+        Assert.assertEquals(expected.getEphemerisType(),              actual.getEphemerisType());
+        Assert.assertEquals(expected.getElementNumber(),              actual.getElementNumber());
+        Assert.assertEquals(expected.getDate(),                       actual.getDate());
+        Assert.assertEquals(expected.getMeanMotion(),                 actual.getMeanMotion(),                 0.0);
+        Assert.assertEquals(expected.getMeanMotionFirstDerivative(),  actual.getMeanMotionFirstDerivative(),  0.0);
+        Assert.assertEquals(expected.getMeanMotionSecondDerivative(), actual.getMeanMotionSecondDerivative(), 0.0);
+        Assert.assertEquals(expected.getE(),                          actual.getE(),                          0.0);
+        Assert.assertEquals(expected.getI(),                          actual.getI(),                          0.0);
+        Assert.assertEquals(expected.getPerigeeArgument(),            actual.getPerigeeArgument(),            0.0);
+        Assert.assertEquals(expected.getRaan(),                       actual.getRaan(),                       0.0);
+        Assert.assertEquals(expected.getMeanAnomaly(),                actual.getMeanAnomaly(),                0.0);
+        Assert.assertEquals(expected.getRevolutionNumberAtEpoch(),    actual.getRevolutionNumberAtEpoch());
+        Assert.assertEquals(expected.getBStar(),                      actual.getBStar(),                      0.0);
+        Assert.assertEquals(expected.getLine1(),                      actual.getLine1());
+        Assert.assertEquals(expected.getLine2(),                      actual.getLine2());
+    }
+
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+    }
+
+}
@@ -0,0 +1,182 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+
+public class TLEFitterTest {
+
+    private TLE geoTLE;
+
+    private TLE leoTLE;
+
+    @Test
+    public void testGeoPositionVelocity() throws OrekitException {
+        checkFit(geoTLE, false, false, 1.0e-6);
+    }
+
+    @Test
+    public void testGeoPositionOnly() throws OrekitException {
+        checkFit(geoTLE, true, false, 1.0e-6);
+    }
+
+    @Test
+    public void testLeoPositionVelocityWithBStar() throws OrekitException {
+        checkFit(leoTLE, false, true, 1.0e-6);
+    }
+
+    @Test
+    public void testLeoPositionOnlyWithBStar() throws OrekitException {
+        checkFit(leoTLE, true, true, 1.0e-6);
+    }
+
+    @Test
+    public void testWarmStart() throws OrekitException {
+
+        // fit one day of data, starting one day after the reference TLE epoch
+        final List<SpacecraftState> sample = createSample(leoTLE, 86400.0, 86400.0, 300.0);
+        final TLEFitter fitter = new TLEFitter(1.0e-3, 100);
+
+        final TLE cold = fitter.fitFromOsculating(sample, leoTLE, false, true);
+        final int coldIterations = fitter.getIterations();
+        final double coldRMS = fitter.getRMS();
+
+        final TLE warm = fitter.fit(sample, leoTLE, false, true);
+        final int warmIterations = fitter.getIterations();
+        final double warmRMS = fitter.getRMS();
+
+        Assert.assertTrue(warmIterations < coldIterations);
+        Assert.assertEquals(coldRMS, warmRMS, 1.0e-3);
+        Assert.assertEquals(0.0, sample.get(0).getDate().durationFrom(warm.getDate()), 0.0);
+        Assert.assertEquals(cold.getMeanMotion(), warm.getMeanMotion(), 1.0e-10 * cold.getMeanMotion());
+        Assert.assertEquals(cold.getE(),          warm.getE(),          1.0e-6  * cold.getE());
+        Assert.assertEquals(cold.getI(),          warm.getI(),          1.0e-8  * cold.getI());
+
+        // the fitted TLE must reproduce the sample
+        Assert.assertTrue(warmRMS < 0.1);
+        final Propagator propagator = TLEPropagator.selectExtrapolator(warm);
+        for (final SpacecraftState state : sample) {
+            final double distance =
+                    state.getPVCoordinates().getPosition().distance(propagator.propagate(state.getDate()).getPVCoordinates().getPosition());
+            Assert.assertEquals(0.0, distance, 0.1);
+        }
+
+    }
+
+    @Test
+    public void testWorkspaceReuse() throws OrekitException {
+        final TLEFitter fitter = new TLEFitter(1.0e-3, 100);
+        final TLE leo = fitter.fitFromOsculating(createSample(leoTLE, 0.0, 86400.0, 300.0), leoTLE, false, true);
+        fitter.fitFromOsculating(createSample(geoTLE, 0.0, 86400.0, 600.0), geoTLE, false, false);
+        final TLE again = fitter.fitFromOsculating(createSample(leoTLE, 0.0, 86400.0, 300.0), leoTLE, false, true);
+        Assert.assertEquals(leo.getLine1(), again.getLine1());
+        Assert.assertEquals(leo.getLine2(), again.getLine2());
+    }
+
+    @Test
+    public void testTooFewIterations() throws OrekitException {
+        try {
+            new TLEFitter(1.0e-3, 1).fitFromOsculating(createSample(leoTLE, 0.0, 86400.0, 300.0), leoTLE, false, true);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_COMPUTE_TLE, oe.getSpecifier());
+            Assert.assertEquals(1, ((Integer) oe.getParts()[0]).intValue());
+        }
+    }
+
+    @Test
+    public void testSingularProblem() throws OrekitException {
+        // a single position cannot constrain six orbital elements
+        try {
+            new TLEFitter(1.0e-3, 100).fitFromOsculating(createSample(leoTLE, 0.0, 1.0, 300.0), leoTLE, true, false);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.SINGULAR_TLE_FITTING_PROBLEM, oe.getSpecifier());
+            Assert.assertTrue(oe.getCause() instanceof NonPositiveDefiniteMatrixException);
+        }
+    }
+
+    private void checkFit(final TLE tle, final boolean positionOnly, final boolean withBStar,
+                          final double eps)
+        throws OrekitException {
+
+        final TLEFitter fitter = new TLEFitter(1.0e-3, 100);
+        final TLE fitted = fitter.fitFromOsculating(createSample(tle, 0.0, 86400.0, 300.0),
+                                                    tle, positionOnly, withBStar);
+
+        Assert.assertTrue(fitter.getRMS() < 1.0e-3);
+        Assert.assertTrue(fitter.getIterations() < 20);
+
+        Assert.assertEquals(tle.getSatelliteNumber(),         fitted.getSatelliteNumber());
+        Assert.assertEquals(tle.getClassification(),          fitted.getClassification());
+        Assert.assertEquals(tle.getLaunchYear(),              fitted.getLaunchYear());
+        Assert.assertEquals(tle.getLaunchNumber(),            fitted.getLaunchNumber());
+        Assert.assertEquals(tle.getLaunchPiece(),             fitted.getLaunchPiece());
+        Assert.assertEquals(tle.getElementNumber(),           fitted.getElementNumber());
+        Assert.assertEquals(tle.getRevolutionNumberAtEpoch(), fitted.getRevolutionNumberAtEpoch());
+
+        Assert.assertEquals(tle.getMeanMotion(), fitted.getMeanMotion(), eps * tle.getMeanMotion());
+        Assert.assertEquals(tle.getE(), fitted.getE(), eps * tle.getE());
+        Assert.assertEquals(tle.getI(), fitted.getI(), eps * tle.getI());
+        checkAngle(tle.getRaan() + tle.getPerigeeArgument(),
+                   fitted.getRaan() + fitted.getPerigeeArgument(), eps);
+        checkAngle(tle.getRaan() + tle.getPerigeeArgument() + tle.getMeanAnomaly(),
+                   fitted.getRaan() + fitted.getPerigeeArgument() + fitted.getMeanAnomaly(), eps);
+        if (withBStar) {
+            Assert.assertEquals(tle.getBStar(), fitted.getBStar(), 1.0e-3 * tle.getBStar());
+        }
+
+    }
+
+    private void checkAngle(final double expected, final double actual, final double tolerance) {
+        Assert.assertEquals(expected, MathUtils.normalizeAngle(actual, expected), tolerance * FastMath.PI);
+    }
+
+    private List<SpacecraftState> createSample(final TLE tle, final double start,
+                                               final double duration, final double stepSize)
+        throws OrekitException {
+        final Propagator p = TLEPropagator.selectExtrapolator(tle);
+        final List<SpacecraftState> sample = new ArrayList<SpacecraftState>();
+        for (double dt = 0; dt < duration; dt += stepSize) {
+            sample.add(p.propagate(tle.getDate().shiftedBy(start + dt)));
+        }
+        return sample;
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        geoTLE = new TLE("1 27508U 02040A   12021.25695307 -.00000113  00000-0  10000-3 0  7326",
+                         "2 27508   0.0571 356.7800 0005033 344.4621 218.7816  1.00271798 34501");
+        leoTLE = new TLE("1 31135U 07013A   11003.00000000  .00000816  00000+0  47577-4 0    11",
+                         "2 31135   2.4656 183.9084 0021119 236.4164  60.4567 15.10546832    15");
+    }
+
+}
@@ -162,6 +162,34 @@ public class TLESeriesTest {
 
     }
 
+    @Test
+    public void testBulkPV() throws IOException, OrekitException {
+        TLESeries series = new TLESeries("^spot-5\\.tle$", false, 2);
+        series.loadTLEData();
+        TLESeries reference = new TLESeries("^spot-5\\.tle$", false);
+        reference.loadTLEData();
+
+        AbsoluteDate t0 = series.getFirstDate().shiftedBy(-Constants.JULIAN_DAY);
+        double span     = series.getLastDate().durationFrom(t0) + 2 * Constants.JULIAN_DAY;
+        AbsoluteDate[] sorted   = new AbsoluteDate[2000];
+        AbsoluteDate[] unsorted = new AbsoluteDate[sorted.length];
+        for (int i = 0; i < sorted.length; ++i) {
+            sorted[i]   = t0.shiftedBy(i * span / sorted.length);
+            unsorted[i] = t0.shiftedBy(((37 * i) % sorted.length) * span / sorted.length);
+        }
+
+        for (final AbsoluteDate[] dates : new AbsoluteDate[][] { sorted, unsorted }) {
+            PVCoordinates[] pv = series.getPVCoordinates(dates);
+            Assert.assertEquals(dates.length, pv.length);
+            for (int i = 0; i < dates.length; ++i) {
+                PVCoordinates delta = new PVCoordinates(reference.getPVCoordinates(dates[i]), pv[i]);
+                Assert.assertEquals(0.0, delta.getPosition().getNorm(), 1.0e-15);
+                Assert.assertEquals(0.0, delta.getVelocity().getNorm(), 1.0e-15);
+            }
+        }
+
+    }
+
     @Test
     public void testSpot5() throws IOException, OrekitException {
 
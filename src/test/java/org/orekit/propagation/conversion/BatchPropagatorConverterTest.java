@@ -0,0 +1,132 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conversion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+public class BatchPropagatorConverterTest {
+
+    @Test
+    public void testSequential() throws OrekitException {
+        checkBatch(null);
+    }
+
+    @Test
+    public void testParallel() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            checkBatch(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnsupportedParameter() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final BatchPropagatorConverter batch = new BatchPropagatorConverter(factory, executor);
+            final List<List<SpacecraftState>> samples = new ArrayList<List<SpacecraftState>>();
+            samples.add(createSample(tles.get(0)));
+            samples.add(createSample(tles.get(0)));
+            batch.convert(samples, false, "not a parameter");
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNSUPPORTED_PARAMETER_NAME, oe.getSpecifier());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void checkBatch(final ExecutorService executor) throws OrekitException {
+
+        final List<List<SpacecraftState>> samples = new ArrayList<List<SpacecraftState>>();
+        for (int i = 0; i < 3; ++i) {
+            for (final TLE tle : tles) {
+                samples.add(createSample(tle));
+            }
+        }
+
+        final BatchPropagatorConverter batch = new BatchPropagatorConverter(factory, executor);
+        final List<BatchPropagatorConverter.Result> results =
+                batch.convert(samples, false, TLEPropagatorBuilder.B_STAR);
+        Assert.assertEquals(samples.size(), results.size());
+        Assert.assertTrue(batch.getConvertersNumber() >= 1);
+        Assert.assertTrue(batch.getConvertersNumber() <= (executor == null ? 1 : 5));
+
+        for (int i = 0; i < samples.size(); ++i) {
+            final AbstractPropagatorConverter single = factory.createConverter();
+            final TLE expected = ((TLEPropagator) single.convert(samples.get(i), false,
+                                                                 TLEPropagatorBuilder.B_STAR)).getTLE();
+            final BatchPropagatorConverter.Result result = results.get(i);
+            final TLE fitted = ((TLEPropagator) result.getPropagator()).getTLE();
+            Assert.assertEquals(single.getRMS(),         result.getRMS(), 0.0);
+            Assert.assertEquals(single.getEvaluations(), result.getEvaluations());
+            Assert.assertEquals(expected.getLine1(), fitted.getLine1());
+            Assert.assertEquals(expected.getLine2(), fitted.getLine2());
+        }
+
+    }
+
+    private List<SpacecraftState> createSample(final TLE tle) throws OrekitException {
+        final Propagator p = TLEPropagator.selectExtrapolator(tle);
+        final List<SpacecraftState> sample = new ArrayList<SpacecraftState>();
+        for (double dt = 0; dt < 43200; dt += 600) {
+            sample.add(p.propagate(tle.getDate().shiftedBy(dt)));
+        }
+        return sample;
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        tles = new ArrayList<TLE>();
+        tles.add(new TLE("1 27508U 02040A   12021.25695307 -.00000113  00000-0  10000-3 0  7326",
+                         "2 27508   0.0571 356.7800 0005033 344.4621 218.7816  1.00271798 34501"));
+        tles.add(new TLE("1 31135U 07013A   11003.00000000  .00000816  00000+0  47577-4 0    11",
+                         "2 31135   2.4656 183.9084 0021119 236.4164  60.4567 15.10546832    15"));
+        factory = new BatchPropagatorConverter.ConverterFactory() {
+            public AbstractPropagatorConverter createConverter() throws OrekitException {
+                final TLE tle = tles.get(1);
+                final TLEPropagatorBuilder builder =
+                        new TLEPropagatorBuilder(tle.getSatelliteNumber(), tle.getClassification(),
+                                                 tle.getLaunchYear(), tle.getLaunchNumber(),
+                                                 tle.getLaunchPiece(), tle.getElementNumber(),
+                                                 tle.getRevolutionNumberAtEpoch());
+                return new FiniteDifferencePropagatorConverter(builder, 1.0e-3, 1000);
+            }
+        };
+    }
+
+    private List<TLE> tles;
+    private BatchPropagatorConverter.ConverterFactory factory;
+
+}
@@ -0,0 +1,77 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conversion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+public class FiniteDifferencePropagatorConverterTest {
+
+    @Test
+    public void testParallel() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final FiniteDifferencePropagatorConverter sequential =
+                    new FiniteDifferencePropagatorConverter(createBuilder(), 1.0e-3, 1000);
+            final FiniteDifferencePropagatorConverter parallel =
+                    new FiniteDifferencePropagatorConverter(createBuilder(), 1.0e-3, 1000, executor);
+            final TLE s = ((TLEPropagator) sequential.convert(sample, false, TLEPropagatorBuilder.B_STAR)).getTLE();
+            final TLE p = ((TLEPropagator) parallel.convert(sample, false, TLEPropagatorBuilder.B_STAR)).getTLE();
+            Assert.assertEquals(sequential.getRMS(),         parallel.getRMS(),         0.0);
+            Assert.assertEquals(sequential.getEvaluations(), parallel.getEvaluations());
+            Assert.assertEquals(s.getLine1(), p.getLine1());
+            Assert.assertEquals(s.getLine2(), p.getLine2());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private TLEPropagatorBuilder createBuilder() throws OrekitException {
+        return new TLEPropagatorBuilder(tle.getSatelliteNumber(), tle.getClassification(),
+                                        tle.getLaunchYear(), tle.getLaunchNumber(),
+                                        tle.getLaunchPiece(), tle.getElementNumber(),
+                                        tle.getRevolutionNumberAtEpoch());
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        tle = new TLE("1 31135U 07013A   11003.00000000  .00000816  00000+0  47577-4 0    11",
+                      "2 31135   2.4656 183.9084 0021119 236.4164  60.4567 15.10546832    15");
+        final Propagator p = TLEPropagator.selectExtrapolator(tle);
+        sample = new ArrayList<SpacecraftState>();
+        for (double dt = 0; dt < 86400; dt += 300) {
+            sample.add(p.propagate(tle.getDate().shiftedBy(dt)));
+        }
+    }
+
+    private TLE tle;
+    private List<SpacecraftState> sample;
+
+}
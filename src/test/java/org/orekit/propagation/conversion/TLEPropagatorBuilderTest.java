@@ -0,0 +1,69 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conversion;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.utils.PVCoordinates;
+
+public class TLEPropagatorBuilderTest {
+
+    @Test
+    public void testBStarScaling() throws OrekitException {
+
+        final TLEPropagatorBuilder builder =
+                new TLEPropagatorBuilder(tle.getSatelliteNumber(), tle.getClassification(),
+                                         tle.getLaunchYear(), tle.getLaunchNumber(),
+                                         tle.getLaunchPiece(), tle.getElementNumber(),
+                                         tle.getRevolutionNumberAtEpoch());
+        builder.setFreeParameters(Arrays.asList(TLEPropagatorBuilder.B_STAR));
+
+        // the parameter value is B* scaled by 1e4, both for reading and writing
+        builder.setParameter(TLEPropagatorBuilder.B_STAR, 0.47577);
+        Assert.assertEquals(0.47577, builder.getParameter(TLEPropagatorBuilder.B_STAR), 1.0e-15);
+
+        final PVCoordinates pv = TLEPropagator.selectExtrapolator(tle).getPVCoordinates(tle.getDate(), builder.getFrame());
+        final Vector3D p = pv.getPosition();
+        final Vector3D v = pv.getVelocity();
+        final double[] parameters = new double[] {
+            p.getX(), p.getY(), p.getZ(), v.getX(), v.getY(), v.getZ(),
+            builder.getParameter(TLEPropagatorBuilder.B_STAR)
+        };
+        final TLE rebuilt = ((TLEPropagator) builder.buildPropagator(tle.getDate(), parameters)).getTLE();
+        Assert.assertEquals(tle.getBStar(), rebuilt.getBStar(), 1.0e-15);
+        Assert.assertEquals(0.47577, builder.getParameter(TLEPropagatorBuilder.B_STAR), 1.0e-15);
+
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        tle = new TLE("1 31135U 07013A   11003.00000000  .00000816  00000+0  47577-4 0    11",
+                      "2 31135   2.4656 183.9084 0021119 236.4164  60.4567 15.10546832    15");
+    }
+
+    private TLE tle;
+
+}
@@ -0,0 +1,117 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.LOFType;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+public class CovarianceConverterTest {
+
+    @Test
+    public void testRadialUncertainty() {
+        // pure radial position uncertainty in inertial frame
+        final Vector3D u = pv.getPosition().normalize();
+        final RealMatrix covariance = MatrixUtils.createRealMatrix(6, 6);
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                covariance.setEntry(i, j, 25.0 * u.toArray()[i] * u.toArray()[j]);
+            }
+        }
+        final RealMatrix qsw = CovarianceConverter.toLOF(covariance, LOFType.QSW, date, pv);
+        Assert.assertEquals(25.0, qsw.getEntry(0, 0), 1.0e-12);
+        Assert.assertEquals(0.0,  qsw.getEntry(1, 1), 1.0e-12);
+        Assert.assertEquals(0.0,  qsw.getEntry(2, 2), 1.0e-12);
+        // the rotating frame converts radial position uncertainty into along-track velocity uncertainty
+        final double omega = pv.getMomentum().getNorm() / pv.getPosition().getNormSq();
+        Assert.assertEquals(25.0 * omega * omega, qsw.getEntry(4, 4), 1.0e-15);
+    }
+
+    @Test
+    public void testLOFRoundTrip() {
+        for (final LOFType type : LOFType.values()) {
+            final RealMatrix back = CovarianceConverter.fromLOF(CovarianceConverter.toLOF(covariance, type, date, pv),
+                                                                type, date, pv);
+            Assert.assertEquals(0.0, back.subtract(covariance).getNorm(), 1.0e-12 * covariance.getNorm());
+        }
+    }
+
+    @Test
+    public void testFrameRoundTrip() throws OrekitException {
+        final RealMatrix itrf = CovarianceConverter.changeFrame(covariance, FramesFactory.getEME2000(),
+                                                                FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                                date);
+        Assert.assertEquals(covariance.getEntry(6, 6), itrf.getEntry(6, 6), 0.0);
+        Assert.assertEquals(covariance.getTrace() - covariance.getEntry(6, 6) - sumVelocityVariances(covariance),
+                            itrf.getTrace() - itrf.getEntry(6, 6) - sumVelocityVariances(itrf),
+                            1.0e-12 * covariance.getTrace());
+        final RealMatrix back = CovarianceConverter.changeFrame(itrf, FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                                FramesFactory.getEME2000(), date);
+        Assert.assertEquals(0.0, back.subtract(covariance).getNorm(), 1.0e-12 * covariance.getNorm());
+    }
+
+    @Test
+    public void testWrongDimension() {
+        try {
+            CovarianceConverter.toLOF(MatrixUtils.createRealIdentityMatrix(5), LOFType.TNW, date, pv);
+            Assert.fail("an exception should have been thrown");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertEquals("unsupported 5x5 covariance matrix, expected 6x6 or 7x7", iae.getMessage());
+        }
+    }
+
+    private double sumVelocityVariances(final RealMatrix m) {
+        return m.getEntry(3, 3) + m.getEntry(4, 4) + m.getEntry(5, 5);
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        date = new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI());
+        pv = new PVCoordinates(new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04),
+                               new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01));
+        final RealMatrix a = MatrixUtils.createRealMatrix(7, 7);
+        for (int i = 0; i < 7; ++i) {
+            for (int j = 0; j < 7; ++j) {
+                a.setEntry(i, j, FastRandom.value(i, j) * (i < 3 ? 10.0 : (i < 6 ? 0.01 : 1.0)));
+            }
+        }
+        covariance = a.multiply(a.transpose());
+    }
+
+    private static class FastRandom {
+        static double value(final int i, final int j) {
+            return Math.sin(12.9898 * (i + 1) + 78.233 * (j + 1));
+        }
+    }
+
+    private AbsoluteDate date;
+    private PVCoordinates pv;
+    private RealMatrix covariance;
+
+}
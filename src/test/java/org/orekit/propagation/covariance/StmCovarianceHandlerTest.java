@@ -0,0 +1,164 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.ode.nonstiff.DormandPrince853Integrator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.propagation.numerical.PartialDerivativesEquations;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+public class StmCovarianceHandlerTest {
+
+    @Test
+    public void testInitialCovariance() throws OrekitException {
+        final List<RealMatrix> covariances = propagate(OrbitType.EQUINOCTIAL, PositionAngle.TRUE, 600.0);
+        Assert.assertEquals(2, covariances.size());
+        checkClose(initialCovariance, covariances.get(0), 1.0e-12);
+    }
+
+    @Test
+    public void testOrbitTypeIndependence() throws OrekitException {
+        final List<RealMatrix> cartesian   = propagate(OrbitType.CARTESIAN,   PositionAngle.TRUE, 3600.0);
+        final List<RealMatrix> equinoctial = propagate(OrbitType.EQUINOCTIAL, PositionAngle.MEAN, 3600.0);
+        final List<RealMatrix> keplerian   = propagate(OrbitType.KEPLERIAN,   PositionAngle.ECCENTRIC, 3600.0);
+        Assert.assertEquals(7, cartesian.size());
+        Assert.assertEquals(7, equinoctial.size());
+        Assert.assertEquals(7, keplerian.size());
+        for (int i = 0; i < cartesian.size(); ++i) {
+            checkClose(cartesian.get(i), equinoctial.get(i), 2.0e-6);
+            checkClose(cartesian.get(i), keplerian.get(i),   2.0e-6);
+            checkClose(cartesian.get(i), cartesian.get(i).transpose(), 1.0e-15);
+        }
+
+        // along-track uncertainty grows
+        Assert.assertTrue(cartesian.get(6).getTrace() > 10 * cartesian.get(0).getTrace());
+
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testWrongDimension() throws OrekitException {
+        final NumericalPropagator propagator = createPropagator(OrbitType.CARTESIAN, PositionAngle.TRUE);
+        final PartialDerivativesEquations pde = new PartialDerivativesEquations("stm", propagator);
+        pde.setInitialJacobians(state, 7, 0);
+        new StmCovarianceHandler(pde.getMapper(), initialCovariance, null);
+    }
+
+    @Test
+    public void testUnsupportedDimension() throws OrekitException {
+        final NumericalPropagator propagator = createPropagator(OrbitType.CARTESIAN, PositionAngle.TRUE);
+        final PartialDerivativesEquations pde = new PartialDerivativesEquations("stm", propagator);
+        pde.setInitialJacobians(state, 6, 0);
+        try {
+            new StmCovarianceHandler(pde.getMapper(), MatrixUtils.createRealIdentityMatrix(5), null);
+            Assert.fail("an exception should have been thrown");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertEquals("unsupported 5x5 covariance matrix, expected 6x6 or 7x7", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void testReusedCovariance() throws OrekitException {
+        final NumericalPropagator propagator = createPropagator(OrbitType.CARTESIAN, PositionAngle.TRUE);
+        final PartialDerivativesEquations pde = new PartialDerivativesEquations("stm", propagator);
+        propagator.setInitialState(pde.setInitialJacobians(state, 6, 0));
+        final List<RealMatrix> received = new ArrayList<RealMatrix>();
+        propagator.setMasterMode(600.0,
+                                 new StmCovarianceHandler(pde.getMapper(), initialCovariance,
+                                                          new CovarianceHandler() {
+                                     public void handleCovariance(final SpacecraftState s, final RealMatrix covariance) {
+                                         received.add(covariance);
+                                     }
+                                 }));
+        propagator.propagate(state.getDate().shiftedBy(1800.0));
+        Assert.assertEquals(4, received.size());
+        for (int i = 1; i < received.size(); ++i) {
+            Assert.assertSame(received.get(0), received.get(i));
+        }
+    }
+
+    private List<RealMatrix> propagate(final OrbitType type, final PositionAngle angle, final double duration)
+        throws OrekitException {
+        final NumericalPropagator propagator = createPropagator(type, angle);
+        final PartialDerivativesEquations pde = new PartialDerivativesEquations("stm", propagator);
+        propagator.setInitialState(pde.setInitialJacobians(state, 6, 0));
+        final List<RealMatrix> covariances = new ArrayList<RealMatrix>();
+        propagator.setMasterMode(600.0,
+                                 new StmCovarianceHandler(pde.getMapper(), initialCovariance,
+                                                          new CovarianceHandler() {
+                                     public void handleCovariance(final SpacecraftState s, final RealMatrix covariance) {
+                                         covariances.add(covariance.copy());
+                                     }
+                                 }));
+        propagator.propagate(state.getDate().shiftedBy(duration));
+        return covariances;
+    }
+
+    private NumericalPropagator createPropagator(final OrbitType type, final PositionAngle angle)
+        throws OrekitException {
+        final double[][] tolerances = NumericalPropagator.tolerances(1.0e-6, state.getOrbit(), type);
+        final NumericalPropagator propagator =
+                new NumericalPropagator(new DormandPrince853Integrator(1.0e-3, 300, tolerances[0], tolerances[1]));
+        propagator.setOrbitType(type);
+        propagator.setPositionAngleType(angle);
+        return propagator;
+    }
+
+    private void checkClose(final RealMatrix expected, final RealMatrix actual, final double relativeTolerance) {
+        Assert.assertEquals(0.0,
+                            expected.subtract(actual).getNorm() / expected.getNorm(),
+                            relativeTolerance);
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        state = new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getEME2000(),
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       Constants.EIGEN5C_EARTH_MU));
+        initialCovariance = MatrixUtils.createRealDiagonalMatrix(new double[] {
+            100.0, 100.0, 100.0, 1.0e-4, 1.0e-4, 1.0e-4
+        });
+        initialCovariance.setEntry(0, 4, 0.05);
+        initialCovariance.setEntry(4, 0, 0.05);
+    }
+
+    private SpacecraftState state;
+    private RealMatrix      initialCovariance;
+
+}
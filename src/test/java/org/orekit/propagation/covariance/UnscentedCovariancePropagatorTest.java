@@ -0,0 +1,168 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.covariance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.ode.nonstiff.DormandPrince853Integrator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.conversion.DormandPrince853IntegratorBuilder;
+import org.orekit.propagation.conversion.NumericalPropagatorBuilder;
+import org.orekit.propagation.conversion.PropagatorBuilder;
+import org.orekit.propagation.dispersion.DispersionEngine;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.propagation.numerical.PartialDerivativesEquations;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+public class UnscentedCovariancePropagatorTest {
+
+    @Test
+    public void testInitialCovariance() throws OrekitException {
+        final List<RealMatrix> unscented = new ArrayList<RealMatrix>();
+        new UnscentedCovariancePropagator(factory, null).propagate(state, initialCovariance,
+                                                                   state.getDate(), 600.0, 1.0e-15,
+                                                                   new Recorder(unscented));
+        Assert.assertEquals(1, unscented.size());
+        checkClose(initialCovariance, unscented.get(0), 1.0e-10);
+    }
+
+    @Test
+    public void testAgainstStm() throws OrekitException {
+
+        final List<RealMatrix> unscented = new ArrayList<RealMatrix>();
+        new UnscentedCovariancePropagator(factory, null).propagate(state, initialCovariance,
+                                                                   state.getDate().shiftedBy(3600.0), 600.0, 1.0e-15,
+                                                                   new Recorder(unscented));
+
+        final List<RealMatrix> linear = new ArrayList<RealMatrix>();
+        final double[][] tolerances = NumericalPropagator.tolerances(1.0e-6, state.getOrbit(), OrbitType.CARTESIAN);
+        final NumericalPropagator propagator =
+                new NumericalPropagator(new DormandPrince853Integrator(1.0e-3, 300, tolerances[0], tolerances[1]));
+        propagator.setOrbitType(OrbitType.CARTESIAN);
+        final PartialDerivativesEquations pde = new PartialDerivativesEquations("stm", propagator);
+        propagator.setInitialState(pde.setInitialJacobians(state, 6, 0));
+        propagator.setMasterMode(600.0, new StmCovarianceHandler(pde.getMapper(), initialCovariance, new Recorder(linear)));
+        propagator.propagate(state.getDate().shiftedBy(3600.0));
+
+        Assert.assertEquals(7, unscented.size());
+        Assert.assertEquals(7, linear.size());
+        for (int i = 0; i < linear.size(); ++i) {
+            checkClose(linear.get(i), unscented.get(i), 1.0e-4);
+        }
+
+    }
+
+    @Test
+    public void testUnsupportedDimension() throws OrekitException {
+        try {
+            new UnscentedCovariancePropagator(factory, null).propagate(state, MatrixUtils.createRealIdentityMatrix(8),
+                                                                       state.getDate(), 600.0, 1.0e-15,
+                                                                       new Recorder(new ArrayList<RealMatrix>()));
+            Assert.fail("an exception should have been thrown");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertEquals("unsupported 8x8 covariance matrix, expected 6x6 or 7x7", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void testParallel() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final RealMatrix covariance7 = MatrixUtils.createRealMatrix(7, 7);
+            covariance7.setSubMatrix(initialCovariance.getData(), 0, 0);
+            covariance7.setEntry(6, 6, 4.0);
+
+            final List<RealMatrix> sequential = new ArrayList<RealMatrix>();
+            new UnscentedCovariancePropagator(factory, null).propagate(state, covariance7,
+                                                                       state.getDate().shiftedBy(1800.0), 600.0, 1.0e-15,
+                                                                       new Recorder(sequential));
+            final List<RealMatrix> parallel = new ArrayList<RealMatrix>();
+            new UnscentedCovariancePropagator(factory, executor).propagate(state, covariance7,
+                                                                           state.getDate().shiftedBy(1800.0), 600.0, 1.0e-15,
+                                                                           new Recorder(parallel));
+
+            Assert.assertEquals(4, sequential.size());
+            Assert.assertEquals(4, parallel.size());
+            for (int i = 0; i < sequential.size(); ++i) {
+                Assert.assertEquals(0.0, sequential.get(i).subtract(parallel.get(i)).getNorm(), 0.0);
+                Assert.assertEquals(4.0, sequential.get(i).getEntry(6, 6), 1.0e-10);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void checkClose(final RealMatrix expected, final RealMatrix actual, final double relativeTolerance) {
+        Assert.assertEquals(0.0,
+                            expected.subtract(actual).getNorm() / expected.getNorm(),
+                            relativeTolerance);
+    }
+
+    private static class Recorder implements CovarianceHandler {
+        private final List<RealMatrix> covariances;
+        Recorder(final List<RealMatrix> covariances) {
+            this.covariances = covariances;
+        }
+        public void handleCovariance(final SpacecraftState s, final RealMatrix covariance) {
+            covariances.add(covariance.copy());
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        state = new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getEME2000(),
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       Constants.EIGEN5C_EARTH_MU));
+        initialCovariance = MatrixUtils.createRealDiagonalMatrix(new double[] {
+            100.0, 100.0, 100.0, 1.0e-4, 1.0e-4, 1.0e-4
+        });
+        initialCovariance.setEntry(0, 4, 0.05);
+        initialCovariance.setEntry(4, 0, 0.05);
+        factory = new DispersionEngine.BuilderFactory() {
+            public PropagatorBuilder createBuilder() {
+                return new NumericalPropagatorBuilder(Constants.EIGEN5C_EARTH_MU, FramesFactory.getEME2000(),
+                                                      new DormandPrince853IntegratorBuilder(1.0e-3, 300, 1.0e-6));
+            }
+        };
+    }
+
+    private SpacecraftState                 state;
+    private RealMatrix                      initialCovariance;
+    private DispersionEngine.BuilderFactory factory;
+
+}
@@ -0,0 +1,216 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.dispersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.SphericalSpacecraft;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.DragSensitive;
+import org.orekit.forces.drag.HarrisPriester;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.conversion.DormandPrince853IntegratorBuilder;
+import org.orekit.propagation.conversion.NumericalPropagatorBuilder;
+import org.orekit.propagation.conversion.PropagatorBuilder;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+public class DispersionEngineTest {
+
+    @Test
+    public void testNoDispersion() throws OrekitException {
+        final DispersionEngine engine = new DispersionEngine(factory, freeParameters, null);
+        final StateStatistics statistics = new StateStatistics(FramesFactory.getEME2000(), 50.0);
+        final RealMatrix zero = MatrixUtils.createRealMatrix(engine.getDimension(), engine.getDimension());
+        engine.run(nominal, target, 10, 42l, new GaussianDispersion(zero, 1.0e-10), statistics);
+
+        final SpacecraftState reference = factory.createBuilder().buildPropagator(nominal.getDate(), initialParameters()).propagate(target);
+        final PVCoordinates pv = reference.getPVCoordinates();
+        final double[] expected = new double[] {
+            pv.getPosition().getX(), pv.getPosition().getY(), pv.getPosition().getZ(),
+            pv.getVelocity().getX(), pv.getVelocity().getY(), pv.getVelocity().getZ(),
+            reference.getMass()
+        };
+        Assert.assertEquals(10, statistics.getN());
+        Assert.assertEquals(1, engine.getBuildersNumber());
+        for (int i = 0; i < expected.length; ++i) {
+            Assert.assertEquals(expected[i], statistics.getMean()[i], 1.0e-12 * FastMath.abs(expected[i]));
+            Assert.assertEquals(expected[i], statistics.getPercentile(0)[i], 1.0e-12 * FastMath.abs(expected[i]));
+            Assert.assertEquals(0.0, statistics.getStandardDeviation()[i], 1.0e-12 * FastMath.abs(expected[i]));
+        }
+
+    }
+
+    @Test
+    public void testStatistics() throws OrekitException {
+
+        // disperse only position along X and mass, propagating to initial date
+        final DispersionEngine engine = new DispersionEngine(factory, freeParameters, null);
+        final StateStatistics statistics = new StateStatistics(FramesFactory.getEME2000(), 50.0, 84.1345);
+        final RealMatrix covariance = MatrixUtils.createRealMatrix(engine.getDimension(), engine.getDimension());
+        covariance.setEntry(0, 0, 100.0);
+        covariance.setEntry(7, 7, 4.0);
+        covariance.setEntry(0, 7, 10.0);
+        covariance.setEntry(7, 0, 10.0);
+        engine.run(nominal, nominal.getDate(), 2000, 123l, new GaussianDispersion(covariance, 1.0e-10), statistics);
+
+        final double x0 = nominal.getPVCoordinates().getPosition().getX();
+        final double m0 = nominal.getMass();
+        Assert.assertEquals(2000, statistics.getN());
+        Assert.assertEquals(x0,  statistics.getMean()[0], 0.5);
+        Assert.assertEquals(m0,  statistics.getMean()[6], 0.1);
+        Assert.assertEquals(10.0, statistics.getStandardDeviation()[0], 0.5);
+        Assert.assertEquals(2.0,  statistics.getStandardDeviation()[6], 0.1);
+        Assert.assertEquals(0.0,  statistics.getStandardDeviation()[1], 1.0e-6);
+        Assert.assertEquals(10.0, statistics.getCovariance().getEntry(0, 6), 1.0);
+        Assert.assertEquals(x0,        statistics.getPercentile(0)[0], 0.8);
+        Assert.assertEquals(x0 + 10.0, statistics.getPercentile(1)[0], 0.8);
+        Assert.assertEquals(m0 + 2.0,  statistics.getPercentile(1)[6], 0.2);
+
+    }
+
+    @Test
+    public void testParallel() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final RealMatrix covariance = MatrixUtils.createRealIdentityMatrix(8);
+            covariance.setEntry(6, 6, 0.01);
+            final GaussianDispersion dispersion = new GaussianDispersion(covariance, 1.0e-10);
+
+            final DispersionEngine sequential = new DispersionEngine(factory, freeParameters, null);
+            final Recorder s = new Recorder(20);
+            sequential.run(nominal, target, 20, 17l, dispersion, s);
+
+            final DispersionEngine parallel = new DispersionEngine(factory, freeParameters, executor);
+            final Recorder p1 = new Recorder(20);
+            parallel.run(nominal, target, 20, 17l, dispersion, p1);
+            // at most one builder for each pool thread and one for the calling thread
+            Assert.assertTrue(parallel.getBuildersNumber() <= 5);
+            final Recorder p2 = new Recorder(20);
+            parallel.run(nominal, target, 20, 17l, dispersion, p2);
+            Assert.assertTrue(parallel.getBuildersNumber() <= 5);
+
+            for (int i = 0; i < 20; ++i) {
+                Assert.assertArrayEquals(s.parameters[i], p1.parameters[i], 0.0);
+                Assert.assertArrayEquals(s.parameters[i], p2.parameters[i], 0.0);
+                Assert.assertEquals(0.0, Vector3D.distance(s.positions[i], p1.positions[i]), 0.0);
+                Assert.assertEquals(0.0, Vector3D.distance(s.positions[i], p2.positions[i]), 0.0);
+            }
+
+            // all samples are different
+            Assert.assertTrue(Vector3D.distance(s.positions[0], s.positions[1]) > 1.0);
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWrongDimension() throws OrekitException {
+        final DispersionEngine engine = new DispersionEngine(factory, freeParameters, null);
+        try {
+            engine.run(nominal, target, 10, 42l,
+                       new GaussianDispersion(MatrixUtils.createRealIdentityMatrix(7), 1.0e-10),
+                       new StateStatistics(FramesFactory.getEME2000()));
+            Assert.fail("an exception should have been thrown");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertEquals("8 != 7", iae.getMessage());
+        }
+    }
+
+    private double[] initialParameters() throws OrekitException {
+        final PVCoordinates pv = nominal.getPVCoordinates();
+        return new double[] {
+            pv.getPosition().getX(), pv.getPosition().getY(), pv.getPosition().getZ(),
+            pv.getVelocity().getX(), pv.getVelocity().getY(), pv.getVelocity().getZ(),
+            1.2
+        };
+    }
+
+    private static class Recorder implements SampleHandler {
+
+        private final double[][] parameters;
+        private final Vector3D[] positions;
+
+        Recorder(final int n) {
+            parameters = new double[n][];
+            positions  = new Vector3D[n];
+        }
+
+        public void handleSample(final int index, final double[] dispersed, final SpacecraftState finalState) {
+            parameters[index] = dispersed.clone();
+            positions[index]  = finalState.getPVCoordinates().getPosition();
+        }
+
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        nominal = new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                         FramesFactory.getEME2000(),
+                                                         new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                         Constants.EIGEN5C_EARTH_MU),
+                                      1000.0);
+        target = nominal.getDate().shiftedBy(3600.0);
+        freeParameters = new ArrayList<String>(Collections.singletonList(DragSensitive.DRAG_COEFFICIENT));
+        factory = new DispersionEngine.BuilderFactory() {
+            public PropagatorBuilder createBuilder() throws OrekitException {
+                final NumericalPropagatorBuilder builder =
+                        new NumericalPropagatorBuilder(Constants.EIGEN5C_EARTH_MU, FramesFactory.getEME2000(),
+                                                       new DormandPrince853IntegratorBuilder(1.0e-3, 300, 1.0e-3));
+                builder.setMass(1000.0);
+                builder.addForceModel(new DragForce(new HarrisPriester(CelestialBodyFactory.getSun(),
+                                                                       new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                                                            Constants.WGS84_EARTH_FLATTENING,
+                                                                                            FramesFactory.getITRF(IERSConventions.IERS_2010, true))),
+                                                    new SphericalSpacecraft(2.5, 1.2, 0.7, 0.2)));
+                final List<String> free = Collections.singletonList(DragSensitive.DRAG_COEFFICIENT);
+                builder.setFreeParameters(free);
+                return builder;
+            }
+        };
+    }
+
+    private SpacecraftState                  nominal;
+    private AbsoluteDate                     target;
+    private List<String>                     freeParameters;
+    private DispersionEngine.BuilderFactory  factory;
+
+}
@@ -0,0 +1,266 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.util.FastMath;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.PropagationException;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.EcksteinHechlerPropagator;
+import org.orekit.propagation.analytical.Ephemeris;
+import org.orekit.propagation.events.EventsLogger.LoggedEvent;
+import org.orekit.propagation.events.handlers.ContinueOnEvent;
+import org.orekit.propagation.events.handlers.EventHandler;
+import org.orekit.propagation.events.handlers.StopOnIncreasing;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScalesFactory;
+
+public class EphemerisEventScannerTest {
+
+    private AbsoluteDate    initDate;
+    private AbsoluteDate    finalDate;
+    private ExecutorService executor;
+
+    @Test
+    public void testSameAsPropagation() throws OrekitException {
+
+        BoundedPropagator ephem = buildEphem();
+        EventsLogger logger = new EventsLogger();
+        ephem.addEventDetector(logger.monitorDetector(buildUmbraDetector()));
+        ephem.addEventDetector(logger.monitorDetector(buildPenumbraDetector()));
+        ephem.propagate(ephem.getMinDate(), ephem.getMaxDate());
+        List<LoggedEvent> reference = logger.getLoggedEvents();
+
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 17);
+        scanner.addEventDetector(buildUmbraDetector());
+        scanner.addEventDetector(buildPenumbraDetector());
+        List<LoggedEvent> scanned = scanner.scan();
+
+        Assert.assertEquals(56, reference.size());
+        checkSameEvents(reference, scanned);
+
+    }
+
+    @Test
+    public void testNonSerializableHandler() throws OrekitException {
+
+        final List<AbsoluteDate> handled = new ArrayList<AbsoluteDate>();
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 8);
+        scanner.addEventDetector(buildUmbraDetector().withHandler(new EventHandler<EclipseDetector>() {
+            public Action eventOccurred(SpacecraftState s, EclipseDetector detector, boolean increasing) {
+                handled.add(s.getDate());
+                return Action.CONTINUE;
+            }
+            public SpacecraftState resetState(EclipseDetector detector, SpacecraftState oldState) {
+                return oldState;
+            }
+        }));
+        List<LoggedEvent> scanned = scanner.scan();
+
+        Assert.assertEquals(28, scanned.size());
+        Assert.assertEquals(scanned.size(), handled.size());
+        for (int i = 0; i < scanned.size(); ++i) {
+            Assert.assertEquals(0.0, scanned.get(i).getState().getDate().durationFrom(handled.get(i)), 1.0e-15);
+            if (i > 0) {
+                Assert.assertTrue(handled.get(i).compareTo(handled.get(i - 1)) > 0);
+            }
+        }
+
+    }
+
+    @Test
+    public void testStatefulDetector() throws OrekitException {
+
+        DateDetector detector = new DateDetector(60.0, 1.0e-6).
+                                withHandler(new ContinueOnEvent<DateDetector>());
+        for (int k = 0; k < 24; ++k) {
+            detector.addEventDate(initDate.shiftedBy(1800.0 + 3600.0 * k));
+        }
+
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 17);
+        scanner.addEventDetector(detector);
+        List<LoggedEvent> scanned = scanner.scan();
+
+        Assert.assertEquals(24, scanned.size());
+        for (int k = 0; k < scanned.size(); ++k) {
+            Assert.assertSame(detector, scanned.get(k).getEventDetector());
+            Assert.assertEquals(1800.0 + 3600.0 * k,
+                                scanned.get(k).getState().getDate().durationFrom(initDate),
+                                1.0e-6);
+        }
+
+    }
+
+    @Test
+    public void testStop() throws OrekitException {
+
+        EphemerisEventScanner reference = new EphemerisEventScanner(buildEphem(), executor, 8);
+        reference.addEventDetector(buildPenumbraDetector());
+        reference.addEventDetector(buildUmbraDetector());
+        List<LoggedEvent> all = reference.scan();
+        int expected = 0;
+        while (!(all.get(expected).getEventDetector() == reference.getEventsDetectors().get(1) &&
+                 all.get(expected).isIncreasing())) {
+            ++expected;
+        }
+
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 8);
+        scanner.addEventDetector(buildPenumbraDetector());
+        scanner.addEventDetector(buildUmbraDetector().withHandler(new StopOnIncreasing<EclipseDetector>()));
+        List<LoggedEvent> scanned = scanner.scan();
+
+        Assert.assertEquals(expected + 1, scanned.size());
+        Assert.assertTrue(scanned.size() < all.size());
+        LoggedEvent last = scanned.get(scanned.size() - 1);
+        Assert.assertTrue(last.isIncreasing());
+        Assert.assertSame(scanner.getEventsDetectors().get(1), last.getEventDetector());
+        Assert.assertEquals(0.0,
+                            last.getState().getDate().durationFrom(all.get(expected).getState().getDate()),
+                            1.0e-15);
+
+    }
+
+    @Test
+    public void testResetNotAllowed() throws OrekitException {
+
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 8);
+        scanner.addEventDetector(buildUmbraDetector().withHandler(new EventHandler<EclipseDetector>() {
+            public Action eventOccurred(SpacecraftState s, EclipseDetector detector, boolean increasing) {
+                return Action.RESET_STATE;
+            }
+            public SpacecraftState resetState(EclipseDetector detector, SpacecraftState oldState) {
+                return oldState;
+            }
+        }));
+        try {
+            scanner.scan();
+            Assert.fail("an exception should have been thrown");
+        } catch (PropagationException pe) {
+            Assert.assertEquals(OrekitMessages.NON_RESETABLE_STATE, pe.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testClearDetectors() throws OrekitException {
+        EphemerisEventScanner scanner = new EphemerisEventScanner(buildEphem(), executor, 8);
+        scanner.addEventDetector(buildUmbraDetector());
+        Assert.assertEquals(1, scanner.getEventsDetectors().size());
+        scanner.clearEventsDetectors();
+        Assert.assertEquals(0, scanner.getEventsDetectors().size());
+        Assert.assertTrue(scanner.scan().isEmpty());
+    }
+
+    private void checkSameEvents(List<LoggedEvent> reference, List<LoggedEvent> scanned) {
+        Assert.assertEquals(reference.size(), scanned.size());
+        for (int i = 0; i < reference.size(); ++i) {
+            Assert.assertEquals(0.0,
+                                reference.get(i).getState().getDate().durationFrom(scanned.get(i).getState().getDate()),
+                                1.0e-3);
+            Assert.assertEquals(reference.get(i).isIncreasing(), scanned.get(i).isIncreasing());
+        }
+    }
+
+    private Ephemeris buildEphem() throws OrekitException {
+
+        double mass = 2500;
+        double a = 7187990.1979844316;
+        double e = 0.5e-4;
+        double i = 1.7105407051081795;
+        double omega = 1.9674147913622104;
+        double OMEGA = FastMath.toRadians(261);
+        double lv = 0;
+        double mu  = 3.9860047e14;
+        double ae  = 6.378137e6;
+        double c20 = -1.08263e-3;
+        double c30 = 2.54e-6;
+        double c40 = 1.62e-6;
+        double c50 = 2.3e-7;
+        double c60 = -5.5e-7;
+
+        double deltaT = finalDate.durationFrom(initDate);
+
+        Orbit transPar = new KeplerianOrbit(a, e, i, omega, OMEGA, lv, PositionAngle.TRUE,
+                                            FramesFactory.getEME2000(), initDate, mu);
+
+        int nbIntervals = 720;
+        Propagator propagator =
+                new EcksteinHechlerPropagator(transPar, mass, ae, mu, c20, c30, c40, c50, c60);
+
+        List<SpacecraftState> tab = new ArrayList<SpacecraftState>(nbIntervals + 1);
+        for (int j = 0; j<= nbIntervals; j++) {
+            tab.add(propagator.propagate(initDate.shiftedBy((j * deltaT) / nbIntervals)));
+        }
+
+        return new Ephemeris(tab, 2);
+
+    }
+
+    private EclipseDetector buildUmbraDetector() throws OrekitException {
+        return new EclipseDetector(60., 1.e-3,
+                                   CelestialBodyFactory.getSun(), 696000000.,
+                                   CelestialBodyFactory.getEarth(), 6400000.).
+               withUmbra().
+               withHandler(new ContinueOnEvent<EclipseDetector>());
+    }
+
+    private EclipseDetector buildPenumbraDetector() throws OrekitException {
+        return new EclipseDetector(60., 1.e-3,
+                                   CelestialBodyFactory.getSun(), 696000000.,
+                                   CelestialBodyFactory.getEarth(), 6400000.).
+               withPenumbra().
+               withHandler(new ContinueOnEvent<EclipseDetector>());
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        initDate  = new AbsoluteDate(new DateComponents(2004, 01, 01),
+                                     TimeComponents.H00,
+                                     TimeScalesFactory.getUTC());
+        finalDate = new AbsoluteDate(new DateComponents(2004, 01, 02),
+                                     TimeComponents.H00,
+                                     TimeScalesFactory.getUTC());
+        executor  = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+}
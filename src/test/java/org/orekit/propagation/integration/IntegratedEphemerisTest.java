@@ -142,6 +142,42 @@ public class IntegratedEphemerisTest {
 
     }
     
+    @Test
+    public void testCopy() throws OrekitException {
+
+        final String eqName = "derivatives";
+        numericalPropagator.setEphemerisMode();
+        numericalPropagator.setOrbitType(OrbitType.CARTESIAN);
+        final PartialDerivativesEquations derivatives =
+            new PartialDerivativesEquations(eqName, numericalPropagator);
+        final SpacecraftState initialState =
+                derivatives.setInitialJacobians(new SpacecraftState(initialOrbit), 6, 0);
+        numericalPropagator.setInitialState(initialState);
+        numericalPropagator.propagate(initialOrbit.getDate().shiftedBy(3600.0));
+        BoundedPropagator ephemeris = numericalPropagator.getGeneratedEphemeris();
+        BoundedPropagator copy      = ephemeris.copy();
+        Assert.assertNotSame(ephemeris, copy);
+        Assert.assertEquals(0.0, copy.getMinDate().durationFrom(ephemeris.getMinDate()), 1.0e-15);
+        Assert.assertEquals(0.0, copy.getMaxDate().durationFrom(ephemeris.getMaxDate()), 1.0e-15);
+
+        // interleave calls to check the copy does not share interpolation state
+        for (double dt = 0; dt <= 3600.0; dt += 60.0) {
+            SpacecraftState fromCopy     = copy.propagate(initialOrbit.getDate().shiftedBy(3600.0 - dt));
+            SpacecraftState fromOriginal = ephemeris.propagate(initialOrbit.getDate().shiftedBy(3600.0 - dt));
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(fromOriginal.getPVCoordinates().getPosition(),
+                                                  fromCopy.getPVCoordinates().getPosition()),
+                                1.0e-15);
+            double[] originalAdditional = fromOriginal.getAdditionalState(eqName);
+            double[] copyAdditional     = fromCopy.getAdditionalState(eqName);
+            Assert.assertEquals(originalAdditional.length, copyAdditional.length);
+            for (int i = 0; i < originalAdditional.length; ++i) {
+                Assert.assertEquals(originalAdditional[i], copyAdditional[i], 1.0e-15);
+            }
+        }
+
+    }
+
     @Test
     public void testGetFrame() throws PropagationException, OrekitException {
         // setup
@@ -181,6 +217,15 @@ public class IntegratedEphemerisTest {
         Assert.assertEquals(deserialized.getMinDate(), deserialized.getMinDate());
         Assert.assertEquals(deserialized.getMaxDate(), deserialized.getMaxDate());
 
+        // the deserialized ephemeris can be used
+        for (double dt = 0; dt < Constants.JULIAN_DAY; dt += 3600) {
+            final AbsoluteDate date = initialOrbit.getDate().shiftedBy(dt);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(ephemeris.getPVCoordinates(date, ephemeris.getFrame()).getPosition(),
+                                                  deserialized.getPVCoordinates(date, deserialized.getFrame()).getPosition()),
+                                1.0e-10);
+        }
+
     }
 
     @Test
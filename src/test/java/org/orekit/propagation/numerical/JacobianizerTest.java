@@ -0,0 +1,171 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.numerical;
+
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
+import org.apache.commons.math3.geometry.euclidean.threed.FieldRotation;
+import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.ForceModel;
+import org.orekit.forces.SphericalSpacecraft;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.DragSensitive;
+import org.orekit.forces.drag.HarrisPriester;
+import org.orekit.forces.gravity.ThirdBodyAttraction;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+public class JacobianizerTest {
+
+    @Test
+    public void testStateDerivatives() throws OrekitException {
+        final ThirdBodyAttraction moon = new ThirdBodyAttraction(CelestialBodyFactory.getMoon());
+        final Jacobianizer jacobianizer =
+                new Jacobianizer(moon, state.getMu(), Collections.<ParameterConfiguration>emptyList(), 1.0);
+        final FieldVector3D<DerivativeStructure> reference  = stateDerivatives(moon, 7);
+        final FieldVector3D<DerivativeStructure> finiteDiff = stateDerivatives(jacobianizer, 7);
+        checkClose(reference.getX(), finiteDiff.getX(), 1.0e-5);
+        checkClose(reference.getY(), finiteDiff.getY(), 1.0e-5);
+        checkClose(reference.getZ(), finiteDiff.getZ(), 1.0e-5);
+    }
+
+    @Test
+    public void testParallelStateDerivatives() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int nbVars = 6; nbVars <= 7; ++nbVars) {
+                final Jacobianizer sequential =
+                        new Jacobianizer(drag, state.getMu(),
+                                         Collections.<ParameterConfiguration>emptyList(), 1.0);
+                final Jacobianizer parallel =
+                        new Jacobianizer(drag, state.getMu(),
+                                         Collections.<ParameterConfiguration>emptyList(), 1.0, executor);
+                final FieldVector3D<DerivativeStructure> s = stateDerivatives(sequential, nbVars);
+                final FieldVector3D<DerivativeStructure> p = stateDerivatives(parallel, nbVars);
+                Assert.assertArrayEquals(s.getX().getAllDerivatives(), p.getX().getAllDerivatives(), 0.0);
+                Assert.assertArrayEquals(s.getY().getAllDerivatives(), p.getY().getAllDerivatives(), 0.0);
+                Assert.assertArrayEquals(s.getZ().getAllDerivatives(), p.getZ().getAllDerivatives(), 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParameterDerivative() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Jacobianizer jacobianizer =
+                    new Jacobianizer(drag, state.getMu(),
+                                     Collections.singletonList(new ParameterConfiguration(DragSensitive.DRAG_COEFFICIENT, 1.0e-3)),
+                                     1.0, executor);
+            final FieldVector3D<DerivativeStructure> reference  = drag.accelerationDerivatives(state, DragSensitive.DRAG_COEFFICIENT);
+            final FieldVector3D<DerivativeStructure> finiteDiff = jacobianizer.accelerationDerivatives(state, DragSensitive.DRAG_COEFFICIENT);
+            checkClose(reference.getX(), finiteDiff.getX(), 1.0e-10);
+            checkClose(reference.getY(), finiteDiff.getY(), 1.0e-10);
+            checkClose(reference.getZ(), finiteDiff.getZ(), 1.0e-10);
+            Assert.assertEquals(1.2, drag.getParameter(DragSensitive.DRAG_COEFFICIENT), 0.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private FieldVector3D<DerivativeStructure> stateDerivatives(final Object provider, final int nbVars)
+        throws OrekitException {
+        final Vector3D p = state.getPVCoordinates().getPosition();
+        final Vector3D v = state.getPVCoordinates().getVelocity();
+        final Rotation r = state.getAttitude().getRotation();
+        final FieldVector3D<DerivativeStructure> dsP =
+                new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 0, p.getX()),
+                                                       new DerivativeStructure(nbVars, 1, 1, p.getY()),
+                                                       new DerivativeStructure(nbVars, 1, 2, p.getZ()));
+        final FieldVector3D<DerivativeStructure> dsV =
+                new FieldVector3D<DerivativeStructure>(new DerivativeStructure(nbVars, 1, 3, v.getX()),
+                                                       new DerivativeStructure(nbVars, 1, 4, v.getY()),
+                                                       new DerivativeStructure(nbVars, 1, 5, v.getZ()));
+        final DerivativeStructure dsM = (nbVars < 7) ?
+                                        new DerivativeStructure(nbVars, 1, state.getMass()) :
+                                        new DerivativeStructure(nbVars, 1, 6, state.getMass());
+        final FieldRotation<DerivativeStructure> dsR =
+                new FieldRotation<DerivativeStructure>(new DerivativeStructure(nbVars, 1, r.getQ0()),
+                                                       new DerivativeStructure(nbVars, 1, r.getQ1()),
+                                                       new DerivativeStructure(nbVars, 1, r.getQ2()),
+                                                       new DerivativeStructure(nbVars, 1, r.getQ3()),
+                                                       false);
+        if (provider instanceof Jacobianizer) {
+            return ((Jacobianizer) provider).accelerationDerivatives(state.getDate(), state.getFrame(),
+                                                                     dsP, dsV, dsR, dsM);
+        } else {
+            return ((ForceModel) provider).accelerationDerivatives(state.getDate(), state.getFrame(),
+                                                                   dsP, dsV, dsR, dsM);
+        }
+    }
+
+    private void checkClose(final DerivativeStructure expected, final DerivativeStructure actual,
+                            final double relativeTolerance) {
+        final double[] e = expected.getAllDerivatives();
+        final double[] a = actual.getAllDerivatives();
+        Assert.assertEquals(e.length, a.length);
+        double max = 0;
+        for (final double x : e) {
+            max = Math.max(max, Math.abs(x));
+        }
+        Assert.assertEquals(e[0], a[0], 1.0e-14 * Math.abs(e[0]));
+        for (int i = 1; i < e.length; ++i) {
+            Assert.assertEquals(e[i], a[i], relativeTolerance * max);
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final Vector3D pos = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D vel = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        state = new SpacecraftState(new CartesianOrbit(new PVCoordinates(pos, vel),
+                                                       FramesFactory.getGCRF(),
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0, TimeScalesFactory.getTAI()),
+                                                       Constants.EIGEN5C_EARTH_MU));
+        drag = new DragForce(new HarrisPriester(CelestialBodyFactory.getSun(),
+                                                new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                                     Constants.WGS84_EARTH_FLATTENING,
+                                                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true))),
+                             new SphericalSpacecraft(2.5, 1.2, 0.7, 0.2));
+    }
+
+    private SpacecraftState state;
+    private DragForce       drag;
+
+}
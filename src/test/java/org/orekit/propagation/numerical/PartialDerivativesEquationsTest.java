@@ -6,17 +6,32 @@ import org.apache.commons.math3.geometry.euclidean.threed.FieldVector3D;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.UnknownParameterException;
 import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.errors.OrekitException;
 import org.orekit.forces.ForceModel;
+import org.orekit.forces.SphericalSpacecraft;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.HarrisPriester;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.forces.gravity.ThirdBodyAttraction;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.radiation.SolarRadiationPressure;
 import org.orekit.frames.Frame;
 import org.orekit.frames.FramesFactory;
 import org.orekit.orbits.CartesianOrbit;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
 import org.orekit.utils.PVCoordinates;
 
 import java.util.Collection;
@@ -85,6 +100,123 @@ public class PartialDerivativesEquationsTest {
 
     }
 
+    /**
+     * check analytical acceleration Jacobians give the same variational
+     * equations as automatic differentiation.
+     *
+     * @throws OrekitException on error
+     */
+    @Test
+    public void testAnalyticalJacobians() throws OrekitException {
+
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        final OneAxisEllipsoid earth =
+                new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                     Constants.WGS84_EARTH_FLATTENING,
+                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        final ForceModel[] models = new ForceModel[] {
+            new HolmesFeatherstoneAttractionModel(earth.getBodyFrame(),
+                                                  GravityFieldFactory.getNormalizedProvider(8, 8)),
+            new ThirdBodyAttraction(CelestialBodyFactory.getSun()),
+            new ThirdBodyAttraction(CelestialBodyFactory.getMoon()),
+            new DragForce(new HarrisPriester(CelestialBodyFactory.getSun(), earth),
+                          new SphericalSpacecraft(2.5, 1.2, 0.7, 0.2)),
+            new SolarRadiationPressure(CelestialBodyFactory.getSun(), earth.getEquatorialRadius(),
+                                       new SphericalSpacecraft(2.5, 1.2, 0.7, 0.2))
+        };
+
+        final NumericalPropagator analytical =
+                new NumericalPropagator(new DormandPrince54Integrator(1, 500, 0.001, 0.001));
+        final NumericalPropagator automatic =
+                new NumericalPropagator(new DormandPrince54Integrator(1, 500, 0.001, 0.001));
+        for (final ForceModel model : models) {
+            analytical.addForceModel(model);
+            automatic.addForceModel(new DelegatingForceModel(model));
+        }
+
+        final Vector3D p = new Vector3D(6.46885878304673824e+06, -1.88050918456274318e+06, -1.32931592294715829e+04);
+        final Vector3D v = new Vector3D(2.14718074509906819e+03, 7.38239351251748485e+03, -1.14097953925384523e+01);
+        final SpacecraftState s0 =
+                new SpacecraftState(new CartesianOrbit(new PVCoordinates(p, v), eci,
+                                                       new AbsoluteDate(2003, 3, 5, 0, 24, 0.0,
+                                                                        TimeScalesFactory.getTAI()),
+                                                       gm), 1000.0);
+
+        final PartialDerivativesEquations analyticalPDE = new PartialDerivativesEquations("pde", analytical);
+        final PartialDerivativesEquations automaticPDE  = new PartialDerivativesEquations("pde", automatic);
+        final SpacecraftState s1 = analyticalPDE.setInitialJacobians(s0, 7, 0);
+        automaticPDE.setInitialJacobians(s0, 7, 0);
+
+        // use a non-trivial Jacobian as the current state
+        final double[] jacobian = s1.getAdditionalState("pde");
+        for (int i = 0; i < jacobian.length; ++i) {
+            jacobian[i] += 0.001 * FastMath.sin(i);
+        }
+        final SpacecraftState s2 = s0.addAdditionalState("pde", jacobian);
+
+        final double[] analyticalDot = new double[jacobian.length];
+        final double[] automaticDot  = new double[jacobian.length];
+        analyticalPDE.computeDerivatives(s2, analyticalDot);
+        automaticPDE.computeDerivatives(s2, automaticDot);
+        for (int i = 0; i < jacobian.length; ++i) {
+            Assert.assertEquals(automaticDot[i], analyticalDot[i],
+                                1.0e-12 * FastMath.max(1.0e-6, FastMath.abs(automaticDot[i])));
+        }
+
+    }
+
+    /** Force model hiding the analytical Jacobians of the underlying model. */
+    private static class DelegatingForceModel implements ForceModel {
+
+        /** Underlying model. */
+        private final ForceModel model;
+
+        DelegatingForceModel(final ForceModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public void addContribution(SpacecraftState s, TimeDerivativesEquations adder) throws OrekitException {
+            model.addContribution(s, adder);
+        }
+
+        @Override
+        public FieldVector3D<DerivativeStructure> accelerationDerivatives(AbsoluteDate date, Frame frame, FieldVector3D<DerivativeStructure> position, FieldVector3D<DerivativeStructure> velocity, FieldRotation<DerivativeStructure> rotation, DerivativeStructure mass) throws OrekitException {
+            return model.accelerationDerivatives(date, frame, position, velocity, rotation, mass);
+        }
+
+        @Override
+        public FieldVector3D<DerivativeStructure> accelerationDerivatives(SpacecraftState s, String paramName) throws OrekitException {
+            return model.accelerationDerivatives(s, paramName);
+        }
+
+        @Override
+        public EventDetector[] getEventsDetectors() {
+            return model.getEventsDetectors();
+        }
+
+        @Override
+        public double getParameter(String name) throws UnknownParameterException {
+            return model.getParameter(name);
+        }
+
+        @Override
+        public void setParameter(String name, double value) throws UnknownParameterException {
+            model.setParameter(name, value);
+        }
+
+        @Override
+        public Collection<String> getParametersNames() {
+            return model.getParametersNames();
+        }
+
+        @Override
+        public boolean isSupported(String name) {
+            return model.isSupported(name);
+        }
+    }
+
     /** Mock {@link ForceModel}. */
     private static class MockForceModel implements ForceModel {
 
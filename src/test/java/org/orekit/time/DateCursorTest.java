@@ -0,0 +1,68 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.time;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DateCursorTest {
+
+    @Test
+    public void testSameAsShiftedBy() {
+        RandomGenerator random = new Well1024a(0x2b6e8d1f4c9a3057l);
+        AbsoluteDate date   = AbsoluteDate.J2000_EPOCH.shiftedBy(0.1);
+        DateCursor   cursor = new DateCursor(date);
+        for (int i = 0; i < 10000; ++i) {
+            double dt = 1.0e6 * (random.nextDouble() - 0.5) * random.nextDouble();
+            date = date.shiftedBy(dt);
+            cursor.shift(dt);
+            Assert.assertEquals(0, cursor.compareTo(date));
+            Assert.assertEquals(0.0, cursor.durationFrom(date), 0.0);
+            AbsoluteDate rebuilt = cursor.toDate();
+            Assert.assertEquals(date.getEpoch(),  rebuilt.getEpoch());
+            Assert.assertEquals(date.getOffset(), rebuilt.getOffset(), 0.0);
+        }
+    }
+
+    @Test
+    public void testSetDate() {
+        AbsoluteDate reference = new AbsoluteDate(2012, 6, 30, 23, 59, 30.0, TimeScalesFactory.getTAI());
+        DateCursor cursor = new DateCursor(AbsoluteDate.GPS_EPOCH);
+        cursor.setDate(reference, 45.125);
+        Assert.assertEquals(reference.shiftedBy(45.125), cursor.toDate());
+        Assert.assertEquals(45.125, cursor.durationFrom(reference), 1.0e-15);
+        Assert.assertEquals(+1, cursor.compareTo(reference));
+        DateCursor other = new DateCursor(reference);
+        Assert.assertEquals(-1, other.compareTo(cursor.toDate()));
+        Assert.assertEquals(45.125, cursor.durationFrom(other), 1.0e-15);
+        cursor.setDate(reference);
+        Assert.assertEquals(0, cursor.compareTo(reference));
+    }
+
+    @Test
+    public void testInfinity() {
+        DateCursor cursor = new DateCursor(AbsoluteDate.J2000_EPOCH);
+        cursor.shift(Double.POSITIVE_INFINITY);
+        Assert.assertEquals(0, cursor.compareTo(AbsoluteDate.FUTURE_INFINITY));
+        Assert.assertEquals(+1, cursor.compareTo(AbsoluteDate.J2000_EPOCH));
+        cursor.setDate(AbsoluteDate.J2000_EPOCH, Double.NEGATIVE_INFINITY);
+        Assert.assertEquals(0, cursor.compareTo(AbsoluteDate.PAST_INFINITY));
+    }
+
+}
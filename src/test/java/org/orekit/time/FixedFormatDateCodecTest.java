@@ -0,0 +1,201 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.time;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+
+public class FixedFormatDateCodecTest {
+
+    private TimeScale utc;
+
+    @Test
+    public void testParseSameAsGeneralParser() throws OrekitException {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 3);
+        String[] dates = new String[] {
+            "2005-12-31T23:59:59.999",
+            "2005-12-31T23:59:60.5",
+            "2006-01-01T00:00:00",
+            "2006-001T00:00:00.125Z",
+            "2008-366T12:34:56.789",
+            "1968-02-29T01:02:03.456789",
+            "1500-03-01T00:00:01.5",
+            "2015-06-30T23:59:60.123456789012345678",
+            "2012-02-29T08:00:00.1Z",
+            "2012-060T08:00:00.1",
+            "1583-01-01T00:00:00"
+        };
+        for (final String s : dates) {
+            AbsoluteDate reference = new AbsoluteDate(s.endsWith("Z") ? s.substring(0, s.length() - 1) : s, utc);
+            AbsoluteDate parsed    = codec.parse(s);
+            Assert.assertEquals(reference.getEpoch(), parsed.getEpoch());
+            Assert.assertEquals(reference.getOffset(), parsed.getOffset(), 0.0);
+        }
+    }
+
+    @Test
+    public void testParseRandom() throws OrekitException {
+        RandomGenerator random = new Well1024a(0x7f3a9c2e15d84b60l);
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 6);
+        for (final TimeScale scale : new TimeScale[] { utc, TimeScalesFactory.getTT(), TimeScalesFactory.getTDB() }) {
+            for (int i = 0; i < 1000; ++i) {
+                AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(3.0e9 * (random.nextDouble() - 0.5));
+                String s = date.getComponents(scale).toString();
+                AbsoluteDate parsed = new FixedFormatDateCodec(scale, 3).parse(s);
+                Assert.assertEquals(new AbsoluteDate(s, scale), parsed);
+                if (scale == utc) {
+                    Assert.assertEquals(parsed, codec.parse(codec.format(parsed)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatSameAsToString() throws OrekitException {
+        RandomGenerator random = new Well1024a(0x4c17e0b92a6f5d38l);
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 3);
+        AbsoluteDate date = new AbsoluteDate(1965, 1, 1, utc);
+        while (date.compareTo(new AbsoluteDate(2016, 1, 1, utc)) < 0) {
+            // dates are rounded to the millisecond to avoid rounding ties
+            String s = date.toString(utc);
+            Assert.assertEquals(s, codec.format(new AbsoluteDate(s, utc)));
+            date = date.shiftedBy(86400.0 * 30 * random.nextDouble());
+        }
+    }
+
+    @Test
+    public void testLeapSecond() throws OrekitException {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 4);
+        AbsoluteDate leapStart = new AbsoluteDate(2006, 1, 1, utc).shiftedBy(-1.0);
+        Assert.assertEquals("2005-12-31T23:59:59.0000", codec.format(leapStart.shiftedBy(-1.0)));
+        Assert.assertEquals("2005-12-31T23:59:60.0000", codec.format(leapStart));
+        Assert.assertEquals("2005-12-31T23:59:60.5000", codec.format(leapStart.shiftedBy(0.5)));
+        Assert.assertEquals("2006-01-01T00:00:00.0000", codec.format(leapStart.shiftedBy(1.0)));
+        Assert.assertEquals(0.5, codec.parse("2005-12-31T23:59:60.5").durationFrom(leapStart), 1.0e-15);
+    }
+
+    @Test
+    public void testLeapSecondRounding() throws OrekitException {
+        FixedFormatDateCodec codec0 = new FixedFormatDateCodec(utc, 0);
+        FixedFormatDateCodec codec3 = new FixedFormatDateCodec(utc, 3);
+        AbsoluteDate leapStart = new AbsoluteDate(2012, 7, 1, utc).shiftedBy(-1.0);
+        Assert.assertEquals("2012-06-30T23:59:60.000", codec3.format(leapStart.shiftedBy(-0.0004)));
+        Assert.assertEquals("2012-06-30T23:59:60",     codec0.format(leapStart.shiftedBy(-0.0004)));
+        Assert.assertEquals("2012-06-30T23:59:60.500", codec3.format(leapStart.shiftedBy(0.5)));
+        Assert.assertEquals("2012-07-01T00:00:00",     codec0.format(leapStart.shiftedBy(0.5)));
+        Assert.assertEquals("2012-07-01T00:00:00.000", codec3.format(leapStart.shiftedBy(0.9996)));
+        Assert.assertEquals("2012-07-01T00:00:00",     codec0.format(leapStart.shiftedBy(0.9996)));
+        Assert.assertEquals(leapStart.shiftedBy(0.5), codec3.parse("2012-06-30T23:59:60.500"));
+    }
+
+    @Test
+    public void testLeapSecondUpdate() throws OrekitException {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 3);
+        AbsoluteDate date = codec.parse("2030-01-01T00:00:00.000");
+        Assert.assertEquals(date, new AbsoluteDate(2030, 1, 1, utc));
+
+        // add a leap second at the end of 2029, the cached day offset must follow
+        SortedMap<DateComponents, Integer> entries = new TreeMap<DateComponents, Integer>();
+        entries.put(new DateComponents(2030, 1, 1),
+                    (int) FastMath.rint(1 - utc.offsetFromTAI(date)));
+        TimeScalesFactory.updateUTC(entries);
+        Assert.assertEquals(date.shiftedBy(1.0), codec.parse("2030-01-01T00:00:00.000"));
+        Assert.assertEquals(date.shiftedBy(1.0), new AbsoluteDate(2030, 1, 1, utc));
+        Assert.assertEquals("2029-12-31T23:59:60.500", codec.format(date.shiftedBy(0.5)));
+    }
+
+    @Test
+    public void testRoundingCarry() throws OrekitException {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 2);
+        AbsoluteDate date = new AbsoluteDate(2012, 12, 31, 23, 59, 59.9999, utc);
+        Assert.assertEquals("2013-01-01T00:00:00.00", codec.format(date));
+        Assert.assertEquals("2013-01-01T00:00:00",    new FixedFormatDateCodec(utc, 0).format(date));
+        Assert.assertEquals("2012-12-31T23:59:59.99999999999",
+                            new FixedFormatDateCodec(TimeScalesFactory.getTAI(), 11).
+                            format(new AbsoluteDate(2012, 12, 31, 23, 59, 59.99999999999,
+                                                    TimeScalesFactory.getTAI())));
+    }
+
+    @Test
+    public void testByteBuffer() throws OrekitException {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 3);
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        buffer.put("date: ".getBytes(Charset.forName("US-ASCII")));
+        AbsoluteDate date = new AbsoluteDate(2015, 3, 14, 15, 9, 26.535, utc);
+        codec.format(date, buffer);
+        Assert.assertEquals(6 + codec.getFormattedLength(), buffer.position());
+        Assert.assertEquals("date: 2015-03-14T15:09:26.535",
+                            new String(buffer.array(), 0, buffer.position(), Charset.forName("US-ASCII")));
+        AbsoluteDate parsed = codec.parse(buffer, 6, buffer.position());
+        Assert.assertEquals(date, parsed);
+        Assert.assertEquals(6 + codec.getFormattedLength(), buffer.position());
+
+        StringBuilder builder = new StringBuilder("date: ");
+        codec.format(date, builder);
+        Assert.assertEquals(date, codec.parse(builder, 6, builder.length()));
+    }
+
+    @Test
+    public void testInvalid() {
+        FixedFormatDateCodec codec = new FixedFormatDateCodec(utc, 3);
+        String[] invalid = new String[] {
+            "2005-12-31 23:59:59",
+            "2005-12-31T23:59",
+            "2005-13-01T00:00:00",
+            "2005-02-29T00:00:00",
+            "2005-366T00:00:00",
+            "2005-12-31T24:00:00",
+            "2005-12-31T23:60:00",
+            "2005-12-31T23:59:61",
+            "2005-12-31T23:59:59.",
+            "2005-12-31T23:59:59.1a",
+            "2005-12-31T23:59:59,1",
+            "20a5-12-31T23:59:59"
+        };
+        for (final String s : invalid) {
+            try {
+                codec.parse(s);
+                Assert.fail("an exception should have been thrown for " + s);
+            } catch (IllegalArgumentException iae) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooManyDigits() {
+        new FixedFormatDateCodec(utc, 15);
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        utc = TimeScalesFactory.getUTC();
+    }
+
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -235,6 +236,43 @@ public class UTCScaleTest {
 
     }
 
+    @Test
+    public void testRandomOrder() {
+
+        // generate reference offsets scanning dates chronologically
+        AbsoluteDate reference = utc.getFirstKnownLeapSecond().shiftedBy(-Constants.JULIAN_YEAR);
+        int n = (int) (utc.getLastKnownLeapSecond().durationFrom(reference) / (3 * Constants.JULIAN_DAY)) + 200;
+        double[] offsets = new double[n];
+        for (int i = 0; i < n; ++i) {
+            offsets[i] = utc.offsetFromTAI(reference.shiftedBy(3 * i * Constants.JULIAN_DAY));
+        }
+
+        // check them in random order, jumping across leaps
+        RandomGenerator random = new Well1024a(0x7a3c9b54e1f0d286l);
+        for (int k = 0; k < 10000; ++k) {
+            int i = random.nextInt(n);
+            Assert.assertEquals(offsets[i],
+                                utc.offsetFromTAI(reference.shiftedBy(3 * i * Constants.JULIAN_DAY)),
+                                1.0e-15);
+        }
+
+    }
+
+    @Test
+    public void testLeapStart() {
+        AbsoluteDate leap2006 = new AbsoluteDate(new DateComponents(2006, 1, 1), TimeScalesFactory.getTAI()).shiftedBy(32.0);
+        AbsoluteDate leapLast = utc.getLastKnownLeapSecond();
+        for (final AbsoluteDate start : new AbsoluteDate[] { leap2006, leapLast }) {
+            Assert.assertFalse(utc.insideLeap(start.shiftedBy(-1.0e-3)));
+            Assert.assertTrue(utc.insideLeap(start));
+            Assert.assertTrue(utc.insideLeap(start.shiftedBy(0.999)));
+            Assert.assertFalse(utc.insideLeap(start.shiftedBy(1.0)));
+            Assert.assertEquals(1.0, utc.getLeap(start), 1.0e-15);
+            Assert.assertEquals(utc.offsetFromTAI(start.shiftedBy(1.0)), utc.offsetFromTAI(start), 1.0e-15);
+            Assert.assertEquals(utc.offsetFromTAI(start.shiftedBy(-1.0e-3)) - 1.0, utc.offsetFromTAI(start), 1.0e-15);
+        }
+    }
+
     @Test
     public void testIssue89() throws OrekitException {
         AbsoluteDate firstDayLastLeap = utc.getLastKnownLeapSecond().shiftedBy(10.0);
@@ -306,6 +344,30 @@ public class UTCScaleTest {
 
     }
 
+    @Test
+    public void testUpdate() throws OrekitException {
+        TimeScale tai = TimeScalesFactory.getTAI();
+        AbsoluteDate past   = new AbsoluteDate(1999, 3, 4, 5, 6, 7.0, tai);
+        AbsoluteDate future = new AbsoluteDate(2030, 6, 1, tai);
+        double pastOffset   = utc.offsetFromTAI(past);
+        double futureOffset = utc.offsetFromTAI(future);
+        Assert.assertTrue(utc.getLastKnownLeapSecond().compareTo(new AbsoluteDate(2030, 1, 1, tai)) < 0);
+
+        SortedMap<DateComponents, Integer> entries = new TreeMap<DateComponents, Integer>();
+        entries.put(new DateComponents(2030, 1, 1), (int) FastMath.rint(1 - futureOffset));
+        AbsoluteDate changed = TimeScalesFactory.updateUTC(entries);
+        Assert.assertEquals(new AbsoluteDate(2030, 1, 1, tai).shiftedBy(-futureOffset), changed);
+        Assert.assertEquals(AbsoluteDate.FUTURE_INFINITY, TimeScalesFactory.updateUTC(entries));
+
+        // the same instance now knows about the new leap second
+        Assert.assertSame(utc, TimeScalesFactory.getUTC());
+        Assert.assertEquals(changed, utc.getLastKnownLeapSecond());
+        Assert.assertTrue(utc.insideLeap(changed.shiftedBy(0.5)));
+        Assert.assertEquals(pastOffset, utc.offsetFromTAI(past), 0.0);
+        Assert.assertEquals(futureOffset - 1, utc.offsetFromTAI(future), 0.0);
+        Assert.assertEquals("2029-12-31T23:59:60.500", changed.shiftedBy(0.5).toString(utc));
+    }
+
     @Before
     public void setUp() throws OrekitException {
         Utils.setDataRoot("regular-data");
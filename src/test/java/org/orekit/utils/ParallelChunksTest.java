@@ -0,0 +1,173 @@
+/* Copyright 2002-2015 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitMessages;
+
+public class ParallelChunksTest {
+
+    @Test
+    public void testSequential() throws OrekitException {
+        checkAllChunks(null, 100);
+    }
+
+    @Test
+    public void testNoChunks() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            checkAllChunks(executor, 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPool() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 20; ++i) {
+                checkAllChunks(executor, 1000);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBusyExecutor() throws InterruptedException, ExecutionException {
+        // the only executor thread is the one waiting for the chunks
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Boolean result = executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws OrekitException {
+                    checkAllChunks(executor, 50);
+                    return true;
+                }
+            }).get();
+            Assert.assertTrue(result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOrekitException() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelChunks.process(executor, 100, new ParallelChunks.ChunkProcessor() {
+                public void process(final int index) throws OrekitException {
+                    if (index == 37) {
+                        throw new OrekitException(OrekitMessages.NOT_POSITIVE_SPACECRAFT_MASS, index);
+                    }
+                }
+            });
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NOT_POSITIVE_SPACECRAFT_MASS, oe.getSpecifier());
+            Assert.assertEquals(37, oe.getParts()[0]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWrappedException() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelChunks.process(executor, 100, new ParallelChunks.ChunkProcessor() {
+                public void process(final int index) {
+                    if (index == 58) {
+                        throw new OrekitExceptionWrapper(new OrekitException(OrekitMessages.NOT_POSITIVE_SPACECRAFT_MASS, index));
+                    }
+                }
+            });
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NOT_POSITIVE_SPACECRAFT_MASS, oe.getSpecifier());
+            Assert.assertEquals(58, oe.getParts()[0]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRuntimeException() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelChunks.process(executor, 100, new ParallelChunks.ChunkProcessor() {
+                public void process(final int index) {
+                    if (index == 12) {
+                        throw OrekitException.createIllegalArgumentException(LocalizedFormats.SIMPLE_MESSAGE, "boom");
+                    }
+                }
+            });
+            Assert.fail("an exception should have been thrown");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertTrue(iae.getMessage().contains("boom"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testError() throws OrekitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final int failing : new int[] { 0, 42, 99 }) {
+                try {
+                    ParallelChunks.process(executor, 100, new ParallelChunks.ChunkProcessor() {
+                        public void process(final int index) {
+                            if (index == failing) {
+                                throw new StackOverflowError("chunk " + index);
+                            }
+                        }
+                    });
+                    Assert.fail("an error should have been thrown");
+                } catch (StackOverflowError soe) {
+                    Assert.assertEquals("chunk " + failing, soe.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void checkAllChunks(final ExecutorService executor, final int nbChunks)
+        throws OrekitException {
+        final AtomicIntegerArray calls = new AtomicIntegerArray(nbChunks);
+        ParallelChunks.process(executor, nbChunks, new ParallelChunks.ChunkProcessor() {
+            public void process(final int index) {
+                calls.incrementAndGet(index);
+            }
+        });
+        for (int i = 0; i < nbChunks; ++i) {
+            Assert.assertEquals(1, calls.get(i));
+        }
+    }
+
+}